@@ -45,6 +45,13 @@ public abstract class AbstractInputData {
         return graph;
     }
 
+    /**
+     * @return Arc inspector associated with this input.
+     */
+    public ArcInspector getArcInspector() {
+        return arcInspector;
+    }
+
     /**
      * Retrieve the cost associated with the given arc according to the underlying
      * arc inspector.
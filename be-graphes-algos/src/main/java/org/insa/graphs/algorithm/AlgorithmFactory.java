@@ -7,10 +7,27 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 
+import org.insa.graphs.algorithm.distancematrix.BucketDistanceMatrixAlgorithm;
+import org.insa.graphs.algorithm.distancematrix.DijkstraDistanceMatrixAlgorithm;
+import org.insa.graphs.algorithm.distancematrix.DistanceMatrixAlgorithm;
+import org.insa.graphs.algorithm.isochrone.IsochroneAlgorithm;
+import org.insa.graphs.algorithm.kshortestpaths.KShortestPathsAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ALTAlgorithm;
 import org.insa.graphs.algorithm.shortestpath.AStarAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ArcFlagsAlgorithm;
 import org.insa.graphs.algorithm.shortestpath.BellmanFordAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.BidirectionalDijkstraAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.CRPAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.CachedShortestPathAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.CompactDijkstraAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ContractionHierarchyAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.DeltaSteppingAlgorithm;
 import org.insa.graphs.algorithm.shortestpath.DijkstraAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.HubLabelAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.PrimitiveDijkstraAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.RadixHeapDijkstraAlgorithm;
 import org.insa.graphs.algorithm.shortestpath.ShortestPathAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathCache;
 import org.insa.graphs.algorithm.weakconnectivity.WeaklyConnectedComponentsAlgorithm;
 
 /**
@@ -23,6 +40,9 @@ public class AlgorithmFactory {
     // Map between algorithm names and class.
     private final static Map<Class<? extends AbstractAlgorithm<?>>, Map<String, Class<? extends AbstractAlgorithm<?>>>> ALGORITHMS = new IdentityHashMap<>();
 
+    // Cache wrapping the created shortest-path algorithms, or null.
+    private static volatile ShortestPathCache shortestPathCache = null;
+
     static {
         // Register weakly-connected components algorithm:
         registerAlgorithm(WeaklyConnectedComponentsAlgorithm.class, "WCC basic",
@@ -32,6 +52,36 @@ public class AlgorithmFactory {
         registerAlgorithm(ShortestPathAlgorithm.class, "Bellman-Ford", BellmanFordAlgorithm.class);
         registerAlgorithm(ShortestPathAlgorithm.class, "Dijkstra", DijkstraAlgorithm.class);
         registerAlgorithm(ShortestPathAlgorithm.class, "A*", AStarAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Dijkstra (primitive arrays)",
+                PrimitiveDijkstraAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Dijkstra (radix heap)",
+                RadixHeapDijkstraAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Dijkstra (compact graph)",
+                CompactDijkstraAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Bidirectional Dijkstra",
+                BidirectionalDijkstraAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "A* (landmarks)", ALTAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Contraction hierarchies",
+                ContractionHierarchyAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Hub labels", HubLabelAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Dijkstra (arc flags)",
+                ArcFlagsAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Customizable route planning",
+                CRPAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Delta-stepping",
+                DeltaSteppingAlgorithm.class);
+
+        // Register distance matrix algorithms:
+        registerAlgorithm(DistanceMatrixAlgorithm.class, "Dijkstra",
+                DijkstraDistanceMatrixAlgorithm.class);
+        registerAlgorithm(DistanceMatrixAlgorithm.class, "Contraction hierarchies (buckets)",
+                BucketDistanceMatrixAlgorithm.class);
+
+        // Register isochrone algorithm:
+        registerAlgorithm(IsochroneAlgorithm.class, "Dijkstra", IsochroneAlgorithm.class);
+
+        // Register k-shortest paths algorithm:
+        registerAlgorithm(KShortestPathsAlgorithm.class, "Yen", KShortestPathsAlgorithm.class);
 
         // Register your algorithms here:
         // registerAlgorithm(CarPoolingAlgorithm.class, "My Awesome Algorithm",
@@ -64,6 +114,12 @@ public class AlgorithmFactory {
      * @param algorithm Class of the algorithm to create.
      * @param data      Input data for the algorithm.
      * 
+     * <p>
+     * If a cache has been set with {@link #setShortestPathCache}, shortest-path
+     * algorithms are wrapped in a {@link CachedShortestPathAlgorithm} using this
+     * cache.
+     * </p>
+     * 
      * @return A new instance of the given algorithm class using the given data.
      * 
      * @throws Exception if something wrong happens when constructing the object,
@@ -87,9 +143,33 @@ public class AlgorithmFactory {
                 break;
             }
         }
+        final ShortestPathCache cache = shortestPathCache;
+        if (cache != null && constructed instanceof ShortestPathAlgorithm) {
+            constructed = new CachedShortestPathAlgorithm((ShortestPathAlgorithm) constructed,
+                    cache);
+        }
         return constructed;
     }
 
+    /**
+     * Set the cache used by the shortest-path algorithms created by
+     * {@link #createAlgorithm}.
+     * 
+     * @param cache Cache of the shortest-path results, or null to disable
+     *              caching.
+     */
+    public static void setShortestPathCache(ShortestPathCache cache) {
+        shortestPathCache = cache;
+    }
+
+    /**
+     * @return The cache used by the shortest-path algorithms created by
+     *         {@link #createAlgorithm}, or null if there is none.
+     */
+    public static ShortestPathCache getShortestPathCache() {
+        return shortestPathCache;
+    }
+
     /**
      * Return the algorithm class corresponding to the given base algorithm class
      * and name. The algorithm must have been previously registered using
@@ -40,4 +40,17 @@ public interface ArcInspector {
      */
     public Mode getMode();
 
+    /**
+     * Key identifying the allowed arcs and their costs in caches of precomputed
+     * data (metrics, hierarchies, landmark tables, cached paths, ...). Two
+     * inspectors with the same key must allow the same arcs with the same costs,
+     * so the key must change whenever the costs do.
+     *
+     * @return Key of this inspector, or null (default) if precomputed data should
+     *         not be shared with any other inspector instance.
+     */
+    public default String getMetricKey() {
+        return null;
+    }
+
 }
\ No newline at end of file
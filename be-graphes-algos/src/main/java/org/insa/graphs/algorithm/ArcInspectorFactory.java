@@ -58,6 +58,11 @@ public class ArcInspectorFactory {
                 return Mode.LENGTH;
             }
 
+            @Override
+            public String getMetricKey() {
+                return FilterType.ALL_ROADS_AND_LENGTH.name();
+            }
+
             @Override
             public String toString() {
                 return "Shortest path, all roads allowed";
@@ -88,6 +93,11 @@ public class ArcInspectorFactory {
                 return Mode.LENGTH;
             }
 
+            @Override
+            public String getMetricKey() {
+                return FilterType.ONLY_CARS_AND_LENGTH.name();
+            }
+
             @Override
             public String toString() {
                 return "Shortest path, only roads open for cars";
@@ -116,6 +126,11 @@ public class ArcInspectorFactory {
                 return Mode.TIME;
             }
 
+            @Override
+            public String getMetricKey() {
+                return FilterType.ALL_ROADS_AND_TIME.name();
+            }
+
             @Override
             public String toString() {
                 return "Fastest path, all roads allowed";
@@ -146,6 +161,11 @@ public class ArcInspectorFactory {
                 return Mode.TIME;
             }
 
+            @Override
+            public String getMetricKey() {
+                return FilterType.ONLY_CARS_AND_TIME.name();
+            }
+
             @Override
             public String toString() {
                 return "Fastest path, only roads open for cars";
@@ -182,10 +202,16 @@ public class ArcInspectorFactory {
             public Mode getMode() {
                 return Mode.TIME;
             }
+
+            @Override
+            public String getMetricKey() {
+                return FilterType.PEDESTRIAN_AND_TIME.name();
+            }
         });
 
         // Add your own filters here (do not forget to implement toString()
-        // to get an understandable output!):
+        // to get an understandable output, and getMetricKey() with a new key so
+        // that precomputed data can be shared between instances!):
 
         return filters;
     }
@@ -0,0 +1,196 @@
+package org.insa.graphs.algorithm.distancematrix;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.shortestpath.CompactMetric;
+import org.insa.graphs.algorithm.shortestpath.ContractionHierarchy;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathWorkspace;
+import org.insa.graphs.algorithm.utils.PrimitiveBinaryHeap;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+
+/**
+ * <p>
+ * Many-to-many distance matrix on a {@link ContractionHierarchy}, using
+ * buckets:
+ * </p>
+ *
+ * <ol>
+ * <li>A backward upward search is run from each target, and each node v
+ * settled at cost c by the search of target j gets the entry (j, c) in its
+ * bucket.</li>
+ * <li>A forward upward search is run from each source, and each node settled
+ * at cost c updates the costs from the source to the targets of the entries of
+ * its bucket.</li>
+ * </ol>
+ *
+ * <p>
+ * Since any shortest path goes up then down the hierarchy, its cost is found at
+ * its node of highest rank. The searches are limited to the upward edges, so
+ * they are much smaller than the searches of
+ * {@link DijkstraDistanceMatrixAlgorithm}, and no search is run on the whole
+ * graph.
+ * </p>
+ *
+ */
+public class BucketDistanceMatrixAlgorithm extends DistanceMatrixAlgorithm {
+
+    // Hierarchy, or null to use the cached hierarchy of the metric.
+    private final ContractionHierarchy hierarchy;
+
+    /**
+     * Create a new algorithm that uses the cached hierarchy of the metric of the
+     * input data (computed if it is not in the cache).
+     *
+     * @param data Input data for the algorithm.
+     *
+     * @see ContractionHierarchy#getHierarchy(CompactMetric)
+     */
+    public BucketDistanceMatrixAlgorithm(DistanceMatrixData data) {
+        this(data, null);
+    }
+
+    /**
+     * Create a new algorithm that uses the given hierarchy.
+     *
+     * @param data Input data for the algorithm.
+     * @param hierarchy Hierarchy to use, or null to use the cached hierarchy.
+     *
+     * @throws IllegalArgumentException if the hierarchy does not correspond to the
+     *         graph and inspector of the input data.
+     */
+    public BucketDistanceMatrixAlgorithm(DistanceMatrixData data,
+            ContractionHierarchy hierarchy) {
+        super(data);
+        if (hierarchy != null && hierarchy.getMetric() != CompactMetric
+                .getMetric(data.getGraph(), data.getArcInspector())) {
+            throw new IllegalArgumentException("Hierarchy does not match the data.");
+        }
+        this.hierarchy = hierarchy;
+    }
+
+    @Override
+    protected DistanceMatrixSolution doRun() {
+        final ShortestPathWorkspace ws = ShortestPathWorkspace
+                .acquire(getInputData().getGraph());
+        try {
+            return computeCosts(ws);
+        }
+        finally {
+            ShortestPathWorkspace.release(ws);
+        }
+    }
+
+    /**
+     * Run the searches with the given workspace.
+     */
+    private DistanceMatrixSolution computeCosts(ShortestPathWorkspace ws) {
+        final DistanceMatrixData data = getInputData();
+        final Graph graph = data.getGraph();
+        final ContractionHierarchy ch = this.hierarchy != null ? this.hierarchy
+                : ContractionHierarchy.getHierarchy(
+                        CompactMetric.getMetric(graph, data.getArcInspector()));
+        final List<Node> sources = data.getSources(), targets = data.getTargets();
+        final int nbNodes = graph.size();
+
+        // Backward searches, the entries are first stored in search order.
+        int nbEntries = 0;
+        int[] entryNodes = new int[Math.max(16, targets.size())];
+        int[] entryTargets = new int[entryNodes.length];
+        double[] entryCosts = new double[entryNodes.length];
+        int[] settled = new int[nbNodes];
+        for (int j = 0; j < targets.size(); ++j) {
+            final int nbSettled = search(ch, targets.get(j).getId(), false, ws, settled);
+            if (nbEntries + nbSettled > entryNodes.length) {
+                final int capacity = Math.max(nbEntries + nbSettled, 2 * entryNodes.length);
+                entryNodes = Arrays.copyOf(entryNodes, capacity);
+                entryTargets = Arrays.copyOf(entryTargets, capacity);
+                entryCosts = Arrays.copyOf(entryCosts, capacity);
+            }
+            for (int k = 0; k < nbSettled; ++k) {
+                entryNodes[nbEntries] = settled[k];
+                entryTargets[nbEntries] = j;
+                entryCosts[nbEntries] = ws.getCost(settled[k]);
+                nbEntries++;
+            }
+        }
+
+        // Buckets: the entries grouped by node.
+        final int[] firstEntries = new int[nbNodes + 1];
+        for (int k = 0; k < nbEntries; ++k) {
+            firstEntries[entryNodes[k] + 1]++;
+        }
+        for (int node = 0; node < nbNodes; ++node) {
+            firstEntries[node + 1] += firstEntries[node];
+        }
+        final int[] bucketTargets = new int[nbEntries];
+        final double[] bucketCosts = new double[nbEntries];
+        final int[] next = Arrays.copyOf(firstEntries, nbNodes);
+        for (int k = 0; k < nbEntries; ++k) {
+            final int position = next[entryNodes[k]]++;
+            bucketTargets[position] = entryTargets[k];
+            bucketCosts[position] = entryCosts[k];
+        }
+
+        // Forward searches, scanning the buckets of the settled nodes.
+        final double[][] costs = new double[sources.size()][];
+        for (int i = 0; i < sources.size(); ++i) {
+            final int nbSettled = search(ch, sources.get(i).getId(), true, ws, settled);
+            double[] row = new double[targets.size()];
+            Arrays.fill(row, Double.POSITIVE_INFINITY);
+            for (int k = 0; k < nbSettled; ++k) {
+                final int node = settled[k];
+                final double cost = ws.getCost(node);
+                for (int e = firstEntries[node]; e < firstEntries[node + 1]; ++e) {
+                    final double newCost = cost + bucketCosts[e];
+                    if (newCost < row[bucketTargets[e]]) {
+                        row[bucketTargets[e]] = newCost;
+                    }
+                }
+            }
+            costs[i] = row;
+            notifyRowComputed(i, sources.get(i), row);
+        }
+
+        return new DistanceMatrixSolution(data, Status.OPTIMAL, costs);
+    }
+
+    /**
+     * Run a complete upward search (forward or backward) from the given node.
+     *
+     * @return Number of settled nodes, stored in the given array. The costs of the
+     *         settled nodes are in the workspace.
+     */
+    private int search(ContractionHierarchy ch, int origin, boolean forward,
+            ShortestPathWorkspace ws, int[] settled) {
+        ws.reset();
+        final PrimitiveBinaryHeap heap = ws.getHeap();
+        ws.setCost(origin, 0, -1);
+        heap.insert(origin, 0);
+        int nbSettled = 0;
+        while (!heap.isEmpty()) {
+            final int current = heap.deleteMin();
+            ws.mark(current);
+            settled[nbSettled++] = current;
+            countSettledNode();
+
+            final double currentCost = ws.getCost(current);
+            final int first = forward ? ch.getFirstUpward(current) : ch.getFirstDownward(current);
+            final int last = forward ? ch.getFirstUpward(current + 1)
+                    : ch.getFirstDownward(current + 1);
+            for (int index = first; index < last; ++index) {
+                final int edge = forward ? ch.getUpwardEdge(index) : ch.getDownwardEdge(index);
+                final int next = forward ? ch.getEdgeHead(edge) : ch.getEdgeTail(edge);
+                final double newCost = currentCost + ch.getEdgeCost(edge);
+                if (newCost < ws.getCost(next)) {
+                    ws.setCost(next, newCost, edge);
+                    heap.insertOrUpdate(next, newCost);
+                }
+            }
+        }
+        return nbSettled;
+    }
+
+}
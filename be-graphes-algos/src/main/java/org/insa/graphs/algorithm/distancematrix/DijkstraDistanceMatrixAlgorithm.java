@@ -0,0 +1,150 @@
+package org.insa.graphs.algorithm.distancematrix;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.shortestpath.CompactMetric;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathWorkspace;
+import org.insa.graphs.algorithm.utils.PrimitiveBinaryHeap;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+
+/**
+ * <p>
+ * Distance matrix computed with one search per source: Dijkstra's algorithm on
+ * the {@link CompactGraph} of the input graph, stopped as soon as all the
+ * targets have been marked (or the reachable part of the graph has been
+ * explored).
+ * </p>
+ *
+ * <p>
+ * The same {@link ShortestPathWorkspace} is used for all the sources, so the
+ * cost of a row only depends on the size of its search space.
+ * </p>
+ *
+ */
+public class DijkstraDistanceMatrixAlgorithm extends DistanceMatrixAlgorithm {
+
+    // Workspace for the searches, or null to take one from the pool of the graph
+    // for each run.
+    private final ShortestPathWorkspace workspace;
+
+    /**
+     * Create a new algorithm that takes a workspace from the pool of the graph
+     * for each run.
+     *
+     * @param data Input data for the algorithm.
+     *
+     * @see ShortestPathWorkspace#acquire(Graph)
+     */
+    public DijkstraDistanceMatrixAlgorithm(DistanceMatrixData data) {
+        super(data);
+        this.workspace = null;
+    }
+
+    /**
+     * Create a new algorithm that uses the given workspace.
+     *
+     * @param data Input data for the algorithm.
+     * @param workspace Workspace to use, must have been created for the graph of
+     *        the input data.
+     *
+     * @throws IllegalArgumentException if the workspace does not correspond to the
+     *         graph of the input data.
+     */
+    public DijkstraDistanceMatrixAlgorithm(DistanceMatrixData data,
+            ShortestPathWorkspace workspace) {
+        super(data);
+        if (workspace.getGraph() != data.getGraph()) {
+            throw new IllegalArgumentException("Workspace does not match the graph of the data.");
+        }
+        this.workspace = workspace;
+    }
+
+    @Override
+    protected DistanceMatrixSolution doRun() {
+        final ShortestPathWorkspace ws = this.workspace != null ? this.workspace
+                : ShortestPathWorkspace.acquire(getInputData().getGraph());
+        try {
+            return computeCosts(ws);
+        }
+        finally {
+            if (this.workspace == null) {
+                ShortestPathWorkspace.release(ws);
+            }
+        }
+    }
+
+    /**
+     * Run the searches with the given workspace.
+     */
+    private DistanceMatrixSolution computeCosts(ShortestPathWorkspace ws) {
+        final DistanceMatrixData data = getInputData();
+        final Graph graph = data.getGraph();
+        final CompactMetric metric = CompactMetric.getMetric(graph, data.getArcInspector());
+        final CompactGraph compact = metric.getGraph();
+        final List<Node> sources = data.getSources(), targets = data.getTargets();
+
+        // Distinct targets, counted down during each search.
+        final boolean[] isTarget = new boolean[graph.size()];
+        int nbDistinctTargets = 0;
+        for (Node target: targets) {
+            if (!isTarget[target.getId()]) {
+                isTarget[target.getId()] = true;
+                nbDistinctTargets++;
+            }
+        }
+
+        final PrimitiveBinaryHeap heap = ws.getHeap();
+        final double[][] costs = new double[sources.size()][];
+        for (int i = 0; i < sources.size(); ++i) {
+            ws.reset();
+            final int source = sources.get(i).getId();
+            ws.setCost(source, 0, -1);
+            heap.insert(source, 0);
+
+            int nbRemaining = nbDistinctTargets;
+            while (!heap.isEmpty() && nbRemaining > 0) {
+                final int current = heap.deleteMin();
+                ws.mark(current);
+                countSettledNode();
+                if (isTarget[current]) {
+                    nbRemaining--;
+                }
+
+                final double currentCost = ws.getCost(current);
+                final int lastArc = compact.getFirstArc(current + 1);
+                for (int arc = compact.getFirstArc(current); arc < lastArc; ++arc) {
+                    final int next = compact.getArcHead(arc);
+                    if (ws.isMarked(next)) {
+                        continue;
+                    }
+
+                    // Arcs that are not allowed have an infinite cost.
+                    final double newCost = currentCost + metric.getCost(arc);
+                    if (newCost < ws.getCost(next)) {
+                        ws.setCost(next, newCost, arc);
+                        heap.insertOrUpdate(next, newCost);
+                    }
+                }
+            }
+
+            // All the reachable targets are marked at this point.
+            double[] row = new double[targets.size()];
+            Arrays.fill(row, Double.POSITIVE_INFINITY);
+            for (int j = 0; j < targets.size(); ++j) {
+                final int target = targets.get(j).getId();
+                if (ws.isMarked(target)) {
+                    row[j] = ws.getCost(target);
+                }
+            }
+            costs[i] = row;
+            notifyRowComputed(i, sources.get(i), row);
+        }
+
+        return new DistanceMatrixSolution(data, Status.OPTIMAL, costs);
+    }
+
+}
@@ -0,0 +1,69 @@
+package org.insa.graphs.algorithm.distancematrix;
+
+import org.insa.graphs.algorithm.AbstractAlgorithm;
+import org.insa.graphs.model.Node;
+
+public abstract class DistanceMatrixAlgorithm extends AbstractAlgorithm<DistanceMatrixObserver> {
+
+    /**
+     * Number of nodes settled by the searches between two progress notifications.
+     */
+    public static final int PROGRESS_INTERVAL = 1024;
+
+    // Number of nodes settled since the last progress notification.
+    private int nbSettledNodes = 0;
+
+    protected DistanceMatrixAlgorithm(DistanceMatrixData data) {
+        super(data);
+    }
+
+    @Override
+    public DistanceMatrixSolution run() {
+        return (DistanceMatrixSolution) super.run();
+    }
+
+    @Override
+    protected abstract DistanceMatrixSolution doRun();
+
+    @Override
+    public DistanceMatrixData getInputData() {
+        return (DistanceMatrixData) super.getInputData();
+    }
+
+    /**
+     * Notify all observers that the row of a source has been computed.
+     * 
+     * @param index Index of the source.
+     * @param source Source of the row.
+     * @param costs Costs of the row, by target.
+     */
+    public void notifyRowComputed(int index, Node source, double[] costs) {
+        for (DistanceMatrixObserver obs: getObservers()) {
+            obs.notifyRowComputed(index, source, costs);
+        }
+    }
+
+    /**
+     * Count a node settled by a search, and notify the observers of the progress
+     * of the searches every {@link #PROGRESS_INTERVAL} nodes.
+     */
+    protected final void countSettledNode() {
+        if (++this.nbSettledNodes == PROGRESS_INTERVAL) {
+            this.nbSettledNodes = 0;
+            notifyProgress(PROGRESS_INTERVAL);
+        }
+    }
+
+    /**
+     * Notify all observers that the searches have settled the given number of
+     * nodes since the last notification.
+     * 
+     * @param nbNodes Number of nodes settled since the last notification.
+     */
+    public void notifyProgress(int nbNodes) {
+        for (DistanceMatrixObserver obs: getObservers()) {
+            obs.notifyProgress(nbNodes);
+        }
+    }
+
+}
@@ -0,0 +1,52 @@
+package org.insa.graphs.algorithm.distancematrix;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.insa.graphs.algorithm.AbstractInputData;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+
+public class DistanceMatrixData extends AbstractInputData {
+
+    // Sources (rows) and targets (columns) of the matrix.
+    private final List<Node> sources, targets;
+
+    /**
+     * Construct a new instance of DistanceMatrixData with the given parameters.
+     * 
+     * @param graph Graph in which the costs should be computed.
+     * @param sources Sources of the matrix, one row per source.
+     * @param targets Targets of the matrix, one column per target.
+     * @param arcInspector Filter for arcs (used to allow only a specific set of
+     *        arcs in the graph to be used).
+     */
+    public DistanceMatrixData(Graph graph, List<Node> sources, List<Node> targets,
+            ArcInspector arcInspector) {
+        super(graph, arcInspector);
+        this.sources = Collections.unmodifiableList(new ArrayList<>(sources));
+        this.targets = Collections.unmodifiableList(new ArrayList<>(targets));
+    }
+
+    /**
+     * @return Sources of the matrix (unmodifiable).
+     */
+    public List<Node> getSources() {
+        return sources;
+    }
+
+    /**
+     * @return Targets of the matrix (unmodifiable).
+     */
+    public List<Node> getTargets() {
+        return targets;
+    }
+
+    @Override
+    public String toString() {
+        return "Distance matrix from " + sources.size() + " sources to " + targets.size()
+                + " targets [" + this.arcInspector.toString().toLowerCase() + "]";
+    }
+}
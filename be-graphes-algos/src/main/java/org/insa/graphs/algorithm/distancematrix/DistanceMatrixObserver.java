@@ -0,0 +1,26 @@
+package org.insa.graphs.algorithm.distancematrix;
+
+import org.insa.graphs.model.Node;
+
+public interface DistanceMatrixObserver {
+
+    /**
+     * Notify that the row of a source has been computed.
+     * 
+     * @param index Index of the source.
+     * @param source Source of the row.
+     * @param costs Costs of the row, by target.
+     */
+    public void notifyRowComputed(int index, Node source, double[] costs);
+
+    /**
+     * Notify that the searches of the algorithm have settled the given number of
+     * nodes since the last notification. This is called periodically from within
+     * the searches (every {@link DistanceMatrixAlgorithm#PROGRESS_INTERVAL} nodes),
+     * so that long rows can be followed and aborted.
+     * 
+     * @param nbNodes Number of nodes settled since the last notification.
+     */
+    public void notifyProgress(int nbNodes);
+
+}
@@ -0,0 +1,76 @@
+package org.insa.graphs.algorithm.distancematrix;
+
+import org.insa.graphs.algorithm.AbstractSolution;
+
+public class DistanceMatrixSolution extends AbstractSolution {
+
+    // Costs, by source then target.
+    private final double[][] costs;
+
+    /**
+     * Create a new distance matrix solution without costs for the given input and
+     * status.
+     * 
+     * @param data Original input data for this solution.
+     * @param status Status of the solution (UNKNOWN / INFEASIBLE).
+     */
+    public DistanceMatrixSolution(DistanceMatrixData data, Status status) {
+        super(data, status);
+        this.costs = null;
+    }
+
+    /**
+     * Create a new distance matrix solution.
+     * 
+     * @param data Original input data for this solution.
+     * @param status Status of the solution (FEASIBLE / OPTIMAL).
+     * @param costs Costs of the solution, by source then target (infinite if the
+     *        target cannot be reached from the source).
+     */
+    public DistanceMatrixSolution(DistanceMatrixData data, Status status, double[][] costs) {
+        super(data, status);
+        this.costs = costs;
+    }
+
+    @Override
+    public DistanceMatrixData getInputData() {
+        return (DistanceMatrixData) super.getInputData();
+    }
+
+    /**
+     * @return Costs of this solution, by source then target, if any.
+     */
+    public double[][] getCosts() {
+        return costs;
+    }
+
+    /**
+     * @param source Index of the source.
+     * @param target Index of the target.
+     * 
+     * @return Cost from the given source to the given target, infinite if the
+     *         target cannot be reached from the source.
+     */
+    public double getCost(int source, int target) {
+        return costs[source][target];
+    }
+
+    @Override
+    public String toString() {
+        if (!isFeasible()) {
+            return "No distance matrix computed.";
+        }
+        int nUnreachable = 0;
+        for (double[] row: costs) {
+            for (double cost: row) {
+                if (Double.isInfinite(cost)) {
+                    nUnreachable += 1;
+                }
+            }
+        }
+        return "Computed a " + getInputData().getSources().size() + "x"
+                + getInputData().getTargets().size() + " distance matrix (" + nUnreachable
+                + " unreachable pairs) in " + getSolvingTime().getSeconds() + " seconds.";
+    }
+
+}
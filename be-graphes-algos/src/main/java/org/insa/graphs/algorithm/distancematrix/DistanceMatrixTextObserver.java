@@ -0,0 +1,31 @@
+package org.insa.graphs.algorithm.distancematrix;
+
+import java.io.PrintStream;
+
+import org.insa.graphs.model.Node;
+
+public class DistanceMatrixTextObserver implements DistanceMatrixObserver {
+
+    private final PrintStream stream;
+
+    public DistanceMatrixTextObserver(PrintStream stream) {
+        this.stream = stream;
+    }
+
+    @Override
+    public void notifyRowComputed(int index, Node source, double[] costs) {
+        int nReached = 0;
+        for (double cost: costs) {
+            if (!Double.isInfinite(cost)) {
+                nReached += 1;
+            }
+        }
+        stream.println("Row #" + index + " (node #" + source.getId() + ") computed, " + nReached
+                + "/" + costs.length + " targets reached.");
+    }
+
+    @Override
+    public void notifyProgress(int nbNodes) {
+    }
+
+}
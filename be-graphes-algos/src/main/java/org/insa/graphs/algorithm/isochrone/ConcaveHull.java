@@ -0,0 +1,360 @@
+package org.insa.graphs.algorithm.isochrone;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.IntPredicate;
+
+import org.insa.graphs.model.Point;
+
+/**
+ * <p>
+ * Concave hull of a set of points, computed by "digging" into the edges of its
+ * convex hull (Park and Oh, 2012).
+ * </p>
+ *
+ * <p>
+ * The edges of the hull are processed from the longest to the shortest. For an
+ * edge (a, b), the inner point p nearest to the edge (and not nearer to one of
+ * the two neighbouring edges) is inserted between a and b if the length of the
+ * edge divided by the distance from p to the nearest of a and b is greater than
+ * the concavity. A point is only inserted if the triangle (a, p, b) contains no
+ * other inner point (including on the edge) and if the new edges do not cross the hull, so the hull
+ * stays a simple polygon containing all the points.
+ * </p>
+ *
+ * <p>
+ * The points are projected on a plane (equirectangular projection around their
+ * mean latitude), and the inner points are stored in a uniform grid: since
+ * only points closer than length / concavity to an end of the edge are
+ * candidates, each edge only looks at a few cells.
+ * </p>
+ *
+ */
+final class ConcaveHull {
+
+    // Projected coordinates and original points (without duplicates).
+    private final double[] xs, ys;
+    private final Point[] points;
+
+    // Next and previous point on the hull of each point (-1 for inner points).
+    private final int[] next, previous;
+
+    // Grid of the points: origin, size of the cells, number of cells, and CSR
+    // arrays of the points in each cell.
+    private final double gridX, gridY, cellSize;
+    private final int nbColumns, nbRows;
+    private final int[] firstInCell, pointsInCell;
+
+    /**
+     * Compute the concave hull of the given points.
+     *
+     * @param points Points of the hull.
+     * @param concavity Concavity of the hull (lower values give tighter hulls).
+     *
+     * @return Points of the hull in counter-clockwise order, without repeating the
+     *         first one. If all the points are aligned, the (at most 2) extreme
+     *         points are returned.
+     */
+    static List<Point> compute(Collection<Point> points, double concavity) {
+        if (points.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return new ConcaveHull(points).dig(concavity);
+    }
+
+    private ConcaveHull(Collection<Point> input) {
+        double meanLatitude = 0;
+        for (Point point: input) {
+            meanLatitude += point.getLatitude();
+        }
+        final double scale = Math.cos(Math.toRadians(meanLatitude / input.size()));
+
+        // Sort the points by coordinates and remove duplicates.
+        Point[] sorted = input.toArray(new Point[input.size()]);
+        Arrays.sort(sorted, Comparator.comparingDouble((Point p) -> p.getLongitude())
+                .thenComparingDouble(p -> p.getLatitude()));
+        int nbPoints = 0;
+        for (Point point: sorted) {
+            if (nbPoints == 0 || point.getLongitude() != sorted[nbPoints - 1].getLongitude()
+                    || point.getLatitude() != sorted[nbPoints - 1].getLatitude()) {
+                sorted[nbPoints++] = point;
+            }
+        }
+        this.points = Arrays.copyOf(sorted, nbPoints);
+        this.xs = new double[nbPoints];
+        this.ys = new double[nbPoints];
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < nbPoints; ++i) {
+            this.xs[i] = this.points[i].getLongitude() * scale;
+            this.ys[i] = this.points[i].getLatitude();
+            minX = Math.min(minX, this.xs[i]);
+            minY = Math.min(minY, this.ys[i]);
+            maxX = Math.max(maxX, this.xs[i]);
+            maxY = Math.max(maxY, this.ys[i]);
+        }
+        this.next = new int[nbPoints];
+        this.previous = new int[nbPoints];
+        Arrays.fill(this.next, -1);
+        Arrays.fill(this.previous, -1);
+
+        // Grid with about one point per cell.
+        final int nbCellsBySide = Math.max(1, (int) Math.ceil(Math.sqrt(nbPoints)));
+        final double size = Math.max(maxX - minX, maxY - minY) / nbCellsBySide;
+        this.gridX = minX;
+        this.gridY = minY;
+        this.cellSize = size > 0 ? size : 1;
+        this.nbColumns = getCell(maxX, this.gridX) + 1;
+        this.nbRows = getCell(maxY, this.gridY) + 1;
+        this.firstInCell = new int[this.nbColumns * this.nbRows + 1];
+        this.pointsInCell = new int[nbPoints];
+        int[] cells = new int[nbPoints];
+        for (int i = 0; i < nbPoints; ++i) {
+            cells[i] = getCell(this.ys[i], this.gridY) * this.nbColumns
+                    + getCell(this.xs[i], this.gridX);
+            this.firstInCell[cells[i] + 1]++;
+        }
+        for (int cell = 0; cell < this.nbColumns * this.nbRows; ++cell) {
+            this.firstInCell[cell + 1] += this.firstInCell[cell];
+        }
+        int[] nextInCell = Arrays.copyOf(this.firstInCell, this.firstInCell.length - 1);
+        for (int i = 0; i < nbPoints; ++i) {
+            this.pointsInCell[nextInCell[cells[i]]++] = i;
+        }
+    }
+
+    private int getCell(double coordinate, double origin) {
+        return (int) ((coordinate - origin) / this.cellSize);
+    }
+
+    private double distance(int i, int j) {
+        return Math.hypot(this.xs[i] - this.xs[j], this.ys[i] - this.ys[j]);
+    }
+
+    /**
+     * @return Distance from point p to the segment [a, b].
+     */
+    private double segmentDistance(int p, int a, int b) {
+        final double dx = this.xs[b] - this.xs[a], dy = this.ys[b] - this.ys[a];
+        final double length2 = dx * dx + dy * dy;
+        double t = 0;
+        if (length2 > 0) {
+            t = ((this.xs[p] - this.xs[a]) * dx + (this.ys[p] - this.ys[a]) * dy) / length2;
+            t = Math.max(0, Math.min(1, t));
+        }
+        return Math.hypot(this.xs[a] + t * dx - this.xs[p], this.ys[a] + t * dy - this.ys[p]);
+    }
+
+    /**
+     * @return true if the projection of point p on the line (a, b) is strictly
+     *         between a and b.
+     */
+    private boolean isBetween(int p, int a, int b) {
+        final double dx = this.xs[b] - this.xs[a], dy = this.ys[b] - this.ys[a];
+        final double dot = (this.xs[p] - this.xs[a]) * dx + (this.ys[p] - this.ys[a]) * dy;
+        return dot > 0 && dot < dx * dx + dy * dy;
+    }
+
+    /**
+     * @return Twice the signed area of the triangle (a, b, c), positive if the
+     *         triangle is counter-clockwise.
+     */
+    private double cross(int a, int b, int c) {
+        return (this.xs[b] - this.xs[a]) * (this.ys[c] - this.ys[a])
+                - (this.ys[b] - this.ys[a]) * (this.xs[c] - this.xs[a]);
+    }
+
+    /**
+     * @return true if the segments [a, b] and [c, d] cross (not counting shared
+     *         ends).
+     */
+    private boolean crosses(int a, int b, int c, int d) {
+        if (a == c || a == d || b == c || b == d) {
+            return false;
+        }
+        final double d1 = cross(c, d, a), d2 = cross(c, d, b);
+        final double d3 = cross(a, b, c), d4 = cross(a, b, d);
+        return ((d1 > 0 && d2 < 0) || (d1 < 0 && d2 > 0))
+                && ((d3 > 0 && d4 < 0) || (d3 < 0 && d4 > 0));
+    }
+
+    /**
+     * Compute the convex hull (monotone chain) and link its points.
+     *
+     * @return A point of the hull, or -1 if all the points are aligned.
+     */
+    private int convexHull() {
+        final int nbPoints = this.points.length;
+        int[] hull = new int[2 * nbPoints];
+        int size = 0;
+        for (int i = 0; i < nbPoints; ++i) {
+            while (size >= 2 && cross(hull[size - 2], hull[size - 1], i) <= 0) {
+                size--;
+            }
+            hull[size++] = i;
+        }
+        final int lower = size + 1;
+        for (int i = nbPoints - 2; i >= 0; --i) {
+            while (size >= lower && cross(hull[size - 2], hull[size - 1], i) <= 0) {
+                size--;
+            }
+            hull[size++] = i;
+        }
+        size--;
+        if (size < 3) {
+            return -1;
+        }
+        for (int i = 0; i < size; ++i) {
+            this.next[hull[i]] = hull[(i + 1) % size];
+            this.previous[hull[(i + 1) % size]] = hull[i];
+        }
+        return hull[0];
+    }
+
+    private List<Point> dig(double concavity) {
+        final int start = convexHull();
+        if (start == -1) {
+            List<Point> extremes = new ArrayList<>();
+            extremes.add(this.points[0]);
+            if (this.points.length > 1) {
+                extremes.add(this.points[this.points.length - 1]);
+            }
+            return extremes;
+        }
+
+        // Edges are identified by their first point, an edge is outdated if the
+        // next point of its first point has changed.
+        PriorityQueue<int[]> edges = new PriorityQueue<>(
+                Comparator.comparingDouble((int[] edge) -> -distance(edge[0], edge[1])));
+        int current = start;
+        do {
+            edges.add(new int[] { current, this.next[current] });
+            current = this.next[current];
+        } while (current != start);
+
+        while (!edges.isEmpty()) {
+            int[] edge = edges.poll();
+            final int a = edge[0], b = edge[1];
+            if (this.next[a] != b) {
+                continue;
+            }
+            final double radius = distance(a, b) / concavity;
+            final int point = findCandidate(a, b, radius);
+            if (point == -1 || !isEmptyTriangle(a, point, b, radius) || crossesHull(a, point, b)) {
+                continue;
+            }
+            this.next[a] = point;
+            this.previous[point] = a;
+            this.next[point] = b;
+            this.previous[b] = point;
+            edges.add(new int[] { a, point });
+            edges.add(new int[] { point, b });
+        }
+
+        List<Point> hull = new ArrayList<>();
+        current = start;
+        do {
+            hull.add(this.points[current]);
+            current = this.next[current];
+        } while (current != start);
+        return hull;
+    }
+
+    /**
+     * Call the given action on each inner point of the cells around a and b
+     * (within the given radius).
+     */
+    private void forEachInnerPoint(int a, int b, double radius,
+            IntPredicate action) {
+        final int fromColumn = Math.max(0,
+                getCell(Math.min(this.xs[a], this.xs[b]) - radius, this.gridX));
+        final int toColumn = Math.min(this.nbColumns - 1,
+                getCell(Math.max(this.xs[a], this.xs[b]) + radius, this.gridX));
+        final int fromRow = Math.max(0,
+                getCell(Math.min(this.ys[a], this.ys[b]) - radius, this.gridY));
+        final int toRow = Math.min(this.nbRows - 1,
+                getCell(Math.max(this.ys[a], this.ys[b]) + radius, this.gridY));
+        for (int row = fromRow; row <= toRow; ++row) {
+            for (int column = fromColumn; column <= toColumn; ++column) {
+                final int cell = row * this.nbColumns + column;
+                for (int i = this.firstInCell[cell]; i < this.firstInCell[cell + 1]; ++i) {
+                    final int point = this.pointsInCell[i];
+                    if (this.next[point] == -1 && !action.test(point)) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The inner point to insert between a and b, or -1 if there is none.
+     */
+    private int findCandidate(int a, int b, double radius) {
+        final int before = this.previous[a], after = this.next[b];
+        final int[] best = { -1 };
+        final double[] bestDistance = { Double.POSITIVE_INFINITY };
+        forEachInnerPoint(a, b, radius, point -> {
+            if (Math.min(distance(a, point), distance(b, point)) >= radius) {
+                return true;
+            }
+            // Only points inside the hull, or on the edge itself.
+            final double distance = segmentDistance(point, a, b);
+            final double side = cross(a, b, point);
+            if (side < 0 || (side == 0 && !isBetween(point, a, b))) {
+                return true;
+            }
+            if (distance < bestDistance[0] && distance <= segmentDistance(point, before, a)
+                    && distance <= segmentDistance(point, b, after)) {
+                best[0] = point;
+                bestDistance[0] = distance;
+            }
+            return true;
+        });
+        return best[0];
+    }
+
+    /**
+     * @return true if no inner point other than p is inside the triangle (a, p,
+     *         b) or on the segment [a, b].
+     */
+    private boolean isEmptyTriangle(int a, int p, int b, double radius) {
+        if (cross(a, b, p) == 0) {
+            // Flat triangle, nothing is cut from the hull.
+            return true;
+        }
+        final boolean[] empty = { true };
+        forEachInnerPoint(a, b, radius, point -> {
+            if (point == p) {
+                return true;
+            }
+            final double side = cross(b, a, point);
+            if ((side < 0 && cross(a, p, point) < 0 && cross(p, b, point) < 0)
+                    || (side == 0 && isBetween(point, a, b))) {
+                empty[0] = false;
+            }
+            return empty[0];
+        });
+        return empty[0];
+    }
+
+    /**
+     * @return true if the segments [a, p] or [p, b] cross an edge of the hull.
+     */
+    private boolean crossesHull(int a, int p, int b) {
+        int current = a;
+        do {
+            final int following = this.next[current];
+            if (crosses(a, p, current, following) || crosses(p, b, current, following)) {
+                return true;
+            }
+            current = following;
+        } while (current != a);
+        return false;
+    }
+
+}
@@ -0,0 +1,84 @@
+package org.insa.graphs.algorithm.isochrone;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Point;
+
+/**
+ * <p>
+ * Area reachable from the origin of an {@link IsochroneData} within one of its
+ * budgets.
+ * </p>
+ *
+ * <p>
+ * The reachable arcs are the arcs that can be entirely traversed within the
+ * budget. An arc whose origin is reachable but that cannot be entirely
+ * traversed gives a boundary point, interpolated along the points of the arc
+ * where the budget runs out. The polygon is a concave hull of the points of the
+ * reachable arcs, of the reached part of the other arcs, and of the boundary
+ * points.
+ * </p>
+ *
+ */
+public class Isochrone {
+
+    // Budget of this isochrone.
+    private final double budget;
+
+    // Reachable arcs.
+    private final List<Arc> arcs;
+
+    // Boundary points, and points of the polygon.
+    private final List<Point> boundaryPoints, polygon;
+
+    /**
+     * Create a new isochrone.
+     *
+     * @param budget Budget of the isochrone.
+     * @param arcs Arcs that can be entirely traversed within the budget.
+     * @param boundaryPoints Points where the budget runs out on the other arcs.
+     * @param polygon Points of the polygon, in counter-clockwise order.
+     */
+    public Isochrone(double budget, List<Arc> arcs, List<Point> boundaryPoints,
+            List<Point> polygon) {
+        this.budget = budget;
+        this.arcs = Collections.unmodifiableList(arcs);
+        this.boundaryPoints = Collections.unmodifiableList(boundaryPoints);
+        this.polygon = Collections.unmodifiableList(polygon);
+    }
+
+    /**
+     * @return Budget of this isochrone.
+     */
+    public double getBudget() {
+        return budget;
+    }
+
+    /**
+     * @return Arcs that can be entirely traversed within the budget
+     *         (unmodifiable).
+     */
+    public List<Arc> getArcs() {
+        return arcs;
+    }
+
+    /**
+     * @return Points where the budget runs out on the arcs that cannot be
+     *         entirely traversed (unmodifiable).
+     */
+    public List<Point> getBoundaryPoints() {
+        return boundaryPoints;
+    }
+
+    /**
+     * @return Points of the polygon of this isochrone, in counter-clockwise order
+     *         without repeating the first point (unmodifiable). The polygon has
+     *         less than 3 points if all the reachable points are aligned.
+     */
+    public List<Point> getPolygon() {
+        return polygon;
+    }
+
+}
@@ -0,0 +1,218 @@
+package org.insa.graphs.algorithm.isochrone;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.insa.graphs.algorithm.AbstractAlgorithm;
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.utils.PrimitiveBinaryHeap;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+
+/**
+ * <p>
+ * Computation of the isochrones of an {@link IsochroneData}: a single Dijkstra's
+ * search from the origin, stopped when the cost of the next node exceeds the
+ * largest budget, gives the cost of every node reachable within any of the
+ * budgets. The arcs of the marked nodes are then split between the budgets: an
+ * arc is reachable within a budget if its origin cost plus its own cost is
+ * within the budget, and otherwise gives a boundary point interpolated along
+ * its points (the cost being assumed proportional to the distance along the
+ * arc).
+ * </p>
+ *
+ */
+public class IsochroneAlgorithm extends AbstractAlgorithm<IsochroneObserver> {
+
+    /**
+     * @param data Input data for this algorithm.
+     */
+    public IsochroneAlgorithm(IsochroneData data) {
+        super(data);
+    }
+
+    @Override
+    public IsochroneSolution run() {
+        return (IsochroneSolution) super.run();
+    }
+
+    @Override
+    public IsochroneData getInputData() {
+        return (IsochroneData) super.getInputData();
+    }
+
+    /**
+     * Notify all observers that the origin has been processed.
+     *
+     * @param node Origin.
+     */
+    public void notifyOriginProcessed(Node node) {
+        for (IsochroneObserver obs: getObservers()) {
+            obs.notifyOriginProcessed(node);
+        }
+    }
+
+    /**
+     * Notify all observers that a node has been marked.
+     *
+     * @param node Node that has been marked.
+     * @param cost Cost of the node.
+     */
+    public void notifyNodeMarked(Node node, double cost) {
+        for (IsochroneObserver obs: getObservers()) {
+            obs.notifyNodeMarked(node, cost);
+        }
+    }
+
+    /**
+     * Notify all observers that the isochrone of a budget has been computed.
+     *
+     * @param isochrone Isochrone of the budget.
+     */
+    public void notifyIsochroneComputed(Isochrone isochrone) {
+        for (IsochroneObserver obs: getObservers()) {
+            obs.notifyIsochroneComputed(isochrone);
+        }
+    }
+
+    @Override
+    protected IsochroneSolution doRun() {
+        final IsochroneData data = getInputData();
+        final Graph graph = data.getGraph();
+        final double maximumBudget = data.getMaximumBudget();
+
+        // Budget-bounded search: every node with a finite cost is marked.
+        double[] costs = new double[graph.size()];
+        Arrays.fill(costs, Double.POSITIVE_INFINITY);
+        PrimitiveBinaryHeap heap = new PrimitiveBinaryHeap(graph.size());
+        costs[data.getOrigin().getId()] = 0;
+        heap.insert(data.getOrigin().getId(), 0);
+        notifyOriginProcessed(data.getOrigin());
+        List<Node> marked = new ArrayList<>();
+        while (!heap.isEmpty()) {
+            final Node node = graph.get(heap.deleteMin());
+            marked.add(node);
+            notifyNodeMarked(node, costs[node.getId()]);
+            for (Arc arc: node.getSuccessors()) {
+                if (!data.isAllowed(arc)) {
+                    continue;
+                }
+                final int next = arc.getDestination().getId();
+                final double newCost = costs[node.getId()] + data.getCost(arc);
+                if (newCost <= maximumBudget && newCost < costs[next]) {
+                    costs[next] = newCost;
+                    heap.insertOrUpdate(next, newCost);
+                }
+            }
+        }
+
+        // Arcs, boundary points and points of the polygon of each budget.
+        final double[] budgets = data.getBudgets();
+        List<List<Arc>> arcs = new ArrayList<>();
+        List<List<Point>> boundaryPoints = new ArrayList<>(), points = new ArrayList<>();
+        for (int i = 0; i < budgets.length; ++i) {
+            arcs.add(new ArrayList<>());
+            boundaryPoints.add(new ArrayList<>());
+            points.add(new ArrayList<>());
+        }
+        for (Node node: marked) {
+            final double cost = costs[node.getId()];
+            for (int i = 0; i < budgets.length; ++i) {
+                if (cost <= budgets[i]) {
+                    points.get(i).add(node.getPoint());
+                }
+            }
+            for (Arc arc: node.getSuccessors()) {
+                if (!data.isAllowed(arc)) {
+                    continue;
+                }
+                final double arcCost = data.getCost(arc);
+                for (int i = 0; i < budgets.length; ++i) {
+                    if (cost > budgets[i]) {
+                        continue;
+                    }
+                    if (cost + arcCost <= budgets[i]) {
+                        arcs.get(i).add(arc);
+                        points.get(i).addAll(arc.getPoints());
+                    }
+                    else {
+                        Point boundary = interpolate(arc, (budgets[i] - cost) / arcCost,
+                                points.get(i));
+                        boundaryPoints.get(i).add(boundary);
+                        points.get(i).add(boundary);
+                    }
+                }
+            }
+        }
+
+        List<Isochrone> isochrones = new ArrayList<>();
+        for (int i = 0; i < budgets.length; ++i) {
+            Isochrone isochrone = new Isochrone(budgets[i], arcs.get(i), boundaryPoints.get(i),
+                    ConcaveHull.compute(points.get(i), data.getConcavity()));
+            isochrones.add(isochrone);
+            notifyIsochroneComputed(isochrone);
+        }
+        return new IsochroneSolution(data, Status.OPTIMAL, isochrones);
+    }
+
+    /**
+     * Approximate length of a segment, in degrees of latitude.
+     */
+    private static double length(Point p1, Point p2) {
+        final double dx = (p2.getLongitude() - p1.getLongitude())
+                * Math.cos(Math.toRadians(p1.getLatitude()));
+        return Math.hypot(dx, p2.getLatitude() - p1.getLatitude());
+    }
+
+    /**
+     * Find the point at the given fraction of the length of an arc.
+     *
+     * @param arc Arc to interpolate.
+     * @param fraction Fraction of the length of the arc, in [0, 1[.
+     * @param reached List where the points of the arc before the returned point
+     *        are added.
+     *
+     * @return The point at the given fraction of the arc.
+     */
+    private static Point interpolate(Arc arc, double fraction, List<Point> reached) {
+        List<Point> arcPoints = arc.getPoints();
+        if (arcPoints.size() < 2) {
+            arcPoints = Arrays.asList(arc.getOrigin().getPoint(),
+                    arc.getDestination().getPoint());
+        }
+        // The points of the arc may be decoded on demand, so they are only accessed
+        // through iterators, never by index.
+        double total = 0;
+        Iterator<Point> iterator = arcPoints.iterator();
+        Point from = iterator.next();
+        while (iterator.hasNext()) {
+            final Point to = iterator.next();
+            total += length(from, to);
+            from = to;
+        }
+        double remaining = fraction * total;
+        iterator = arcPoints.iterator();
+        from = iterator.next();
+        reached.add(from);
+        while (iterator.hasNext()) {
+            final Point to = iterator.next();
+            final double segment = length(from, to);
+            if (remaining < segment) {
+                final double t = remaining / segment;
+                return new Point(
+                        (float) (from.getLongitude()
+                                + t * (to.getLongitude() - from.getLongitude())),
+                        (float) (from.getLatitude() + t * (to.getLatitude() - from.getLatitude())));
+            }
+            remaining -= segment;
+            reached.add(to);
+            from = to;
+        }
+        return from;
+    }
+
+}
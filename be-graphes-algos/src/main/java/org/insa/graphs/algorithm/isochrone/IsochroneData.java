@@ -0,0 +1,117 @@
+package org.insa.graphs.algorithm.isochrone;
+
+import java.util.Arrays;
+
+import org.insa.graphs.algorithm.AbstractInputData;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+
+public class IsochroneData extends AbstractInputData {
+
+    /**
+     * Default concavity of the polygons of the isochrones.
+     *
+     * @see #getConcavity()
+     */
+    public static final double DEFAULT_CONCAVITY = 2;
+
+    // Origin of the search.
+    private final Node origin;
+
+    // Budgets, in increasing order.
+    private final double[] budgets;
+
+    // Concavity of the polygons.
+    private final double concavity;
+
+    /**
+     * Construct a new instance of IsochroneData with the default concavity.
+     *
+     * @param graph Graph in which the isochrones should be computed.
+     * @param origin Origin of the isochrones.
+     * @param budgets Budgets of the isochrones, in the unit of the costs of the
+     *        inspector (seconds or meters).
+     * @param arcInspector Filter for arcs (used to allow only a specific set of
+     *        arcs in the graph to be used).
+     *
+     * @throws IllegalArgumentException if there is no budget, or if a budget is
+     *         negative or not finite.
+     */
+    public IsochroneData(Graph graph, Node origin, double[] budgets, ArcInspector arcInspector) {
+        this(graph, origin, budgets, arcInspector, DEFAULT_CONCAVITY);
+    }
+
+    /**
+     * Construct a new instance of IsochroneData with the given parameters.
+     *
+     * @param graph Graph in which the isochrones should be computed.
+     * @param origin Origin of the isochrones.
+     * @param budgets Budgets of the isochrones, in the unit of the costs of the
+     *        inspector (seconds or meters).
+     * @param arcInspector Filter for arcs (used to allow only a specific set of
+     *        arcs in the graph to be used).
+     * @param concavity Concavity of the polygons, see {@link #getConcavity()}.
+     *
+     * @throws IllegalArgumentException if there is no budget, if a budget is
+     *         negative or not finite, or if the concavity is not positive.
+     */
+    public IsochroneData(Graph graph, Node origin, double[] budgets, ArcInspector arcInspector,
+            double concavity) {
+        super(graph, arcInspector);
+        if (budgets.length == 0) {
+            throw new IllegalArgumentException("No budget.");
+        }
+        for (double budget: budgets) {
+            if (!(budget >= 0) || Double.isInfinite(budget)) {
+                throw new IllegalArgumentException("Invalid budget: " + budget);
+            }
+        }
+        if (!(concavity > 0) || Double.isInfinite(concavity)) {
+            throw new IllegalArgumentException("Invalid concavity: " + concavity);
+        }
+        this.origin = origin;
+        this.budgets = budgets.clone();
+        Arrays.sort(this.budgets);
+        this.concavity = concavity;
+    }
+
+    /**
+     * @return Origin of the isochrones.
+     */
+    public Node getOrigin() {
+        return origin;
+    }
+
+    /**
+     * @return Budgets of the isochrones, in increasing order.
+     */
+    public double[] getBudgets() {
+        return budgets.clone();
+    }
+
+    /**
+     * @return Largest budget of the isochrones.
+     */
+    public double getMaximumBudget() {
+        return budgets[budgets.length - 1];
+    }
+
+    /**
+     * The concavity of the polygons is the ratio between the length of a border
+     * edge and the distance to the nearest point inside, below which the edge
+     * is kept: lower values give tighter (more concave) polygons.
+     *
+     * @return Concavity of the polygons of the isochrones.
+     */
+    public double getConcavity() {
+        return concavity;
+    }
+
+    @Override
+    public String toString() {
+        return "Isochrones from #" + origin.getId() + " for budgets "
+                + Arrays.toString(budgets) + " [" + this.arcInspector.toString().toLowerCase()
+                + "]";
+    }
+}
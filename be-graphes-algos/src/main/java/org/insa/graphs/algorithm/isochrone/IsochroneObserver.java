@@ -0,0 +1,30 @@
+package org.insa.graphs.algorithm.isochrone;
+
+import org.insa.graphs.model.Node;
+
+public interface IsochroneObserver {
+
+    /**
+     * Notify the observer that the origin has been processed.
+     *
+     * @param node Origin.
+     */
+    public void notifyOriginProcessed(Node node);
+
+    /**
+     * Notify the observer that a node has been marked, i.e. its final cost
+     * (within the largest budget) has been set.
+     *
+     * @param node Node that has been marked.
+     * @param cost Cost of the node.
+     */
+    public void notifyNodeMarked(Node node, double cost);
+
+    /**
+     * Notify the observer that the isochrone of a budget has been computed.
+     *
+     * @param isochrone Isochrone of the budget.
+     */
+    public void notifyIsochroneComputed(Isochrone isochrone);
+
+}
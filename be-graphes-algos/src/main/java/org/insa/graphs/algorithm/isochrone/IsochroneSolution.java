@@ -0,0 +1,49 @@
+package org.insa.graphs.algorithm.isochrone;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.insa.graphs.algorithm.AbstractSolution;
+
+public class IsochroneSolution extends AbstractSolution {
+
+    // Isochrones, by increasing budget.
+    private final List<Isochrone> isochrones;
+
+    /**
+     * Create a new isochrone solution.
+     *
+     * @param data Original input data for this solution.
+     * @param status Status of the solution.
+     * @param isochrones Isochrones of the solution, one for each budget of the
+     *        data, in the same order.
+     */
+    public IsochroneSolution(IsochroneData data, Status status, List<Isochrone> isochrones) {
+        super(data, status);
+        this.isochrones = Collections.unmodifiableList(isochrones);
+    }
+
+    @Override
+    public IsochroneData getInputData() {
+        return (IsochroneData) super.getInputData();
+    }
+
+    /**
+     * @return Isochrones of this solution, by increasing budget (unmodifiable).
+     */
+    public List<Isochrone> getIsochrones() {
+        return isochrones;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("Computed " + isochrones.size() + " isochrones (");
+        for (int i = 0; i < isochrones.size(); ++i) {
+            Isochrone isochrone = isochrones.get(i);
+            builder.append((i == 0 ? "" : ", ") + isochrone.getBudget() + ": "
+                    + isochrone.getArcs().size() + " arcs");
+        }
+        return builder.append(") in " + getSolvingTime().getSeconds() + " seconds.").toString();
+    }
+
+}
@@ -0,0 +1,32 @@
+package org.insa.graphs.algorithm.isochrone;
+
+import java.io.PrintStream;
+
+import org.insa.graphs.model.Node;
+
+public class IsochroneTextObserver implements IsochroneObserver {
+
+    private final PrintStream stream;
+
+    public IsochroneTextObserver(PrintStream stream) {
+        this.stream = stream;
+    }
+
+    @Override
+    public void notifyOriginProcessed(Node node) {
+        stream.println("Origin (node #" + node.getId() + ") processed.");
+    }
+
+    @Override
+    public void notifyNodeMarked(Node node, double cost) {
+    }
+
+    @Override
+    public void notifyIsochroneComputed(Isochrone isochrone) {
+        stream.println("Isochrone for budget " + isochrone.getBudget() + " computed, "
+                + isochrone.getArcs().size() + " reachable arcs, "
+                + isochrone.getBoundaryPoints().size() + " boundary points, "
+                + isochrone.getPolygon().size() + " points in the polygon.");
+    }
+
+}
@@ -0,0 +1,489 @@
+package org.insa.graphs.algorithm.kshortestpaths;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.insa.graphs.algorithm.AbstractAlgorithm;
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.shortestpath.CompactMetric;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathObserver;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathWorkspace;
+import org.insa.graphs.algorithm.utils.PrimitiveBinaryHeap;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Path;
+
+/**
+ * <p>
+ * Yen's algorithm for the k shortest loopless paths between two nodes, on the
+ * {@link CompactGraph} of the input graph. Each accepted path is deviated at
+ * each of its nodes (the spur nodes): the spur path is the shortest path from
+ * the spur node to the destination that avoids the nodes before the spur node,
+ * and the arcs taken at the spur node by the accepted paths sharing the same
+ * prefix. Following Lawler, a path is only deviated from the node where it
+ * deviates from its parent on, since the previous nodes have already been
+ * deviated with the same prefix.
+ * </p>
+ *
+ * <p>
+ * A single backward search from the destination computes the shortest-path
+ * tree towards the destination, whose costs are exact lower bounds for the spur
+ * searches (removing nodes and arcs can only make paths longer). The spur
+ * searches are A* searches guided by these costs, all run in the same
+ * {@link ShortestPathWorkspace}, and stop as soon as they mark a node whose tree
+ * path to the destination avoids the removed nodes and arcs. Searches whose
+ * lower bound exceeds the cost of the worst candidate that can still be
+ * returned are abandoned.
+ * </p>
+ *
+ */
+public class KShortestPathsAlgorithm extends AbstractAlgorithm<ShortestPathObserver> {
+
+    /**
+     * Candidate path, ordered by cost then by creation order in the candidate set.
+     */
+    private static final class Candidate {
+
+        // Compact arcs of the path.
+        final int[] arcs;
+
+        // Cost of the path.
+        final double cost;
+
+        // Index of the arc where the path deviates from its parent.
+        final int deviation;
+
+        // Creation order, to break ties between paths of equal cost.
+        final int order;
+
+        Candidate(int[] arcs, double cost, int deviation, int order) {
+            this.arcs = arcs;
+            this.cost = cost;
+            this.deviation = deviation;
+            this.order = order;
+        }
+
+        int compareTo(Candidate other) {
+            final int compare = Double.compare(this.cost, other.cost);
+            return compare != 0 ? compare : Integer.compare(this.order, other.order);
+        }
+
+    }
+
+    /**
+     * Sequence of compact arcs, used to detect duplicate candidates.
+     */
+    private static final class ArcSequence {
+
+        final int[] arcs;
+
+        ArcSequence(int[] arcs) {
+            this.arcs = arcs;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof ArcSequence && Arrays.equals(arcs, ((ArcSequence) other).arcs);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(arcs);
+        }
+
+    }
+
+    // Workspace for the searches.
+    private final ShortestPathWorkspace workspace;
+
+    // Compact graph and metric of the current run.
+    private CompactGraph compact;
+    private CompactMetric metric;
+
+    // Cost to the destination and first arc of the tree path to the destination
+    // of each node (-1 for the destination and unreachable nodes).
+    private double[] toDestination;
+    private int[] treeArcs;
+
+    // Generation at which nodes and arcs were removed for the current spur
+    // searches.
+    private int[] nodeStamps, arcStamps;
+    private int nodeGeneration, arcGeneration;
+
+    // Generation of the current spur search, and whether the tree path of each
+    // node avoids the removed nodes and arcs (+generation) or not (-generation).
+    private int[] treeStamps;
+    private int spurGeneration;
+
+    /**
+     * Create a new algorithm with its own workspace.
+     *
+     * @param data Input data for the algorithm.
+     */
+    public KShortestPathsAlgorithm(KShortestPathsData data) {
+        this(data, new ShortestPathWorkspace(data.getGraph()));
+    }
+
+    /**
+     * Create a new algorithm that uses the given workspace.
+     *
+     * @param data Input data for the algorithm.
+     * @param workspace Workspace to use, must have been created for the graph of
+     *        the input data.
+     *
+     * @throws IllegalArgumentException if the workspace does not correspond to the
+     *         graph of the input data.
+     */
+    public KShortestPathsAlgorithm(KShortestPathsData data, ShortestPathWorkspace workspace) {
+        super(data);
+        if (workspace.getGraph() != data.getGraph()) {
+            throw new IllegalArgumentException("Workspace does not match the graph of the data.");
+        }
+        this.workspace = workspace;
+    }
+
+    @Override
+    public KShortestPathsSolution run() {
+        return (KShortestPathsSolution) super.run();
+    }
+
+    @Override
+    public KShortestPathsData getInputData() {
+        return (KShortestPathsData) super.getInputData();
+    }
+
+    /**
+     * Notify all observers that the origin has been processed.
+     *
+     * @param node Origin.
+     */
+    public void notifyOriginProcessed(Node node) {
+        for (ShortestPathObserver obs: getObservers()) {
+            obs.notifyOriginProcessed(node);
+        }
+    }
+
+    /**
+     * Notify all observers that a node has been marked by one of the searches.
+     *
+     * @param node Node that has been marked.
+     */
+    public void notifyNodeMarked(Node node) {
+        for (ShortestPathObserver obs: getObservers()) {
+            obs.notifyNodeMarked(node);
+        }
+    }
+
+    /**
+     * Notify all observers that the destination has been reached.
+     *
+     * @param node Destination.
+     */
+    public void notifyDestinationReached(Node node) {
+        for (ShortestPathObserver obs: getObservers()) {
+            obs.notifyDestinationReached(node);
+        }
+    }
+
+    @Override
+    protected KShortestPathsSolution doRun() {
+        final KShortestPathsData data = getInputData();
+        final Graph graph = data.getGraph();
+        this.metric = CompactMetric.getMetric(graph, data.getArcInspector());
+        this.compact = this.metric.getGraph();
+        final int origin = data.getOrigin().getId();
+        final int destination = data.getDestination().getId();
+        final int numberOfPaths = data.getNumberOfPaths();
+
+        notifyOriginProcessed(data.getOrigin());
+        computeTree(destination);
+        if (Double.isInfinite(this.toDestination[origin])) {
+            return new KShortestPathsSolution(data, Status.INFEASIBLE, new ArrayList<>());
+        }
+        notifyDestinationReached(data.getDestination());
+
+        this.nodeStamps = new int[graph.size()];
+        this.treeStamps = new int[graph.size()];
+        this.arcStamps = new int[this.compact.getNumberOfArcs()];
+        this.nodeGeneration = this.arcGeneration = this.spurGeneration = 0;
+
+        // The shortest path is the tree path of the origin.
+        List<Candidate> accepted = new ArrayList<>();
+        accepted.add(new Candidate(appendTreePath(new int[0], 0, origin),
+                this.toDestination[origin], 0, 0));
+
+        TreeSet<Candidate> candidates = new TreeSet<>(Candidate::compareTo);
+        Set<ArcSequence> generated = new HashSet<>();
+        generated.add(new ArcSequence(accepted.get(0).arcs));
+        int nbGenerated = 1;
+
+        while (accepted.size() < numberOfPaths) {
+            final Candidate last = accepted.get(accepted.size() - 1);
+            final int[] arcs = last.arcs;
+            final int remaining = numberOfPaths - accepted.size();
+
+            // Remove the nodes of the prefix up to the deviation of the path, and
+            // find the accepted paths sharing this prefix.
+            this.nodeGeneration++;
+            double rootCost = 0;
+            for (int i = 0; i < last.deviation; ++i) {
+                this.nodeStamps[this.compact.getArcTail(arcs[i])] = this.nodeGeneration;
+                rootCost += this.metric.getCost(arcs[i]);
+            }
+            List<int[]> sharingPrefix = new ArrayList<>();
+            for (Candidate path: accepted) {
+                if (sharesPrefix(path.arcs, arcs, last.deviation)) {
+                    sharingPrefix.add(path.arcs);
+                }
+            }
+
+            for (int i = last.deviation; i < arcs.length; ++i) {
+                final int spur = this.compact.getArcTail(arcs[i]);
+
+                // Remove the arcs taken at the spur node by the paths sharing the
+                // prefix, and keep only the paths that also share the next arc.
+                this.arcGeneration++;
+                List<int[]> sharingNext = new ArrayList<>();
+                for (int[] path: sharingPrefix) {
+                    if (path.length > i) {
+                        this.arcStamps[path[i]] = this.arcGeneration;
+                        if (path[i] == arcs[i]) {
+                            sharingNext.add(path);
+                        }
+                    }
+                }
+                sharingPrefix = sharingNext;
+
+                final double bound = candidates.size() >= remaining ? candidates.last().cost
+                        : Double.POSITIVE_INFINITY;
+                final int[] spurPath = findSpurPath(spur, destination, bound - rootCost);
+                if (spurPath != null) {
+                    final int[] path = Arrays.copyOf(arcs, i + spurPath.length);
+                    System.arraycopy(spurPath, 0, path, i, spurPath.length);
+                    if (generated.add(new ArcSequence(path))) {
+                        double cost = rootCost;
+                        for (int arc: spurPath) {
+                            cost += this.metric.getCost(arc);
+                        }
+                        candidates.add(new Candidate(path, cost, i, nbGenerated++));
+                        if (candidates.size() > remaining) {
+                            candidates.pollLast();
+                        }
+                    }
+                }
+
+                // The spur node becomes part of the prefix.
+                this.nodeStamps[spur] = this.nodeGeneration;
+                rootCost += this.metric.getCost(arcs[i]);
+            }
+
+            if (candidates.isEmpty()) {
+                break;
+            }
+            accepted.add(candidates.pollFirst());
+        }
+
+        List<Path> paths = new ArrayList<>();
+        for (Candidate candidate: accepted) {
+            paths.add(toPath(graph, data.getOrigin(), candidate.arcs));
+        }
+        return new KShortestPathsSolution(data,
+                paths.size() == numberOfPaths ? Status.OPTIMAL : Status.FEASIBLE, paths);
+    }
+
+    /**
+     * @return true if the two paths have the same first arcs.
+     */
+    private static boolean sharesPrefix(int[] path, int[] other, int length) {
+        if (path.length < length) {
+            return false;
+        }
+        for (int i = 0; i < length; ++i) {
+            if (path[i] != other[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Run a full backward search from the given destination in the workspace,
+     * and store its costs and tree arcs.
+     */
+    private void computeTree(int destination) {
+        final CompactMetric reverseMetric = this.metric.getReverse();
+        final CompactGraph reverse = reverseMetric.getGraph();
+        final Graph graph = this.compact.getGraph();
+        final ShortestPathWorkspace ws = this.workspace;
+        final PrimitiveBinaryHeap heap = ws.getHeap();
+        ws.reset();
+        ws.setCost(destination, 0, -1);
+        heap.insert(destination, 0);
+        while (!heap.isEmpty()) {
+            final int current = heap.deleteMin();
+            ws.mark(current);
+            notifyNodeMarked(graph.get(current));
+            final double currentCost = ws.getCost(current);
+            final int lastArc = reverse.getFirstArc(current + 1);
+            for (int arc = reverse.getFirstArc(current); arc < lastArc; ++arc) {
+                final int next = reverse.getArcHead(arc);
+                final double newCost = currentCost + reverseMetric.getCost(arc);
+                if (!ws.isMarked(next) && newCost < ws.getCost(next)) {
+                    ws.setCost(next, newCost, reverse.getOriginalArc(arc));
+                    heap.insertOrUpdate(next, newCost);
+                }
+            }
+        }
+
+        final int nbNodes = graph.size();
+        this.toDestination = new double[nbNodes];
+        this.treeArcs = new int[nbNodes];
+        for (int node = 0; node < nbNodes; ++node) {
+            this.toDestination[node] = ws.getCost(node);
+            this.treeArcs[node] = ws.getPredecessor(node);
+        }
+    }
+
+    private boolean isRemoved(int node) {
+        return this.nodeStamps[node] == this.nodeGeneration;
+    }
+
+    private boolean isRemovedArc(int arc) {
+        return this.arcStamps[arc] == this.arcGeneration;
+    }
+
+    /**
+     * @return true if the tree path from the given node to the destination avoids
+     *         the removed nodes and arcs. The result is memorized for all the
+     *         nodes of the tree path until the next spur search.
+     */
+    private boolean isTreePathFree(int node, int destination) {
+        final int generation = this.spurGeneration;
+        int last = node;
+        boolean free;
+        while (true) {
+            if (last == destination) {
+                free = true;
+                break;
+            }
+            if (Math.abs(this.treeStamps[last]) == generation) {
+                free = this.treeStamps[last] > 0;
+                break;
+            }
+            final int arc = this.treeArcs[last];
+            if (isRemovedArc(arc) || isRemoved(this.compact.getArcHead(arc))) {
+                free = false;
+                this.treeStamps[last] = -generation;
+                break;
+            }
+            last = this.compact.getArcHead(arc);
+        }
+        for (int current = node; current != last; current = this.compact
+                .getArcHead(this.treeArcs[current])) {
+            this.treeStamps[current] = free ? generation : -generation;
+        }
+        return free;
+    }
+
+    /**
+     * Append the tree path from the given node to the destination to the given
+     * arcs.
+     *
+     * @param arcs Arcs of the path to the node.
+     * @param length Number of arcs to keep from the given arcs.
+     * @param node Node where the tree path starts.
+     *
+     * @return A new array containing the first arcs of the given array, then the
+     *         arcs of the tree path.
+     */
+    private int[] appendTreePath(int[] arcs, int length, int node) {
+        int nbArcs = length;
+        for (int current = node; this.treeArcs[current] != -1; current = this.compact
+                .getArcHead(this.treeArcs[current])) {
+            nbArcs++;
+        }
+        final int[] path = Arrays.copyOf(arcs, nbArcs);
+        for (int current = node, i = length; this.treeArcs[current] != -1; current = this.compact
+                .getArcHead(this.treeArcs[current])) {
+            path[i++] = this.treeArcs[current];
+        }
+        return path;
+    }
+
+    /**
+     * Find the shortest path from the spur node to the destination that avoids the
+     * removed nodes and arcs.
+     *
+     * @param spur Spur node.
+     * @param destination Destination node.
+     * @param limit Cost above which spur paths are useless.
+     *
+     * @return Arcs of the spur path, or null if there is none below the limit.
+     */
+    private int[] findSpurPath(int spur, int destination, double limit) {
+        final Graph graph = this.compact.getGraph();
+        final ShortestPathWorkspace ws = this.workspace;
+        final PrimitiveBinaryHeap heap = ws.getHeap();
+        ws.reset();
+        this.spurGeneration++;
+        ws.setCost(spur, 0, -1);
+        heap.insert(spur, this.toDestination[spur]);
+        while (!heap.isEmpty() && heap.findMinKey() < limit) {
+            final int current = heap.deleteMin();
+            ws.mark(current);
+            notifyNodeMarked(graph.get(current));
+
+            // The cost to the destination is exact if the tree path is free.
+            if (isTreePathFree(current, destination)) {
+                int length = 0;
+                for (int arc = ws.getPredecessor(current); arc != -1; arc = ws
+                        .getPredecessor(this.compact.getArcTail(arc))) {
+                    length++;
+                }
+                final int[] arcs = new int[length];
+                for (int arc = ws.getPredecessor(current); arc != -1; arc = ws
+                        .getPredecessor(this.compact.getArcTail(arc))) {
+                    arcs[--length] = arc;
+                }
+                return appendTreePath(arcs, arcs.length, current);
+            }
+
+            final double currentCost = ws.getCost(current);
+            final int lastArc = this.compact.getFirstArc(current + 1);
+            for (int arc = this.compact.getFirstArc(current); arc < lastArc; ++arc) {
+                final int next = this.compact.getArcHead(arc);
+                if (ws.isMarked(next) || isRemoved(next) || isRemovedArc(arc)
+                        || Double.isInfinite(this.toDestination[next])) {
+                    continue;
+                }
+                final double newCost = currentCost + this.metric.getCost(arc);
+                if (newCost < ws.getCost(next)) {
+                    ws.setCost(next, newCost, arc);
+                    heap.insertOrUpdate(next, newCost + this.toDestination[next]);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return Path made of the original arcs of the given compact arcs.
+     */
+    private Path toPath(Graph graph, Node origin, int[] arcs) {
+        if (arcs.length == 0) {
+            return new Path(graph, origin);
+        }
+        List<Arc> path = new ArrayList<>(arcs.length);
+        for (int arc: arcs) {
+            path.add(this.compact.getArc(arc));
+        }
+        return new Path(graph, path);
+    }
+
+}
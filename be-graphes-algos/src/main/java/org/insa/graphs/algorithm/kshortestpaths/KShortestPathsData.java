@@ -0,0 +1,47 @@
+package org.insa.graphs.algorithm.kshortestpaths;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathData;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+
+public class KShortestPathsData extends ShortestPathData {
+
+    // Maximum number of paths to compute.
+    private final int numberOfPaths;
+
+    /**
+     * Construct a new instance of KShortestPathsData with the given parameters.
+     * 
+     * @param graph Graph in which the paths should be looked for.
+     * @param origin Origin node of the paths.
+     * @param destination Destination node of the paths.
+     * @param numberOfPaths Maximum number of paths to compute.
+     * @param arcInspector Filter for arcs (used to allow only a specific set of
+     *        arcs in the graph to be used).
+     * 
+     * @throws IllegalArgumentException if the number of paths is not positive.
+     */
+    public KShortestPathsData(Graph graph, Node origin, Node destination, int numberOfPaths,
+            ArcInspector arcInspector) {
+        super(graph, origin, destination, arcInspector);
+        if (numberOfPaths < 1) {
+            throw new IllegalArgumentException("Invalid number of paths: " + numberOfPaths);
+        }
+        this.numberOfPaths = numberOfPaths;
+    }
+
+    /**
+     * @return Maximum number of paths to compute.
+     */
+    public int getNumberOfPaths() {
+        return numberOfPaths;
+    }
+
+    @Override
+    public String toString() {
+        return numberOfPaths + " shortest paths from #" + getOrigin().getId() + " to #"
+                + getDestination().getId() + " ["
+                + this.arcInspector.toString().toLowerCase() + "]";
+    }
+}
@@ -0,0 +1,80 @@
+package org.insa.graphs.algorithm.kshortestpaths;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.insa.graphs.algorithm.AbstractInputData.Mode;
+import org.insa.graphs.algorithm.AbstractSolution;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Path;
+
+public class KShortestPathsSolution extends AbstractSolution {
+
+    // Paths, by increasing cost.
+    private final List<Path> paths;
+
+    /**
+     * Create a new k-shortest paths solution.
+     * 
+     * @param data Original input data for this solution.
+     * @param status Status of the solution.
+     * @param paths Paths of the solution, by increasing cost (empty if there is
+     *        no path between the origin and the destination).
+     */
+    public KShortestPathsSolution(KShortestPathsData data, Status status, List<Path> paths) {
+        super(data, status);
+        this.paths = Collections.unmodifiableList(paths);
+    }
+
+    @Override
+    public KShortestPathsData getInputData() {
+        return (KShortestPathsData) super.getInputData();
+    }
+
+    /**
+     * @return Loopless paths of this solution, by increasing cost (unmodifiable).
+     *         There are less paths than requested if the graph does not contain
+     *         enough loopless paths between the origin and the destination.
+     */
+    public List<Path> getPaths() {
+        return paths;
+    }
+
+    /**
+     * @param index Index of a path of this solution.
+     * 
+     * @return Cost of the path, according to the arc inspector of the input data.
+     */
+    public double getCost(int index) {
+        double cost = 0;
+        for (Arc arc: paths.get(index).getArcs()) {
+            cost += getInputData().getCost(arc);
+        }
+        return cost;
+    }
+
+    @Override
+    public String toString() {
+        final KShortestPathsData data = getInputData();
+        if (paths.isEmpty()) {
+            return String.format("No path found from node #%d to node #%d in %d seconds.",
+                    data.getOrigin().getId(), data.getDestination().getId(),
+                    getSolvingTime().getSeconds());
+        }
+        StringBuilder builder = new StringBuilder(String.format(
+                "Found %d paths from node #%d to node #%d (", paths.size(),
+                data.getOrigin().getId(), data.getDestination().getId()));
+        for (int i = 0; i < paths.size(); ++i) {
+            if (data.getMode() == Mode.LENGTH) {
+                builder.append(String.format("%s%.4f km", i == 0 ? "" : ", ",
+                        getCost(i) / 1000.0));
+            }
+            else {
+                builder.append(String.format("%s%.4f min", i == 0 ? "" : ", ",
+                        getCost(i) / 60.0));
+            }
+        }
+        return builder.append(") in " + getSolvingTime().getSeconds() + " seconds.").toString();
+    }
+
+}
@@ -0,0 +1,201 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Objects;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.utils.PrimitiveBinaryHeap;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Path;
+
+/**
+ * <p>
+ * Implementation of the ALT algorithm: A* on the {@link CompactGraph} of the
+ * input graph, where the heuristic is the lower bound given by the landmarks of
+ * a {@link LandmarkTable}.
+ * </p>
+ *
+ * <p>
+ * Contrary to the straight-line heuristic of {@link AStarAlgorithm}, the bounds
+ * of the landmarks are computed with the costs of the metric, so they are
+ * admissible and tight in time mode as well as in length mode. Only the
+ * {@link #NB_ACTIVE_LANDMARKS} landmarks giving the best bound between the
+ * origin and the destination are used during a query. Nodes whose bound is
+ * infinite cannot reach the destination and are never inserted in the heap.
+ * </p>
+ *
+ */
+public class ALTAlgorithm extends ShortestPathAlgorithm {
+
+    /**
+     * Number of landmarks used during a query.
+     */
+    public static final int NB_ACTIVE_LANDMARKS = 4;
+
+    // Workspace for the search, or null to take one from the pool of the graph
+    // for each run.
+    private final ShortestPathWorkspace workspace;
+
+    // Landmark table, or null to use the cached table of the metric.
+    private final LandmarkTable table;
+
+    /**
+     * Create a new algorithm that uses the cached landmark table of the metric of
+     * the input data (computed with the default parameters if it is not in the
+     * cache), and a workspace from the pool of the graph.
+     *
+     * @param data Input data for the algorithm.
+     *
+     * @see LandmarkTable#getTable(CompactMetric)
+     */
+    public ALTAlgorithm(ShortestPathData data) {
+        this(data, null, null);
+    }
+
+    /**
+     * Create a new algorithm that uses the given landmark table and a workspace
+     * from the pool of the graph.
+     *
+     * @param data Input data for the algorithm.
+     * @param table Landmark table to use, or null to use the cached table.
+     *
+     * @throws IllegalArgumentException if the table does not correspond to the
+     *         graph and inspector of the input data.
+     */
+    public ALTAlgorithm(ShortestPathData data, LandmarkTable table) {
+        this(data, table, null);
+    }
+
+    /**
+     * Create a new algorithm that uses the given landmark table and workspace.
+     *
+     * @param data Input data for the algorithm.
+     * @param table Landmark table to use, or null to use the cached table.
+     * @param workspace Workspace to use, must have been created for the graph of
+     *        the input data, or null to take one from the pool of the graph for
+     *        each run (see {@link ShortestPathWorkspace#acquire(Graph)}).
+     *
+     * @throws IllegalArgumentException if the table or the workspace does not
+     *         correspond to the graph (or inspector) of the input data.
+     */
+    public ALTAlgorithm(ShortestPathData data, LandmarkTable table,
+            ShortestPathWorkspace workspace) {
+        super(data);
+        if (workspace != null && workspace.getGraph() != data.getGraph()) {
+            throw new IllegalArgumentException("Workspace does not match the graph of the data.");
+        }
+        if (table != null && (!Objects.equals(table.getMapId(), data.getGraph().getMapId())
+                || !table.getInspectorKey()
+                        .equals(CompactMetric.getInspectorKey(data.getArcInspector())))) {
+            throw new IllegalArgumentException("Landmark table does not match the data.");
+        }
+        this.table = table;
+        this.workspace = workspace;
+    }
+
+    /**
+     * @return Workspace used by this algorithm, or null if it takes one from the
+     *         pool of the graph.
+     */
+    public ShortestPathWorkspace getWorkspace() {
+        return workspace;
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+        final ShortestPathWorkspace ws = this.workspace != null ? this.workspace
+                : ShortestPathWorkspace.acquire(getInputData().getGraph());
+        try {
+            return search(ws);
+        }
+        finally {
+            if (this.workspace == null) {
+                ShortestPathWorkspace.release(ws);
+            }
+        }
+    }
+
+    /**
+     * Run the search with the given workspace.
+     */
+    private ShortestPathSolution search(ShortestPathWorkspace ws) {
+        final ShortestPathData data = getInputData();
+        final Graph graph = data.getGraph();
+        final CompactMetric metric = CompactMetric.getMetric(graph, data.getArcInspector());
+        final CompactGraph compact = metric.getGraph();
+        final LandmarkTable landmarks = this.table != null ? this.table
+                : LandmarkTable.getTable(metric);
+
+        final int origin = data.getOrigin().getId();
+        final int destination = data.getDestination().getId();
+        final int[] active = landmarks.selectActiveLandmarks(origin, destination,
+                NB_ACTIVE_LANDMARKS);
+
+        // Start a new search in the workspace, the keys in the heap are the costs
+        // plus the lower bounds.
+        ws.reset();
+        final PrimitiveBinaryHeap heap = ws.getHeap();
+        final double originBound = landmarks.getLowerBound(origin, destination, active);
+        if (!Double.isInfinite(originBound)) {
+            ws.setCost(origin, 0, -1);
+            heap.insert(origin, originBound);
+        }
+
+        // Notify observers about the first event (origin processed).
+        notifyOriginProcessed(data.getOrigin());
+
+        while (!heap.isEmpty() && !ws.isMarked(destination)) {
+            final int current = heap.deleteMin();
+            ws.mark(current);
+            notifyNodeMarked(graph.get(current));
+
+            final double currentCost = ws.getCost(current);
+            final int lastArc = compact.getFirstArc(current + 1);
+            for (int arc = compact.getFirstArc(current); arc < lastArc; ++arc) {
+                final int next = compact.getArcHead(arc);
+                if (ws.isMarked(next)) {
+                    continue;
+                }
+
+                // Arcs that are not allowed have an infinite cost.
+                final double newCost = currentCost + metric.getCost(arc);
+                final double oldCost = ws.getCost(next);
+                if (newCost < oldCost) {
+                    final double bound = landmarks.getLowerBound(next, destination, active);
+                    if (Double.isInfinite(bound)) {
+                        continue;
+                    }
+                    if (Double.isInfinite(oldCost)) {
+                        notifyNodeReached(graph.get(next));
+                    }
+                    ws.setCost(next, newCost, arc);
+                    heap.insertOrUpdate(next, newCost + bound);
+                }
+            }
+        }
+
+        if (!ws.isMarked(destination)) {
+            return new ShortestPathSolution(data, Status.INFEASIBLE);
+        }
+
+        // The destination has been found, notify the observers.
+        notifyDestinationReached(data.getDestination());
+
+        // Rebuild the path from the predecessor arcs.
+        if (origin == destination) {
+            return new ShortestPathSolution(data, Status.OPTIMAL,
+                    new Path(graph, data.getOrigin()));
+        }
+        ArrayList<Arc> arcs = new ArrayList<>();
+        for (int arc = ws.getPredecessor(destination); arc != -1;
+                arc = ws.getPredecessor(compact.getArcTail(arc))) {
+            arcs.add(compact.getArc(arc));
+        }
+        Collections.reverse(arcs);
+        return new ShortestPathSolution(data, Status.OPTIMAL, new Path(graph, arcs));
+    }
+
+}
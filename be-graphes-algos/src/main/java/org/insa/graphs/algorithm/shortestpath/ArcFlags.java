@@ -0,0 +1,293 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.stream.IntStream;
+
+import org.insa.graphs.model.CompactGraph;
+
+/**
+ * <p>
+ * Arc flags of a {@link CompactMetric}: the nodes are partitioned into cells,
+ * and each arc has one flag per cell, set if the arc is the first arc of a
+ * shortest path to a node of the cell. A search towards a destination can then
+ * ignore all the arcs whose flag for the cell of the destination is not set.
+ * </p>
+ *
+ * <p>
+ * The partition is geometric: the set of nodes is recursively split at the
+ * median of the longest side of its bounding box (in proportion of the number
+ * of cells on each side), which gives cells of balanced sizes. The flags of a
+ * cell are set for all the arcs inside the cell, and for the arcs of the
+ * shortest path trees (computed by backward searches) of the boundary nodes of
+ * the cell, i.e. the nodes of the cell with an incoming arc from another cell.
+ * Cells are processed concurrently.
+ * </p>
+ *
+ */
+public class ArcFlags {
+
+    /**
+     * Default number of cells.
+     */
+    public static final int DEFAULT_NB_CELLS = 64;
+
+    // Cached flags, by metric.
+    private static final Map<CompactMetric, SoftReference<ArcFlags>> flags = new WeakHashMap<>();
+
+    /**
+     * Retrieve the flags for the given metric, computing them with the default
+     * number of cells if they are not in the cache.
+     *
+     * @param metric Metric for the flags.
+     *
+     * @return Arc flags for the given metric.
+     */
+    public static ArcFlags getFlags(CompactMetric metric) {
+        synchronized (flags) {
+            SoftReference<ArcFlags> reference = flags.get(metric);
+            ArcFlags arcFlags = reference == null ? null : reference.get();
+            if (arcFlags == null) {
+                arcFlags = compute(metric,
+                        Math.max(1, Math.min(DEFAULT_NB_CELLS, metric.getGraph().size())));
+                flags.put(metric, new SoftReference<>(arcFlags));
+            }
+            return arcFlags;
+        }
+    }
+
+    /**
+     * Compute a geometric partition of the nodes of the given graph (see the
+     * description of this class). Nodes without coordinates are considered to be
+     * at (0, 0).
+     *
+     * @param graph Graph to partition.
+     * @param nbCells Number of cells.
+     *
+     * @return Cell of each node.
+     *
+     * @throws IllegalArgumentException if the number of cells is not positive.
+     */
+    public static int[] computePartition(CompactGraph graph, int nbCells) {
+        if (nbCells <= 0) {
+            throw new IllegalArgumentException("Invalid number of cells: " + nbCells);
+        }
+        final int nbNodes = graph.size();
+        final float[] longitudes = new float[nbNodes], latitudes = new float[nbNodes];
+        Integer[] nodes = new Integer[nbNodes];
+        for (int node = 0; node < nbNodes; ++node) {
+            longitudes[node] = Float.isNaN(graph.getNodeLongitude(node)) ? 0
+                    : graph.getNodeLongitude(node);
+            latitudes[node] = Float.isNaN(graph.getNodeLatitude(node)) ? 0
+                    : graph.getNodeLatitude(node);
+            nodes[node] = node;
+        }
+        int[] cells = new int[nbNodes];
+        split(nodes, 0, nbNodes, 0, nbCells, longitudes, latitudes, cells);
+        return cells;
+    }
+
+    /**
+     * Assign the cells [firstCell, firstCell + nbCells[ to the nodes in [from,
+     * to[.
+     */
+    private static void split(Integer[] nodes, int from, int to, int firstCell, int nbCells,
+            float[] longitudes, float[] latitudes, int[] cells) {
+        if (nbCells == 1 || to - from <= 1) {
+            for (int i = from; i < to; ++i) {
+                cells[nodes[i]] = firstCell;
+            }
+            return;
+        }
+
+        // Sort the nodes along the longest side of their bounding box.
+        float minLon = Float.POSITIVE_INFINITY, maxLon = Float.NEGATIVE_INFINITY;
+        float minLat = Float.POSITIVE_INFINITY, maxLat = Float.NEGATIVE_INFINITY;
+        for (int i = from; i < to; ++i) {
+            minLon = Math.min(minLon, longitudes[nodes[i]]);
+            maxLon = Math.max(maxLon, longitudes[nodes[i]]);
+            minLat = Math.min(minLat, latitudes[nodes[i]]);
+            maxLat = Math.max(maxLat, latitudes[nodes[i]]);
+        }
+        final float[] coordinates = maxLon - minLon >= maxLat - minLat ? longitudes : latitudes;
+        Arrays.sort(nodes, from, to, (a, b) -> {
+            int compare = Float.compare(coordinates[a], coordinates[b]);
+            return compare != 0 ? compare : Integer.compare(a, b);
+        });
+
+        // Split in proportion of the number of cells.
+        final int nbCellsLeft = nbCells / 2;
+        final int middle = from + (int) ((long) (to - from) * nbCellsLeft / nbCells);
+        split(nodes, from, middle, firstCell, nbCellsLeft, longitudes, latitudes, cells);
+        split(nodes, middle, to, firstCell + nbCellsLeft, nbCells - nbCellsLeft, longitudes,
+                latitudes, cells);
+    }
+
+    /**
+     * Compute the flags of the given metric, with a geometric partition.
+     *
+     * @param metric Metric for the flags.
+     * @param nbCells Number of cells.
+     *
+     * @return Arc flags for the given metric.
+     *
+     * @see #computePartition(CompactGraph, int)
+     */
+    public static ArcFlags compute(CompactMetric metric, int nbCells) {
+        return compute(metric, computePartition(metric.getGraph(), nbCells), nbCells);
+    }
+
+    /**
+     * Compute the flags of the given metric, with the given partition.
+     *
+     * @param metric Metric for the flags.
+     * @param cells Cell of each node.
+     * @param nbCells Number of cells.
+     *
+     * @return Arc flags for the given metric.
+     *
+     * @throws IllegalArgumentException if a cell is not in [0, nbCells[.
+     */
+    public static ArcFlags compute(CompactMetric metric, int[] cells, int nbCells) {
+        final CompactGraph graph = metric.getGraph();
+        if (cells.length != graph.size()) {
+            throw new IllegalArgumentException("Invalid partition.");
+        }
+        for (int cell: cells) {
+            if (cell < 0 || cell >= nbCells) {
+                throw new IllegalArgumentException("Invalid cell: " + cell);
+            }
+        }
+
+        final int nbArcs = graph.getNumberOfArcs();
+        final int nbWords = (nbCells + 63) / 64;
+        final long[] words = new long[nbArcs * nbWords];
+
+        // Each cell is processed independently, the flags are merged in order.
+        BitSet[] cellFlags = IntStream.range(0, nbCells).parallel()
+                .mapToObj((cell) -> computeCellFlags(metric, cells, cell))
+                .toArray(BitSet[]::new);
+        for (int cell = 0; cell < nbCells; ++cell) {
+            final long mask = 1L << (cell & 63);
+            final int word = cell >>> 6;
+            BitSet set = cellFlags[cell];
+            for (int arc = set.nextSetBit(0); arc >= 0; arc = set.nextSetBit(arc + 1)) {
+                words[arc * nbWords + word] |= mask;
+            }
+            cellFlags[cell] = null;
+        }
+        return new ArcFlags(metric, cells, nbCells, words);
+    }
+
+    /**
+     * Compute the arcs whose flag must be set for the given cell.
+     */
+    private static BitSet computeCellFlags(CompactMetric metric, int[] cells, int cell) {
+        final CompactGraph graph = metric.getGraph();
+        final CompactMetric reverse = metric.getReverse();
+        final CompactGraph reverseGraph = reverse.getGraph();
+        final int nbNodes = graph.size();
+        BitSet set = new BitSet(graph.getNumberOfArcs());
+
+        // Arcs inside the cell.
+        for (int node = 0; node < nbNodes; ++node) {
+            if (cells[node] != cell) {
+                continue;
+            }
+            final int lastArc = graph.getFirstArc(node + 1);
+            for (int arc = graph.getFirstArc(node); arc < lastArc; ++arc) {
+                if (cells[graph.getArcHead(arc)] == cell && metric.isAllowed(arc)) {
+                    set.set(arc);
+                }
+            }
+        }
+
+        // Shortest path trees of the boundary nodes: for a backward search, the
+        // parent arc of a node in the reverse graph is its first arc towards the
+        // boundary node in the graph.
+        int[] parentArcs = new int[nbNodes];
+        for (int node = 0; node < nbNodes; ++node) {
+            if (cells[node] != cell || !isBoundary(reverse, cells, node)) {
+                continue;
+            }
+            LandmarkTable.computeCosts(reverse, node, parentArcs, null);
+            for (int other = 0; other < nbNodes; ++other) {
+                if (parentArcs[other] != -1) {
+                    set.set(reverseGraph.getOriginalArc(parentArcs[other]));
+                }
+            }
+        }
+        return set;
+    }
+
+    /**
+     * @return true if the given node has an incoming arc (an arc of the reverse
+     *         metric) from another cell.
+     */
+    private static boolean isBoundary(CompactMetric reverse, int[] cells, int node) {
+        final CompactGraph graph = reverse.getGraph();
+        final int lastArc = graph.getFirstArc(node + 1);
+        for (int arc = graph.getFirstArc(node); arc < lastArc; ++arc) {
+            if (cells[graph.getArcHead(arc)] != cells[node] && reverse.isAllowed(arc)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Metric of these flags.
+    private final CompactMetric metric;
+
+    // Cell of each node, and number of cells.
+    private final int[] cells;
+    private final int nbCells;
+
+    // Flags of the arcs, (nbCells + 63) / 64 words per arc.
+    private final int nbWords;
+    private final long[] words;
+
+    private ArcFlags(CompactMetric metric, int[] cells, int nbCells, long[] words) {
+        this.metric = metric;
+        this.cells = cells;
+        this.nbCells = nbCells;
+        this.nbWords = (nbCells + 63) / 64;
+        this.words = words;
+    }
+
+    /**
+     * @return Metric of these flags.
+     */
+    public CompactMetric getMetric() {
+        return metric;
+    }
+
+    /**
+     * @return Number of cells of the partition.
+     */
+    public int getNumberOfCells() {
+        return nbCells;
+    }
+
+    /**
+     * @param node ID of the node.
+     *
+     * @return Cell of the node.
+     */
+    public int getCell(int node) {
+        return this.cells[node];
+    }
+
+    /**
+     * @param arc Index of the arc in the compact graph.
+     * @param cell Cell.
+     *
+     * @return true if the flag of the arc for the given cell is set.
+     */
+    public boolean isSet(int arc, int cell) {
+        return (this.words[arc * this.nbWords + (cell >>> 6)] & (1L << (cell & 63))) != 0;
+    }
+
+}
@@ -0,0 +1,185 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.utils.PrimitiveBinaryHeap;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Path;
+
+/**
+ * <p>
+ * Implementation of Dijkstra's algorithm on the {@link CompactGraph} of the
+ * input graph, pruned by {@link ArcFlags}: the arcs whose flag for the cell of
+ * the destination is not set are never relaxed.
+ * </p>
+ *
+ * <p>
+ * Apart from the pruning, the search is the same as the one of
+ * {@link CompactDijkstraAlgorithm}. Far from the destination, only the arcs of
+ * the shortest paths to the boundary of its cell are followed, so the search
+ * space is mostly a corridor towards the destination.
+ * </p>
+ *
+ */
+public class ArcFlagsAlgorithm extends ShortestPathAlgorithm {
+
+    // Workspace for the search, or null to take one from the pool of the graph
+    // for each run.
+    private final ShortestPathWorkspace workspace;
+
+    // Arc flags, or null to use the cached flags of the metric.
+    private final ArcFlags flags;
+
+    /**
+     * Create a new algorithm that uses the cached flags of the metric of the input
+     * data (computed with the default parameters if they are not in the cache),
+     * and a workspace from the pool of the graph.
+     *
+     * @param data Input data for the algorithm.
+     *
+     * @see ArcFlags#getFlags(CompactMetric)
+     */
+    public ArcFlagsAlgorithm(ShortestPathData data) {
+        this(data, null, null);
+    }
+
+    /**
+     * Create a new algorithm that uses the given flags and a workspace from the
+     * pool of the graph.
+     *
+     * @param data Input data for the algorithm.
+     * @param flags Arc flags to use, or null to use the cached flags.
+     *
+     * @throws IllegalArgumentException if the flags do not correspond to the graph
+     *         and inspector of the input data.
+     */
+    public ArcFlagsAlgorithm(ShortestPathData data, ArcFlags flags) {
+        this(data, flags, null);
+    }
+
+    /**
+     * Create a new algorithm that uses the given flags and workspace.
+     *
+     * @param data Input data for the algorithm.
+     * @param flags Arc flags to use, or null to use the cached flags.
+     * @param workspace Workspace to use, must have been created for the graph of
+     *        the input data, or null to take one from the pool of the graph for
+     *        each run (see {@link ShortestPathWorkspace#acquire(Graph)}).
+     *
+     * @throws IllegalArgumentException if the flags or the workspace do not
+     *         correspond to the graph (or inspector) of the input data.
+     */
+    public ArcFlagsAlgorithm(ShortestPathData data, ArcFlags flags,
+            ShortestPathWorkspace workspace) {
+        super(data);
+        if (workspace != null && workspace.getGraph() != data.getGraph()) {
+            throw new IllegalArgumentException("Workspace does not match the graph of the data.");
+        }
+        if (flags != null && flags.getMetric() != CompactMetric.getMetric(data.getGraph(),
+                data.getArcInspector())) {
+            throw new IllegalArgumentException("Arc flags do not match the data.");
+        }
+        this.flags = flags;
+        this.workspace = workspace;
+    }
+
+    /**
+     * @return Workspace used by this algorithm, or null if it takes one from the
+     *         pool of the graph.
+     */
+    public ShortestPathWorkspace getWorkspace() {
+        return workspace;
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+        final ShortestPathWorkspace ws = this.workspace != null ? this.workspace
+                : ShortestPathWorkspace.acquire(getInputData().getGraph());
+        try {
+            return search(ws);
+        }
+        finally {
+            if (this.workspace == null) {
+                ShortestPathWorkspace.release(ws);
+            }
+        }
+    }
+
+    /**
+     * Run the search with the given workspace.
+     */
+    private ShortestPathSolution search(ShortestPathWorkspace ws) {
+        final ShortestPathData data = getInputData();
+        final Graph graph = data.getGraph();
+        final CompactMetric metric = CompactMetric.getMetric(graph, data.getArcInspector());
+        final CompactGraph compact = metric.getGraph();
+        final ArcFlags arcFlags = this.flags != null ? this.flags : ArcFlags.getFlags(metric);
+
+        final int origin = data.getOrigin().getId();
+        final int destination = data.getDestination().getId();
+        final int cell = arcFlags.getCell(destination);
+
+        // Start a new search in the workspace.
+        ws.reset();
+        final PrimitiveBinaryHeap heap = ws.getHeap();
+        ws.setCost(origin, 0, -1);
+        heap.insert(origin, 0);
+
+        // Notify observers about the first event (origin processed).
+        notifyOriginProcessed(data.getOrigin());
+
+        while (!heap.isEmpty() && !ws.isMarked(destination)) {
+            final int current = heap.deleteMin();
+            ws.mark(current);
+            notifyNodeMarked(graph.get(current));
+
+            final double currentCost = ws.getCost(current);
+            final int lastArc = compact.getFirstArc(current + 1);
+            for (int arc = compact.getFirstArc(current); arc < lastArc; ++arc) {
+                if (!arcFlags.isSet(arc, cell)) {
+                    continue;
+                }
+                final int next = compact.getArcHead(arc);
+                if (ws.isMarked(next)) {
+                    continue;
+                }
+
+                // Flagged arcs are always allowed.
+                final double newCost = currentCost + metric.getCost(arc);
+                final double oldCost = ws.getCost(next);
+                if (newCost < oldCost) {
+                    if (Double.isInfinite(oldCost)) {
+                        notifyNodeReached(graph.get(next));
+                    }
+                    ws.setCost(next, newCost, arc);
+                    heap.insertOrUpdate(next, newCost);
+                }
+            }
+        }
+
+        if (!ws.isMarked(destination)) {
+            return new ShortestPathSolution(data, Status.INFEASIBLE);
+        }
+
+        // The destination has been found, notify the observers.
+        notifyDestinationReached(data.getDestination());
+
+        // Rebuild the path from the predecessor arcs.
+        if (origin == destination) {
+            return new ShortestPathSolution(data, Status.OPTIMAL,
+                    new Path(graph, data.getOrigin()));
+        }
+        ArrayList<Arc> arcs = new ArrayList<>();
+        for (int arc = ws.getPredecessor(destination); arc != -1;
+                arc = ws.getPredecessor(compact.getArcTail(arc))) {
+            arcs.add(compact.getArc(arc));
+        }
+        Collections.reverse(arcs);
+        return new ShortestPathSolution(data, Status.OPTIMAL, new Path(graph, arcs));
+    }
+
+}
@@ -2,7 +2,13 @@ package org.insa.graphs.algorithm.shortestpath;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import org.insa.graphs.algorithm.AbstractSolution.Status;
 import org.insa.graphs.model.Arc;
@@ -10,10 +16,48 @@ import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.Node;
 import org.insa.graphs.model.Path;
 
+/**
+ * <p>
+ * Bellman-Ford algorithm, working directly on the nodes and arcs of the graph
+ * so that it can be used as a reference for the other algorithms.
+ * </p>
+ *
+ * <p>
+ * Instead of relaxing every arc of the graph at each round, only the arcs of
+ * the nodes whose distance has changed during the previous round (the active
+ * nodes) are relaxed, and the algorithm stops as soon as no distance changes.
+ * In parallel mode, the active nodes of a round are split into tasks run by a
+ * {@link ForkJoinPool}, the distances being updated concurrently under striped
+ * locks.
+ * </p>
+ *
+ */
 public class BellmanFordAlgorithm extends ShortestPathAlgorithm {
 
+    // Number of active nodes processed by a single task.
+    private static final int TASK_SIZE = 256;
+
+    // Number of locks used to update the distances (must be a power of 2).
+    private static final int NB_LOCKS = 1024;
+
+    // Pool of the tasks, or null to run sequentially.
+    private final ForkJoinPool pool;
+
     public BellmanFordAlgorithm(ShortestPathData data) {
+        this(data, null);
+    }
+
+    /**
+     * Create a new algorithm that relaxes the arcs of the active nodes of each
+     * round in parallel.
+     *
+     * @param data Input data for the algorithm.
+     * @param pool Pool running the tasks of the rounds, or null to run
+     *        sequentially.
+     */
+    public BellmanFordAlgorithm(ShortestPathData data, ForkJoinPool pool) {
         super(data);
+        this.pool = pool;
     }
 
     @Override
@@ -23,6 +67,51 @@ public class BellmanFordAlgorithm extends ShortestPathAlgorithm {
         ShortestPathData data = getInputData();
         Graph graph = data.getGraph();
 
+        // Notify observers about the first event (origin processed).
+        notifyOriginProcessed(data.getOrigin());
+
+        // Actual algorithm, we will assume the graph does not contain negative
+        // cycle...
+        Arc[] predecessorArcs = this.pool == null ? runSequential() : runParallel();
+
+        ShortestPathSolution solution = null;
+
+        if(data.getOrigin().equals(data.getDestination())) {
+            solution = new ShortestPathSolution(data, Status.OPTIMAL, new Path(graph, data.getOrigin()));
+        } else if (predecessorArcs[data.getDestination().getId()] == null) {
+            // Destination has no predecessor, the solution is infeasible...
+            solution = new ShortestPathSolution(data, Status.INFEASIBLE);
+        } else {
+
+            // The destination has been found, notify the observers.
+            notifyDestinationReached(data.getDestination());
+
+            // Create the path from the array of predecessors...
+            ArrayList<Arc> arcs = new ArrayList<>();
+            Arc arc = predecessorArcs[data.getDestination().getId()];
+            while (arc != null) {
+                arcs.add(arc);
+                arc = predecessorArcs[arc.getOrigin().getId()];
+            }
+
+            // Reverse the path...
+            Collections.reverse(arcs);
+
+            // Create the final solution.
+            solution = new ShortestPathSolution(data, Status.OPTIMAL, new Path(graph, arcs));
+        }
+
+        return solution;
+    }
+
+    /**
+     * Run the rounds sequentially, updating the distances in place.
+     *
+     * @return Arc of the predecessor of each node.
+     */
+    private Arc[] runSequential() {
+        ShortestPathData data = getInputData();
+        Graph graph = data.getGraph();
         final int nbNodes = graph.size();
 
         // Initialize array of distances.
@@ -30,18 +119,19 @@ public class BellmanFordAlgorithm extends ShortestPathAlgorithm {
         Arrays.fill(distances, Double.POSITIVE_INFINITY);
         distances[data.getOrigin().getId()] = 0;
 
-        // Notify observers about the first event (origin processed).
-        notifyOriginProcessed(data.getOrigin());
-
         // Initialize array of predecessors.
         Arc[] predecessorArcs = new Arc[nbNodes];
 
-        // Actual algorithm, we will assume the graph does not contain negative
-        // cycle...
-        boolean found = false;
-        for (int i = 0; !found && i < nbNodes; ++i) {
-            found = true;
-            for (Node node: graph.getNodes()) {
+        // Active nodes of the current round, and of the next round.
+        int[] active = new int[] { data.getOrigin().getId() };
+        int nbActive = 1;
+        int[] nextActive = new int[16];
+        BitSet isNextActive = new BitSet(nbNodes);
+
+        for (int i = 0; nbActive > 0 && i < nbNodes; ++i) {
+            int nbNextActive = 0;
+            for (int k = 0; k < nbActive; ++k) {
+                Node node = graph.get(active[k]);
                 for (Arc arc: node.getSuccessors()) {
 
                     // Small test to check allowed roads...
@@ -51,7 +141,8 @@ public class BellmanFordAlgorithm extends ShortestPathAlgorithm {
 
                     // Retrieve weight of the arc.
                     double w = data.getCost(arc);
-                    double oldDistance = distances[arc.getDestination().getId()];
+                    final int destination = arc.getDestination().getId();
+                    double oldDistance = distances[destination];
                     double newDistance = distances[node.getId()] + w;
 
                     if (Double.isInfinite(oldDistance) && Double.isFinite(newDistance)) {
@@ -60,42 +151,191 @@ public class BellmanFordAlgorithm extends ShortestPathAlgorithm {
 
                     // Check if new distances would be better, if so update...
                     if (newDistance < oldDistance) {
-                        found = false;
-                        distances[arc.getDestination().getId()] = distances[node.getId()] + w;
-                        predecessorArcs[arc.getDestination().getId()] = arc;
+                        distances[destination] = newDistance;
+                        predecessorArcs[destination] = arc;
+                        if (!isNextActive.get(destination)) {
+                            isNextActive.set(destination);
+                            if (nbNextActive == nextActive.length) {
+                                nextActive = Arrays.copyOf(nextActive, 2 * nbNextActive);
+                            }
+                            nextActive[nbNextActive++] = destination;
+                        }
                     }
                 }
             }
+
+            // The active nodes of the next round become the current ones.
+            int[] swap = active;
+            active = nextActive;
+            nbActive = nbNextActive;
+            nextActive = swap;
+            isNextActive.clear();
         }
 
-        ShortestPathSolution solution = null;
+        return predecessorArcs;
+    }
 
-        if(data.getOrigin().equals(data.getDestination())) {
-            solution = new ShortestPathSolution(data, Status.OPTIMAL, new Path(graph, data.getOrigin()));
-        } else if (predecessorArcs[data.getDestination().getId()] == null) {
-            // Destination has no predecessor, the solution is infeasible...
-            solution = new ShortestPathSolution(data, Status.INFEASIBLE);
-        } else {
+    /**
+     * Distances and predecessors of a parallel run, shared by the tasks.
+     */
+    private static class SharedState {
 
-            // The destination has been found, notify the observers.
-            notifyDestinationReached(data.getDestination());
+        final ShortestPathData data;
+        final Graph graph;
 
-            // Create the path from the array of predecessors...
-            ArrayList<Arc> arcs = new ArrayList<>();
-            Arc arc = predecessorArcs[data.getDestination().getId()];
-            while (arc != null) {
-                arcs.add(arc);
-                arc = predecessorArcs[arc.getOrigin().getId()];
+        // Distances, stored as the bits of doubles.
+        final AtomicLongArray distances;
+
+        // Predecessors, only written with the lock of the node, together with its
+        // distance.
+        final Arc[] predecessorArcs;
+        final Object[] locks = new Object[NB_LOCKS];
+
+        SharedState(ShortestPathData data) {
+            this.data = data;
+            this.graph = data.getGraph();
+            long[] distances = new long[this.graph.size()];
+            Arrays.fill(distances, Double.doubleToRawLongBits(Double.POSITIVE_INFINITY));
+            distances[data.getOrigin().getId()] = Double.doubleToRawLongBits(0);
+            this.distances = new AtomicLongArray(distances);
+            this.predecessorArcs = new Arc[this.graph.size()];
+            for (int i = 0; i < NB_LOCKS; ++i) {
+                this.locks[i] = new Object();
             }
+        }
 
-            // Reverse the path...
-            Collections.reverse(arcs);
+        double getDistance(int node) {
+            return Double.longBitsToDouble(this.distances.get(node));
+        }
 
-            // Create the final solution.
-            solution = new ShortestPathSolution(data, Status.OPTIMAL, new Path(graph, arcs));
+        /**
+         * @return true if the distance of the destination of the arc has been
+         *         lowered.
+         */
+        boolean relax(Arc arc, double newDistance) {
+            final int destination = arc.getDestination().getId();
+            if (!(newDistance < getDistance(destination))) {
+                return false;
+            }
+            synchronized (this.locks[destination & (NB_LOCKS - 1)]) {
+                if (!(newDistance < getDistance(destination))) {
+                    return false;
+                }
+                this.distances.set(destination, Double.doubleToRawLongBits(newDistance));
+                this.predecessorArcs[destination] = arc;
+                return true;
+            }
         }
 
-        return solution;
+    }
+
+    /**
+     * Relaxation of the arcs of a range of active nodes, split into tasks of at
+     * most {@link #TASK_SIZE} nodes. The nodes whose distance is lowered are
+     * collected in arrays (with their number in the first entry).
+     */
+    private static class RoundAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final SharedState state;
+        private final int[] active;
+        private final int from, to;
+        private final Queue<int[]> improved;
+
+        RoundAction(SharedState state, int[] active, int from, int to, Queue<int[]> improved) {
+            this.state = state;
+            this.active = active;
+            this.from = from;
+            this.to = to;
+            this.improved = improved;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= TASK_SIZE) {
+                int[] buffer = new int[17];
+                int size = 0;
+                for (int k = this.from; k < this.to; ++k) {
+                    Node node = this.state.graph.get(this.active[k]);
+                    final double distance = this.state.getDistance(node.getId());
+                    for (Arc arc: node.getSuccessors()) {
+                        if (this.state.data.isAllowed(arc)
+                                && this.state.relax(arc, distance + this.state.data.getCost(arc))) {
+                            if (size + 1 == buffer.length) {
+                                buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+                            }
+                            buffer[++size] = arc.getDestination().getId();
+                        }
+                    }
+                }
+                if (size > 0) {
+                    buffer[0] = size;
+                    this.improved.add(buffer);
+                }
+                return;
+            }
+            final int middle = (this.from + this.to) >>> 1;
+            invokeAll(new RoundAction(this.state, this.active, this.from, middle, this.improved),
+                    new RoundAction(this.state, this.active, middle, this.to, this.improved));
+        }
+
+    }
+
+    /**
+     * Run the rounds in parallel.
+     *
+     * @return Arc of the predecessor of each node.
+     */
+    private Arc[] runParallel() {
+        ShortestPathData data = getInputData();
+        Graph graph = data.getGraph();
+        final int nbNodes = graph.size();
+        SharedState state = new SharedState(data);
+
+        int[] active = new int[] { data.getOrigin().getId() };
+        int nbActive = 1;
+        BitSet isNextActive = new BitSet(nbNodes);
+        BitSet isReached = new BitSet(nbNodes);
+        isReached.set(data.getOrigin().getId());
+
+        for (int i = 0; nbActive > 0 && i < nbNodes; ++i) {
+            Queue<int[]> improved = new ConcurrentLinkedQueue<>();
+            RoundAction action = new RoundAction(state, active, 0, nbActive, improved);
+            if (nbActive <= TASK_SIZE) {
+                // Not worth a round-trip to the pool.
+                action.invoke();
+            }
+            else {
+                this.pool.invoke(action);
+            }
+
+            // Active nodes of the next round, without duplicates.
+            int nbNextActive = 0;
+            for (int[] buffer: improved) {
+                nbNextActive += buffer[0];
+            }
+            int[] nextActive = new int[nbNextActive];
+            nbNextActive = 0;
+            for (int[] buffer: improved) {
+                for (int k = 1; k <= buffer[0]; ++k) {
+                    final int node = buffer[k];
+                    if (!isNextActive.get(node)) {
+                        isNextActive.set(node);
+                        nextActive[nbNextActive++] = node;
+                        if (!isReached.get(node)) {
+                            isReached.set(node);
+                            notifyNodeReached(graph.get(node));
+                        }
+                    }
+                }
+            }
+            active = nextActive;
+            nbActive = nbNextActive;
+            isNextActive.clear();
+        }
+
+        return state.predecessorArcs;
     }
 
 }
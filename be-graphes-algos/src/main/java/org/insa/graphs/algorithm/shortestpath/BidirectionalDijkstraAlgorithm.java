@@ -0,0 +1,243 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.utils.PrimitiveBinaryHeap;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Path;
+
+/**
+ * <p>
+ * Implementation of the bidirectional Dijkstra's algorithm: a forward search
+ * from the origin and a backward search from the destination (on the reverse
+ * graph) are run alternately, always expanding the search whose next node is
+ * the closest, until the best path found so far cannot be improved, i.e. until
+ * the sum of the smallest keys of the two searches is at least the cost of
+ * this path.
+ * </p>
+ *
+ * <p>
+ * Both searches run on the {@link CompactGraph} of the input graph. The
+ * backward search uses the reverse compact graph, whose arcs map back to the
+ * original arcs, so the cost (and the {@code isAllowed} filter) of a backward
+ * arc is exactly the one of the corresponding forward arc.
+ * </p>
+ *
+ */
+public class BidirectionalDijkstraAlgorithm extends ShortestPathAlgorithm {
+
+    // Workspaces for the forward and backward searches, or null to take them from
+    // the pool of the graph for each run.
+    private final ShortestPathWorkspace forwardWorkspace, backwardWorkspace;
+
+    // Cost of the best path found so far, and node where the searches met.
+    private double bestCost;
+    private int meetingNode;
+
+    /**
+     * Create a new algorithm that uses workspaces from the pool of the graph.
+     *
+     * @param data Input data for the algorithm.
+     *
+     * @see ShortestPathWorkspace#acquire(Graph)
+     */
+    public BidirectionalDijkstraAlgorithm(ShortestPathData data) {
+        super(data);
+        this.forwardWorkspace = null;
+        this.backwardWorkspace = null;
+    }
+
+    /**
+     * Create a new algorithm that uses the given workspaces.
+     *
+     * @param data Input data for the algorithm.
+     * @param forwardWorkspace Workspace for the forward search.
+     * @param backwardWorkspace Workspace for the backward search, must be
+     *        different from the forward workspace.
+     *
+     * @throws IllegalArgumentException if a workspace does not correspond to the
+     *         graph of the input data, or if the two workspaces are the same.
+     */
+    public BidirectionalDijkstraAlgorithm(ShortestPathData data,
+            ShortestPathWorkspace forwardWorkspace, ShortestPathWorkspace backwardWorkspace) {
+        super(data);
+        if (forwardWorkspace.getGraph() != data.getGraph()
+                || backwardWorkspace.getGraph() != data.getGraph()) {
+            throw new IllegalArgumentException("Workspace does not match the graph of the data.");
+        }
+        if (forwardWorkspace == backwardWorkspace) {
+            throw new IllegalArgumentException("Forward and backward workspaces must differ.");
+        }
+        this.forwardWorkspace = forwardWorkspace;
+        this.backwardWorkspace = backwardWorkspace;
+    }
+
+    /**
+     * @return Workspace used by the forward search, or null if the workspaces are
+     *         taken from the pool of the graph.
+     */
+    public ShortestPathWorkspace getForwardWorkspace() {
+        return forwardWorkspace;
+    }
+
+    /**
+     * @return Workspace used by the backward search, or null if the workspaces are
+     *         taken from the pool of the graph.
+     */
+    public ShortestPathWorkspace getBackwardWorkspace() {
+        return backwardWorkspace;
+    }
+
+    /**
+     * @return Smallest key in the heap of the given workspace, or
+     *         {@link Double#POSITIVE_INFINITY} if the heap is empty.
+     */
+    private static double minKey(ShortestPathWorkspace ws) {
+        return ws.getHeap().isEmpty() ? Double.POSITIVE_INFINITY : ws.getHeap().findMinKey();
+    }
+
+    /**
+     * Settle the next node of a search and relax its arcs.
+     *
+     * @param ws Workspace of the search.
+     * @param other Workspace of the opposite search.
+     * @param metric Metric for the search (reverse metric for the backward
+     *        search).
+     */
+    private void step(ShortestPathWorkspace ws, ShortestPathWorkspace other,
+            CompactMetric metric) {
+        final Graph graph = getInputData().getGraph();
+        final CompactGraph compact = metric.getGraph();
+        final PrimitiveBinaryHeap heap = ws.getHeap();
+
+        final int current = heap.deleteMin();
+        ws.mark(current);
+        notifyNodeMarked(graph.get(current));
+
+        final double currentCost = ws.getCost(current);
+        final int lastArc = compact.getFirstArc(current + 1);
+        for (int arc = compact.getFirstArc(current); arc < lastArc; ++arc) {
+            final int next = compact.getArcHead(arc);
+            if (ws.isMarked(next)) {
+                continue;
+            }
+
+            // Arcs that are not allowed have an infinite cost.
+            final double newCost = currentCost + metric.getCost(arc);
+            final double oldCost = ws.getCost(next);
+            if (newCost < oldCost) {
+                if (Double.isInfinite(oldCost)) {
+                    notifyNodeReached(graph.get(next));
+                }
+                ws.setCost(next, newCost, arc);
+                heap.insertOrUpdate(next, newCost);
+
+                // Check if this gives a better path through the opposite search.
+                final double pathCost = newCost + other.getCost(next);
+                if (pathCost < this.bestCost) {
+                    this.bestCost = pathCost;
+                    this.meetingNode = next;
+                }
+            }
+        }
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+        final Graph graph = getInputData().getGraph();
+        final ShortestPathWorkspace forward = this.forwardWorkspace != null
+                ? this.forwardWorkspace : ShortestPathWorkspace.acquire(graph);
+        final ShortestPathWorkspace backward = this.backwardWorkspace != null
+                ? this.backwardWorkspace : ShortestPathWorkspace.acquire(graph);
+        try {
+            return search(forward, backward);
+        }
+        finally {
+            if (this.forwardWorkspace == null) {
+                ShortestPathWorkspace.release(forward);
+            }
+            if (this.backwardWorkspace == null) {
+                ShortestPathWorkspace.release(backward);
+            }
+        }
+    }
+
+    /**
+     * Run the searches with the given workspaces.
+     */
+    private ShortestPathSolution search(ShortestPathWorkspace forward,
+            ShortestPathWorkspace backward) {
+        final ShortestPathData data = getInputData();
+        final Graph graph = data.getGraph();
+        final CompactMetric forwardMetric = CompactMetric.getMetric(graph,
+                data.getArcInspector());
+        final CompactMetric backwardMetric = forwardMetric.getReverse();
+
+        final int origin = data.getOrigin().getId();
+        final int destination = data.getDestination().getId();
+
+        // Start new searches in the workspaces.
+        forward.reset();
+        backward.reset();
+        forward.setCost(origin, 0, -1);
+        forward.getHeap().insert(origin, 0);
+        backward.setCost(destination, 0, -1);
+        backward.getHeap().insert(destination, 0);
+
+        this.bestCost = origin == destination ? 0 : Double.POSITIVE_INFINITY;
+        this.meetingNode = origin;
+
+        // Notify observers about the first event (origin processed).
+        notifyOriginProcessed(data.getOrigin());
+
+        // Stop when the best path cannot be improved (an empty heap has an infinite
+        // key).
+        double forwardKey = minKey(forward), backwardKey = minKey(backward);
+        while (forwardKey + backwardKey < this.bestCost) {
+            if (forwardKey <= backwardKey) {
+                step(forward, backward, forwardMetric);
+                forwardKey = minKey(forward);
+            }
+            else {
+                step(backward, forward, backwardMetric);
+                backwardKey = minKey(backward);
+            }
+        }
+
+        if (Double.isInfinite(this.bestCost)) {
+            return new ShortestPathSolution(data, Status.INFEASIBLE);
+        }
+
+        // The destination has been found, notify the observers.
+        notifyDestinationReached(data.getDestination());
+
+        if (origin == destination) {
+            return new ShortestPathSolution(data, Status.OPTIMAL,
+                    new Path(graph, data.getOrigin()));
+        }
+
+        // Forward part of the path (from the meeting node back to the origin).
+        final CompactGraph forwardGraph = forwardMetric.getGraph();
+        ArrayList<Arc> arcs = new ArrayList<>();
+        for (int arc = forward.getPredecessor(this.meetingNode); arc != -1;
+                arc = forward.getPredecessor(forwardGraph.getArcTail(arc))) {
+            arcs.add(forwardGraph.getArc(arc));
+        }
+        Collections.reverse(arcs);
+
+        // Backward part of the path (from the meeting node to the destination), the
+        // arcs of the reverse graph map to the original arcs in the other direction.
+        final CompactGraph backwardGraph = backwardMetric.getGraph();
+        for (int arc = backward.getPredecessor(this.meetingNode); arc != -1;
+                arc = backward.getPredecessor(backwardGraph.getArcTail(arc))) {
+            arcs.add(backwardGraph.getArc(arc));
+        }
+
+        return new ShortestPathSolution(data, Status.OPTIMAL, new Path(graph, arcs));
+    }
+
+}
@@ -0,0 +1,274 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.ArrayList;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.utils.PrimitiveBinaryHeap;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Path;
+
+/**
+ * <p>
+ * Customizable route planning query: Dijkstra's algorithm on a
+ * {@link MultiLevelOverlay} customized for the metric of the input data (see
+ * {@link OverlayCustomization}).
+ * </p>
+ *
+ * <p>
+ * The arcs relaxed from a node depend on its query level (see
+ * {@link MultiLevelOverlay#getQueryLevel(int, int, int)}): all the arcs of the
+ * graph for nodes in the cells of level 1 of the origin and the destination,
+ * and the clique of its cell and the cut arcs of this level for the other
+ * nodes. The search thus goes up the levels when it leaves the cells of the
+ * origin, and goes down when it gets close to the destination. The cliques of
+ * the path are then unpacked level by level.
+ * </p>
+ *
+ * <p>
+ * Nodes of query level 0 are identified by their ID, and the other nodes by
+ * their overlay vertex (shifted by the number of nodes), so that the entries
+ * of the boundary nodes of a cell are consecutive when its clique is scanned.
+ * </p>
+ *
+ */
+public class CRPAlgorithm extends ShortestPathAlgorithm {
+
+    // Customization, or null to use the cached customization of the metric.
+    private final OverlayCustomization customization;
+
+    // Workspace for the search, or null to take one from the pool of the graph
+    // for each run.
+    private final ShortestPathWorkspace workspace;
+
+    /**
+     * Create a new algorithm that uses the cached customization of the metric of
+     * the input data (computed if it is not in the cache), and a workspace from
+     * the pool of the graph.
+     *
+     * @param data Input data for the algorithm.
+     *
+     * @see OverlayCustomization#getCustomization(CompactMetric)
+     */
+    public CRPAlgorithm(ShortestPathData data) {
+        this(data, null);
+    }
+
+    /**
+     * Create a new algorithm that uses the given customization and a workspace
+     * from the pool of the graph.
+     *
+     * @param data Input data for the algorithm.
+     * @param customization Customization to use, or null to use the cached
+     *        customization.
+     *
+     * @throws IllegalArgumentException if the customization does not correspond
+     *         to the graph and inspector of the input data.
+     */
+    public CRPAlgorithm(ShortestPathData data, OverlayCustomization customization) {
+        this(data, customization, null);
+    }
+
+    /**
+     * Create a new algorithm that uses the given customization and workspace.
+     *
+     * @param data Input data for the algorithm.
+     * @param customization Customization to use, or null to use the cached
+     *        customization.
+     * @param workspace Workspace to use, must have been created for the graph of
+     *        the input data with one entry per node and per overlay vertex (see
+     *        {@link #createWorkspace(Graph)}), or null to take one from the pool
+     *        of the graph for each run (see
+     *        {@link ShortestPathWorkspace#acquire(Graph, int)}).
+     *
+     * @throws IllegalArgumentException if the customization or the workspace does
+     *         not correspond to the graph (or inspector) of the input data.
+     */
+    public CRPAlgorithm(ShortestPathData data, OverlayCustomization customization,
+            ShortestPathWorkspace workspace) {
+        super(data);
+        if (customization != null && customization.getMetric() != CompactMetric
+                .getMetric(data.getGraph(), data.getArcInspector())) {
+            throw new IllegalArgumentException("Customization does not match the data.");
+        }
+        if (workspace != null) {
+            final MultiLevelOverlay overlay = customization != null
+                    ? customization.getOverlay()
+                    : MultiLevelOverlay
+                            .getOverlay(CompactMetric.getCompactGraph(data.getGraph()));
+            if (workspace.getGraph() != data.getGraph()
+                    || workspace.size() < getNumberOfEntries(data.getGraph(), overlay)) {
+                throw new IllegalArgumentException(
+                        "Workspace does not match the graph of the data.");
+            }
+        }
+        this.customization = customization;
+        this.workspace = workspace;
+    }
+
+    /**
+     * Create a workspace for queries on the given graph with the default overlay of
+     * the graph, which can then be shared by successive queries (for any
+     * inspector).
+     *
+     * @param graph Graph for the workspace.
+     *
+     * @return A new workspace for the given graph.
+     *
+     * @see MultiLevelOverlay#getOverlay(CompactGraph)
+     */
+    public static ShortestPathWorkspace createWorkspace(Graph graph) {
+        return new ShortestPathWorkspace(graph, getNumberOfEntries(graph,
+                MultiLevelOverlay.getOverlay(CompactMetric.getCompactGraph(graph))));
+    }
+
+    private static int getNumberOfEntries(Graph graph, MultiLevelOverlay overlay) {
+        return graph.size() + overlay.getNumberOfVertices();
+    }
+
+    /**
+     * @return Workspace used by this algorithm, or null if it takes one from the
+     *         pool of the graph.
+     */
+    public ShortestPathWorkspace getWorkspace() {
+        return workspace;
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+        final ShortestPathData data = getInputData();
+        final Graph graph = data.getGraph();
+        final CompactMetric metric = CompactMetric.getMetric(graph, data.getArcInspector());
+        final OverlayCustomization custom = this.customization != null ? this.customization
+                : OverlayCustomization.getCustomization(metric);
+        final ShortestPathWorkspace ws = this.workspace != null ? this.workspace
+                : ShortestPathWorkspace.acquire(graph,
+                        getNumberOfEntries(graph, custom.getOverlay()));
+        try {
+            return search(metric, custom, ws);
+        }
+        finally {
+            if (this.workspace == null) {
+                ShortestPathWorkspace.release(ws);
+            }
+        }
+    }
+
+    /**
+     * Run the search with the given metric, customization and workspace.
+     */
+    private ShortestPathSolution search(CompactMetric metric, OverlayCustomization custom,
+            ShortestPathWorkspace ws) {
+        final ShortestPathData data = getInputData();
+        final Graph graph = data.getGraph();
+        final CompactGraph compact = metric.getGraph();
+        final MultiLevelOverlay overlay = custom.getOverlay();
+
+        final int nbNodes = graph.size();
+        final int origin = data.getOrigin().getId();
+        final int destination = data.getDestination().getId();
+
+        // Start a new search in the workspace, whose predecessors are arcs, or -2 -
+        // entry for a clique.
+        ws.reset();
+        final PrimitiveBinaryHeap heap = ws.getHeap();
+        ws.setCost(origin, 0, -1);
+        heap.insert(origin, 0);
+
+        // Notify observers about the first event (origin processed).
+        notifyOriginProcessed(data.getOrigin());
+
+        while (!heap.isEmpty() && !ws.isMarked(destination)) {
+            final int current = heap.deleteMin();
+            ws.mark(current);
+            final int node = current < nbNodes ? current
+                    : overlay.getVertexNode(current - nbNodes);
+            notifyNodeMarked(graph.get(node));
+
+            final double currentCost = ws.getCost(current);
+            final int level = current < nbNodes ? 0
+                    : overlay.getQueryLevel(node, origin, destination);
+            if (level > 0) {
+                final int cell = overlay.getCell(level, node);
+                final int index = overlay.getBoundaryIndex(level, node);
+                final int firstEntry = nbNodes + overlay.getFirstVertex(level, cell);
+                final int nbBoundaryNodes = overlay.getNumberOfBoundaryNodes(level, cell);
+                for (int i = 0; i < nbBoundaryNodes; ++i) {
+                    final int next = firstEntry + i;
+                    final double newCost = currentCost
+                            + custom.getCliqueCost(level, cell, index, i);
+                    if (!ws.isMarked(next) && newCost < ws.getCost(next)) {
+                        if (!ws.isReached(next)) {
+                            notifyNodeReached(graph.get(overlay.getBoundaryNode(level, cell, i)));
+                        }
+                        ws.setCost(next, newCost, -2 - current);
+                        heap.insertOrUpdate(next, newCost);
+                    }
+                }
+            }
+
+            final int lastArc = compact.getFirstArc(node + 1);
+            for (int arc = compact.getFirstArc(node); arc < lastArc; ++arc) {
+                if (level > 0 && !overlay.isCutArc(level, arc)) {
+                    continue;
+                }
+                final int head = compact.getArcHead(arc);
+                final int headLevel = overlay.getQueryLevel(head, origin, destination);
+                final int next = headLevel == 0 ? head
+                        : nbNodes + overlay.getVertex(headLevel, head);
+                final double newCost = currentCost + metric.getCost(arc);
+                if (!ws.isMarked(next) && newCost < ws.getCost(next)) {
+                    if (!ws.isReached(next)) {
+                        notifyNodeReached(graph.get(head));
+                    }
+                    ws.setCost(next, newCost, arc);
+                    heap.insertOrUpdate(next, newCost);
+                }
+            }
+        }
+
+        if (!ws.isMarked(destination)) {
+            return new ShortestPathSolution(data, Status.INFEASIBLE);
+        }
+
+        // The destination has been found, notify the observers.
+        notifyDestinationReached(data.getDestination());
+
+        // Rebuild the path from the predecessors, unpacking the cliques.
+        if (origin == destination) {
+            return new ShortestPathSolution(data, Status.OPTIMAL,
+                    new Path(graph, data.getOrigin()));
+        }
+        ArrayList<Integer> entries = new ArrayList<>();
+        for (int entry = destination; entry != origin;) {
+            entries.add(entry);
+            final int predecessor = ws.getPredecessor(entry);
+            if (predecessor >= 0) {
+                final int tail = compact.getArcTail(predecessor);
+                final int tailLevel = overlay.getQueryLevel(tail, origin, destination);
+                entry = tailLevel == 0 ? tail : nbNodes + overlay.getVertex(tailLevel, tail);
+            }
+            else {
+                entry = -2 - predecessor;
+            }
+        }
+        ArrayList<Arc> arcs = new ArrayList<>();
+        int previous = origin;
+        for (int i = entries.size() - 1; i >= 0; --i) {
+            final int entry = entries.get(i);
+            final int predecessor = ws.getPredecessor(entry);
+            final int node = entry < nbNodes ? entry : overlay.getVertexNode(entry - nbNodes);
+            if (predecessor >= 0) {
+                arcs.add(compact.getArc(predecessor));
+            }
+            else {
+                custom.unpack(overlay.getQueryLevel(node, origin, destination), previous, node,
+                        arcs);
+            }
+            previous = node;
+        }
+        return new ShortestPathSolution(data, Status.OPTIMAL, new Path(graph, arcs));
+    }
+
+}
@@ -0,0 +1,86 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.ArrayList;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Path;
+
+/**
+ * <p>
+ * Algorithm looking up the result of its query in a {@link ShortestPathCache}
+ * before running another algorithm, and storing the result of this algorithm
+ * in the cache.
+ * </p>
+ *
+ * <p>
+ * The observers are shared with the wrapped algorithm. When the result is
+ * found in the cache, the observers are only notified that the origin has been
+ * processed and that the destination has been reached, and the path is rebuilt
+ * from its node IDs using the cheapest allowed arc between two consecutive
+ * nodes, so it has the same cost as the cached path.
+ * </p>
+ *
+ */
+public class CachedShortestPathAlgorithm extends ShortestPathAlgorithm {
+
+    // Wrapped algorithm, and cache of the results.
+    private final ShortestPathAlgorithm algorithm;
+    private final ShortestPathCache cache;
+
+    /**
+     * Create a new algorithm for the query of the given algorithm.
+     *
+     * @param algorithm Algorithm run when the result is not in the cache.
+     * @param cache Cache of the results.
+     */
+    public CachedShortestPathAlgorithm(ShortestPathAlgorithm algorithm, ShortestPathCache cache) {
+        super(algorithm.getInputData(), algorithm.getObservers());
+        this.algorithm = algorithm;
+        this.cache = cache;
+    }
+
+    /**
+     * @return Algorithm run when the result is not in the cache.
+     */
+    public ShortestPathAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * @return Cache of the results of this algorithm.
+     */
+    public ShortestPathCache getCache() {
+        return cache;
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+        final ShortestPathData data = getInputData();
+        final int[] nodes = this.cache.get(data);
+        if (nodes == null) {
+            ShortestPathSolution solution = this.algorithm.run();
+            this.cache.put(solution);
+            return solution;
+        }
+
+        notifyOriginProcessed(data.getOrigin());
+        if (nodes.length == 0) {
+            return new ShortestPathSolution(data, Status.INFEASIBLE);
+        }
+        notifyDestinationReached(data.getDestination());
+
+        final Graph graph = data.getGraph();
+        if (nodes.length == 1) {
+            return new ShortestPathSolution(data, Status.OPTIMAL,
+                    new Path(graph, data.getOrigin()));
+        }
+        ArrayList<Arc> arcs = new ArrayList<>(nodes.length - 1);
+        for (int i = 1; i < nodes.length; ++i) {
+            arcs.add(findCheapestArc(graph.get(nodes[i - 1]), graph.get(nodes[i])));
+        }
+        return new ShortestPathSolution(data, Status.OPTIMAL, new Path(graph, arcs));
+    }
+
+}
@@ -0,0 +1,156 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.utils.PrimitiveBinaryHeap;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Path;
+
+/**
+ * <p>
+ * Implementation of Dijkstra's algorithm on the {@link CompactGraph} of the
+ * input graph, using the precomputed arc costs of a {@link CompactMetric}.
+ * Relaxing the successors of a node is a sequential scan of the arc arrays,
+ * and neither the arc inspector nor the {@link Arc} objects are used during the
+ * search.
+ * </p>
+ *
+ * <p>
+ * The predecessors stored in the {@link ShortestPathWorkspace} are the indices
+ * of the compact arcs used to reach the nodes, so the path is rebuilt using
+ * exactly the arcs found by the search.
+ * </p>
+ *
+ */
+public class CompactDijkstraAlgorithm extends ShortestPathAlgorithm {
+
+    // Workspace for the search, or null to take one from the pool of the graph
+    // for each run.
+    private final ShortestPathWorkspace workspace;
+
+    /**
+     * Create a new algorithm that takes a workspace from the pool of the graph
+     * for each run.
+     *
+     * @param data Input data for the algorithm.
+     *
+     * @see ShortestPathWorkspace#acquire(Graph)
+     */
+    public CompactDijkstraAlgorithm(ShortestPathData data) {
+        super(data);
+        this.workspace = null;
+    }
+
+    /**
+     * Create a new algorithm that uses the given workspace.
+     *
+     * @param data Input data for the algorithm.
+     * @param workspace Workspace to use, must have been created for the graph of
+     *        the input data.
+     *
+     * @throws IllegalArgumentException if the workspace does not correspond to the
+     *         graph of the input data.
+     */
+    public CompactDijkstraAlgorithm(ShortestPathData data, ShortestPathWorkspace workspace) {
+        super(data);
+        if (workspace.getGraph() != data.getGraph()) {
+            throw new IllegalArgumentException("Workspace does not match the graph of the data.");
+        }
+        this.workspace = workspace;
+    }
+
+    /**
+     * @return Workspace used by this algorithm, or null if it takes one from the
+     *         pool of the graph.
+     */
+    public ShortestPathWorkspace getWorkspace() {
+        return workspace;
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+        final ShortestPathWorkspace ws = this.workspace != null ? this.workspace
+                : ShortestPathWorkspace.acquire(getInputData().getGraph());
+        try {
+            return search(ws);
+        }
+        finally {
+            if (this.workspace == null) {
+                ShortestPathWorkspace.release(ws);
+            }
+        }
+    }
+
+    /**
+     * Run the search with the given workspace.
+     */
+    private ShortestPathSolution search(ShortestPathWorkspace ws) {
+        final ShortestPathData data = getInputData();
+        final Graph graph = data.getGraph();
+        final CompactMetric metric = CompactMetric.getMetric(graph, data.getArcInspector());
+        final CompactGraph compact = metric.getGraph();
+
+        final int origin = data.getOrigin().getId();
+        final int destination = data.getDestination().getId();
+
+        // Start a new search in the workspace.
+        ws.reset();
+        final PrimitiveBinaryHeap heap = ws.getHeap();
+        ws.setCost(origin, 0, -1);
+        heap.insert(origin, 0);
+
+        // Notify observers about the first event (origin processed).
+        notifyOriginProcessed(data.getOrigin());
+
+        while (!heap.isEmpty() && !ws.isMarked(destination)) {
+            final int current = heap.deleteMin();
+            ws.mark(current);
+            notifyNodeMarked(graph.get(current));
+
+            final double currentCost = ws.getCost(current);
+            final int lastArc = compact.getFirstArc(current + 1);
+            for (int arc = compact.getFirstArc(current); arc < lastArc; ++arc) {
+                final int next = compact.getArcHead(arc);
+                if (ws.isMarked(next)) {
+                    continue;
+                }
+
+                // Arcs that are not allowed have an infinite cost.
+                final double newCost = currentCost + metric.getCost(arc);
+                final double oldCost = ws.getCost(next);
+                if (newCost < oldCost) {
+                    if (Double.isInfinite(oldCost)) {
+                        notifyNodeReached(graph.get(next));
+                    }
+                    ws.setCost(next, newCost, arc);
+                    heap.insertOrUpdate(next, newCost);
+                }
+            }
+        }
+
+        if (!ws.isMarked(destination)) {
+            return new ShortestPathSolution(data, Status.INFEASIBLE);
+        }
+
+        // The destination has been found, notify the observers.
+        notifyDestinationReached(data.getDestination());
+
+        // Rebuild the path from the predecessor arcs.
+        if (origin == destination) {
+            return new ShortestPathSolution(data, Status.OPTIMAL,
+                    new Path(graph, data.getOrigin()));
+        }
+        ArrayList<Arc> arcs = new ArrayList<>();
+        for (int arc = ws.getPredecessor(destination); arc != -1;
+                arc = ws.getPredecessor(compact.getArcTail(arc))) {
+            arcs.add(compact.getArc(arc));
+        }
+        Collections.reverse(arcs);
+        return new ShortestPathSolution(data, Status.OPTIMAL, new Path(graph, arcs));
+    }
+
+}
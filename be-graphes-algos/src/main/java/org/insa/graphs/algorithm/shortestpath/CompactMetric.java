@@ -0,0 +1,238 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+
+/**
+ * <p>
+ * Costs of the arcs of a {@link CompactGraph} for a given {@link ArcInspector},
+ * stored in an array indexed by arc. Arcs that are not allowed by the inspector
+ * have an infinite cost.
+ * </p>
+ *
+ * <p>
+ * Compact graphs and metrics are expensive to create, so they are cached: the
+ * compact graph of a {@link Graph} is created only once (see
+ * {@link #getCompactGraph(Graph)}), and so is the metric for a given graph and
+ * inspector (see {@link #getMetric(Graph, ArcInspector)}). Inspectors are
+ * identified by their {@link ArcInspector#getMetricKey() metric key}, since the
+ * inspectors of {@link org.insa.graphs.algorithm.ArcInspectorFactory} are
+ * created anew on every call, and inspectors without metric key by their
+ * instance. Cached values are softly referenced (they reference their key), so
+ * they can be reclaimed when memory runs low.
+ * </p>
+ *
+ */
+public final class CompactMetric {
+
+    // Compact graphs, by graph.
+    private static final Map<Graph, SoftReference<CompactGraph>> compactGraphs = new WeakHashMap<>();
+
+    // Metrics, by compact graph and inspector key.
+    private static final Map<CompactGraph, Map<String, SoftReference<CompactMetric>>> metrics = new WeakHashMap<>();
+
+    // Keys of the inspectors without metric key, unique to each instance.
+    private static final Map<ArcInspector, String> instanceKeys = new WeakHashMap<>();
+    private static long nextInstanceKey = 0;
+
+    // Last metric retrieved for a graph, returned without locking when it is
+    // requested again for the same graph and inspector instance.
+    private static volatile LastLookup lastLookup = null;
+
+    /**
+     * Inspector instance of the last lookup, and the metric that was returned.
+     */
+    private static final class LastLookup {
+
+        final ArcInspector inspector;
+        final WeakReference<CompactMetric> metric;
+
+        LastLookup(ArcInspector inspector, CompactMetric metric) {
+            this.inspector = inspector;
+            this.metric = new WeakReference<>(metric);
+        }
+
+    }
+
+    /**
+     * Retrieve the compact graph corresponding to the given graph, creating it if
+     * necessary.
+     *
+     * @param graph Graph for which the compact graph should be retrieved.
+     *
+     * @return Compact graph for the given graph.
+     */
+    public static CompactGraph getCompactGraph(Graph graph) {
+        synchronized (compactGraphs) {
+            SoftReference<CompactGraph> reference = compactGraphs.get(graph);
+            CompactGraph compactGraph = reference == null ? null : reference.get();
+            if (compactGraph == null) {
+                compactGraph = CompactGraph.fromGraph(graph);
+                compactGraphs.put(graph, new SoftReference<>(compactGraph));
+            }
+            return compactGraph;
+        }
+    }
+
+    /**
+     * Retrieve the metric corresponding to the given graph and inspector, creating
+     * it (and the compact graph) if necessary.
+     *
+     * @param graph Graph for the metric.
+     * @param inspector Inspector used to compute arc costs.
+     *
+     * @return Metric for the given graph and inspector.
+     */
+    public static CompactMetric getMetric(Graph graph, ArcInspector inspector) {
+        final LastLookup lookup = lastLookup;
+        CompactMetric metric = lookup == null ? null : lookup.metric.get();
+        if (metric != null && lookup.inspector == inspector && metric.graph.getGraph() == graph) {
+            return metric;
+        }
+        metric = getMetric(getCompactGraph(graph), inspector);
+        lastLookup = new LastLookup(inspector, metric);
+        return metric;
+    }
+
+    /**
+     * Retrieve the metric corresponding to the given compact graph and inspector,
+     * creating it if necessary.
+     *
+     * @param graph Compact graph for the metric.
+     * @param inspector Inspector used to compute arc costs.
+     *
+     * @return Metric for the given graph and inspector.
+     */
+    public static CompactMetric getMetric(CompactGraph graph, ArcInspector inspector) {
+        synchronized (metrics) {
+            Map<String, SoftReference<CompactMetric>> graphMetrics = metrics
+                    .computeIfAbsent(graph, g -> new HashMap<>());
+            String key = getInspectorKey(inspector);
+            SoftReference<CompactMetric> reference = graphMetrics.get(key);
+            CompactMetric metric = reference == null ? null : reference.get();
+            if (metric == null) {
+                metric = new CompactMetric(graph, inspector);
+                graphMetrics.values().removeIf(r -> r.get() == null);
+                graphMetrics.put(key, new SoftReference<>(metric));
+            }
+            return metric;
+        }
+    }
+
+    /**
+     * @param inspector An arc inspector.
+     *
+     * @return Key identifying the given inspector in caches: its metric key if it
+     *         has one, otherwise a key unique to this instance (and to this run).
+     *
+     * @see ArcInspector#getMetricKey()
+     */
+    public static String getInspectorKey(ArcInspector inspector) {
+        final String metricKey = inspector.getMetricKey();
+        if (metricKey != null) {
+            return metricKey;
+        }
+        synchronized (instanceKeys) {
+            return instanceKeys.computeIfAbsent(inspector,
+                    i -> i.getClass().getName() + "#" + nextInstanceKey++);
+        }
+    }
+
+    // Graph of this metric.
+    private final CompactGraph graph;
+
+    // Inspector used to compute the costs.
+    private final ArcInspector inspector;
+
+    // Cost of each arc.
+    private final double[] costs;
+
+    // Metric for the reverse graph (lazily created).
+    private CompactMetric reverse;
+
+    /**
+     * Create a new metric by computing the cost of every arc of the given graph.
+     * Most of the time, {@link #getMetric(CompactGraph, ArcInspector)} should be
+     * used instead.
+     *
+     * @param graph Compact graph for this metric.
+     * @param inspector Inspector used to compute arc costs.
+     */
+    public CompactMetric(CompactGraph graph, ArcInspector inspector) {
+        this.graph = graph;
+        this.inspector = inspector;
+        this.costs = new double[graph.getNumberOfArcs()];
+        CompactGraph.ArcView view = graph.createArcView();
+        for (int arc = 0; arc < this.costs.length; ++arc) {
+            view.setArc(arc);
+            this.costs[arc] = inspector.isAllowed(view) ? inspector.getCost(view)
+                    : Double.POSITIVE_INFINITY;
+        }
+    }
+
+    private CompactMetric(CompactMetric forward, CompactGraph reverse) {
+        this.graph = reverse;
+        this.inspector = forward.inspector;
+        this.costs = new double[reverse.getNumberOfArcs()];
+        for (int arc = 0; arc < this.costs.length; ++arc) {
+            this.costs[arc] = forward.costs[reverse.getOriginalArc(arc)];
+        }
+        this.reverse = forward;
+    }
+
+    /**
+     * @return Compact graph of this metric.
+     */
+    public CompactGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * @return Inspector used to compute the costs of this metric.
+     */
+    public ArcInspector getInspector() {
+        return inspector;
+    }
+
+    /**
+     * @param arc Index of the arc.
+     *
+     * @return Cost of the arc, or {@link Double#POSITIVE_INFINITY} if the arc is
+     *         not allowed.
+     */
+    public double getCost(int arc) {
+        return this.costs[arc];
+    }
+
+    /**
+     * @param arc Index of the arc.
+     *
+     * @return true if the arc is allowed.
+     */
+    public boolean isAllowed(int arc) {
+        return this.costs[arc] != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Retrieve the metric of the reverse graph, where the cost of an arc is the
+     * cost of the corresponding forward arc.
+     *
+     * @return Metric for the reverse of the graph of this metric.
+     *
+     * @see CompactGraph#getReverse()
+     */
+    public synchronized CompactMetric getReverse() {
+        if (this.reverse == null) {
+            this.reverse = new CompactMetric(this, this.graph.getReverse());
+        }
+        return this.reverse;
+    }
+
+}
@@ -0,0 +1,362 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
+
+/**
+ * <p>
+ * Contraction hierarchy of a {@link CompactMetric}, as computed by
+ * {@link ContractionHierarchyBuilder}.
+ * </p>
+ *
+ * <p>
+ * Each node has a rank (the order in which the nodes were contracted), and the
+ * edges of the hierarchy are the arcs of the metric plus the shortcuts added
+ * during the contraction. A shortcut replaces a path of two edges through a
+ * node of lower rank, so any shortest path can be found using only upward edges
+ * from the origin and (reversed) upward edges from the destination. Shortcuts
+ * are unpacked recursively into the arcs of the compact graph, see
+ * {@link #unpack(int, List)}.
+ * </p>
+ *
+ * <p>
+ * The upward edges of each node (edges to a node of higher rank) and the
+ * downward edges of each node (edges from a node of higher rank) are stored in
+ * CSR arrays, similar to the ones of {@link CompactGraph}.
+ * </p>
+ *
+ */
+public class ContractionHierarchy {
+
+    // Cached hierarchies (built or being built), by metric.
+    private static final ConcurrentMap<CompactMetric, CompletableFuture<ContractionHierarchy>> hierarchies = new ConcurrentHashMap<>();
+
+    /**
+     * <p>
+     * Start computing the hierarchy for the given metric with the default
+     * parameters (using the common pool, see
+     * {@link ContractionHierarchyBuilder#build(ForkJoinPool)}) on the given
+     * executor, unless it is already in the cache or being computed.
+     * </p>
+     *
+     * <p>
+     * This can be used to preprocess the hierarchies of a server before it
+     * answers queries. Hierarchies are kept in the cache until
+     * {@link #removeHierarchy(CompactMetric)} is called.
+     * </p>
+     *
+     * @param metric Metric for the hierarchy.
+     * @param executor Executor computing the hierarchy if needed.
+     *
+     * @return A future completed with the hierarchy for the given metric.
+     */
+    public static CompletableFuture<ContractionHierarchy> preprocess(CompactMetric metric,
+            Executor executor) {
+        CompletableFuture<ContractionHierarchy> future = hierarchies.get(metric);
+        if (future == null) {
+            final CompletableFuture<ContractionHierarchy> created = new CompletableFuture<>();
+            future = hierarchies.putIfAbsent(metric, created);
+            if (future == null) {
+                future = created;
+                executor.execute(() -> {
+                    try {
+                        created.complete(new ContractionHierarchyBuilder(metric)
+                                .build(ForkJoinPool.commonPool()));
+                    }
+                    catch (Throwable throwable) {
+                        // Do not cache the failure, the next query tries again.
+                        hierarchies.remove(metric, created);
+                        created.completeExceptionally(throwable);
+                    }
+                });
+            }
+        }
+        return future;
+    }
+
+    /**
+     * Retrieve the hierarchy for the given metric, computing it in the calling
+     * thread if it is not in the cache, or waiting for it if it is being computed
+     * (see {@link #preprocess(CompactMetric, Executor)}). The cache is not locked
+     * while the hierarchy is computed.
+     *
+     * @param metric Metric for the hierarchy.
+     *
+     * @return Contraction hierarchy for the given metric.
+     */
+    public static ContractionHierarchy getHierarchy(CompactMetric metric) {
+        try {
+            return preprocess(metric, Runnable::run).join();
+        }
+        catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) exception.getCause();
+            }
+            if (exception.getCause() instanceof Error) {
+                throw (Error) exception.getCause();
+            }
+            throw exception;
+        }
+    }
+
+    /**
+     * Retrieve the hierarchy for the given metric only if it is in the cache.
+     *
+     * @param metric Metric for the hierarchy.
+     *
+     * @return Cached contraction hierarchy for the given metric, or null if there
+     *         is none or if it is still being computed.
+     */
+    public static ContractionHierarchy getCachedHierarchy(CompactMetric metric) {
+        CompletableFuture<ContractionHierarchy> future = hierarchies.get(metric);
+        return future == null || future.isCompletedExceptionally() ? null
+                : future.getNow(null);
+    }
+
+    /**
+     * Remove the hierarchy for the given metric from the cache, so that its memory
+     * can be reclaimed once it is not used anymore.
+     *
+     * @param metric Metric for the hierarchy.
+     */
+    public static void removeHierarchy(CompactMetric metric) {
+        hierarchies.remove(metric);
+    }
+
+    // Metric of this hierarchy.
+    private final CompactMetric metric;
+
+    // Rank of each node.
+    private final int[] ranks;
+
+    // Edges: tail, head, cost, and arc of the compact graph (-1 for shortcuts),
+    // or the two edges replaced by the shortcut.
+    private final int[] edgeTail, edgeHead, edgeArc, edgeFirst, edgeSecond;
+    private final double[] edgeCost;
+
+    // Upward and downward edges of each node (CSR arrays of edge indices).
+    private final int[] firstUpward, upwardEdges, firstDownward, downwardEdges;
+
+    /**
+     * Create a new hierarchy from the given arrays, the CSR arrays of upward and
+     * downward edges are created from the edges and the ranks.
+     *
+     * @param metric Metric of the hierarchy.
+     * @param ranks Rank of each node.
+     * @param nbEdges Number of edges.
+     * @param edgeTail Tail of each edge.
+     * @param edgeHead Head of each edge.
+     * @param edgeCost Cost of each edge.
+     * @param edgeArc Arc of the compact graph of each edge, -1 for shortcuts.
+     * @param edgeFirst First edge replaced by each shortcut.
+     * @param edgeSecond Second edge replaced by each shortcut.
+     */
+    ContractionHierarchy(CompactMetric metric, int[] ranks, int nbEdges, int[] edgeTail,
+            int[] edgeHead, double[] edgeCost, int[] edgeArc, int[] edgeFirst,
+            int[] edgeSecond) {
+        this.metric = metric;
+        this.ranks = ranks;
+        this.edgeTail = edgeTail;
+        this.edgeHead = edgeHead;
+        this.edgeCost = edgeCost;
+        this.edgeArc = edgeArc;
+        this.edgeFirst = edgeFirst;
+        this.edgeSecond = edgeSecond;
+
+        final int nbNodes = ranks.length;
+        this.firstUpward = new int[nbNodes + 1];
+        this.firstDownward = new int[nbNodes + 1];
+        int nbUpward = 0;
+        for (int edge = 0; edge < nbEdges; ++edge) {
+            if (ranks[edgeTail[edge]] < ranks[edgeHead[edge]]) {
+                this.firstUpward[edgeTail[edge] + 1]++;
+                nbUpward++;
+            }
+            else {
+                this.firstDownward[edgeHead[edge] + 1]++;
+            }
+        }
+        for (int node = 0; node < nbNodes; ++node) {
+            this.firstUpward[node + 1] += this.firstUpward[node];
+            this.firstDownward[node + 1] += this.firstDownward[node];
+        }
+        this.upwardEdges = new int[nbUpward];
+        this.downwardEdges = new int[nbEdges - nbUpward];
+        int[] nextUpward = new int[nbNodes], nextDownward = new int[nbNodes];
+        System.arraycopy(this.firstUpward, 0, nextUpward, 0, nbNodes);
+        System.arraycopy(this.firstDownward, 0, nextDownward, 0, nbNodes);
+        for (int edge = 0; edge < nbEdges; ++edge) {
+            if (ranks[edgeTail[edge]] < ranks[edgeHead[edge]]) {
+                this.upwardEdges[nextUpward[edgeTail[edge]]++] = edge;
+            }
+            else {
+                this.downwardEdges[nextDownward[edgeHead[edge]]++] = edge;
+            }
+        }
+    }
+
+    /**
+     * @return Metric of this hierarchy.
+     */
+    public CompactMetric getMetric() {
+        return metric;
+    }
+
+    /**
+     * @return Number of nodes in this hierarchy.
+     */
+    public int size() {
+        return this.ranks.length;
+    }
+
+    /**
+     * @param node ID of the node.
+     *
+     * @return Rank of the node (0 for the first contracted node).
+     */
+    public int getRank(int node) {
+        return this.ranks[node];
+    }
+
+    /**
+     * @return Number of edges (arcs and shortcuts) in this hierarchy.
+     */
+    public int getNumberOfEdges() {
+        return this.upwardEdges.length + this.downwardEdges.length;
+    }
+
+    /**
+     * @return Number of shortcuts in this hierarchy.
+     */
+    public int getNumberOfShortcuts() {
+        int count = 0;
+        for (int edge = 0; edge < getNumberOfEdges(); ++edge) {
+            if (isShortcut(edge)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param node ID of the node, or {@link #size()} for the end of the last
+     *        node.
+     *
+     * @return Index of the first upward edge of the node, the upward edges of the
+     *         node are at indices [getFirstUpward(node), getFirstUpward(node + 1)[.
+     */
+    public int getFirstUpward(int node) {
+        return this.firstUpward[node];
+    }
+
+    /**
+     * @param index Index in the upward edges.
+     *
+     * @return Edge at the given index, whose tail is the node and whose head has a
+     *         higher rank.
+     */
+    public int getUpwardEdge(int index) {
+        return this.upwardEdges[index];
+    }
+
+    /**
+     * @param node ID of the node, or {@link #size()} for the end of the last
+     *        node.
+     *
+     * @return Index of the first downward edge of the node, the downward edges of
+     *         the node are at indices [getFirstDownward(node),
+     *         getFirstDownward(node + 1)[.
+     */
+    public int getFirstDownward(int node) {
+        return this.firstDownward[node];
+    }
+
+    /**
+     * @param index Index in the downward edges.
+     *
+     * @return Edge at the given index, whose head is the node and whose tail has a
+     *         higher rank.
+     */
+    public int getDownwardEdge(int index) {
+        return this.downwardEdges[index];
+    }
+
+    /**
+     * @param edge Index of the edge.
+     *
+     * @return Tail of the edge.
+     */
+    public int getEdgeTail(int edge) {
+        return this.edgeTail[edge];
+    }
+
+    /**
+     * @param edge Index of the edge.
+     *
+     * @return Head of the edge.
+     */
+    public int getEdgeHead(int edge) {
+        return this.edgeHead[edge];
+    }
+
+    /**
+     * @param edge Index of the edge.
+     *
+     * @return Cost of the edge.
+     */
+    public double getEdgeCost(int edge) {
+        return this.edgeCost[edge];
+    }
+
+    /**
+     * @param edge Index of the edge.
+     *
+     * @return true if the edge is a shortcut.
+     */
+    public boolean isShortcut(int edge) {
+        return this.edgeArc[edge] == -1;
+    }
+
+    /**
+     * Unpack the given edge into the arcs of the original graph.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(k)</i> where k is the number of arcs replaced by the
+     * edge.
+     * </p>
+     *
+     * @param edge Index of the edge.
+     * @param arcs List where the arcs of the edge are appended, in order.
+     *
+     * @throws IllegalStateException if the compact graph of the metric has no
+     *         original graph.
+     */
+    public void unpack(int edge, List<Arc> arcs) {
+        final CompactGraph compact = this.metric.getGraph();
+        int[] stack = new int[16];
+        int size = 0;
+        stack[size++] = edge;
+        while (size > 0) {
+            int current = stack[--size];
+            if (this.edgeArc[current] != -1) {
+                arcs.add(compact.getArc(this.edgeArc[current]));
+                continue;
+            }
+            if (size + 2 > stack.length) {
+                stack = Arrays.copyOf(stack, 2 * stack.length);
+            }
+            stack[size++] = this.edgeSecond[current];
+            stack[size++] = this.edgeFirst[current];
+        }
+    }
+
+}
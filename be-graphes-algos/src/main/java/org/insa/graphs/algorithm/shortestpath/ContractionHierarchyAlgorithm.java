@@ -0,0 +1,264 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.utils.PrimitiveBinaryHeap;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Path;
+
+/**
+ * <p>
+ * Query of a {@link ContractionHierarchy}: a bidirectional Dijkstra's algorithm
+ * where the forward search from the origin only uses upward edges and the
+ * backward search from the destination only uses downward edges (in reverse),
+ * so both searches only visit nodes of increasing rank. A search is stopped
+ * when its smallest key is at least the cost of the best path found so far.
+ * </p>
+ *
+ * <p>
+ * The predecessors stored in the {@link ShortestPathWorkspace} are edges of the
+ * hierarchy, the shortcuts of the path found are unpacked into the original
+ * arcs, so the solution is a normal {@link Path} of the graph.
+ * </p>
+ *
+ */
+public class ContractionHierarchyAlgorithm extends ShortestPathAlgorithm {
+
+    // Workspaces for the forward and backward searches, or null to take them from
+    // the pool of the graph for each run.
+    private final ShortestPathWorkspace forwardWorkspace, backwardWorkspace;
+
+    // Hierarchy, or null to use the cached hierarchy of the metric.
+    private final ContractionHierarchy hierarchy;
+
+    // Cost of the best path found so far, and node where the searches met.
+    private double bestCost;
+    private int meetingNode;
+
+    /**
+     * Create a new algorithm that uses the cached hierarchy of the metric of the
+     * input data (computed with the default parameters if it is not in the
+     * cache), and workspaces from the pool of the graph.
+     *
+     * @param data Input data for the algorithm.
+     *
+     * @see ContractionHierarchy#getHierarchy(CompactMetric)
+     */
+    public ContractionHierarchyAlgorithm(ShortestPathData data) {
+        this(data, null);
+    }
+
+    /**
+     * Create a new algorithm that uses the given hierarchy and workspaces from the
+     * pool of the graph.
+     *
+     * @param data Input data for the algorithm.
+     * @param hierarchy Hierarchy to use, or null to use the cached hierarchy.
+     *
+     * @throws IllegalArgumentException if the hierarchy does not correspond to the
+     *         graph and inspector of the input data.
+     */
+    public ContractionHierarchyAlgorithm(ShortestPathData data, ContractionHierarchy hierarchy) {
+        super(data);
+        checkHierarchy(data, hierarchy);
+        this.hierarchy = hierarchy;
+        this.forwardWorkspace = null;
+        this.backwardWorkspace = null;
+    }
+
+    /**
+     * Create a new algorithm that uses the given hierarchy and workspaces.
+     *
+     * @param data Input data for the algorithm.
+     * @param hierarchy Hierarchy to use, or null to use the cached hierarchy.
+     * @param forwardWorkspace Workspace for the forward search.
+     * @param backwardWorkspace Workspace for the backward search, must be
+     *        different from the forward workspace.
+     *
+     * @throws IllegalArgumentException if the hierarchy or a workspace does not
+     *         correspond to the graph (or inspector) of the input data, or if the
+     *         two workspaces are the same.
+     */
+    public ContractionHierarchyAlgorithm(ShortestPathData data, ContractionHierarchy hierarchy,
+            ShortestPathWorkspace forwardWorkspace, ShortestPathWorkspace backwardWorkspace) {
+        super(data);
+        if (forwardWorkspace.getGraph() != data.getGraph()
+                || backwardWorkspace.getGraph() != data.getGraph()) {
+            throw new IllegalArgumentException("Workspace does not match the graph of the data.");
+        }
+        if (forwardWorkspace == backwardWorkspace) {
+            throw new IllegalArgumentException("Forward and backward workspaces must differ.");
+        }
+        checkHierarchy(data, hierarchy);
+        this.hierarchy = hierarchy;
+        this.forwardWorkspace = forwardWorkspace;
+        this.backwardWorkspace = backwardWorkspace;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the hierarchy is not null and does not
+     *         correspond to the graph and inspector of the input data.
+     */
+    private static void checkHierarchy(ShortestPathData data, ContractionHierarchy hierarchy) {
+        if (hierarchy != null && hierarchy.getMetric() != CompactMetric
+                .getMetric(data.getGraph(), data.getArcInspector())) {
+            throw new IllegalArgumentException("Hierarchy does not match the data.");
+        }
+    }
+
+    /**
+     * @return Smallest key in the heap of the given workspace, or
+     *         {@link Double#POSITIVE_INFINITY} if the heap is empty.
+     */
+    private static double minKey(ShortestPathWorkspace ws) {
+        return ws.getHeap().isEmpty() ? Double.POSITIVE_INFINITY : ws.getHeap().findMinKey();
+    }
+
+    /**
+     * Settle the next node of a search and relax its upward (or downward) edges.
+     *
+     * @param ch Hierarchy for the search.
+     * @param ws Workspace of the search.
+     * @param other Workspace of the opposite search.
+     * @param forward true for the forward search (upward edges), false for the
+     *        backward search (downward edges).
+     */
+    private void step(ContractionHierarchy ch, ShortestPathWorkspace ws,
+            ShortestPathWorkspace other, boolean forward) {
+        final Graph graph = getInputData().getGraph();
+        final PrimitiveBinaryHeap heap = ws.getHeap();
+
+        final int current = heap.deleteMin();
+        ws.mark(current);
+        notifyNodeMarked(graph.get(current));
+
+        final double currentCost = ws.getCost(current);
+        final int first = forward ? ch.getFirstUpward(current) : ch.getFirstDownward(current);
+        final int last = forward ? ch.getFirstUpward(current + 1)
+                : ch.getFirstDownward(current + 1);
+        for (int index = first; index < last; ++index) {
+            final int edge = forward ? ch.getUpwardEdge(index) : ch.getDownwardEdge(index);
+            final int next = forward ? ch.getEdgeHead(edge) : ch.getEdgeTail(edge);
+            if (ws.isMarked(next)) {
+                continue;
+            }
+
+            final double newCost = currentCost + ch.getEdgeCost(edge);
+            final double oldCost = ws.getCost(next);
+            if (newCost < oldCost) {
+                if (Double.isInfinite(oldCost)) {
+                    notifyNodeReached(graph.get(next));
+                }
+                ws.setCost(next, newCost, edge);
+                heap.insertOrUpdate(next, newCost);
+
+                // Check if this gives a better path through the opposite search.
+                final double pathCost = newCost + other.getCost(next);
+                if (pathCost < this.bestCost) {
+                    this.bestCost = pathCost;
+                    this.meetingNode = next;
+                }
+            }
+        }
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+        final Graph graph = getInputData().getGraph();
+        final ShortestPathWorkspace forward = this.forwardWorkspace != null
+                ? this.forwardWorkspace : ShortestPathWorkspace.acquire(graph);
+        final ShortestPathWorkspace backward = this.backwardWorkspace != null
+                ? this.backwardWorkspace : ShortestPathWorkspace.acquire(graph);
+        try {
+            return search(forward, backward);
+        }
+        finally {
+            if (this.forwardWorkspace == null) {
+                ShortestPathWorkspace.release(forward);
+            }
+            if (this.backwardWorkspace == null) {
+                ShortestPathWorkspace.release(backward);
+            }
+        }
+    }
+
+    /**
+     * Run the query with the given workspaces.
+     */
+    private ShortestPathSolution search(ShortestPathWorkspace forward,
+            ShortestPathWorkspace backward) {
+        final ShortestPathData data = getInputData();
+        final Graph graph = data.getGraph();
+        final ContractionHierarchy ch = this.hierarchy != null ? this.hierarchy
+                : ContractionHierarchy.getHierarchy(
+                        CompactMetric.getMetric(graph, data.getArcInspector()));
+
+        final int origin = data.getOrigin().getId();
+        final int destination = data.getDestination().getId();
+
+        // Start new searches in the workspaces.
+        forward.reset();
+        backward.reset();
+        forward.setCost(origin, 0, -1);
+        forward.getHeap().insert(origin, 0);
+        backward.setCost(destination, 0, -1);
+        backward.getHeap().insert(destination, 0);
+
+        this.bestCost = origin == destination ? 0 : Double.POSITIVE_INFINITY;
+        this.meetingNode = origin;
+
+        // Notify observers about the first event (origin processed).
+        notifyOriginProcessed(data.getOrigin());
+
+        // Both searches only go up in the hierarchy, so each search continues until
+        // its own smallest key exceeds the best cost.
+        double forwardKey = minKey(forward), backwardKey = minKey(backward);
+        while (forwardKey < this.bestCost || backwardKey < this.bestCost) {
+            if (forwardKey <= backwardKey) {
+                step(ch, forward, backward, true);
+                forwardKey = minKey(forward);
+            }
+            else {
+                step(ch, backward, forward, false);
+                backwardKey = minKey(backward);
+            }
+        }
+
+        if (Double.isInfinite(this.bestCost)) {
+            return new ShortestPathSolution(data, Status.INFEASIBLE);
+        }
+
+        // The destination has been found, notify the observers.
+        notifyDestinationReached(data.getDestination());
+
+        if (origin == destination) {
+            return new ShortestPathSolution(data, Status.OPTIMAL,
+                    new Path(graph, data.getOrigin()));
+        }
+
+        // Edges of the forward part (from the meeting node back to the origin).
+        ArrayList<Integer> edges = new ArrayList<>();
+        for (int edge = forward.getPredecessor(this.meetingNode); edge != -1;
+                edge = forward.getPredecessor(ch.getEdgeTail(edge))) {
+            edges.add(edge);
+        }
+        Collections.reverse(edges);
+
+        // Edges of the backward part (from the meeting node to the destination).
+        for (int edge = backward.getPredecessor(this.meetingNode); edge != -1;
+                edge = backward.getPredecessor(ch.getEdgeHead(edge))) {
+            edges.add(edge);
+        }
+
+        // Unpack the shortcuts.
+        ArrayList<Arc> arcs = new ArrayList<>();
+        for (int edge: edges) {
+            ch.unpack(edge, arcs);
+        }
+        return new ShortestPathSolution(data, Status.OPTIMAL, new Path(graph, arcs));
+    }
+
+}
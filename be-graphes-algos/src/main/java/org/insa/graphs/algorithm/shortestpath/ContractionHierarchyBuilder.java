@@ -0,0 +1,735 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+import org.insa.graphs.algorithm.utils.PrimitiveBinaryHeap;
+import org.insa.graphs.model.CompactGraph;
+
+/**
+ * <p>
+ * Builder of the {@link ContractionHierarchy} of a {@link CompactMetric}.
+ * </p>
+ *
+ * <p>
+ * The priority of a node is its edge difference (number of shortcuts that
+ * contracting the node would add minus the number of edges it would remove)
+ * plus the number of neighbours already contracted, which spreads the
+ * contraction uniformly over the graph. Nodes can be contracted in two ways:
+ * </p>
+ * <ul>
+ * <li>{@link #build()} contracts the nodes one at a time, with lazy updates: the
+ * node with the smallest priority is only contracted if its recomputed priority
+ * is still the smallest, and the priorities of its neighbours are recomputed
+ * after its contraction.</li>
+ * <li>{@link #build(ForkJoinPool)} contracts the nodes by rounds: at each
+ * round, the nodes whose priority is smaller than the priority of all their
+ * neighbours form an independent set, and the shortcuts of these nodes are
+ * computed concurrently, then added in the order of the node IDs. The
+ * hierarchy only depends on the graph, not on the number of threads.</li>
+ * </ul>
+ *
+ * <p>
+ * When a node v is contracted, a shortcut (u, w) is added for each pair of
+ * edges (u, v) and (v, w) unless a witness search finds a path from u to w
+ * avoiding v (and the other nodes contracted in the same round) that is not
+ * more expensive. Witness searches are limited to
+ * {@link #getWitnessSearchLimit()} settled nodes: an unfinished search only
+ * adds unnecessary shortcuts, so the hierarchy is always correct.
+ * </p>
+ *
+ */
+public class ContractionHierarchyBuilder {
+
+    /**
+     * Default maximum number of nodes settled by a witness search.
+     */
+    public static final int DEFAULT_WITNESS_SEARCH_LIMIT = 500;
+
+    // Number of nodes processed by each parallel task.
+    private static final int TASK_SIZE = 256;
+
+    // Metric and compact graph.
+    private final CompactMetric metric;
+    private final CompactGraph graph;
+
+    // Maximum number of nodes settled by a witness search.
+    private int witnessSearchLimit = DEFAULT_WITNESS_SEARCH_LIMIT;
+
+    // List of observers.
+    private final List<ContractionHierarchyObserver> observers = new ArrayList<>();
+
+    // Edges of the graph being contracted (see ContractionHierarchy).
+    private int nbEdges;
+    private int[] edgeTail, edgeHead, edgeArc, edgeFirst, edgeSecond;
+    private double[] edgeCost;
+
+    // Outgoing and incoming edges of each node. The edges of a node are removed
+    // from the lists of its neighbours when it is contracted, so the lists of the
+    // nodes that are not contracted only contain edges between such nodes.
+    private int[][] outEdges, inEdges;
+    private int[] nbOutEdges, nbInEdges;
+
+    // Number of contracted neighbours of each node.
+    private int[] contractedNeighbours;
+
+    // Nodes contracted in the current round (parallel contraction only).
+    private boolean[] selected;
+
+    // Witness search of each thread.
+    private ThreadLocal<WitnessSearch> witnessSearches;
+
+    /**
+     * Create a new builder for the given metric.
+     *
+     * @param metric Metric for the hierarchy.
+     */
+    public ContractionHierarchyBuilder(CompactMetric metric) {
+        this.metric = metric;
+        this.graph = metric.getGraph();
+    }
+
+    /**
+     * Add a new observer to this builder.
+     *
+     * @param observer Observer to add.
+     */
+    public void addObserver(ContractionHierarchyObserver observer) {
+        this.observers.add(observer);
+    }
+
+    /**
+     * @return Maximum number of nodes settled by a witness search.
+     */
+    public int getWitnessSearchLimit() {
+        return witnessSearchLimit;
+    }
+
+    /**
+     * Set the maximum number of nodes settled by a witness search. Smaller limits
+     * speed up the contraction, but add more shortcuts.
+     *
+     * @param witnessSearchLimit New limit, must be positive.
+     *
+     * @return This builder.
+     *
+     * @throws IllegalArgumentException if the limit is not positive.
+     */
+    public ContractionHierarchyBuilder setWitnessSearchLimit(int witnessSearchLimit) {
+        if (witnessSearchLimit <= 0) {
+            throw new IllegalArgumentException("Invalid witness search limit: " + witnessSearchLimit);
+        }
+        this.witnessSearchLimit = witnessSearchLimit;
+        return this;
+    }
+
+    /**
+     * Contract the nodes of the graph one at a time and create the hierarchy.
+     *
+     * @return The contraction hierarchy of the metric.
+     */
+    public ContractionHierarchy build() {
+        final int nbNodes = this.graph.size();
+        initialize();
+        final WitnessSearch search = this.witnessSearches.get();
+        final Shortcuts shortcuts = new Shortcuts();
+
+        // Initial priorities.
+        PrimitiveBinaryHeap queue = new PrimitiveBinaryHeap(nbNodes);
+        for (int node = 0; node < nbNodes; ++node) {
+            queue.insert(node, computePriority(node, search));
+        }
+
+        // Contract the nodes in order, with lazy updates.
+        int[] ranks = new int[nbNodes];
+        int[] stamps = new int[nbNodes];
+        int rank = 0;
+        while (!queue.isEmpty()) {
+            final int node = queue.deleteMin();
+            final double priority = computePriority(node, search);
+            if (!queue.isEmpty() && priority > queue.findMinKey()) {
+                queue.insert(node, priority);
+                continue;
+            }
+
+            shortcuts.clear();
+            processNode(node, search, shortcuts);
+            shortcuts.addTo(this);
+            removeFromNeighbours(node);
+            ranks[node] = rank++;
+
+            // Update the priorities of the neighbours (once per neighbour).
+            stamps[node] = rank;
+            for (int i = 0; i < this.nbOutEdges[node]; ++i) {
+                final int head = this.edgeHead[this.outEdges[node][i]];
+                if (markNeighbour(head, rank, stamps)) {
+                    queue.insertOrUpdate(head, computePriority(head, search));
+                }
+            }
+            for (int i = 0; i < this.nbInEdges[node]; ++i) {
+                final int tail = this.edgeTail[this.inEdges[node][i]];
+                if (markNeighbour(tail, rank, stamps)) {
+                    queue.insertOrUpdate(tail, computePriority(tail, search));
+                }
+            }
+
+            final int nbRemaining = queue.size();
+            this.observers.forEach((observer) -> observer.notifyNodesContracted(1, nbRemaining));
+        }
+
+        return createHierarchy(ranks);
+    }
+
+    /**
+     * Contract the nodes of the graph by rounds of independent nodes, using the
+     * given pool, and create the hierarchy. The hierarchy does not depend on the
+     * parallelism of the pool.
+     *
+     * @param pool Pool used to contract the nodes.
+     *
+     * @return The contraction hierarchy of the metric.
+     */
+    public ContractionHierarchy build(ForkJoinPool pool) {
+        final int nbNodes = this.graph.size();
+        initialize();
+        this.selected = new boolean[nbNodes];
+
+        // Remaining nodes (in increasing order), and their priorities.
+        int[] remaining = new int[nbNodes];
+        for (int node = 0; node < nbNodes; ++node) {
+            remaining[node] = node;
+        }
+        int nbRemaining = nbNodes;
+        final double[] priorities = new double[nbNodes];
+        forEach(pool, remaining, nbRemaining,
+                (node) -> priorities[node] = computePriority(node, this.witnessSearches.get()));
+
+        int[] ranks = new int[nbNodes];
+        int[] stamps = new int[nbNodes];
+        int[] candidates = new int[nbNodes];
+        int[] updated = new int[nbNodes];
+        int[] lastContracted = new int[nbNodes];
+        Arrays.fill(lastContracted, -1);
+        Shortcuts[] shortcuts = new Shortcuts[nbNodes];
+        int rank = 0, round = 0;
+        while (nbRemaining > 0) {
+            round++;
+
+            // Independent set: nodes whose priority (with ID to break ties) is smaller
+            // than the priority of all their neighbours.
+            int nbCandidates = 0;
+            for (int i = 0; i < nbRemaining; ++i) {
+                final int node = remaining[i];
+                if (isLocalMinimum(node, priorities)) {
+                    this.selected[node] = true;
+                    candidates[nbCandidates++] = node;
+                }
+            }
+
+            // Compute the shortcuts of the selected nodes concurrently, the graph is
+            // not modified during this step.
+            forEach(pool, candidates, nbCandidates, (node) -> {
+                shortcuts[node] = new Shortcuts();
+                processNode(node, this.witnessSearches.get(), shortcuts[node]);
+            });
+
+            // Add the shortcuts and remove the selected nodes, in order.
+            int nbUpdated = 0;
+            for (int i = 0; i < nbCandidates; ++i) {
+                final int node = candidates[i];
+                shortcuts[node].addTo(this);
+                shortcuts[node] = null;
+                removeFromNeighbours(node);
+                ranks[node] = rank++;
+            }
+            for (int i = 0; i < nbCandidates; ++i) {
+                final int node = candidates[i];
+                for (int j = 0; j < this.nbOutEdges[node]; ++j) {
+                    final int head = this.edgeHead[this.outEdges[node][j]];
+                    nbUpdated = addContractedNeighbour(head, node, lastContracted, round,
+                            stamps, updated, nbUpdated);
+                }
+                for (int j = 0; j < this.nbInEdges[node]; ++j) {
+                    final int tail = this.edgeTail[this.inEdges[node][j]];
+                    nbUpdated = addContractedNeighbour(tail, node, lastContracted, round,
+                            stamps, updated, nbUpdated);
+                }
+            }
+
+            // Remaining nodes.
+            int count = 0;
+            for (int i = 0; i < nbRemaining; ++i) {
+                if (!this.selected[remaining[i]]) {
+                    remaining[count++] = remaining[i];
+                }
+            }
+            nbRemaining = count;
+            for (int i = 0; i < nbCandidates; ++i) {
+                this.selected[candidates[i]] = false;
+            }
+
+            // Update the priorities of the neighbours of the contracted nodes.
+            forEach(pool, updated, nbUpdated, (node) -> priorities[node] = computePriority(node,
+                    this.witnessSearches.get()));
+
+            final int nbContracted = nbCandidates, nbLeft = nbRemaining;
+            this.observers.forEach(
+                    (observer) -> observer.notifyNodesContracted(nbContracted, nbLeft));
+        }
+
+        return createHierarchy(ranks);
+    }
+
+    /**
+     * Apply the given action to the given nodes, using the given pool.
+     */
+    private static void forEach(ForkJoinPool pool, int[] nodes, int count, IntConsumer action) {
+        pool.invoke(new RangeAction(nodes, 0, count, action));
+    }
+
+    /**
+     * Action applied to a range of nodes, split into tasks of at most
+     * {@link #TASK_SIZE} nodes.
+     */
+    private static class RangeAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] nodes;
+        private final int from, to;
+        private final IntConsumer action;
+
+        RangeAction(int[] nodes, int from, int to, IntConsumer action) {
+            this.nodes = nodes;
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= TASK_SIZE) {
+                for (int i = this.from; i < this.to; ++i) {
+                    this.action.accept(this.nodes[i]);
+                }
+                return;
+            }
+            final int middle = (this.from + this.to) >>> 1;
+            invokeAll(new RangeAction(this.nodes, this.from, middle, this.action),
+                    new RangeAction(this.nodes, middle, this.to, this.action));
+        }
+
+    }
+
+    /**
+     * @return true if the priority of the given node is smaller than the priority
+     *         of all its neighbours (the IDs are used to break ties).
+     */
+    private boolean isLocalMinimum(int node, double[] priorities) {
+        for (int i = 0; i < this.nbOutEdges[node]; ++i) {
+            if (isBefore(this.edgeHead[this.outEdges[node][i]], node, priorities)) {
+                return false;
+            }
+        }
+        for (int i = 0; i < this.nbInEdges[node]; ++i) {
+            if (isBefore(this.edgeTail[this.inEdges[node][i]], node, priorities)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isBefore(int a, int b, double[] priorities) {
+        return priorities[a] < priorities[b] || (priorities[a] == priorities[b] && a < b);
+    }
+
+    /**
+     * Increase the number of contracted neighbours of the given neighbour of a
+     * contracted node (once per contracted node), and add it to the list of nodes
+     * to update (once per round).
+     *
+     * @return New number of nodes to update.
+     */
+    private int addContractedNeighbour(int neighbour, int node, int[] lastContracted,
+            int round, int[] stamps, int[] updated, int nbUpdated) {
+        if (lastContracted[neighbour] == node) {
+            return nbUpdated;
+        }
+        lastContracted[neighbour] = node;
+        this.contractedNeighbours[neighbour]++;
+        if (stamps[neighbour] != round) {
+            stamps[neighbour] = round;
+            updated[nbUpdated++] = neighbour;
+        }
+        return nbUpdated;
+    }
+
+    /**
+     * @return true if the given neighbour has not been marked with the given stamp
+     *         yet (it is then marked, and its number of contracted neighbours is
+     *         increased).
+     */
+    private boolean markNeighbour(int neighbour, int stamp, int[] stamps) {
+        if (stamps[neighbour] == stamp) {
+            return false;
+        }
+        stamps[neighbour] = stamp;
+        this.contractedNeighbours[neighbour]++;
+        return true;
+    }
+
+    /**
+     * Create the edges from the arcs of the metric (arcs that are not allowed,
+     * loops and parallel arcs that are not the cheapest are ignored).
+     */
+    private void initialize() {
+        final int nbNodes = this.graph.size();
+        final int capacity = Math.max(16, this.graph.getNumberOfArcs());
+        this.nbEdges = 0;
+        this.edgeTail = new int[capacity];
+        this.edgeHead = new int[capacity];
+        this.edgeCost = new double[capacity];
+        this.edgeArc = new int[capacity];
+        this.edgeFirst = new int[capacity];
+        this.edgeSecond = new int[capacity];
+        this.outEdges = new int[nbNodes][];
+        this.inEdges = new int[nbNodes][];
+        this.nbOutEdges = new int[nbNodes];
+        this.nbInEdges = new int[nbNodes];
+        for (int node = 0; node < nbNodes; ++node) {
+            int degree = this.graph.getFirstArc(node + 1) - this.graph.getFirstArc(node);
+            this.outEdges[node] = new int[Math.max(2, degree)];
+            this.inEdges[node] = new int[Math.max(2, degree)];
+        }
+        this.contractedNeighbours = new int[nbNodes];
+        this.witnessSearches = ThreadLocal.withInitial(() -> new WitnessSearch(nbNodes));
+
+        for (int node = 0; node < nbNodes; ++node) {
+            final int lastArc = this.graph.getFirstArc(node + 1);
+            for (int arc = this.graph.getFirstArc(node); arc < lastArc; ++arc) {
+                final int head = this.graph.getArcHead(arc);
+                final double cost = this.metric.getCost(arc);
+                if (head != node && !Double.isInfinite(cost)) {
+                    addOrImproveEdge(node, head, cost, arc, -1, -1);
+                }
+            }
+        }
+
+        final int nbNodesToContract = nbNodes;
+        this.observers.forEach((observer) -> observer.notifyStartContraction(nbNodesToContract));
+    }
+
+    /**
+     * Create the hierarchy from the current edges and the given ranks, and
+     * release the memory used during the contraction.
+     */
+    private ContractionHierarchy createHierarchy(int[] ranks) {
+        ContractionHierarchy hierarchy = new ContractionHierarchy(this.metric, ranks,
+                this.nbEdges, this.edgeTail, this.edgeHead, this.edgeCost, this.edgeArc,
+                this.edgeFirst, this.edgeSecond);
+        this.edgeTail = this.edgeHead = this.edgeArc = this.edgeFirst = this.edgeSecond = null;
+        this.edgeCost = null;
+        this.outEdges = this.inEdges = null;
+        this.nbOutEdges = this.nbInEdges = null;
+        this.contractedNeighbours = null;
+        this.selected = null;
+        this.witnessSearches = null;
+        this.observers.forEach(
+                (observer) -> observer.notifyEndContraction(hierarchy.getNumberOfShortcuts()));
+        return hierarchy;
+    }
+
+    /**
+     * Add an edge from tail to head, or improve the existing edge between these
+     * nodes if the new cost is smaller. Both nodes are not contracted, and edges
+     * between such nodes are never part of a shortcut, so they can be modified.
+     */
+    private void addOrImproveEdge(int tail, int head, double cost, int arc, int first,
+            int second) {
+        for (int i = 0; i < this.nbOutEdges[tail]; ++i) {
+            final int edge = this.outEdges[tail][i];
+            if (this.edgeHead[edge] == head) {
+                if (cost < this.edgeCost[edge]) {
+                    this.edgeCost[edge] = cost;
+                    this.edgeArc[edge] = arc;
+                    this.edgeFirst[edge] = first;
+                    this.edgeSecond[edge] = second;
+                }
+                return;
+            }
+        }
+
+        if (this.nbEdges == this.edgeTail.length) {
+            final int capacity = 2 * this.nbEdges;
+            this.edgeTail = Arrays.copyOf(this.edgeTail, capacity);
+            this.edgeHead = Arrays.copyOf(this.edgeHead, capacity);
+            this.edgeCost = Arrays.copyOf(this.edgeCost, capacity);
+            this.edgeArc = Arrays.copyOf(this.edgeArc, capacity);
+            this.edgeFirst = Arrays.copyOf(this.edgeFirst, capacity);
+            this.edgeSecond = Arrays.copyOf(this.edgeSecond, capacity);
+        }
+        final int edge = this.nbEdges++;
+        this.edgeTail[edge] = tail;
+        this.edgeHead[edge] = head;
+        this.edgeCost[edge] = cost;
+        this.edgeArc[edge] = arc;
+        this.edgeFirst[edge] = first;
+        this.edgeSecond[edge] = second;
+
+        if (this.nbOutEdges[tail] == this.outEdges[tail].length) {
+            this.outEdges[tail] = Arrays.copyOf(this.outEdges[tail], 2 * this.nbOutEdges[tail]);
+        }
+        this.outEdges[tail][this.nbOutEdges[tail]++] = edge;
+        if (this.nbInEdges[head] == this.inEdges[head].length) {
+            this.inEdges[head] = Arrays.copyOf(this.inEdges[head], 2 * this.nbInEdges[head]);
+        }
+        this.inEdges[head][this.nbInEdges[head]++] = edge;
+    }
+
+    /**
+     * Compute the priority of the given node, see the description of this class.
+     */
+    private double computePriority(int node, WitnessSearch search) {
+        final int degree = this.nbOutEdges[node] + this.nbInEdges[node];
+        return processNode(node, search, null) - degree + this.contractedNeighbours[node];
+    }
+
+    /**
+     * Remove the edges of the given (contracted) node from the lists of its
+     * neighbours.
+     */
+    private void removeFromNeighbours(int node) {
+        for (int i = 0; i < this.nbOutEdges[node]; ++i) {
+            final int edge = this.outEdges[node][i];
+            final int head = this.edgeHead[edge];
+            this.nbInEdges[head] = removeEdge(this.inEdges[head], this.nbInEdges[head], edge);
+        }
+        for (int i = 0; i < this.nbInEdges[node]; ++i) {
+            final int edge = this.inEdges[node][i];
+            final int tail = this.edgeTail[edge];
+            this.nbOutEdges[tail] = removeEdge(this.outEdges[tail], this.nbOutEdges[tail], edge);
+        }
+    }
+
+    /**
+     * Remove an edge from a list of edges (the order of the list is not kept).
+     *
+     * @return New size of the list.
+     */
+    private static int removeEdge(int[] edges, int size, int edge) {
+        for (int i = 0; i < size; ++i) {
+            if (edges[i] == edge) {
+                edges[i] = edges[size - 1];
+                return size - 1;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Find the shortcuts required to contract the given node. This method does
+     * not modify the graph, so it can be called concurrently.
+     *
+     * @param node Node to contract.
+     * @param search Witness search to use.
+     * @param shortcuts Shortcuts where the required shortcuts are added, or null
+     *        to only count them.
+     *
+     * @return Number of shortcuts required.
+     */
+    private int processNode(int node, WitnessSearch search, Shortcuts shortcuts) {
+        int nbShortcuts = 0;
+        for (int i = 0; i < this.nbInEdges[node]; ++i) {
+            final int inEdge = this.inEdges[node][i];
+            final int tail = this.edgeTail[inEdge];
+
+            // Maximum cost of a path through the node, and heads of these paths.
+            double maxCost = Double.NEGATIVE_INFINITY;
+            search.clearTargets();
+            for (int j = 0; j < this.nbOutEdges[node]; ++j) {
+                final int outEdge = this.outEdges[node][j];
+                final int head = this.edgeHead[outEdge];
+                if (head != tail) {
+                    maxCost = Math.max(maxCost, this.edgeCost[inEdge] + this.edgeCost[outEdge]);
+                    search.addTarget(head);
+                }
+            }
+            if (maxCost == Double.NEGATIVE_INFINITY) {
+                continue;
+            }
+
+            search.run(tail, node, maxCost);
+            for (int j = 0; j < this.nbOutEdges[node]; ++j) {
+                final int outEdge = this.outEdges[node][j];
+                final int head = this.edgeHead[outEdge];
+                if (head == tail) {
+                    continue;
+                }
+                final double cost = this.edgeCost[inEdge] + this.edgeCost[outEdge];
+                if (search.getCost(head) > cost) {
+                    nbShortcuts++;
+                    if (shortcuts != null) {
+                        shortcuts.add(tail, head, cost, inEdge, outEdge);
+                    }
+                }
+            }
+            search.reset();
+        }
+        return nbShortcuts;
+    }
+
+    /**
+     * List of shortcuts found for a node, before they are added to the graph.
+     */
+    private static class Shortcuts {
+
+        private int size = 0;
+        private int[] tails = new int[4], heads = new int[4], firsts = new int[4],
+                seconds = new int[4];
+        private double[] costs = new double[4];
+
+        void add(int tail, int head, double cost, int first, int second) {
+            if (this.size == this.tails.length) {
+                final int capacity = 2 * this.size;
+                this.tails = Arrays.copyOf(this.tails, capacity);
+                this.heads = Arrays.copyOf(this.heads, capacity);
+                this.firsts = Arrays.copyOf(this.firsts, capacity);
+                this.seconds = Arrays.copyOf(this.seconds, capacity);
+                this.costs = Arrays.copyOf(this.costs, capacity);
+            }
+            this.tails[this.size] = tail;
+            this.heads[this.size] = head;
+            this.firsts[this.size] = first;
+            this.seconds[this.size] = second;
+            this.costs[this.size] = cost;
+            this.size++;
+        }
+
+        void clear() {
+            this.size = 0;
+        }
+
+        void addTo(ContractionHierarchyBuilder builder) {
+            for (int i = 0; i < this.size; ++i) {
+                builder.addOrImproveEdge(this.tails[i], this.heads[i], this.costs[i], -1,
+                        this.firsts[i], this.seconds[i]);
+            }
+        }
+
+    }
+
+    /**
+     * Limited Dijkstra search on the nodes that are not contracted, used to find
+     * witness paths.
+     */
+    private class WitnessSearch {
+
+        // Costs of the nodes (infinite for unreached nodes).
+        private final double[] costs;
+
+        // Nodes whose cost has been set.
+        private final int[] reached;
+        private int nbReached;
+
+        // Heap for the search.
+        private final PrimitiveBinaryHeap heap;
+
+        // Targets of the next search (nodes whose stamp is the current stamp).
+        private final int[] targetStamps;
+        private int stamp, nbTargets;
+
+        WitnessSearch(int nbNodes) {
+            this.costs = new double[nbNodes];
+            Arrays.fill(this.costs, Double.POSITIVE_INFINITY);
+            this.reached = new int[nbNodes];
+            this.nbReached = 0;
+            this.heap = new PrimitiveBinaryHeap(nbNodes);
+            this.targetStamps = new int[nbNodes];
+            this.stamp = 0;
+            this.nbTargets = 0;
+        }
+
+        /**
+         * Remove the targets of the previous search.
+         */
+        void clearTargets() {
+            this.stamp++;
+            this.nbTargets = 0;
+        }
+
+        /**
+         * Add a target to the next search.
+         */
+        void addTarget(int node) {
+            if (this.targetStamps[node] != this.stamp) {
+                this.targetStamps[node] = this.stamp;
+                this.nbTargets++;
+            }
+        }
+
+        /**
+         * Run a search from the given source, avoiding the given node (and the
+         * nodes selected for the current round), until all the targets are settled,
+         * the cost of the settled nodes exceeds the given maximum, or the limit of
+         * settled nodes is reached.
+         */
+        void run(int source, int avoid, double maxCost) {
+            final boolean[] avoided = selected;
+            this.costs[source] = 0;
+            this.reached[this.nbReached++] = source;
+            this.heap.insert(source, 0);
+            int nbSettled = 0, nbTargetsSettled = 0;
+            while (!this.heap.isEmpty() && nbSettled < witnessSearchLimit
+                    && nbTargetsSettled < this.nbTargets) {
+                if (this.heap.findMinKey() > maxCost) {
+                    break;
+                }
+                final int current = this.heap.deleteMin();
+                nbSettled++;
+                if (this.targetStamps[current] == this.stamp) {
+                    nbTargetsSettled++;
+                }
+                for (int i = 0; i < nbOutEdges[current]; ++i) {
+                    final int edge = outEdges[current][i];
+                    final int next = edgeHead[edge];
+                    if (next == avoid || (avoided != null && avoided[next])) {
+                        continue;
+                    }
+                    final double newCost = this.costs[current] + edgeCost[edge];
+                    if (newCost < this.costs[next]) {
+                        if (Double.isInfinite(this.costs[next])) {
+                            this.reached[this.nbReached++] = next;
+                        }
+                        this.costs[next] = newCost;
+                        this.heap.insertOrUpdate(next, newCost);
+                    }
+                }
+            }
+        }
+
+        /**
+         * @return Cost of the given node found by the last search (an upper bound
+         *         of its actual cost).
+         */
+        double getCost(int node) {
+            return this.costs[node];
+        }
+
+        /**
+         * Reset the costs of the last search.
+         */
+        void reset() {
+            for (int i = 0; i < this.nbReached; ++i) {
+                this.costs[this.reached[i]] = Double.POSITIVE_INFINITY;
+            }
+            this.nbReached = 0;
+            this.heap.clear();
+        }
+
+    }
+
+}
@@ -0,0 +1,34 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+/**
+ * Base interface that should be implemented by classes that want to observe the
+ * contraction of a graph by a {@link ContractionHierarchyBuilder}.
+ *
+ */
+public interface ContractionHierarchyObserver {
+
+    /**
+     * Notify that the builder is starting to contract nodes, this method is always
+     * the first called.
+     * 
+     * @param nNodes Number of nodes to contract.
+     */
+    public void notifyStartContraction(int nNodes);
+
+    /**
+     * Notify that nodes have been contracted (a single node for sequential
+     * contraction, a round of independent nodes for parallel contraction).
+     * 
+     * @param nContracted Number of nodes contracted.
+     * @param nRemaining Number of nodes remaining to contract.
+     */
+    public void notifyNodesContracted(int nContracted, int nRemaining);
+
+    /**
+     * Notify that all the nodes have been contracted.
+     * 
+     * @param nShortcuts Number of shortcuts in the hierarchy.
+     */
+    public void notifyEndContraction(int nShortcuts);
+
+}
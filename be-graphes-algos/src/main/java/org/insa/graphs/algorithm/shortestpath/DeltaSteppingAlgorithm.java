@@ -0,0 +1,399 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Path;
+
+/**
+ * <p>
+ * Delta-stepping: a label-correcting algorithm where the nodes are kept in
+ * buckets of width delta according to their tentative cost, and the nodes of
+ * the lowest non-empty bucket are processed together, in parallel.
+ * </p>
+ *
+ * <p>
+ * The arcs are split into light arcs (cost at most delta) and heavy arcs. The
+ * light arcs of the nodes of the current bucket are relaxed in phases until no
+ * node enters the bucket anymore, then the heavy arcs of all the nodes that
+ * have been in the bucket are relaxed once. The nodes of a phase are split into
+ * tasks run by a {@link ForkJoinPool}, the tentative costs being updated
+ * concurrently under striped locks; the buckets themselves are only updated by
+ * the calling thread between two phases.
+ * </p>
+ *
+ * <p>
+ * When a bucket is done, the costs of its nodes are final, so the search stops
+ * after the bucket of the destination. A small delta gives few re-relaxations
+ * but many phases (Dijkstra's algorithm for a delta close to 0), and a large
+ * delta gives few phases but many re-relaxations (Bellman-Ford for an infinite
+ * delta); by default, delta is the mean cost of the allowed arcs.
+ * </p>
+ *
+ */
+public class DeltaSteppingAlgorithm extends ShortestPathAlgorithm {
+
+    // Number of nodes processed by a single task.
+    private static final int TASK_SIZE = 256;
+
+    // Number of locks used to update the costs (must be a power of 2).
+    private static final int NB_LOCKS = 1024;
+
+    // Width of the buckets (0 for the default), and pool of the tasks.
+    private final double delta;
+    private final ForkJoinPool pool;
+
+    /**
+     * Create a new algorithm with the default delta, running its tasks in the
+     * common pool.
+     *
+     * @param data Input data for the algorithm.
+     */
+    public DeltaSteppingAlgorithm(ShortestPathData data) {
+        this(data, 0, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create a new algorithm.
+     *
+     * @param data Input data for the algorithm.
+     * @param delta Width of the buckets, or 0 to use the mean cost of the allowed
+     *        arcs.
+     * @param pool Pool running the tasks of the phases.
+     *
+     * @throws IllegalArgumentException if delta is negative or not finite.
+     */
+    public DeltaSteppingAlgorithm(ShortestPathData data, double delta, ForkJoinPool pool) {
+        super(data);
+        if (!(delta >= 0) || Double.isInfinite(delta)) {
+            throw new IllegalArgumentException("Invalid delta: " + delta);
+        }
+        this.delta = delta;
+        this.pool = pool;
+    }
+
+    /**
+     * Growable array of node IDs.
+     */
+    private static class NodeBuffer {
+
+        int[] nodes = new int[16];
+        int size = 0;
+
+        void add(int node) {
+            if (this.size == this.nodes.length) {
+                this.nodes = Arrays.copyOf(this.nodes, 2 * this.size);
+            }
+            this.nodes[this.size++] = node;
+        }
+
+    }
+
+    /**
+     * Tentative costs and predecessors of a search, shared by the tasks.
+     */
+    private static class SearchState {
+
+        final CompactMetric metric;
+        final CompactGraph graph;
+        final double delta;
+
+        // Costs, stored as the bits of doubles (the order of the bits of
+        // non-negative doubles is the order of the doubles).
+        final AtomicLongArray costs;
+
+        // Arc of the predecessor of each node, only written with the lock of the
+        // node, together with its cost.
+        final int[] predecessors;
+        final Object[] locks = new Object[NB_LOCKS];
+
+        SearchState(CompactMetric metric, double delta) {
+            this.metric = metric;
+            this.graph = metric.getGraph();
+            this.delta = delta;
+            long[] costs = new long[this.graph.size()];
+            Arrays.fill(costs, Double.doubleToRawLongBits(Double.POSITIVE_INFINITY));
+            this.costs = new AtomicLongArray(costs);
+            this.predecessors = new int[this.graph.size()];
+            Arrays.fill(this.predecessors, -1);
+            for (int i = 0; i < NB_LOCKS; ++i) {
+                this.locks[i] = new Object();
+            }
+        }
+
+        double getCost(int node) {
+            return Double.longBitsToDouble(this.costs.get(node));
+        }
+
+        /**
+         * @return Bucket of the given node, or -1 if it has not been reached.
+         */
+        long getBucket(int node) {
+            final double cost = getCost(node);
+            return Double.isInfinite(cost) ? -1 : (long) (cost / this.delta);
+        }
+
+        /**
+         * Lower the cost of the head of the given arc if it is improved.
+         *
+         * @return true if the cost of the head has been lowered.
+         */
+        boolean relax(int arc, double newCost) {
+            final int head = this.graph.getArcHead(arc);
+            if (!(newCost < getCost(head))) {
+                return false;
+            }
+            synchronized (this.locks[head & (NB_LOCKS - 1)]) {
+                if (!(newCost < getCost(head))) {
+                    return false;
+                }
+                this.costs.set(head, Double.doubleToRawLongBits(newCost));
+                this.predecessors[head] = arc;
+                return true;
+            }
+        }
+
+    }
+
+    /**
+     * Relaxation of the light or heavy arcs of a range of nodes, split into tasks
+     * of at most {@link #TASK_SIZE} nodes. The heads whose cost is lowered are
+     * collected in buffers.
+     */
+    private static class RelaxAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final SearchState state;
+        private final int[] nodes;
+        private final int from, to;
+        private final boolean light;
+        private final Queue<NodeBuffer> improved;
+
+        RelaxAction(SearchState state, int[] nodes, int from, int to, boolean light,
+                Queue<NodeBuffer> improved) {
+            this.state = state;
+            this.nodes = nodes;
+            this.from = from;
+            this.to = to;
+            this.light = light;
+            this.improved = improved;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= TASK_SIZE) {
+                final SearchState state = this.state;
+                final CompactGraph graph = state.graph;
+                NodeBuffer buffer = new NodeBuffer();
+                for (int i = this.from; i < this.to; ++i) {
+                    final int node = this.nodes[i];
+                    final double cost = state.getCost(node);
+                    final int lastArc = graph.getFirstArc(node + 1);
+                    for (int arc = graph.getFirstArc(node); arc < lastArc; ++arc) {
+                        final double arcCost = state.metric.getCost(arc);
+                        if ((arcCost <= state.delta) == this.light
+                                && state.relax(arc, cost + arcCost)) {
+                            buffer.add(graph.getArcHead(arc));
+                        }
+                    }
+                }
+                if (buffer.size > 0) {
+                    this.improved.add(buffer);
+                }
+                return;
+            }
+            final int middle = (this.from + this.to) >>> 1;
+            invokeAll(
+                    new RelaxAction(this.state, this.nodes, this.from, middle, this.light,
+                            this.improved),
+                    new RelaxAction(this.state, this.nodes, middle, this.to, this.light,
+                            this.improved));
+        }
+
+    }
+
+    /**
+     * Relax the light or heavy arcs of the given nodes.
+     *
+     * @return Buffers of the heads whose cost has been lowered (a head may appear
+     *         several times).
+     */
+    private Queue<NodeBuffer> relax(SearchState state, NodeBuffer nodes, boolean light) {
+        Queue<NodeBuffer> improved = new ConcurrentLinkedQueue<>();
+        RelaxAction action = new RelaxAction(state, nodes.nodes, 0, nodes.size, light, improved);
+        if (nodes.size <= TASK_SIZE) {
+            // Not worth a round-trip to the pool.
+            action.invoke();
+        }
+        else {
+            this.pool.invoke(action);
+        }
+        return improved;
+    }
+
+    /**
+     * @return Mean and maximum of the finite costs of the arcs of the given
+     *         metric.
+     */
+    private static double[] getCostStatistics(CompactMetric metric) {
+        double sum = 0, max = 0;
+        int count = 0;
+        for (int arc = 0; arc < metric.getGraph().getNumberOfArcs(); ++arc) {
+            final double cost = metric.getCost(arc);
+            if (!Double.isInfinite(cost)) {
+                sum += cost;
+                max = Math.max(max, cost);
+                count++;
+            }
+        }
+        return new double[] { count == 0 ? 0 : sum / count, max };
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+        final ShortestPathData data = getInputData();
+        final Graph graph = data.getGraph();
+        final CompactMetric metric = CompactMetric.getMetric(graph, data.getArcInspector());
+        final CompactGraph compact = metric.getGraph();
+        final int origin = data.getOrigin().getId();
+        final int destination = data.getDestination().getId();
+
+        final double[] statistics = getCostStatistics(metric);
+        double delta = this.delta > 0 ? this.delta : statistics[0];
+        if (!(delta > 0)) {
+            delta = 1;
+        }
+        final SearchState state = new SearchState(metric, delta);
+
+        // Buckets are reused cyclically: the reached nodes that are not final are
+        // always in the current bucket or in the next ones, up to the maximum
+        // cost of an arc.
+        final int nbBuckets = Math.toIntExact((long) (statistics[1] / delta) + 2);
+        NodeBuffer[] buckets = new NodeBuffer[nbBuckets];
+        for (int i = 0; i < nbBuckets; ++i) {
+            buckets[i] = new NodeBuffer();
+        }
+        int nbPending = 1;
+
+        // Last phase in which each node has been added to a frontier, and last
+        // bucket in which it has been processed.
+        final int[] phases = new int[graph.size()];
+        final long[] processedBuckets = new long[graph.size()];
+        Arrays.fill(processedBuckets, -1);
+        int phase = 0;
+
+        state.costs.set(origin, Double.doubleToRawLongBits(0));
+        buckets[0].add(origin);
+
+        // Notify observers about the first event (origin processed).
+        notifyOriginProcessed(data.getOrigin());
+
+        for (long bucket = 0; nbPending > 0; ++bucket) {
+            NodeBuffer current = buckets[(int) (bucket % nbBuckets)];
+            if (current.size == 0) {
+                continue;
+            }
+            buckets[(int) (bucket % nbBuckets)] = new NodeBuffer();
+            nbPending -= current.size;
+
+            // Nodes of the bucket, without duplicates or nodes that have moved to a
+            // lower bucket.
+            NodeBuffer frontier = new NodeBuffer();
+            phase++;
+            for (int i = 0; i < current.size; ++i) {
+                final int node = current.nodes[i];
+                if (state.getBucket(node) == bucket && phases[node] != phase) {
+                    phases[node] = phase;
+                    frontier.add(node);
+                }
+            }
+
+            // Light phases, until no node enters the bucket anymore.
+            NodeBuffer processed = new NodeBuffer();
+            while (frontier.size > 0) {
+                for (int i = 0; i < frontier.size; ++i) {
+                    final int node = frontier.nodes[i];
+                    if (processedBuckets[node] != bucket) {
+                        processedBuckets[node] = bucket;
+                        processed.add(node);
+                    }
+                }
+                Queue<NodeBuffer> improved = relax(state, frontier, true);
+                frontier = new NodeBuffer();
+                phase++;
+                for (NodeBuffer buffer: improved) {
+                    for (int i = 0; i < buffer.size; ++i) {
+                        final int node = buffer.nodes[i];
+                        if (phases[node] == phase) {
+                            continue;
+                        }
+                        phases[node] = phase;
+                        final long nodeBucket = state.getBucket(node);
+                        if (nodeBucket == bucket) {
+                            frontier.add(node);
+                        }
+                        else {
+                            buckets[(int) (nodeBucket % nbBuckets)].add(node);
+                            nbPending++;
+                        }
+                    }
+                }
+            }
+
+            // Heavy arcs, which lead to the next buckets.
+            Queue<NodeBuffer> improved = relax(state, processed, false);
+            phase++;
+            for (NodeBuffer buffer: improved) {
+                for (int i = 0; i < buffer.size; ++i) {
+                    final int node = buffer.nodes[i];
+                    if (phases[node] != phase) {
+                        phases[node] = phase;
+                        buckets[(int) (state.getBucket(node) % nbBuckets)].add(node);
+                        nbPending++;
+                    }
+                }
+            }
+
+            // The costs of the nodes of the bucket are final.
+            for (int i = 0; i < processed.size; ++i) {
+                notifyNodeMarked(graph.get(processed.nodes[i]));
+            }
+            if (processedBuckets[destination] == bucket) {
+                break;
+            }
+        }
+
+        if (processedBuckets[destination] < 0) {
+            return new ShortestPathSolution(data, Status.INFEASIBLE);
+        }
+
+        // The destination has been found, notify the observers.
+        notifyDestinationReached(data.getDestination());
+
+        // Create the path from the arcs of the predecessors.
+        ArrayList<Arc> arcs = new ArrayList<>();
+        for (int node = destination; node != origin;) {
+            final int arc = state.predecessors[node];
+            arcs.add(compact.getArc(arc));
+            node = compact.getArcTail(arc);
+        }
+        if (arcs.isEmpty()) {
+            return new ShortestPathSolution(data, Status.OPTIMAL,
+                    new Path(graph, data.getOrigin()));
+        }
+        Collections.reverse(arcs);
+        return new ShortestPathSolution(data, Status.OPTIMAL, new Path(graph, arcs));
+    }
+
+}
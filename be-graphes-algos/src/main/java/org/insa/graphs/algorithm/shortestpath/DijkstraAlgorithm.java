@@ -2,9 +2,8 @@ package org.insa.graphs.algorithm.shortestpath;
 
 import org.insa.graphs.algorithm.AbstractInputData;
 import org.insa.graphs.algorithm.AbstractSolution;
-import org.insa.graphs.algorithm.utils.BinaryHeap;
-import org.insa.graphs.algorithm.utils.ElementNotFoundException;
 import org.insa.graphs.algorithm.utils.EmptyPriorityQueueException;
+import org.insa.graphs.algorithm.utils.IndexedPriorityQueue;
 import org.insa.graphs.model.*;
 
 import java.util.ArrayList;
@@ -12,8 +11,34 @@ import java.util.Collections;
 
 public class DijkstraAlgorithm extends ShortestPathAlgorithm {
 
+    // Cache of the search trees, or null to always search from scratch.
+    private final ShortestPathTreeCache treeCache;
+
     public DijkstraAlgorithm(ShortestPathData data) {
+        this(data, null);
+    }
+
+    /**
+     * Create a new algorithm that reuses the search trees of the given cache: if
+     * the cache contains the tree of a previous search from the same origin, the
+     * search is resumed from this tree instead of starting from scratch, and the
+     * tree is stored back in the cache when the search stops.
+     *
+     * @param data Input data for the algorithm.
+     * @param treeCache Cache of the search trees, or null to always search from
+     *        scratch.
+     */
+    public DijkstraAlgorithm(ShortestPathData data, ShortestPathTreeCache treeCache) {
         super(data);
+        this.treeCache = treeCache;
+    }
+
+    /**
+     * @return Cache of the search trees of this algorithm, or null if there is
+     *         none.
+     */
+    public ShortestPathTreeCache getTreeCache() {
+        return treeCache;
     }
 
     Label[] initLabels(int nbNodes, ShortestPathData data) {
@@ -32,12 +57,22 @@ public class DijkstraAlgorithm extends ShortestPathAlgorithm {
 
         final int nbNodes = graph.size();
 
-        // Initialize array of labels.
-        Label[] labels = initLabels(nbNodes, data);
-        labels[data.getOrigin().getId()].setCost(0);
-        //Initialize the heap
-        BinaryHeap<Label> heap = new BinaryHeap<>();
-        heap.insert(labels[data.getOrigin().getId()]);
+        // Resume the search from a previous tree of the origin if there is one
+        // (the destination may already be marked).
+        ShortestPathTreeCache.SearchTree tree = treeCache == null ? null : treeCache.acquire(data);
+        Label[] labels;
+        IndexedPriorityQueue<Label> heap;
+        if (tree != null) {
+            labels = tree.labels;
+            heap = tree.queue;
+        } else {
+            // Initialize array of labels.
+            labels = initLabels(nbNodes, data);
+            labels[data.getOrigin().getId()].setCost(0);
+            //Initialize the queue, labels are indexed by the ID of their node
+            heap = createPriorityQueue(nbNodes, label -> label.getNode().getId());
+            heap.insert(labels[data.getOrigin().getId()]);
+        }
 
         // Notify observers about the first event (origin processed).
         notifyOriginProcessed(data.getOrigin());
@@ -45,7 +80,7 @@ public class DijkstraAlgorithm extends ShortestPathAlgorithm {
         while (!labels[data.getDestination().getId()].isMarked()) {
             Label currentNodeLabel;
             try {
-                currentNodeLabel = heap.findMin();
+                currentNodeLabel = heap.deleteMin();
             } catch (EmptyPriorityQueueException e) {
                 // Means that no new node was marked after the previous one
                 // And the previous node was the only one visited but not marked
@@ -54,9 +89,6 @@ public class DijkstraAlgorithm extends ShortestPathAlgorithm {
             }
 
             // Mark the node
-            try {
-                heap.remove(currentNodeLabel);
-            } catch (ElementNotFoundException ignored) { }
             labels[currentNodeLabel.getNode().getId()].setMarked(true);
 
             for (Arc successor : graph.get(currentNodeLabel.getNode().getId()).getSuccessors()) {
@@ -79,12 +111,10 @@ public class DijkstraAlgorithm extends ShortestPathAlgorithm {
                         labels[nextNodeId].setCost(labels[currentNodeId].getCost() + data.getCost(successor));
                         labels[nextNodeId].setFatherId(currentNodeLabel.getNode().getId());
 
-                        try {
-                            // Update the node in the heap
-                            heap.remove(labels[nextNodeId]);
-                            heap.insert(labels[nextNodeId]);
-                        } catch (ElementNotFoundException e) {
-                            // If the node is not in the heap, insert it
+                        // Insert the node in the heap, or move it up if it is already there
+                        if (heap.contains(labels[nextNodeId])) {
+                            heap.decreaseKey(labels[nextNodeId]);
+                        } else {
                             heap.insert(labels[nextNodeId]);
                         }
                     }
@@ -121,6 +151,11 @@ public class DijkstraAlgorithm extends ShortestPathAlgorithm {
             solution = new ShortestPathSolution(data, AbstractSolution.Status.OPTIMAL, solutionPath);
         }
 
+        // The search stopped normally, so its tree can be resumed by a later query.
+        if (treeCache != null) {
+            treeCache.release(data, new ShortestPathTreeCache.SearchTree(labels, heap));
+        }
+
         return solution;
     }
 
@@ -0,0 +1,77 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.model.Path;
+
+/**
+ * <p>
+ * Shortest path query on a {@link HubLabelIndex}: the cost of the path is
+ * obtained by merging the labels of the origin and the destination, and the
+ * path is then unpacked from the labels (see
+ * {@link HubLabelIndex#getPath(int, int)}).
+ * </p>
+ *
+ * <p>
+ * No search is run, so the observers are only notified about the origin and
+ * the destination. Applications that only need costs should use
+ * {@link HubLabelIndex#getCost(int, int)} directly.
+ * </p>
+ *
+ */
+public class HubLabelAlgorithm extends ShortestPathAlgorithm {
+
+    // Index, or null to use the cached index of the metric.
+    private final HubLabelIndex index;
+
+    /**
+     * Create a new algorithm that uses the cached index of the metric of the input
+     * data (computed if it is not in the cache).
+     *
+     * @param data Input data for the algorithm.
+     *
+     * @see HubLabelIndex#getIndex(CompactMetric)
+     */
+    public HubLabelAlgorithm(ShortestPathData data) {
+        this(data, null);
+    }
+
+    /**
+     * Create a new algorithm that uses the given index.
+     *
+     * @param data Input data for the algorithm.
+     * @param index Index to use, or null to use the cached index.
+     *
+     * @throws IllegalArgumentException if the index does not correspond to the
+     *         graph and inspector of the input data.
+     */
+    public HubLabelAlgorithm(ShortestPathData data, HubLabelIndex index) {
+        super(data);
+        if (index != null && index.getMetric() != CompactMetric.getMetric(data.getGraph(),
+                data.getArcInspector())) {
+            throw new IllegalArgumentException("Index does not match the data.");
+        }
+        this.index = index;
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+        final ShortestPathData data = getInputData();
+        final HubLabelIndex labels = this.index != null ? this.index
+                : HubLabelIndex.getIndex(
+                        CompactMetric.getMetric(data.getGraph(), data.getArcInspector()));
+
+        // Notify observers about the first event (origin processed).
+        notifyOriginProcessed(data.getOrigin());
+
+        Path path = labels.getPath(data.getOrigin().getId(), data.getDestination().getId());
+        if (path == null) {
+            return new ShortestPathSolution(data, Status.INFEASIBLE);
+        }
+
+        // The destination has been found, notify the observers.
+        notifyDestinationReached(data.getDestination());
+
+        return new ShortestPathSolution(data, Status.OPTIMAL, path);
+    }
+
+}
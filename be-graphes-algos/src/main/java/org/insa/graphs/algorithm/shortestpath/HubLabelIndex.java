@@ -0,0 +1,576 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+
+import org.insa.graphs.algorithm.utils.PrimitiveBinaryHeap;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Path;
+
+/**
+ * <p>
+ * Hub labeling index of a {@link CompactMetric}: each node v has a forward label
+ * (hubs h with the cost d(v, h)) and a backward label (hubs h with the cost d(h,
+ * v)), such that for any pair of nodes, the shortest path from s to t goes
+ * through a hub common to the forward label of s and the backward label of t.
+ * The cost from s to t is then the minimum of d(s, h) + d(h, t) over the common
+ * hubs, computed by a single merge of the two sorted labels.
+ * </p>
+ *
+ * <p>
+ * Labels are computed by pruned labeling, using the order of a
+ * {@link ContractionHierarchy} (the most important node first): a pruned
+ * Dijkstra's search is run from each node in both directions, and a node is
+ * only added to the labels of the nodes it reaches for which the current labels
+ * do not already give the cost.
+ * </p>
+ *
+ * <p>
+ * The hubs of a label are stored as their position in the order, sorted and
+ * delta-encoded as variable-length integers in a single byte array, and the
+ * costs are stored in a separate array.
+ * </p>
+ *
+ */
+public class HubLabelIndex {
+
+    // Cached indices (built or being built), by metric.
+    private static final ConcurrentMap<CompactMetric, CompletableFuture<HubLabelIndex>> indices = new ConcurrentHashMap<>();
+
+    /**
+     * <p>
+     * Start computing the index for the given metric (using the order of the
+     * cached contraction hierarchy of the metric, computed if needed) on the
+     * given executor, unless it is already in the cache or being computed.
+     * </p>
+     *
+     * <p>
+     * This can be used to preprocess the indices of a server before it answers
+     * queries. Indices are kept in the cache until
+     * {@link #removeIndex(CompactMetric)} is called.
+     * </p>
+     *
+     * @param metric Metric for the index.
+     * @param executor Executor computing the index if needed.
+     *
+     * @return A future completed with the index for the given metric.
+     *
+     * @see ContractionHierarchy#getHierarchy(CompactMetric)
+     */
+    public static CompletableFuture<HubLabelIndex> preprocess(CompactMetric metric,
+            Executor executor) {
+        CompletableFuture<HubLabelIndex> future = indices.get(metric);
+        if (future == null) {
+            final CompletableFuture<HubLabelIndex> created = new CompletableFuture<>();
+            future = indices.putIfAbsent(metric, created);
+            if (future == null) {
+                future = created;
+                executor.execute(() -> {
+                    try {
+                        created.complete(build(ContractionHierarchy.getHierarchy(metric)));
+                    }
+                    catch (Throwable throwable) {
+                        // Do not cache the failure, the next query tries again.
+                        indices.remove(metric, created);
+                        created.completeExceptionally(throwable);
+                    }
+                });
+            }
+        }
+        return future;
+    }
+
+    /**
+     * Retrieve the index for the given metric, computing it in the calling thread
+     * if it is not in the cache, or waiting for it if it is being computed (see
+     * {@link #preprocess(CompactMetric, Executor)}). The cache is not locked
+     * while the index is computed.
+     *
+     * @param metric Metric for the index.
+     *
+     * @return Hub labeling index for the given metric.
+     */
+    public static HubLabelIndex getIndex(CompactMetric metric) {
+        try {
+            return preprocess(metric, Runnable::run).join();
+        }
+        catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) exception.getCause();
+            }
+            if (exception.getCause() instanceof Error) {
+                throw (Error) exception.getCause();
+            }
+            throw exception;
+        }
+    }
+
+    /**
+     * Retrieve the index for the given metric only if it is in the cache.
+     *
+     * @param metric Metric for the index.
+     *
+     * @return Cached hub labeling index for the given metric, or null if there is
+     *         none or if it is still being computed.
+     */
+    public static HubLabelIndex getCachedIndex(CompactMetric metric) {
+        CompletableFuture<HubLabelIndex> future = indices.get(metric);
+        return future == null || future.isCompletedExceptionally() ? null
+                : future.getNow(null);
+    }
+
+    /**
+     * Remove the index for the given metric from the cache, so that its memory can
+     * be reclaimed once it is not used anymore.
+     *
+     * @param metric Metric for the index.
+     */
+    public static void removeIndex(CompactMetric metric) {
+        indices.remove(metric);
+    }
+
+    /**
+     * Compute the index of the metric of the given hierarchy, using its order.
+     *
+     * @param hierarchy Hierarchy giving the order of the nodes.
+     *
+     * @return A new hub labeling index.
+     */
+    public static HubLabelIndex build(ContractionHierarchy hierarchy) {
+        final int nbNodes = hierarchy.size();
+        int[] order = new int[nbNodes];
+        for (int node = 0; node < nbNodes; ++node) {
+            order[nbNodes - 1 - hierarchy.getRank(node)] = node;
+        }
+        return build(hierarchy.getMetric(), order);
+    }
+
+    /**
+     * Compute the index of the given metric, using the given order.
+     *
+     * @param metric Metric for the index.
+     * @param order Nodes of the graph, the most important first.
+     *
+     * @return A new hub labeling index.
+     *
+     * @throws IllegalArgumentException if the order is not a permutation of the
+     *         nodes of the graph.
+     */
+    public static HubLabelIndex build(CompactMetric metric, int[] order) {
+        final int nbNodes = metric.getGraph().size();
+        if (order.length != nbNodes) {
+            throw new IllegalArgumentException("Invalid order of nodes.");
+        }
+        boolean[] seen = new boolean[nbNodes];
+        for (int node: order) {
+            if (node < 0 || node >= nbNodes || seen[node]) {
+                throw new IllegalArgumentException("Invalid order of nodes.");
+            }
+            seen[node] = true;
+        }
+
+        // Labels during construction (hubs are added in increasing order).
+        LabelBuilder forward = new LabelBuilder(nbNodes);
+        LabelBuilder backward = new LabelBuilder(nbNodes);
+        PrunedSearch search = new PrunedSearch(nbNodes);
+        for (int position = 0; position < nbNodes; ++position) {
+            final int hub = order[position];
+            // d(hub, v): the hub is added to the backward labels.
+            search.run(metric, hub, position, forward, backward);
+            // d(v, hub): the hub is added to the forward labels.
+            search.run(metric.getReverse(), hub, position, backward, forward);
+        }
+
+        return new HubLabelIndex(metric, order, forward, backward);
+    }
+
+    /**
+     * Labels of the nodes during the construction of the index.
+     */
+    private static class LabelBuilder {
+
+        // Hubs (positions in the order) and costs of each label.
+        private final int[][] hubs;
+        private final double[][] costs;
+        private final int[] sizes;
+
+        LabelBuilder(int nbNodes) {
+            this.hubs = new int[nbNodes][];
+            this.costs = new double[nbNodes][];
+            this.sizes = new int[nbNodes];
+        }
+
+        void add(int node, int hub, double cost) {
+            if (this.hubs[node] == null) {
+                this.hubs[node] = new int[4];
+                this.costs[node] = new double[4];
+            }
+            else if (this.sizes[node] == this.hubs[node].length) {
+                this.hubs[node] = Arrays.copyOf(this.hubs[node], 2 * this.sizes[node]);
+                this.costs[node] = Arrays.copyOf(this.costs[node], 2 * this.sizes[node]);
+            }
+            this.hubs[node][this.sizes[node]] = hub;
+            this.costs[node][this.sizes[node]] = cost;
+            this.sizes[node]++;
+        }
+
+    }
+
+    /**
+     * Pruned Dijkstra's search from a hub.
+     */
+    private static class PrunedSearch {
+
+        // Costs of the nodes (infinite for unreached nodes), and reached nodes.
+        private final double[] costs;
+        private final int[] reached;
+        private int nbReached;
+
+        // Costs in the label of the hub, by hub position (infinite if the position
+        // is not in the label).
+        private final double[] hubCosts;
+
+        private final PrimitiveBinaryHeap heap;
+
+        PrunedSearch(int nbNodes) {
+            this.costs = new double[nbNodes];
+            this.hubCosts = new double[nbNodes];
+            Arrays.fill(this.costs, Double.POSITIVE_INFINITY);
+            Arrays.fill(this.hubCosts, Double.POSITIVE_INFINITY);
+            this.reached = new int[nbNodes];
+            this.heap = new PrimitiveBinaryHeap(nbNodes);
+        }
+
+        /**
+         * Run a search from the given hub on the given metric.
+         *
+         * @param metric Metric of the search (reverse metric for costs to the hub).
+         * @param hub Node of the hub.
+         * @param position Position of the hub in the order.
+         * @param hubLabels Labels of the same direction as the label of the hub used
+         *        for pruning (forward labels for a forward search).
+         * @param labels Labels where the hub is added (backward labels for a
+         *        forward search).
+         */
+        void run(CompactMetric metric, int hub, int position, LabelBuilder hubLabels,
+                LabelBuilder labels) {
+            final CompactGraph graph = metric.getGraph();
+            for (int i = 0; i < hubLabels.sizes[hub]; ++i) {
+                this.hubCosts[hubLabels.hubs[hub][i]] = hubLabels.costs[hub][i];
+            }
+
+            this.costs[hub] = 0;
+            this.reached[this.nbReached++] = hub;
+            this.heap.insert(hub, 0);
+            while (!this.heap.isEmpty()) {
+                final int current = this.heap.deleteMin();
+                final double cost = this.costs[current];
+
+                // Prune if the current labels already give the cost.
+                double bound = Double.POSITIVE_INFINITY;
+                for (int i = 0; i < labels.sizes[current]; ++i) {
+                    bound = Math.min(bound,
+                            this.hubCosts[labels.hubs[current][i]] + labels.costs[current][i]);
+                }
+                if (bound <= cost) {
+                    continue;
+                }
+                labels.add(current, position, cost);
+
+                final int lastArc = graph.getFirstArc(current + 1);
+                for (int arc = graph.getFirstArc(current); arc < lastArc; ++arc) {
+                    final int next = graph.getArcHead(arc);
+                    final double newCost = cost + metric.getCost(arc);
+                    if (newCost < this.costs[next]) {
+                        if (Double.isInfinite(this.costs[next])) {
+                            this.reached[this.nbReached++] = next;
+                        }
+                        this.costs[next] = newCost;
+                        this.heap.insertOrUpdate(next, newCost);
+                    }
+                }
+            }
+
+            // Reset the search.
+            for (int i = 0; i < this.nbReached; ++i) {
+                this.costs[this.reached[i]] = Double.POSITIVE_INFINITY;
+            }
+            this.nbReached = 0;
+            for (int i = 0; i < hubLabels.sizes[hub]; ++i) {
+                this.hubCosts[hubLabels.hubs[hub][i]] = Double.POSITIVE_INFINITY;
+            }
+        }
+
+    }
+
+    /**
+     * Compressed labels of all the nodes in one direction.
+     */
+    private static class Labels {
+
+        // Offset of the label of each node in the costs and in the bytes.
+        private final int[] firstEntry, firstByte;
+
+        // Delta-encoded positions of the hubs, and costs.
+        private final byte[] hubs;
+        private final double[] costs;
+
+        Labels(LabelBuilder builder) {
+            final int nbNodes = builder.sizes.length;
+            this.firstEntry = new int[nbNodes + 1];
+            this.firstByte = new int[nbNodes + 1];
+            int nbBytes = 0;
+            for (int node = 0; node < nbNodes; ++node) {
+                this.firstEntry[node + 1] = this.firstEntry[node] + builder.sizes[node];
+                int previous = -1;
+                for (int i = 0; i < builder.sizes[node]; ++i) {
+                    nbBytes += varIntLength(builder.hubs[node][i] - previous - 1);
+                    previous = builder.hubs[node][i];
+                }
+                this.firstByte[node + 1] = nbBytes;
+            }
+
+            this.hubs = new byte[nbBytes];
+            this.costs = new double[this.firstEntry[nbNodes]];
+            int position = 0;
+            for (int node = 0; node < nbNodes; ++node) {
+                int previous = -1;
+                for (int i = 0; i < builder.sizes[node]; ++i) {
+                    position = putVarInt(this.hubs, position, builder.hubs[node][i] - previous - 1);
+                    previous = builder.hubs[node][i];
+                    this.costs[this.firstEntry[node] + i] = builder.costs[node][i];
+                }
+                // Release the label as soon as it has been compressed.
+                builder.hubs[node] = null;
+                builder.costs[node] = null;
+            }
+        }
+
+        private static int varIntLength(int value) {
+            int length = 1;
+            while ((value >>>= 7) != 0) {
+                length++;
+            }
+            return length;
+        }
+
+        private static int putVarInt(byte[] bytes, int position, int value) {
+            while ((value & ~0x7F) != 0) {
+                bytes[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[position++] = (byte) value;
+            return position;
+        }
+
+    }
+
+    // Metric of this index.
+    private final CompactMetric metric;
+
+    // Order of the nodes.
+    private final int[] order;
+
+    // Forward labels (costs to the hubs) and backward labels (costs from the
+    // hubs).
+    private final Labels forward, backward;
+
+    private HubLabelIndex(CompactMetric metric, int[] order, LabelBuilder forward,
+            LabelBuilder backward) {
+        this.metric = metric;
+        this.order = order;
+        this.forward = new Labels(forward);
+        this.backward = new Labels(backward);
+    }
+
+    /**
+     * @return Metric of this index.
+     */
+    public CompactMetric getMetric() {
+        return metric;
+    }
+
+    /**
+     * @param position Position in the order.
+     *
+     * @return Node at the given position (0 for the most important node).
+     */
+    public int getNodeAt(int position) {
+        return this.order[position];
+    }
+
+    /**
+     * @return Average number of hubs per label.
+     */
+    public double getAverageLabelSize() {
+        final int nbNodes = this.order.length;
+        return nbNodes == 0 ? 0
+                : (this.forward.costs.length + this.backward.costs.length) / (2.0 * nbNodes);
+    }
+
+    /**
+     * @return Memory used by the labels, in bytes.
+     */
+    public long getMemoryUsage() {
+        return this.forward.hubs.length + this.backward.hubs.length
+                + 8L * (this.forward.costs.length + this.backward.costs.length)
+                + 4L * 2 * (this.forward.firstEntry.length + this.backward.firstEntry.length);
+    }
+
+    /**
+     * Compute the cost of the shortest path between two nodes.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(|L(origin)| + |L(destination)|)</i>
+     * </p>
+     *
+     * @param origin ID of the origin.
+     * @param destination ID of the destination.
+     *
+     * @return Cost of the shortest path from the origin to the destination, or
+     *         {@link Double#POSITIVE_INFINITY} if there is no path.
+     */
+    public double getCost(int origin, int destination) {
+        final Labels out = this.forward, in = this.backward;
+        final byte[] outHubs = out.hubs, inHubs = in.hubs;
+
+        int outByte = out.firstByte[origin], inByte = in.firstByte[destination];
+        int outEntry = out.firstEntry[origin], inEntry = in.firstEntry[destination];
+        final int outEnd = out.firstEntry[origin + 1], inEnd = in.firstEntry[destination + 1];
+        if (outEntry == outEnd || inEntry == inEnd) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        // Decode the first hub of each label (hubs are delta-encoded from -1).
+        int value, shift;
+        byte b;
+        value = 0;
+        shift = 0;
+        do {
+            b = outHubs[outByte++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        }
+        while (b < 0);
+        int outHub = value;
+        value = 0;
+        shift = 0;
+        do {
+            b = inHubs[inByte++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        }
+        while (b < 0);
+        int inHub = value;
+
+        double best = Double.POSITIVE_INFINITY;
+        while (true) {
+            if (outHub == inHub) {
+                best = Math.min(best, out.costs[outEntry] + in.costs[inEntry]);
+            }
+            if (outHub <= inHub) {
+                if (++outEntry == outEnd) {
+                    break;
+                }
+                value = 0;
+                shift = 0;
+                do {
+                    b = outHubs[outByte++];
+                    value |= (b & 0x7F) << shift;
+                    shift += 7;
+                }
+                while (b < 0);
+                outHub += value + 1;
+            }
+            else {
+                if (++inEntry == inEnd) {
+                    break;
+                }
+                value = 0;
+                shift = 0;
+                do {
+                    b = inHubs[inByte++];
+                    value |= (b & 0x7F) << shift;
+                    shift += 7;
+                }
+                while (b < 0);
+                inHub += value + 1;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Compute the shortest path between two nodes. The path is unpacked one arc at
+     * a time, by choosing at each node the arc that minimizes its cost plus the
+     * cost from its head to the destination given by the labels.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(k * d * |L|)</i> where k is the number of arcs of
+     * the path, d the degree of the nodes and |L| the size of the labels.
+     * </p>
+     *
+     * @param origin ID of the origin.
+     * @param destination ID of the destination.
+     *
+     * @return Shortest path from the origin to the destination, or null if there
+     *         is no path.
+     *
+     * @throws IllegalStateException if the compact graph of the metric has no
+     *         original graph, or if the path cannot be unpacked.
+     */
+    public Path getPath(int origin, int destination) {
+        final CompactGraph compact = this.metric.getGraph();
+        final Graph graph = compact.getGraph();
+        if (graph == null) {
+            throw new IllegalStateException("Compact graph has no original graph.");
+        }
+        if (Double.isInfinite(getCost(origin, destination))) {
+            return null;
+        }
+        if (origin == destination) {
+            return new Path(graph, graph.get(origin));
+        }
+
+        List<Arc> arcs = new ArrayList<>();
+        Set<Integer> visited = new HashSet<>();
+        int current = origin;
+        visited.add(origin);
+        while (current != destination) {
+            int bestArc = -1;
+            double bestCost = Double.POSITIVE_INFINITY, bestRemaining = Double.POSITIVE_INFINITY;
+            final int lastArc = compact.getFirstArc(current + 1);
+            for (int arc = compact.getFirstArc(current); arc < lastArc; ++arc) {
+                if (visited.contains(compact.getArcHead(arc))) {
+                    continue;
+                }
+                final double remaining = getCost(compact.getArcHead(arc), destination);
+                final double cost = this.metric.getCost(arc) + remaining;
+                // Ties are broken by the remaining cost (arcs of zero cost).
+                if (cost < bestCost || (cost == bestCost && remaining < bestRemaining)) {
+                    bestArc = arc;
+                    bestCost = cost;
+                    bestRemaining = remaining;
+                }
+            }
+            if (bestArc == -1) {
+                throw new IllegalStateException("Cannot unpack path from labels.");
+            }
+            arcs.add(compact.getArc(bestArc));
+            current = compact.getArcHead(bestArc);
+            visited.add(current);
+        }
+        return new Path(graph, arcs);
+    }
+
+}
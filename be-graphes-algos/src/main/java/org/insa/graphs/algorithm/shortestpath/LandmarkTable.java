@@ -0,0 +1,683 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.WeakHashMap;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.utils.PrimitiveBinaryHeap;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.io.BadFormatException;
+import org.insa.graphs.model.io.BadMagicNumberException;
+import org.insa.graphs.model.io.BadVersionException;
+import org.insa.graphs.model.io.MapMismatchException;
+
+/**
+ * <p>
+ * Landmark distance tables for the ALT algorithm (A*, landmarks and triangle
+ * inequality).
+ * </p>
+ *
+ * <p>
+ * For a set of landmarks L and every node v, the table stores the cost d(L, v)
+ * from the landmark to the node and the cost d(v, L) from the node to the
+ * landmark, for a given {@link CompactMetric}. By the triangle inequality, for
+ * any landmark L, both d(L, t) - d(L, v) and d(v, L) - d(t, L) are lower bounds
+ * of the cost d(v, t), which gives an admissible and consistent heuristic for
+ * any cost function (unlike straight-line distances in time mode).
+ * </p>
+ *
+ * <p>
+ * Costs are stored as {@code float} to halve the size of the table, and the
+ * bounds are lowered by the rounding error of the stored costs so that they
+ * remain admissible.
+ * </p>
+ *
+ * <p>
+ * Tables are expensive to compute (two one-to-all searches per landmark, plus
+ * the landmark selection), so they are cached per metric (see
+ * {@link #getTable(CompactMetric)}) and can be stored next to the map file (see
+ * {@link #loadOrCompute(File, CompactMetric)}).
+ * </p>
+ *
+ */
+public class LandmarkTable {
+
+    /**
+     * Landmark selection strategies.
+     */
+    public enum Selection {
+
+        /**
+         * Each new landmark is the node the farthest from the already selected
+         * landmarks (fast, tends to select landmarks on the border of the graph).
+         */
+        FARTHEST,
+
+        /**
+         * Each new landmark is chosen in the region of a shortest path tree where
+         * the current landmarks give the worst bounds (slower to select, but gives
+         * better bounds).
+         */
+        AVOID
+    }
+
+    /**
+     * Default number of landmarks.
+     */
+    public static final int DEFAULT_NB_LANDMARKS = 16;
+
+    /**
+     * Default selection strategy.
+     */
+    public static final Selection DEFAULT_SELECTION = Selection.AVOID;
+
+    /**
+     * Extension of the files containing landmark tables.
+     */
+    public static final String FILE_EXTENSION = ".alt";
+
+    // Version and magic number of the file format.
+    private static final int VERSION = 2;
+    private static final int MAGIC_NUMBER = 0x414C5431;
+
+    // Seed used for the selection of landmarks (for reproducible tables).
+    private static final long SEED = 0x5EED;
+
+    // Cached tables, by metric.
+    private static final Map<CompactMetric, SoftReference<LandmarkTable>> tables = new WeakHashMap<>();
+
+    /**
+     * Retrieve the table for the given metric, computing it with the default
+     * parameters if it is not in the cache.
+     *
+     * @param metric Metric for the table.
+     *
+     * @return Landmark table for the given metric.
+     */
+    public static LandmarkTable getTable(CompactMetric metric) {
+        synchronized (tables) {
+            SoftReference<LandmarkTable> reference = tables.get(metric);
+            LandmarkTable table = reference == null ? null : reference.get();
+            if (table == null) {
+                table = computeDefault(metric);
+                tables.put(metric, new SoftReference<>(table));
+            }
+            return table;
+        }
+    }
+
+    /**
+     * Retrieve the file where the table for the given map and inspector should be
+     * stored, i.e. a file next to the map file whose name depends on the
+     * inspector. The name only stays the same across runs for inspectors with a
+     * {@link ArcInspector#getMetricKey() metric key}.
+     *
+     * @param mapFile File of the map.
+     * @param inspector Inspector of the table.
+     *
+     * @return File for the table.
+     */
+    public static File getDefaultFile(File mapFile, ArcInspector inspector) {
+        String name = mapFile.getName();
+        int dot = name.lastIndexOf('.');
+        if (dot > 0) {
+            name = name.substring(0, dot);
+        }
+        String key = Integer.toHexString(CompactMetric.getInspectorKey(inspector).hashCode());
+        return new File(mapFile.getAbsoluteFile().getParentFile(),
+                name + "-" + key + FILE_EXTENSION);
+    }
+
+    /**
+     * Load the table for the given metric from the default file next to the
+     * given map file (see {@link #getDefaultFile(File, ArcInspector)}), or compute
+     * it with the default parameters and store it in this file if it does not
+     * exist or does not match the metric. The table is then added to the cache.
+     *
+     * @param mapFile File of the map.
+     * @param metric Metric for the table.
+     *
+     * @return Landmark table for the given metric.
+     *
+     * @throws IOException if the table cannot be written.
+     */
+    public static LandmarkTable loadOrCompute(File mapFile, CompactMetric metric)
+            throws IOException {
+        File file = getDefaultFile(mapFile, metric.getInspector());
+        LandmarkTable table = null;
+        if (file.isFile()) {
+            try (DataInputStream dis = new DataInputStream(
+                    new BufferedInputStream(new FileInputStream(file)))) {
+                table = read(dis, metric);
+            }
+            catch (BadFormatException | MapMismatchException exception) {
+                // Outdated or corrupted table, compute a new one.
+                table = null;
+            }
+        }
+        if (table == null) {
+            table = computeDefault(metric);
+            try (DataOutputStream dos = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(file)))) {
+                table.write(dos);
+            }
+        }
+        synchronized (tables) {
+            tables.put(metric, new SoftReference<>(table));
+        }
+        return table;
+    }
+
+    /**
+     * Compute the cost from (or to) the given source to (or from) every node.
+     *
+     * @param metric Metric for the search (reverse metric for costs to the
+     *        source).
+     * @param source Source of the search.
+     * @param parentArcs Array filled with the arc used to reach each node (-1 for
+     *        the source and unreachable nodes), or null.
+     * @param order Array filled with the nodes in the order they are settled
+     *        (followed by -1 if some nodes are not reachable), or null.
+     *
+     * @return Cost of each node, {@link Double#POSITIVE_INFINITY} for unreachable
+     *         nodes.
+     */
+    static double[] computeCosts(CompactMetric metric, int source, int[] parentArcs,
+            int[] order) {
+        final CompactGraph graph = metric.getGraph();
+        final double[] costs = new double[graph.size()];
+        Arrays.fill(costs, Double.POSITIVE_INFINITY);
+        if (parentArcs != null) {
+            Arrays.fill(parentArcs, -1);
+        }
+        if (order != null) {
+            Arrays.fill(order, -1);
+        }
+
+        final PrimitiveBinaryHeap heap = new PrimitiveBinaryHeap(graph.size());
+        costs[source] = 0;
+        heap.insert(source, 0);
+        int nbSettled = 0;
+        while (!heap.isEmpty()) {
+            final int current = heap.deleteMin();
+            if (order != null) {
+                order[nbSettled] = current;
+            }
+            nbSettled++;
+            final int lastArc = graph.getFirstArc(current + 1);
+            for (int arc = graph.getFirstArc(current); arc < lastArc; ++arc) {
+                final int next = graph.getArcHead(arc);
+                final double newCost = costs[current] + metric.getCost(arc);
+                if (newCost < costs[next]) {
+                    costs[next] = newCost;
+                    heap.insertOrUpdate(next, newCost);
+                    if (parentArcs != null) {
+                        parentArcs[next] = arc;
+                    }
+                }
+            }
+        }
+        return costs;
+    }
+
+    /**
+     * Compute a new landmark table with the default parameters (at most
+     * {@link #DEFAULT_NB_LANDMARKS} landmarks, selected using
+     * {@link #DEFAULT_SELECTION}).
+     */
+    private static LandmarkTable computeDefault(CompactMetric metric) {
+        return compute(metric, Math.min(DEFAULT_NB_LANDMARKS, metric.getGraph().size()),
+                DEFAULT_SELECTION);
+    }
+
+    /**
+     * Compute a new landmark table.
+     *
+     * @param metric Metric for the table.
+     * @param nbLandmarks Number of landmarks (at most the number of nodes).
+     * @param selection Landmark selection strategy.
+     *
+     * @return A new landmark table.
+     *
+     * @throws IllegalArgumentException if the number of landmarks is not positive
+     *         or greater than the number of nodes, or if the table is too large.
+     */
+    public static LandmarkTable compute(CompactMetric metric, int nbLandmarks,
+            Selection selection) {
+        final int nbNodes = metric.getGraph().size();
+        if (nbLandmarks <= 0 || nbLandmarks > nbNodes) {
+            throw new IllegalArgumentException("Invalid number of landmarks: " + nbLandmarks);
+        }
+        LandmarkTable table = new LandmarkTable(metric.getGraph().getMapId(),
+                CompactMetric.getInspectorKey(metric.getInspector()), nbNodes, nbLandmarks);
+        Random random = new Random(SEED);
+        for (int i = 0; i < nbLandmarks; ++i) {
+            int landmark = selection == Selection.FARTHEST ? table.selectFarthest(metric, random)
+                    : table.selectAvoid(metric, random);
+            table.addLandmark(metric, landmark);
+        }
+        return table;
+    }
+
+    // Map and inspector of the table.
+    private final String mapId, inspectorKey;
+
+    // Number of nodes.
+    private final int nbNodes;
+
+    // Landmarks, and number of landmarks added so far.
+    private final int[] landmarks;
+    private int nbLandmarks;
+
+    // Costs from and to each landmark, fromLandmark[v * k + i] = d(L_i, v), and
+    // toLandmark[v * k + i] = d(v, L_i) (k is the number of landmarks), rounded
+    // to the nearest float.
+    private final float[] fromLandmark, toLandmark;
+
+    private LandmarkTable(String mapId, String inspectorKey, int nbNodes, int nbLandmarks) {
+        this.mapId = mapId;
+        this.inspectorKey = inspectorKey;
+        this.nbNodes = nbNodes;
+        this.landmarks = new int[nbLandmarks];
+        this.nbLandmarks = 0;
+        final int size;
+        try {
+            size = Math.multiplyExact(nbNodes, nbLandmarks);
+        }
+        catch (ArithmeticException exception) {
+            throw new IllegalArgumentException("Landmark table too large: " + nbNodes
+                    + " nodes, " + nbLandmarks + " landmarks.");
+        }
+        this.fromLandmark = new float[size];
+        this.toLandmark = new float[size];
+    }
+
+    /**
+     * Add the given landmark and compute its costs.
+     */
+    private void addLandmark(CompactMetric metric, int landmark) {
+        final int k = this.landmarks.length, index = this.nbLandmarks;
+        double[] from = computeCosts(metric, landmark, null, null);
+        double[] to = computeCosts(metric.getReverse(), landmark, null, null);
+        for (int node = 0; node < this.nbNodes; ++node) {
+            this.fromLandmark[node * k + index] = (float) from[node];
+            this.toLandmark[node * k + index] = (float) to[node];
+        }
+        this.landmarks[index] = landmark;
+        this.nbLandmarks++;
+    }
+
+    /**
+     * Select a new landmark using the FARTHEST strategy: the node that maximizes
+     * the minimum round-trip cost to the current landmarks (or to a random node
+     * for the first landmark), among the nodes that can be reached.
+     */
+    private int selectFarthest(CompactMetric metric, Random random) {
+        final int k = this.landmarks.length;
+        double[] distances = new double[this.nbNodes];
+        if (this.nbLandmarks == 0) {
+            int root = random.nextInt(this.nbNodes);
+            double[] from = computeCosts(metric, root, null, null);
+            double[] to = computeCosts(metric.getReverse(), root, null, null);
+            for (int node = 0; node < this.nbNodes; ++node) {
+                distances[node] = from[node] + to[node];
+            }
+        }
+        else {
+            Arrays.fill(distances, Double.POSITIVE_INFINITY);
+            for (int node = 0; node < this.nbNodes; ++node) {
+                for (int i = 0; i < this.nbLandmarks; ++i) {
+                    distances[node] = Math.min(distances[node],
+                            this.fromLandmark[node * k + i] + this.toLandmark[node * k + i]);
+                }
+            }
+        }
+
+        // Farthest node with a finite distance (not already a landmark).
+        int farthest = -1;
+        for (int node = 0; node < this.nbNodes; ++node) {
+            if (!Double.isInfinite(distances[node]) && !isLandmark(node)
+                    && (farthest == -1 || distances[node] > distances[farthest])) {
+                farthest = node;
+            }
+        }
+        return farthest == -1 ? selectRandom(random) : farthest;
+    }
+
+    /**
+     * Select a new landmark using the AVOID strategy (Goldberg and Werneck): the
+     * shortest path tree of a random root is built, each node is weighted by the
+     * difference between its cost and the lower bound given by the current
+     * landmarks, and the new landmark is the leaf reached by descending from the
+     * root into the heaviest subtrees, ignoring subtrees containing a landmark.
+     */
+    private int selectAvoid(CompactMetric metric, Random random) {
+        final CompactGraph graph = metric.getGraph();
+        final int root = random.nextInt(this.nbNodes);
+        final int[] parentArcs = new int[this.nbNodes];
+        final int[] order = new int[this.nbNodes];
+        final double[] costs = computeCosts(metric, root, parentArcs, order);
+
+        // Parent of each node in the tree (-1 for the root and unreachable nodes).
+        final int[] parents = new int[this.nbNodes];
+        for (int node = 0; node < this.nbNodes; ++node) {
+            parents[node] = parentArcs[node] == -1 ? -1 : graph.getArcTail(parentArcs[node]);
+        }
+
+        // Size of each subtree, in reverse settle order (children before parents).
+        final double[] sizes = new double[this.nbNodes];
+        final boolean[] hasLandmark = new boolean[this.nbNodes];
+        int nbReached = 0;
+        while (nbReached < this.nbNodes && order[nbReached] != -1) {
+            nbReached++;
+        }
+        for (int i = nbReached - 1; i >= 0; --i) {
+            final int node = order[i];
+            if (isLandmark(node)) {
+                hasLandmark[node] = true;
+            }
+            if (hasLandmark[node]) {
+                sizes[node] = 0;
+            }
+            else {
+                sizes[node] += costs[node] - getLowerBound(root, node);
+            }
+            if (parents[node] != -1) {
+                sizes[parents[node]] += sizes[node];
+                hasLandmark[parents[node]] |= hasLandmark[node];
+            }
+        }
+
+        // Children of each node in the tree (CSR arrays).
+        final int[] firstChild = new int[this.nbNodes + 1];
+        for (int node = 0; node < this.nbNodes; ++node) {
+            if (parents[node] != -1) {
+                firstChild[parents[node] + 1]++;
+            }
+        }
+        for (int node = 0; node < this.nbNodes; ++node) {
+            firstChild[node + 1] += firstChild[node];
+        }
+        final int[] next = Arrays.copyOf(firstChild, this.nbNodes);
+        final int[] children = new int[firstChild[this.nbNodes]];
+        for (int node = 0; node < this.nbNodes; ++node) {
+            if (parents[node] != -1) {
+                children[next[parents[node]]++] = node;
+            }
+        }
+
+        // Descend into the heaviest subtrees.
+        int current = root;
+        while (true) {
+            int heaviest = -1;
+            for (int i = firstChild[current]; i < firstChild[current + 1]; ++i) {
+                int child = children[i];
+                if (sizes[child] > 0 && (heaviest == -1 || sizes[child] > sizes[heaviest])) {
+                    heaviest = child;
+                }
+            }
+            if (heaviest == -1) {
+                break;
+            }
+            current = heaviest;
+        }
+        return isLandmark(current) ? selectRandom(random) : current;
+    }
+
+    /**
+     * Select a random node that is not a landmark.
+     */
+    private int selectRandom(Random random) {
+        int node;
+        do {
+            node = random.nextInt(this.nbNodes);
+        }
+        while (isLandmark(node));
+        return node;
+    }
+
+    /**
+     * @param node ID of a node.
+     *
+     * @return true if the given node is a landmark of this table.
+     */
+    public boolean isLandmark(int node) {
+        for (int i = 0; i < this.nbLandmarks; ++i) {
+            if (this.landmarks[i] == node) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return ID of the map of this table.
+     */
+    public String getMapId() {
+        return mapId;
+    }
+
+    /**
+     * @return Key of the inspector of this table.
+     *
+     * @see CompactMetric#getInspectorKey(ArcInspector)
+     */
+    public String getInspectorKey() {
+        return inspectorKey;
+    }
+
+    /**
+     * @return Number of landmarks in this table.
+     */
+    public int getNumberOfLandmarks() {
+        return this.nbLandmarks;
+    }
+
+    /**
+     * @param index Index of the landmark.
+     *
+     * @return ID of the landmark node.
+     */
+    public int getLandmark(int index) {
+        return this.landmarks[index];
+    }
+
+    /**
+     * Compute the lower bound of the cost from a node to a target given by one
+     * landmark. Terms with an unknown (infinite) subtracted cost are ignored, and
+     * an infinite bound means the target cannot be reached from the node.
+     *
+     * @param index Index of the landmark.
+     * @param node ID of the node.
+     * @param target ID of the target.
+     *
+     * @return Lower bound of the cost from the node to the target.
+     */
+    public double getLowerBound(int index, int node, int target) {
+        final int k = this.landmarks.length;
+        double bound = 0;
+        // d(v, t) >= d(L, t) - d(L, v)
+        final float fromNode = this.fromLandmark[node * k + index];
+        if (!Float.isInfinite(fromNode)) {
+            bound = Math.max(bound,
+                    getDifference(this.fromLandmark[target * k + index], fromNode));
+        }
+        // d(v, t) >= d(v, L) - d(t, L)
+        final float toTarget = this.toLandmark[target * k + index];
+        if (!Float.isInfinite(toTarget)) {
+            bound = Math.max(bound, getDifference(this.toLandmark[node * k + index], toTarget));
+        }
+        return bound;
+    }
+
+    /**
+     * Compute a lower bound of the difference of two costs from their rounded
+     * values, each of which is at most half an ulp away from the exact cost.
+     *
+     * @param a Rounded cost to subtract from (may be infinite).
+     * @param b Rounded (finite) cost to subtract.
+     *
+     * @return Lower bound of the difference of the exact costs.
+     */
+    private static double getDifference(float a, float b) {
+        if (Float.isInfinite(a)) {
+            return a;
+        }
+        return (double) a - b - (Math.ulp(a) + Math.ulp(b)) / 2.0;
+    }
+
+    /**
+     * Compute the lower bound of the cost from a node to a target, using the given
+     * landmarks.
+     *
+     * @param node ID of the node.
+     * @param target ID of the target.
+     * @param active Indices of the landmarks to use.
+     *
+     * @return Lower bound of the cost from the node to the target.
+     */
+    public double getLowerBound(int node, int target, int[] active) {
+        double bound = 0;
+        for (int index: active) {
+            bound = Math.max(bound, getLowerBound(index, node, target));
+        }
+        return bound;
+    }
+
+    /**
+     * Compute the lower bound of the cost from a node to a target, using all the
+     * landmarks.
+     *
+     * @param node ID of the node.
+     * @param target ID of the target.
+     *
+     * @return Lower bound of the cost from the node to the target.
+     */
+    public double getLowerBound(int node, int target) {
+        double bound = 0;
+        for (int index = 0; index < this.nbLandmarks; ++index) {
+            bound = Math.max(bound, getLowerBound(index, node, target));
+        }
+        return bound;
+    }
+
+    /**
+     * Select the landmarks giving the best lower bounds for the given pair of
+     * nodes.
+     *
+     * @param origin ID of the origin.
+     * @param target ID of the target.
+     * @param count Maximum number of landmarks to select.
+     *
+     * @return Indices of the selected landmarks.
+     */
+    public int[] selectActiveLandmarks(int origin, int target, int count) {
+        count = Math.min(count, this.nbLandmarks);
+        Integer[] indices = new Integer[this.nbLandmarks];
+        double[] bounds = new double[this.nbLandmarks];
+        for (int index = 0; index < this.nbLandmarks; ++index) {
+            indices[index] = index;
+            bounds[index] = getLowerBound(index, origin, target);
+        }
+        Arrays.sort(indices, (a, b) -> Double.compare(bounds[b], bounds[a]));
+        int[] active = new int[count];
+        for (int i = 0; i < count; ++i) {
+            active[i] = indices[i];
+        }
+        return active;
+    }
+
+    /**
+     * Write this table to the given stream.
+     *
+     * @param dos Stream to write to.
+     *
+     * @throws IOException if an error occurs while writing.
+     */
+    public void write(DataOutputStream dos) throws IOException {
+        dos.writeInt(MAGIC_NUMBER);
+        dos.writeInt(VERSION);
+        dos.writeUTF(this.mapId == null ? "" : this.mapId);
+        dos.writeUTF(this.inspectorKey);
+        dos.writeInt(this.nbNodes);
+        dos.writeInt(this.nbLandmarks);
+        for (int i = 0; i < this.nbLandmarks; ++i) {
+            dos.writeInt(this.landmarks[i]);
+        }
+        for (float cost: this.fromLandmark) {
+            dos.writeFloat(cost);
+        }
+        for (float cost: this.toLandmark) {
+            dos.writeFloat(cost);
+        }
+        dos.flush();
+    }
+
+    /**
+     * Read a table from the given stream.
+     *
+     * @param dis Stream to read from.
+     * @param metric Metric the table should correspond to.
+     *
+     * @return The table read.
+     *
+     * @throws BadMagicNumberException if the magic number is incorrect.
+     * @throws BadVersionException if the version of the file is not supported.
+     * @throws MapMismatchException if the table was computed for another map.
+     * @throws BadFormatException if the table does not match the metric.
+     * @throws IOException if an error occurs while reading.
+     */
+    public static LandmarkTable read(DataInputStream dis, CompactMetric metric)
+            throws IOException {
+        int magicNumber = dis.readInt();
+        if (magicNumber != MAGIC_NUMBER) {
+            throw new BadMagicNumberException(magicNumber, MAGIC_NUMBER);
+        }
+        int version = dis.readInt();
+        if (version != VERSION) {
+            throw new BadVersionException(version, VERSION);
+        }
+
+        String mapId = dis.readUTF();
+        String expectedMapId = metric.getGraph().getMapId();
+        if (!mapId.equals(expectedMapId == null ? "" : expectedMapId)) {
+            throw new MapMismatchException(mapId, expectedMapId);
+        }
+        String inspectorKey = dis.readUTF();
+        if (!inspectorKey.equals(CompactMetric.getInspectorKey(metric.getInspector()))) {
+            throw new BadFormatException("Landmark table for another inspector: " + inspectorKey);
+        }
+        int nbNodes = dis.readInt();
+        int nbLandmarks = dis.readInt();
+        if (nbNodes != metric.getGraph().size() || nbLandmarks <= 0 || nbLandmarks > nbNodes
+                || (long) nbNodes * nbLandmarks > Integer.MAX_VALUE) {
+            throw new BadFormatException("Landmark table does not match the graph.");
+        }
+
+        LandmarkTable table = new LandmarkTable(expectedMapId, inspectorKey, nbNodes,
+                nbLandmarks);
+        for (int i = 0; i < nbLandmarks; ++i) {
+            table.landmarks[i] = dis.readInt();
+        }
+        table.nbLandmarks = nbLandmarks;
+        for (int i = 0; i < table.fromLandmark.length; ++i) {
+            table.fromLandmark[i] = dis.readFloat();
+        }
+        for (int i = 0; i < table.toLandmark.length; ++i) {
+            table.toLandmark[i] = dis.readFloat();
+        }
+        return table;
+    }
+
+}
@@ -0,0 +1,359 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.insa.graphs.model.CompactGraph;
+
+/**
+ * <p>
+ * Metric-independent part of customizable route planning: a multi-level
+ * partition of the nodes of a {@link CompactGraph}, and the boundary nodes of
+ * each cell at each level.
+ * </p>
+ *
+ * <p>
+ * The nodes are split into 2<sup>d</sup> leaf cells by the geometric bisection
+ * of {@link ArcFlags#computePartition(CompactGraph, int)}, where d is chosen so
+ * that leaf cells contain about {@link #DEFAULT_CELL_SIZE} nodes. Since the
+ * bisection is recursive, grouping leaf cells by their high bits gives nested
+ * cells: level 1 is made of the leaf cells, and each level merges
+ * 2<sup>levelBits</sup> cells of the level below. Levels are numbered from 1
+ * (finest) to {@link #getNumberOfLevels()} (coarsest); the top level has at
+ * least 2<sup>levelBits</sup> cells.
+ * </p>
+ *
+ * <p>
+ * An arc is a cut arc of a level if its endpoints are in different cells of
+ * this level, and a node is a boundary node of a level if it is an endpoint of
+ * a cut arc of this level. All the arcs of the graph are considered, whatever
+ * the arc inspector, so the overlay can be shared by all the metrics of the
+ * graph; the costs between the boundary nodes of each cell are computed for a
+ * given metric by {@link OverlayCustomization}.
+ * </p>
+ *
+ */
+public class MultiLevelOverlay {
+
+    /**
+     * Default approximate number of nodes in a cell of level 1.
+     */
+    public static final int DEFAULT_CELL_SIZE = 128;
+
+    /**
+     * Default base-2 logarithm of the number of cells merged into a cell of the
+     * level above.
+     */
+    public static final int DEFAULT_LEVEL_BITS = 2;
+
+    // Cached overlays, by graph.
+    private static final Map<CompactGraph, SoftReference<MultiLevelOverlay>> overlays = new WeakHashMap<>();
+
+    /**
+     * Retrieve the overlay of the given graph, building it with the default
+     * parameters if it is not in the cache.
+     *
+     * @param graph Graph for the overlay.
+     *
+     * @return Overlay of the given graph.
+     */
+    public static MultiLevelOverlay getOverlay(CompactGraph graph) {
+        synchronized (overlays) {
+            SoftReference<MultiLevelOverlay> reference = overlays.get(graph);
+            MultiLevelOverlay overlay = reference == null ? null : reference.get();
+            if (overlay == null) {
+                overlay = build(graph, DEFAULT_CELL_SIZE, DEFAULT_LEVEL_BITS);
+                overlays.put(graph, new SoftReference<>(overlay));
+            }
+            return overlay;
+        }
+    }
+
+    /**
+     * Build the overlay of the given graph.
+     *
+     * @param graph Graph for the overlay.
+     * @param cellSize Approximate number of nodes in a cell of level 1.
+     * @param levelBits Base-2 logarithm of the number of cells merged into a cell
+     *        of the level above.
+     *
+     * @return Overlay of the given graph.
+     *
+     * @throws IllegalArgumentException if the cell size or the number of bits is
+     *         not positive.
+     */
+    public static MultiLevelOverlay build(CompactGraph graph, int cellSize, int levelBits) {
+        if (cellSize <= 0 || levelBits <= 0) {
+            throw new IllegalArgumentException(
+                    "Invalid overlay parameters: " + cellSize + ", " + levelBits);
+        }
+        int depth = 0;
+        while (depth < 30 && ((long) cellSize << depth) < graph.size()) {
+            depth++;
+        }
+        int nbLevels = depth / levelBits;
+        int[] shifts = new int[nbLevels];
+        for (int level = 0; level < nbLevels; ++level) {
+            shifts[level] = level * levelBits;
+        }
+        return new MultiLevelOverlay(graph, ArcFlags.computePartition(graph, 1 << depth), depth,
+                shifts);
+    }
+
+    // Graph of this overlay.
+    private final CompactGraph graph;
+
+    // Leaf cell of each node, and shift giving the cell at each level.
+    private final int[] leaves;
+    private final int depth;
+    private final int[] shifts;
+
+    // For each level, boundary nodes sorted by cell (with the index of the first
+    // boundary node of each cell), and index of each node among the boundary
+    // nodes of its cell (-1 if it is not a boundary node).
+    private final int[][] firstBoundaryNodes;
+    private final int[][] boundaryNodes;
+    private final int[][] boundaryIndices;
+
+    // For each level, offset of the clique matrix of each cell.
+    private final int[][] cliqueOffsets;
+
+    // First overlay vertex of each level.
+    private final int[] firstVertices;
+
+    private MultiLevelOverlay(CompactGraph graph, int[] leaves, int depth, int[] shifts) {
+        this.graph = graph;
+        this.leaves = leaves;
+        this.depth = depth;
+        this.shifts = shifts;
+
+        final int nbNodes = graph.size();
+        final int nbLevels = shifts.length;
+        this.firstBoundaryNodes = new int[nbLevels][];
+        this.boundaryNodes = new int[nbLevels][];
+        this.boundaryIndices = new int[nbLevels][];
+        this.cliqueOffsets = new int[nbLevels][];
+        this.firstVertices = new int[nbLevels + 1];
+        for (int level = 1; level <= nbLevels; ++level) {
+            final int nbCells = getNumberOfCells(level);
+
+            // Boundary nodes: endpoints of the cut arcs.
+            boolean[] boundary = new boolean[nbNodes];
+            for (int node = 0; node < nbNodes; ++node) {
+                final int lastArc = graph.getFirstArc(node + 1);
+                for (int arc = graph.getFirstArc(node); arc < lastArc; ++arc) {
+                    if (isCutArc(level, arc)) {
+                        boundary[node] = true;
+                        boundary[graph.getArcHead(arc)] = true;
+                    }
+                }
+            }
+
+            // Group them by cell, in increasing order of IDs.
+            int[] first = new int[nbCells + 1];
+            for (int node = 0; node < nbNodes; ++node) {
+                if (boundary[node]) {
+                    first[getCell(level, node) + 1]++;
+                }
+            }
+            for (int cell = 0; cell < nbCells; ++cell) {
+                first[cell + 1] += first[cell];
+            }
+            int[] nodes = new int[first[nbCells]];
+            int[] indices = new int[nbNodes];
+            Arrays.fill(indices, -1);
+            int[] next = Arrays.copyOf(first, nbCells);
+            for (int node = 0; node < nbNodes; ++node) {
+                if (boundary[node]) {
+                    final int cell = getCell(level, node);
+                    indices[node] = next[cell] - first[cell];
+                    nodes[next[cell]++] = node;
+                }
+            }
+
+            int[] offsets = new int[nbCells + 1];
+            for (int cell = 0; cell < nbCells; ++cell) {
+                final long size = first[cell + 1] - first[cell];
+                offsets[cell + 1] = Math.toIntExact(offsets[cell] + size * size);
+            }
+
+            this.firstBoundaryNodes[level - 1] = first;
+            this.boundaryNodes[level - 1] = nodes;
+            this.boundaryIndices[level - 1] = indices;
+            this.cliqueOffsets[level - 1] = offsets;
+            this.firstVertices[level] = this.firstVertices[level - 1] + nodes.length;
+        }
+    }
+
+    /**
+     * @return Graph of this overlay.
+     */
+    public CompactGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * @return Number of levels of this overlay (0 if the graph is small enough to
+     *         fit in a single cell).
+     */
+    public int getNumberOfLevels() {
+        return shifts.length;
+    }
+
+    /**
+     * @param level Level, between 1 and {@link #getNumberOfLevels()}.
+     *
+     * @return Number of cells at the given level (some cells may be empty).
+     */
+    public int getNumberOfCells(int level) {
+        return 1 << (this.depth - this.shifts[level - 1]);
+    }
+
+    /**
+     * @param level Level, between 1 and {@link #getNumberOfLevels()}.
+     * @param node ID of the node.
+     *
+     * @return Cell of the node at the given level.
+     */
+    public int getCell(int level, int node) {
+        return this.leaves[node] >>> this.shifts[level - 1];
+    }
+
+    /**
+     * @param level Level, between 1 and {@link #getNumberOfLevels()}.
+     * @param arc Index of the arc in the graph.
+     *
+     * @return true if the endpoints of the arc are in different cells at the
+     *         given level.
+     */
+    public boolean isCutArc(int level, int arc) {
+        return getCell(level, this.graph.getArcTail(arc)) != getCell(level,
+                this.graph.getArcHead(arc));
+    }
+
+    /**
+     * @param level Level, between 1 and {@link #getNumberOfLevels()}.
+     * @param cell Cell at the given level.
+     *
+     * @return Number of boundary nodes of the cell.
+     */
+    public int getNumberOfBoundaryNodes(int level, int cell) {
+        final int[] first = this.firstBoundaryNodes[level - 1];
+        return first[cell + 1] - first[cell];
+    }
+
+    /**
+     * @param level Level, between 1 and {@link #getNumberOfLevels()}.
+     * @param cell Cell at the given level.
+     * @param index Index of the boundary node in the cell.
+     *
+     * @return ID of the boundary node.
+     */
+    public int getBoundaryNode(int level, int cell, int index) {
+        return this.boundaryNodes[level - 1][this.firstBoundaryNodes[level - 1][cell] + index];
+    }
+
+    /**
+     * @param level Level, between 1 and {@link #getNumberOfLevels()}.
+     * @param node ID of the node.
+     *
+     * @return Index of the node among the boundary nodes of its cell at the given
+     *         level, or -1 if it is not a boundary node of this level.
+     */
+    public int getBoundaryIndex(int level, int node) {
+        return this.boundaryIndices[level - 1][node];
+    }
+
+    /**
+     * The clique of a cell is a square matrix, stored by rows, of the costs
+     * between its boundary nodes.
+     *
+     * @param level Level, between 1 and {@link #getNumberOfLevels()}.
+     * @param cell Cell at the given level.
+     *
+     * @return Offset of the clique of the given cell.
+     */
+    public int getCliqueOffset(int level, int cell) {
+        return this.cliqueOffsets[level - 1][cell];
+    }
+
+    /**
+     * @param level Level, between 1 and {@link #getNumberOfLevels()}.
+     *
+     * @return Total size of the cliques of the given level.
+     */
+    public int getCliqueSize(int level) {
+        final int[] offsets = this.cliqueOffsets[level - 1];
+        return offsets[offsets.length - 1];
+    }
+
+    /**
+     * The overlay vertices are the boundary nodes of all the levels, numbered by
+     * level, then by cell, then by index in the cell, so that the boundary nodes
+     * of a cell are consecutive vertices.
+     *
+     * @return Number of overlay vertices.
+     */
+    public int getNumberOfVertices() {
+        return this.firstVertices[this.shifts.length];
+    }
+
+    /**
+     * @param level Level, between 1 and {@link #getNumberOfLevels()}.
+     * @param cell Cell at the given level.
+     *
+     * @return Overlay vertex of the first boundary node of the given cell.
+     */
+    public int getFirstVertex(int level, int cell) {
+        return this.firstVertices[level - 1] + this.firstBoundaryNodes[level - 1][cell];
+    }
+
+    /**
+     * @param level Level, between 1 and {@link #getNumberOfLevels()}.
+     * @param node ID of a boundary node of the given level.
+     *
+     * @return Overlay vertex of the node at the given level.
+     */
+    public int getVertex(int level, int node) {
+        return getFirstVertex(level, getCell(level, node))
+                + this.boundaryIndices[level - 1][node];
+    }
+
+    /**
+     * @param vertex Overlay vertex.
+     *
+     * @return ID of the boundary node of the given vertex.
+     */
+    public int getVertexNode(int vertex) {
+        int level = 1;
+        while (vertex >= this.firstVertices[level]) {
+            level++;
+        }
+        return this.boundaryNodes[level - 1][vertex - this.firstVertices[level - 1]];
+    }
+
+    /**
+     * The query level of a node is the highest level at which the node is
+     * neither in the cell of the origin nor in the cell of the destination, or 0
+     * if the node is in the same cell of level 1 as the origin or the
+     * destination.
+     *
+     * @param node ID of the node.
+     * @param origin ID of the origin.
+     * @param destination ID of the destination.
+     *
+     * @return Query level of the node.
+     */
+    public int getQueryLevel(int node, int origin, int destination) {
+        for (int level = this.shifts.length; level > 0; --level) {
+            final int cell = getCell(level, node);
+            if (cell != getCell(level, origin) && cell != getCell(level, destination)) {
+                return level;
+            }
+        }
+        return 0;
+    }
+
+}
@@ -0,0 +1,264 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.utils.PrimitiveBinaryHeap;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+
+/**
+ * <p>
+ * One-to-all search: cost from an origin to every node of the graph, using the
+ * PHAST algorithm on a {@link ContractionHierarchy}.
+ * </p>
+ *
+ * <p>
+ * A query runs a Dijkstra's search from the origin using only the upward edges
+ * of the hierarchy, and then a single linear sweep over all the nodes by
+ * decreasing rank, where the cost of each node is updated from its downward
+ * edges (whose tails have a higher rank and thus already have their final
+ * cost). The sweep does not use any priority queue.
+ * </p>
+ *
+ * <p>
+ * The nodes are renumbered by decreasing rank, and the edges are stored in CSR
+ * arrays over these positions, so the sweep reads the edges sequentially and
+ * the costs mostly in order. {@link #computeCosts(int[])} computes several trees
+ * at once, the costs of the origins being interleaved so that the inner loop of
+ * the sweep works on contiguous values.
+ * </p>
+ *
+ * <p>
+ * A search only holds immutable arrays and can be used concurrently.
+ * </p>
+ *
+ */
+public class OneToAllSearch {
+
+    /**
+     * Maximum number of trees computed by a single sweep of
+     * {@link #computeCosts(int[])}.
+     */
+    public static final int BATCH_SIZE = 16;
+
+    // Cached searches, by hierarchy.
+    private static final Map<ContractionHierarchy, SoftReference<OneToAllSearch>> searches = new WeakHashMap<>();
+
+    /**
+     * Retrieve the search for the given hierarchy, creating it if it is not in
+     * the cache.
+     *
+     * @param hierarchy Hierarchy for the search.
+     *
+     * @return One-to-all search for the given hierarchy.
+     */
+    public static OneToAllSearch getSearch(ContractionHierarchy hierarchy) {
+        synchronized (searches) {
+            SoftReference<OneToAllSearch> reference = searches.get(hierarchy);
+            OneToAllSearch search = reference == null ? null : reference.get();
+            if (search == null) {
+                search = new OneToAllSearch(hierarchy);
+                searches.put(hierarchy, new SoftReference<>(search));
+            }
+            return search;
+        }
+    }
+
+    /**
+     * Compute the cost from the given origin to every node of the graph, using
+     * the PHAST sweep if a contraction hierarchy of the metric is cached, and a
+     * Dijkstra's search of the whole graph otherwise.
+     *
+     * @param graph Graph for the search.
+     * @param origin Origin of the search.
+     * @param inspector Inspector used to compute arc costs.
+     *
+     * @return Cost of each node (indexed by node ID),
+     *         {@link Double#POSITIVE_INFINITY} for unreachable nodes.
+     *
+     * @see ContractionHierarchy#getCachedHierarchy(CompactMetric)
+     */
+    public static double[] computeCosts(Graph graph, Node origin, ArcInspector inspector) {
+        CompactMetric metric = CompactMetric.getMetric(graph, inspector);
+        ContractionHierarchy hierarchy = ContractionHierarchy.getCachedHierarchy(metric);
+        if (hierarchy == null) {
+            return LandmarkTable.computeCosts(metric, origin.getId(), null, null);
+        }
+        return getSearch(hierarchy).computeCosts(origin.getId());
+    }
+
+    // Node at each position (by decreasing rank), and position of each node.
+    private final int[] nodes, positions;
+
+    // Upward edges of each position: head position and cost.
+    private final int[] firstUpward, upwardHeads;
+    private final double[] upwardCosts;
+
+    // Downward edges to each position: tail position and cost.
+    private final int[] firstDownward, downwardTails;
+    private final double[] downwardCosts;
+
+    /**
+     * Create a new search for the given hierarchy.
+     *
+     * @param hierarchy Hierarchy for the search.
+     */
+    public OneToAllSearch(ContractionHierarchy hierarchy) {
+        final int nbNodes = hierarchy.size();
+        this.nodes = new int[nbNodes];
+        this.positions = new int[nbNodes];
+        for (int node = 0; node < nbNodes; ++node) {
+            final int position = nbNodes - 1 - hierarchy.getRank(node);
+            this.nodes[position] = node;
+            this.positions[node] = position;
+        }
+
+        this.firstUpward = new int[nbNodes + 1];
+        this.upwardHeads = new int[hierarchy.getFirstUpward(nbNodes)];
+        this.upwardCosts = new double[this.upwardHeads.length];
+        this.firstDownward = new int[nbNodes + 1];
+        this.downwardTails = new int[hierarchy.getFirstDownward(nbNodes)];
+        this.downwardCosts = new double[this.downwardTails.length];
+        int nbUpward = 0, nbDownward = 0;
+        for (int position = 0; position < nbNodes; ++position) {
+            final int node = this.nodes[position];
+            for (int i = hierarchy.getFirstUpward(node); i < hierarchy
+                    .getFirstUpward(node + 1); ++i) {
+                final int edge = hierarchy.getUpwardEdge(i);
+                this.upwardHeads[nbUpward] = this.positions[hierarchy.getEdgeHead(edge)];
+                this.upwardCosts[nbUpward++] = hierarchy.getEdgeCost(edge);
+            }
+            this.firstUpward[position + 1] = nbUpward;
+            for (int i = hierarchy.getFirstDownward(node); i < hierarchy
+                    .getFirstDownward(node + 1); ++i) {
+                final int edge = hierarchy.getDownwardEdge(i);
+                this.downwardTails[nbDownward] = this.positions[hierarchy.getEdgeTail(edge)];
+                this.downwardCosts[nbDownward++] = hierarchy.getEdgeCost(edge);
+            }
+            this.firstDownward[position + 1] = nbDownward;
+        }
+    }
+
+    /**
+     * @return Number of nodes of the graph of this search.
+     */
+    public int size() {
+        return this.nodes.length;
+    }
+
+    /**
+     * Compute the cost from the given origin to every node of the graph.
+     *
+     * @param origin ID of the origin.
+     *
+     * @return Cost of each node (indexed by node ID),
+     *         {@link Double#POSITIVE_INFINITY} for unreachable nodes.
+     *
+     * @throws IllegalArgumentException if the origin is not a node of the graph.
+     */
+    public double[] computeCosts(int origin) {
+        return computeCosts(new int[] { origin })[0];
+    }
+
+    /**
+     * Compute the cost from each of the given origins to every node of the graph.
+     * The origins are processed by batches of at most {@link #BATCH_SIZE}, with a
+     * single sweep for each batch.
+     *
+     * @param origins IDs of the origins.
+     *
+     * @return Cost of each node (indexed by node ID) from each origin (in the
+     *         same order as the origins), {@link Double#POSITIVE_INFINITY} for
+     *         unreachable nodes.
+     *
+     * @throws IllegalArgumentException if an origin is not a node of the graph.
+     */
+    public double[][] computeCosts(int[] origins) {
+        final int nbNodes = this.nodes.length;
+        for (int origin: origins) {
+            if (origin < 0 || origin >= nbNodes) {
+                throw new IllegalArgumentException("Invalid origin: " + origin);
+            }
+        }
+        double[][] costs = new double[origins.length][];
+        if (origins.length == 0) {
+            return costs;
+        }
+        final PrimitiveBinaryHeap heap = new PrimitiveBinaryHeap(nbNodes);
+        final double[] interleaved = new double[nbNodes
+                * Math.min(BATCH_SIZE, origins.length)];
+        for (int from = 0; from < origins.length; from += BATCH_SIZE) {
+            final int nbTrees = Math.min(BATCH_SIZE, origins.length - from);
+            Arrays.fill(interleaved, 0, nbNodes * nbTrees, Double.POSITIVE_INFINITY);
+            for (int tree = 0; tree < nbTrees; ++tree) {
+                upwardSearch(this.positions[origins[from + tree]], tree, nbTrees,
+                        interleaved, heap);
+            }
+            sweep(nbTrees, interleaved);
+            for (int tree = 0; tree < nbTrees; ++tree) {
+                final double[] treeCosts = new double[nbNodes];
+                for (int position = 0; position < nbNodes; ++position) {
+                    treeCosts[this.nodes[position]] = interleaved[position * nbTrees + tree];
+                }
+                costs[from + tree] = treeCosts;
+            }
+        }
+        return costs;
+    }
+
+    /**
+     * Dijkstra's search from the given position using only the upward edges.
+     *
+     * @param source Position of the origin.
+     * @param tree Index of the tree in the batch.
+     * @param nbTrees Number of trees in the batch.
+     * @param costs Interleaved costs of the trees, indexed by position.
+     * @param heap Empty heap, left empty after the search.
+     */
+    private void upwardSearch(int source, int tree, int nbTrees, double[] costs,
+            PrimitiveBinaryHeap heap) {
+        costs[source * nbTrees + tree] = 0;
+        heap.insert(source, 0);
+        while (!heap.isEmpty()) {
+            final int current = heap.deleteMin();
+            final double cost = costs[current * nbTrees + tree];
+            final int last = this.firstUpward[current + 1];
+            for (int i = this.firstUpward[current]; i < last; ++i) {
+                final int next = this.upwardHeads[i];
+                final double newCost = cost + this.upwardCosts[i];
+                if (newCost < costs[next * nbTrees + tree]) {
+                    costs[next * nbTrees + tree] = newCost;
+                    heap.insertOrUpdate(next, newCost);
+                }
+            }
+        }
+    }
+
+    /**
+     * Linear sweep over all the positions (by decreasing rank), updating the
+     * cost of each position from its downward edges.
+     *
+     * @param nbTrees Number of trees in the batch.
+     * @param costs Interleaved costs of the trees, indexed by position.
+     */
+    private void sweep(int nbTrees, double[] costs) {
+        final int nbNodes = this.nodes.length;
+        for (int position = 0; position < nbNodes; ++position) {
+            final int offset = position * nbTrees;
+            final int last = this.firstDownward[position + 1];
+            for (int i = this.firstDownward[position]; i < last; ++i) {
+                final int tailOffset = this.downwardTails[i] * nbTrees;
+                final double edgeCost = this.downwardCosts[i];
+                for (int tree = 0; tree < nbTrees; ++tree) {
+                    costs[offset + tree] = Math.min(costs[offset + tree],
+                            costs[tailOffset + tree] + edgeCost);
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,356 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+import org.insa.graphs.algorithm.utils.PrimitiveBinaryHeap;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
+
+/**
+ * <p>
+ * Metric-dependent part of customizable route planning: the costs between the
+ * boundary nodes of each cell of a {@link MultiLevelOverlay}, for a given
+ * {@link CompactMetric}.
+ * </p>
+ *
+ * <p>
+ * The cliques are computed level by level. For a cell of level 1, a search
+ * from each boundary node is restricted to the arcs inside the cell. For a cell
+ * of a higher level, the search only visits the boundary nodes of the level
+ * below, using the cliques of the level below and the cut arcs of the level
+ * below that are inside the cell. The cells of a level are independent, so
+ * they are customized concurrently.
+ * </p>
+ *
+ * <p>
+ * Since the overlay does not depend on the metric, adding a new metric for the
+ * same graph (or changing the costs of a metric) only requires a new
+ * customization, which is much faster than a full preprocessing.
+ * </p>
+ *
+ */
+public class OverlayCustomization {
+
+    // Cached customizations, by metric.
+    private static final Map<CompactMetric, SoftReference<OverlayCustomization>> customizations = new WeakHashMap<>();
+
+    /**
+     * Retrieve the customization of the cached overlay of the graph of the given
+     * metric, computing it if it is not in the cache.
+     *
+     * @param metric Metric for the customization.
+     *
+     * @return Customization for the given metric.
+     *
+     * @see MultiLevelOverlay#getOverlay(CompactGraph)
+     */
+    public static OverlayCustomization getCustomization(CompactMetric metric) {
+        synchronized (customizations) {
+            SoftReference<OverlayCustomization> reference = customizations.get(metric);
+            OverlayCustomization customization = reference == null ? null : reference.get();
+            if (customization == null) {
+                customization = customize(MultiLevelOverlay.getOverlay(metric.getGraph()),
+                        metric, ForkJoinPool.commonPool());
+                customizations.put(metric, new SoftReference<>(customization));
+            }
+            return customization;
+        }
+    }
+
+    /**
+     * Compute the cliques of the given overlay for the given metric, customizing
+     * the cells of each level concurrently in the given pool. The result does not
+     * depend on the parallelism of the pool.
+     *
+     * @param overlay Overlay to customize.
+     * @param metric Metric for the customization.
+     * @param pool Pool used to customize the cells.
+     *
+     * @return Customization for the given metric.
+     *
+     * @throws IllegalArgumentException if the overlay and the metric do not have
+     *         the same graph.
+     */
+    public static OverlayCustomization customize(MultiLevelOverlay overlay, CompactMetric metric,
+            ForkJoinPool pool) {
+        if (overlay.getGraph() != metric.getGraph()) {
+            throw new IllegalArgumentException("Overlay does not match the metric.");
+        }
+        OverlayCustomization customization = new OverlayCustomization(overlay, metric);
+        for (int level = 1; level <= overlay.getNumberOfLevels(); ++level) {
+            final int currentLevel = level;
+            pool.invoke(new CellAction(0, overlay.getNumberOfCells(level),
+                    (cell) -> customization.customizeCell(currentLevel, cell)));
+        }
+        return customization;
+    }
+
+    /**
+     * Action applied to a range of cells, split into tasks of one cell.
+     */
+    private static class CellAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from, to;
+        private final IntConsumer action;
+
+        CellAction(int from, int to, IntConsumer action) {
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from == 1) {
+                this.action.accept(this.from);
+                return;
+            }
+            final int middle = (this.from + this.to) >>> 1;
+            invokeAll(new CellAction(this.from, middle, this.action),
+                    new CellAction(middle, this.to, this.action));
+        }
+
+    }
+
+    // Overlay and metric of this customization.
+    private final MultiLevelOverlay overlay;
+    private final CompactMetric metric;
+
+    // Cliques of each level.
+    private final double[][] cliques;
+
+    // Searches that are not currently used.
+    private final Queue<CellSearch> searches = new ConcurrentLinkedQueue<>();
+
+    private OverlayCustomization(MultiLevelOverlay overlay, CompactMetric metric) {
+        this.overlay = overlay;
+        this.metric = metric;
+        this.cliques = new double[overlay.getNumberOfLevels()][];
+        for (int level = 1; level <= overlay.getNumberOfLevels(); ++level) {
+            this.cliques[level - 1] = new double[overlay.getCliqueSize(level)];
+        }
+    }
+
+    /**
+     * @return Overlay of this customization.
+     */
+    public MultiLevelOverlay getOverlay() {
+        return overlay;
+    }
+
+    /**
+     * @return Metric of this customization.
+     */
+    public CompactMetric getMetric() {
+        return metric;
+    }
+
+    /**
+     * @param level Level, between 1 and the number of levels of the overlay.
+     * @param cell Cell at the given level.
+     * @param from Index of the first boundary node in the cell.
+     * @param to Index of the second boundary node in the cell.
+     *
+     * @return Cost of the shortest path between the two boundary nodes inside the
+     *         cell (infinite if there is none).
+     */
+    public double getCliqueCost(int level, int cell, int from, int to) {
+        return this.cliques[level - 1][this.overlay.getCliqueOffset(level, cell)
+                + from * this.overlay.getNumberOfBoundaryNodes(level, cell) + to];
+    }
+
+    /**
+     * Append to the given list the arcs of the shortest path inside their cell
+     * between two boundary nodes of the same cell.
+     *
+     * @param level Level, between 1 and the number of levels of the overlay.
+     * @param from ID of the first boundary node.
+     * @param to ID of the second boundary node.
+     * @param arcs List to which the arcs are appended.
+     *
+     * @throws IllegalArgumentException if there is no path between the nodes
+     *         inside their cell.
+     */
+    public void unpack(int level, int from, int to, List<Arc> arcs) {
+        CellSearch search = acquireSearch();
+        try {
+            unpack(level, from, to, arcs, search);
+        }
+        finally {
+            this.searches.offer(search);
+        }
+    }
+
+    private void unpack(int level, int from, int to, List<Arc> arcs, CellSearch search) {
+        search.run(level, this.overlay.getCell(level, from), from, to);
+        if (Double.isInfinite(search.costs[to])) {
+            search.reset();
+            throw new IllegalArgumentException("No path between " + from + " and " + to + ".");
+        }
+
+        // The search is reused by the recursive calls, so the steps (arc or clique
+        // of the level below) are retrieved first.
+        int nbSteps = 0;
+        for (int node = to; node != from; node = search.parentNodes[node]) {
+            nbSteps++;
+        }
+        int[] nodes = new int[nbSteps + 1];
+        int[] parentArcs = new int[nbSteps + 1];
+        for (int node = to, i = nbSteps; i >= 0; node = search.parentNodes[node], --i) {
+            nodes[i] = node;
+            parentArcs[i] = search.parentArcs[node];
+        }
+        search.reset();
+
+        final CompactGraph graph = this.overlay.getGraph();
+        for (int i = 1; i <= nbSteps; ++i) {
+            if (parentArcs[i] >= 0) {
+                arcs.add(graph.getArc(parentArcs[i]));
+            }
+            else {
+                unpack(level - 1, nodes[i - 1], nodes[i], arcs, search);
+            }
+        }
+    }
+
+    /**
+     * Compute the clique of the given cell.
+     */
+    private void customizeCell(int level, int cell) {
+        final int nbBoundaryNodes = this.overlay.getNumberOfBoundaryNodes(level, cell);
+        final int offset = this.overlay.getCliqueOffset(level, cell);
+        final double[] clique = this.cliques[level - 1];
+        CellSearch search = acquireSearch();
+        for (int i = 0; i < nbBoundaryNodes; ++i) {
+            search.run(level, cell, this.overlay.getBoundaryNode(level, cell, i), -1);
+            for (int j = 0; j < nbBoundaryNodes; ++j) {
+                clique[offset + i * nbBoundaryNodes + j] = search.costs[this.overlay
+                        .getBoundaryNode(level, cell, j)];
+            }
+            search.reset();
+        }
+        this.searches.offer(search);
+    }
+
+    /**
+     * @return A search that is not used by another thread.
+     */
+    private CellSearch acquireSearch() {
+        CellSearch search = this.searches.poll();
+        return search != null ? search : new CellSearch(this.overlay.getGraph().size());
+    }
+
+    /**
+     * Search restricted to a cell, on the arcs of the cell for level 1, or on the
+     * overlay of the level below for higher levels.
+     */
+    private class CellSearch {
+
+        // Heap of the search.
+        final PrimitiveBinaryHeap heap;
+
+        // Costs and parents (node, and arc or -1 for a clique), only valid for
+        // the reached nodes.
+        final double[] costs;
+        final int[] parentNodes;
+        final int[] parentArcs;
+
+        // Reached nodes, to reset the search.
+        final int[] reached;
+        int nbReached = 0;
+
+        CellSearch(int nbNodes) {
+            this.heap = new PrimitiveBinaryHeap(nbNodes);
+            this.costs = new double[nbNodes];
+            this.parentNodes = new int[nbNodes];
+            this.parentArcs = new int[nbNodes];
+            this.reached = new int[nbNodes];
+            Arrays.fill(this.costs, Double.POSITIVE_INFINITY);
+        }
+
+        /**
+         * Reset the costs of the reached nodes.
+         */
+        void reset() {
+            for (int i = 0; i < this.nbReached; ++i) {
+                this.costs[this.reached[i]] = Double.POSITIVE_INFINITY;
+            }
+            this.nbReached = 0;
+            this.heap.clear();
+        }
+
+        /**
+         * Run a search from the given source inside the given cell, until the given
+         * target (or all the nodes if the target is -1) is settled.
+         */
+        void run(int level, int cell, int source, int target) {
+            final MultiLevelOverlay overlay = OverlayCustomization.this.overlay;
+            final CompactMetric metric = OverlayCustomization.this.metric;
+            final CompactGraph graph = overlay.getGraph();
+            relax(source, 0, -1, -1);
+            while (!this.heap.isEmpty()) {
+                final int current = this.heap.deleteMin();
+                if (current == target) {
+                    return;
+                }
+                final double cost = this.costs[current];
+                final int lastArc = graph.getFirstArc(current + 1);
+                if (level == 1) {
+                    for (int arc = graph.getFirstArc(current); arc < lastArc; ++arc) {
+                        final int head = graph.getArcHead(arc);
+                        if (overlay.getCell(1, head) == cell) {
+                            relax(head, cost + metric.getCost(arc), current, arc);
+                        }
+                    }
+                    continue;
+                }
+
+                // Clique of the cell of the level below.
+                final int subLevel = level - 1;
+                final int subCell = overlay.getCell(subLevel, current);
+                final int nbBoundaryNodes = overlay.getNumberOfBoundaryNodes(subLevel, subCell);
+                final int offset = overlay.getCliqueOffset(subLevel, subCell)
+                        + overlay.getBoundaryIndex(subLevel, current) * nbBoundaryNodes;
+                final double[] clique = OverlayCustomization.this.cliques[subLevel - 1];
+                for (int i = 0; i < nbBoundaryNodes; ++i) {
+                    relax(overlay.getBoundaryNode(subLevel, subCell, i), cost + clique[offset + i],
+                            current, -1);
+                }
+
+                // Cut arcs of the level below inside the cell.
+                for (int arc = graph.getFirstArc(current); arc < lastArc; ++arc) {
+                    final int head = graph.getArcHead(arc);
+                    if (overlay.getCell(subLevel, head) != subCell
+                            && overlay.getCell(level, head) == cell) {
+                        relax(head, cost + metric.getCost(arc), current, arc);
+                    }
+                }
+            }
+        }
+
+        private void relax(int node, double cost, int parentNode, int parentArc) {
+            if (cost < this.costs[node]) {
+                if (Double.isInfinite(this.costs[node])) {
+                    this.reached[this.nbReached++] = node;
+                }
+                this.costs[node] = cost;
+                this.parentNodes[node] = parentNode;
+                this.parentArcs[node] = parentArc;
+                this.heap.insertOrUpdate(node, cost);
+            }
+        }
+
+    }
+
+}
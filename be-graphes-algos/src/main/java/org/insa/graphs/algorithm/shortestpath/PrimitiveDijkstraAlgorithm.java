@@ -0,0 +1,143 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.utils.PrimitiveBinaryHeap;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+
+/**
+ * <p>
+ * Implementation of Dijkstra's algorithm that stores costs, predecessors and
+ * marks in primitive arrays indexed by node ID, and uses a
+ * {@link PrimitiveBinaryHeap}, instead of allocating one {@code Label} per node.
+ * </p>
+ *
+ * <p>
+ * The arrays are held by a {@link ShortestPathWorkspace} which can be shared by
+ * successive queries on the same graph, in which case a query only touches the
+ * nodes it actually reaches.
+ * </p>
+ *
+ */
+public class PrimitiveDijkstraAlgorithm extends ShortestPathAlgorithm {
+
+    // Workspace for the search, or null to take one from the pool of the graph
+    // for each run.
+    private final ShortestPathWorkspace workspace;
+
+    /**
+     * Create a new algorithm that takes a workspace from the pool of the graph
+     * for each run.
+     *
+     * @param data Input data for the algorithm.
+     *
+     * @see ShortestPathWorkspace#acquire(Graph)
+     */
+    public PrimitiveDijkstraAlgorithm(ShortestPathData data) {
+        super(data);
+        this.workspace = null;
+    }
+
+    /**
+     * Create a new algorithm that uses the given workspace.
+     *
+     * @param data Input data for the algorithm.
+     * @param workspace Workspace to use, must have been created for the graph of
+     *        the input data.
+     *
+     * @throws IllegalArgumentException if the workspace does not correspond to the
+     *         graph of the input data.
+     */
+    public PrimitiveDijkstraAlgorithm(ShortestPathData data, ShortestPathWorkspace workspace) {
+        super(data);
+        if (workspace.getGraph() != data.getGraph()) {
+            throw new IllegalArgumentException("Workspace does not match the graph of the data.");
+        }
+        this.workspace = workspace;
+    }
+
+    /**
+     * @return Workspace used by this algorithm, or null if it takes one from the
+     *         pool of the graph.
+     */
+    public ShortestPathWorkspace getWorkspace() {
+        return workspace;
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+        final ShortestPathWorkspace ws = this.workspace != null ? this.workspace
+                : ShortestPathWorkspace.acquire(getInputData().getGraph());
+        try {
+            return search(ws);
+        }
+        finally {
+            if (this.workspace == null) {
+                ShortestPathWorkspace.release(ws);
+            }
+        }
+    }
+
+    /**
+     * Run the search with the given workspace.
+     */
+    private ShortestPathSolution search(ShortestPathWorkspace ws) {
+        final ShortestPathData data = getInputData();
+        final Graph graph = data.getGraph();
+
+        final int origin = data.getOrigin().getId();
+        final int destination = data.getDestination().getId();
+
+        // Start a new search in the workspace.
+        ws.reset();
+        final PrimitiveBinaryHeap heap = ws.getHeap();
+        ws.setCost(origin, 0, -1);
+        heap.insert(origin, 0);
+
+        // Notify observers about the first event (origin processed).
+        notifyOriginProcessed(data.getOrigin());
+
+        while (!heap.isEmpty() && !ws.isMarked(destination)) {
+            final int current = heap.deleteMin();
+            ws.mark(current);
+
+            final Node node = graph.get(current);
+            notifyNodeMarked(node);
+
+            final double currentCost = ws.getCost(current);
+            for (Arc arc: node.getSuccessors()) {
+                // If the road is not allowed for us: skip this road
+                if (!data.isAllowed(arc)) {
+                    continue;
+                }
+
+                final int next = arc.getDestination().getId();
+                if (ws.isMarked(next)) {
+                    continue;
+                }
+
+                final double newCost = currentCost + data.getCost(arc);
+                final double oldCost = ws.getCost(next);
+                if (newCost < oldCost) {
+                    if (Double.isInfinite(oldCost)) {
+                        notifyNodeReached(arc.getDestination());
+                    }
+                    ws.setCost(next, newCost, current);
+                    heap.insertOrUpdate(next, newCost);
+                }
+            }
+        }
+
+        if (!ws.isMarked(destination)) {
+            return new ShortestPathSolution(data, Status.INFEASIBLE);
+        }
+
+        // The destination has been found, notify the observers.
+        notifyDestinationReached(data.getDestination());
+
+        return new ShortestPathSolution(data, Status.OPTIMAL,
+                createPathFromPredecessors(ws::getPredecessor, data.getDestination()));
+    }
+
+}
@@ -0,0 +1,167 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.utils.RadixHeap;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+
+/**
+ * <p>
+ * Implementation of Dijkstra's algorithm on integer costs, using a monotone
+ * {@link RadixHeap} instead of a comparison-based heap.
+ * </p>
+ *
+ * <p>
+ * Arc costs are scaled by {@link #COST_SCALE} and rounded to the nearest
+ * integer, i.e., lengths are handled in millimeters and travel times in
+ * milliseconds. The returned path is optimal for the rounded costs, which may
+ * differ from the exact optimum by at most half a unit per arc.
+ * </p>
+ *
+ * <p>
+ * Costs, predecessors and marks are stored in a {@link ShortestPathWorkspace}
+ * (costs hold the scaled integer values), together with the radix heap, so
+ * successive queries on the same graph that share a workspace do not allocate
+ * anything.
+ * </p>
+ *
+ */
+public class RadixHeapDijkstraAlgorithm extends ShortestPathAlgorithm {
+
+    /**
+     * Factor applied to arc costs before rounding them (meters to millimeters,
+     * seconds to milliseconds).
+     */
+    public static final double COST_SCALE = 1000.0;
+
+    // Workspace for the search, or null to take one from the pool of the graph
+    // for each run.
+    private final ShortestPathWorkspace workspace;
+
+    /**
+     * Create a new algorithm that takes a workspace from the pool of the graph
+     * for each run.
+     *
+     * @param data Input data for the algorithm.
+     *
+     * @see ShortestPathWorkspace#acquire(Graph)
+     */
+    public RadixHeapDijkstraAlgorithm(ShortestPathData data) {
+        super(data);
+        this.workspace = null;
+    }
+
+    /**
+     * Create a new algorithm that uses the given workspace.
+     *
+     * @param data Input data for the algorithm.
+     * @param workspace Workspace to use, must have been created for the graph of
+     *        the input data.
+     *
+     * @throws IllegalArgumentException if the workspace does not correspond to the
+     *         graph of the input data.
+     */
+    public RadixHeapDijkstraAlgorithm(ShortestPathData data, ShortestPathWorkspace workspace) {
+        super(data);
+        if (workspace.getGraph() != data.getGraph()) {
+            throw new IllegalArgumentException("Workspace does not match the graph of the data.");
+        }
+        this.workspace = workspace;
+    }
+
+    /**
+     * @return Workspace used by this algorithm, or null if it takes one from the
+     *         pool of the graph.
+     */
+    public ShortestPathWorkspace getWorkspace() {
+        return workspace;
+    }
+
+    /**
+     * Convert the given cost to an integer cost.
+     *
+     * @param cost Cost to convert (must be non-negative).
+     *
+     * @return Scaled and rounded cost.
+     */
+    public static long toIntegerCost(double cost) {
+        return Math.round(cost * COST_SCALE);
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+        final ShortestPathWorkspace ws = this.workspace != null ? this.workspace
+                : ShortestPathWorkspace.acquire(getInputData().getGraph());
+        try {
+            return search(ws);
+        }
+        finally {
+            if (this.workspace == null) {
+                ShortestPathWorkspace.release(ws);
+            }
+        }
+    }
+
+    /**
+     * Run the search with the given workspace.
+     */
+    private ShortestPathSolution search(ShortestPathWorkspace ws) {
+        final ShortestPathData data = getInputData();
+        final Graph graph = data.getGraph();
+
+        final int origin = data.getOrigin().getId();
+        final int destination = data.getDestination().getId();
+
+        // Start a new search in the workspace.
+        ws.reset();
+        final RadixHeap heap = ws.getRadixHeap();
+        ws.setCost(origin, 0, -1);
+        heap.insert(origin, 0);
+
+        // Notify observers about the first event (origin processed).
+        notifyOriginProcessed(data.getOrigin());
+
+        while (!heap.isEmpty() && !ws.isMarked(destination)) {
+            final int current = heap.deleteMin();
+            ws.mark(current);
+
+            final Node node = graph.get(current);
+            notifyNodeMarked(node);
+
+            final long currentCost = (long) ws.getCost(current);
+            for (Arc arc: node.getSuccessors()) {
+                // If the road is not allowed for us: skip this road
+                if (!data.isAllowed(arc)) {
+                    continue;
+                }
+
+                final int next = arc.getDestination().getId();
+                if (ws.isMarked(next)) {
+                    continue;
+                }
+
+                final long newCost = currentCost + toIntegerCost(data.getCost(arc));
+                final double oldCost = ws.getCost(next);
+                if (newCost < oldCost) {
+                    if (Double.isInfinite(oldCost)) {
+                        notifyNodeReached(arc.getDestination());
+                    }
+                    ws.setCost(next, newCost, current);
+                    heap.insertOrDecrease(next, newCost);
+                }
+            }
+        }
+
+        if (!ws.isMarked(destination)) {
+            return new ShortestPathSolution(data, Status.INFEASIBLE);
+        }
+
+        // The destination has been found, notify the observers.
+        notifyDestinationReached(data.getDestination());
+
+        return new ShortestPathSolution(data, Status.OPTIMAL,
+                createPathFromPredecessors(ws::getPredecessor, data.getDestination()));
+    }
+
+}
@@ -1,7 +1,17 @@
 package org.insa.graphs.algorithm.shortestpath;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ToIntFunction;
+
 import org.insa.graphs.algorithm.AbstractAlgorithm;
+import org.insa.graphs.algorithm.utils.IndexedPriorityQueue;
+import org.insa.graphs.algorithm.utils.PriorityQueueFactory;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Path;
 
 public abstract class ShortestPathAlgorithm extends AbstractAlgorithm<ShortestPathObserver> {
 
@@ -9,6 +19,11 @@ public abstract class ShortestPathAlgorithm extends AbstractAlgorithm<ShortestPa
         super(data);
     }
 
+    protected ShortestPathAlgorithm(ShortestPathData data,
+            ArrayList<ShortestPathObserver> observers) {
+        super(data, observers);
+    }
+
     @Override
     public ShortestPathSolution run() {
         return (ShortestPathSolution) super.run();
@@ -22,6 +37,73 @@ public abstract class ShortestPathAlgorithm extends AbstractAlgorithm<ShortestPa
         return (ShortestPathData) super.getInputData();
     }
 
+    /**
+     * Create a new priority queue of the type requested by the input data.
+     * 
+     * @param capacity Initial number of indices (e.g., number of nodes in the
+     *        graph).
+     * @param indexer Function used to retrieve the index of an element.
+     * 
+     * @return A new empty priority queue.
+     * 
+     * @see ShortestPathData#getQueueType()
+     */
+    protected <E extends Comparable<E>> IndexedPriorityQueue<E> createPriorityQueue(int capacity,
+            ToIntFunction<? super E> indexer) {
+        return PriorityQueueFactory.<E>createQueue(getInputData().getQueueType(), capacity, indexer);
+    }
+
+    /**
+     * Find the cheapest arc from the given origin to the given destination among
+     * the arcs allowed by the input data.
+     * 
+     * @param origin Origin of the arc.
+     * @param destination Destination of the arc.
+     * 
+     * @return The cheapest allowed arc between the two nodes, or null if there is
+     *         none.
+     */
+    protected Arc findCheapestArc(Node origin, Node destination) {
+        ShortestPathData data = getInputData();
+        Arc cheapest = null;
+        double cheapestCost = Double.POSITIVE_INFINITY;
+        for (Arc arc: origin.getSuccessors()) {
+            if (arc.getDestination().equals(destination) && data.isAllowed(arc)) {
+                double cost = data.getCost(arc);
+                if (cheapest == null || cost < cheapestCost) {
+                    cheapest = arc;
+                    cheapestCost = cost;
+                }
+            }
+        }
+        return cheapest;
+    }
+
+    /**
+     * Create the path from the origin to the given node by following the given
+     * predecessors, using the cheapest allowed arc between two consecutive nodes.
+     * 
+     * @param predecessors Function returning the ID of the predecessor of a node
+     *        given its ID.
+     * @param node Last node of the path.
+     * 
+     * @return The path from the origin of the input data to the given node.
+     */
+    protected Path createPathFromPredecessors(IntUnaryOperator predecessors, Node node) {
+        Graph graph = getInputData().getGraph();
+        if (node.equals(getInputData().getOrigin())) {
+            return new Path(graph, node);
+        }
+        ArrayList<Arc> arcs = new ArrayList<>();
+        while (!node.equals(getInputData().getOrigin())) {
+            Node predecessor = graph.get(predecessors.applyAsInt(node.getId()));
+            arcs.add(findCheapestArc(predecessor, node));
+            node = predecessor;
+        }
+        Collections.reverse(arcs);
+        return new Path(graph, arcs);
+    }
+
     /**
      * Notify all observers that the origin has been processed.
      * 
@@ -0,0 +1,391 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.insa.graphs.model.Graph;
+
+/**
+ * <p>
+ * Executor running batches of shortest-path queries concurrently. The graphs of
+ * the queries are only read, so they can be shared by all the threads; each
+ * worker has its own {@link ShortestPathWorkspace}, reused by all the queries
+ * it runs on the same graph, so a query does not allocate anything
+ * proportional to the size of the graph. The workspaces are created by a
+ * factory given with the algorithm factory, for algorithms that need more
+ * entries than the nodes of the graph (e.g., {@link CRPAlgorithm} with
+ * {@link CRPAlgorithm#createWorkspace(Graph)}).
+ * </p>
+ *
+ * <p>
+ * The queries are handed out to the workers by small batches of
+ * {@link #BATCH_SIZE} queries, so the workers do not contend on the source of
+ * queries and the load stays balanced when the queries have very different
+ * costs. The solutions are either returned in the order of the queries, or
+ * passed to a callback with the index of their query as soon as they are
+ * available.
+ * </p>
+ *
+ * <p>
+ * Algorithms that rely on a preprocessed structure (e.g.,
+ * {@link ContractionHierarchyAlgorithm}) can also be used: the structure is
+ * computed once by the cache of its class and then shared by the workers.
+ * </p>
+ *
+ */
+public class ShortestPathBatchExecutor implements AutoCloseable {
+
+    /**
+     * Number of queries handed out at once to a worker.
+     */
+    public static final int BATCH_SIZE = 16;
+
+    // Counter used to name the threads of the executors.
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+
+    // Factory of the algorithms, from the query and the workspace of the worker.
+    private final BiFunction<ShortestPathData, ShortestPathWorkspace, ShortestPathAlgorithm> factory;
+
+    // Factory of the workspaces of the workers, from their graph.
+    private final Function<Graph, ShortestPathWorkspace> workspaceFactory;
+
+    // Executor running the workers, and whether it is owned by this object.
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+
+    // Number of workers per batch.
+    private final int parallelism;
+
+    // Workspaces that are not currently used by a worker.
+    private final Queue<ShortestPathWorkspace> workspaces = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Create a new executor running {@link CompactDijkstraAlgorithm} on its own
+     * pool of threads.
+     *
+     * @param parallelism Number of threads.
+     */
+    public ShortestPathBatchExecutor(int parallelism) {
+        this(CompactDijkstraAlgorithm::new, parallelism);
+    }
+
+    /**
+     * Create a new executor running the algorithms of the given factory on its own
+     * pool of threads, which is shut down by {@link #close()}. The workspaces have
+     * one entry per node of their graph.
+     *
+     * @param factory Factory creating the algorithm of a query, given the query
+     *        and a workspace for its graph.
+     * @param parallelism Number of threads.
+     *
+     * @throws IllegalArgumentException if the parallelism is not positive.
+     */
+    public ShortestPathBatchExecutor(
+            BiFunction<ShortestPathData, ShortestPathWorkspace, ShortestPathAlgorithm> factory,
+            int parallelism) {
+        this(factory, ShortestPathWorkspace::new, parallelism);
+    }
+
+    /**
+     * Create a new executor running the algorithms of the given factory, with the
+     * workspaces of the given factory, on its own pool of threads, which is shut
+     * down by {@link #close()}.
+     *
+     * @param factory Factory creating the algorithm of a query, given the query
+     *        and a workspace for its graph.
+     * @param workspaceFactory Factory creating the workspace of a worker for a
+     *        graph.
+     * @param parallelism Number of threads.
+     *
+     * @throws IllegalArgumentException if the parallelism is not positive.
+     */
+    public ShortestPathBatchExecutor(
+            BiFunction<ShortestPathData, ShortestPathWorkspace, ShortestPathAlgorithm> factory,
+            Function<Graph, ShortestPathWorkspace> workspaceFactory, int parallelism) {
+        this(factory, workspaceFactory, createExecutor(parallelism), parallelism, true);
+    }
+
+    /**
+     * Create a new executor running the algorithms of the given factory on the
+     * given executor service, which is not shut down by {@link #close()}. The
+     * workspaces have one entry per node of their graph.
+     *
+     * @param factory Factory creating the algorithm of a query, given the query
+     *        and a workspace for its graph.
+     * @param executor Executor service running the workers.
+     * @param parallelism Number of workers submitted for each batch.
+     *
+     * @throws IllegalArgumentException if the parallelism is not positive.
+     */
+    public ShortestPathBatchExecutor(
+            BiFunction<ShortestPathData, ShortestPathWorkspace, ShortestPathAlgorithm> factory,
+            ExecutorService executor, int parallelism) {
+        this(factory, ShortestPathWorkspace::new, executor, parallelism);
+    }
+
+    /**
+     * Create a new executor running the algorithms of the given factory, with the
+     * workspaces of the given factory, on the given executor service, which is not
+     * shut down by {@link #close()}.
+     *
+     * @param factory Factory creating the algorithm of a query, given the query
+     *        and a workspace for its graph.
+     * @param workspaceFactory Factory creating the workspace of a worker for a
+     *        graph.
+     * @param executor Executor service running the workers.
+     * @param parallelism Number of workers submitted for each batch.
+     *
+     * @throws IllegalArgumentException if the parallelism is not positive.
+     */
+    public ShortestPathBatchExecutor(
+            BiFunction<ShortestPathData, ShortestPathWorkspace, ShortestPathAlgorithm> factory,
+            Function<Graph, ShortestPathWorkspace> workspaceFactory, ExecutorService executor,
+            int parallelism) {
+        this(factory, workspaceFactory, executor, parallelism, false);
+    }
+
+    private ShortestPathBatchExecutor(
+            BiFunction<ShortestPathData, ShortestPathWorkspace, ShortestPathAlgorithm> factory,
+            Function<Graph, ShortestPathWorkspace> workspaceFactory, ExecutorService executor,
+            int parallelism, boolean ownsExecutor) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Invalid parallelism: " + parallelism);
+        }
+        this.factory = factory;
+        this.workspaceFactory = workspaceFactory;
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    /**
+     * @return A fixed pool of daemon threads.
+     */
+    private static ExecutorService createExecutor(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Invalid parallelism: " + parallelism);
+        }
+        final int id = threadCounter.incrementAndGet();
+        final AtomicInteger workerCounter = new AtomicInteger();
+        return Executors.newFixedThreadPool(parallelism, (runnable) -> {
+            Thread thread = new Thread(runnable,
+                    "shortest-path-batch-" + id + "-" + workerCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @return Number of workers running the queries of a batch.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Run the given queries.
+     *
+     * @param queries Queries to run.
+     *
+     * @return Solutions of the queries, in the same order as the queries.
+     *
+     * @throws RuntimeException if an algorithm throws an exception, the remaining
+     *         queries are not run and the exception is rethrown.
+     */
+    public List<ShortestPathSolution> runAll(List<ShortestPathData> queries) {
+        final ShortestPathSolution[] solutions = new ShortestPathSolution[queries.size()];
+        runAll(queries.iterator(), (solution, index) -> solutions[index] = solution);
+        return Arrays.asList(solutions);
+    }
+
+    /**
+     * Run the given queries.
+     *
+     * @param queries Queries to run.
+     *
+     * @return Solutions of the queries, in the same order as the queries.
+     *
+     * @throws RuntimeException if an algorithm throws an exception, the remaining
+     *         queries are not run and the exception is rethrown.
+     */
+    public List<ShortestPathSolution> runAll(Stream<ShortestPathData> queries) {
+        return runAll(queries.collect(Collectors.toList()));
+    }
+
+    /**
+     * Run the given queries, passing each solution to the given callback with the
+     * index of its query in the stream. The queries are pulled lazily from the
+     * stream, and the callback is called concurrently by the workers, in no
+     * particular order. This method returns when all the queries have been run.
+     *
+     * @param queries Queries to run.
+     * @param callback Callback receiving the solutions and the indices of their
+     *        query.
+     *
+     * @throws RuntimeException if an algorithm or the callback throws an
+     *         exception, the remaining queries are not run and the exception is
+     *         rethrown.
+     */
+    public void runAll(Stream<ShortestPathData> queries,
+            ObjIntConsumer<ShortestPathSolution> callback) {
+        runAll(queries.iterator(), callback);
+    }
+
+    private void runAll(Iterator<ShortestPathData> queries,
+            ObjIntConsumer<ShortestPathSolution> callback) {
+        final BatchSource source = new BatchSource(queries);
+        List<Future<Void>> futures = new ArrayList<>(this.parallelism);
+        for (int i = 0; i < this.parallelism; ++i) {
+            futures.add(this.executor.submit(new Worker(source, callback)));
+        }
+
+        // All the workers are waited for, so that the callback is not called after
+        // this method returns, even if a worker fails.
+        Throwable failure = null;
+        boolean interrupted = false;
+        for (Future<Void> future: futures) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                }
+                catch (InterruptedException exception) {
+                    source.failed = true;
+                    interrupted = true;
+                }
+                catch (ExecutionException exception) {
+                    if (failure == null) {
+                        failure = exception.getCause();
+                    }
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        if (failure != null) {
+            throw new IllegalStateException(failure);
+        }
+        if (interrupted) {
+            throw new IllegalStateException("Interrupted while running the queries.");
+        }
+    }
+
+    /**
+     * Shut down the pool of threads of this executor if it was created by this
+     * executor.
+     */
+    @Override
+    public void close() {
+        if (this.ownsExecutor) {
+            this.executor.shutdown();
+        }
+    }
+
+    /**
+     * Queries shared by the workers of a call, handed out by batches.
+     */
+    private static class BatchSource {
+
+        private final Iterator<ShortestPathData> queries;
+
+        // Index of the next query.
+        private int nextIndex = 0;
+
+        // Set when a worker fails, to stop the others.
+        volatile boolean failed = false;
+
+        BatchSource(Iterator<ShortestPathData> queries) {
+            this.queries = queries;
+        }
+
+        /**
+         * Fill the given array with the next queries.
+         *
+         * @return Number of queries retrieved, 0 if there is none left, and index
+         *         of the first one in the given array.
+         */
+        synchronized int next(ShortestPathData[] batch, int[] firstIndex) {
+            if (this.failed) {
+                return 0;
+            }
+            int size = 0;
+            while (size < batch.length && this.queries.hasNext()) {
+                batch[size++] = this.queries.next();
+            }
+            firstIndex[0] = this.nextIndex;
+            this.nextIndex += size;
+            return size;
+        }
+
+    }
+
+    /**
+     * Worker running batches of queries until the source is empty.
+     */
+    private class Worker implements Callable<Void> {
+
+        private final BatchSource source;
+        private final ObjIntConsumer<ShortestPathSolution> callback;
+
+        Worker(BatchSource source, ObjIntConsumer<ShortestPathSolution> callback) {
+            this.source = source;
+            this.callback = callback;
+        }
+
+        @Override
+        public Void call() {
+            final ShortestPathData[] batch = new ShortestPathData[BATCH_SIZE];
+            final int[] firstIndex = new int[1];
+            ShortestPathWorkspace workspace = workspaces.poll();
+            try {
+                int size;
+                while ((size = this.source.next(batch, firstIndex)) > 0) {
+                    for (int i = 0; i < size && !this.source.failed; ++i) {
+                        final Graph graph = batch[i].getGraph();
+                        if (workspace == null || workspace.getGraph() != graph) {
+                            workspace = workspaceFactory.apply(graph);
+                        }
+                        this.callback.accept(factory.apply(batch[i], workspace).run(),
+                                firstIndex[0] + i);
+                        batch[i] = null;
+                    }
+                }
+            }
+            catch (RuntimeException | Error exception) {
+                this.source.failed = true;
+                throw exception;
+            }
+            finally {
+                if (workspace != null) {
+                    workspaces.offer(workspace);
+                }
+            }
+            return null;
+        }
+
+    }
+
+}
@@ -0,0 +1,334 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.AlgorithmFactory;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Path;
+
+/**
+ * <p>
+ * Bounded cache of shortest-path results, keyed by the map, the origin, the
+ * destination and the arc inspector of the query, and evicting the least
+ * recently used results when it is full.
+ * </p>
+ *
+ * <p>
+ * A result is stored as the IDs of the nodes of its path, so an entry only
+ * takes a few bytes per node and does not keep its graph alive; entries are
+ * only returned for the graph instance they were computed on. Infeasible
+ * queries are cached too. The capacity of the cache is a number of stored node
+ * IDs rather than a number of results, so that a few long paths cannot use
+ * much more memory than many short ones.
+ * </p>
+ *
+ * <p>
+ * The cache is split into segments by key hash, each with its own lock and
+ * least recently used order and an equal share of the capacity, so concurrent
+ * queries rarely wait for each other; the eviction order is thus only
+ * approximately the global access order. Small caches use a single segment.
+ * The cache counts its hits, misses and evictions.
+ * </p>
+ *
+ * <p>
+ * Algorithms are wrapped with a cache by {@link CachedShortestPathAlgorithm},
+ * or transparently by {@link AlgorithmFactory} when a cache has been set with
+ * {@link AlgorithmFactory#setShortestPathCache(ShortestPathCache)}.
+ * </p>
+ *
+ */
+public class ShortestPathCache {
+
+    /**
+     * Default maximum number of node IDs stored in a cache (16 MB).
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 22;
+
+    // Maximum number of segments, and minimum capacity of a segment when there
+    // are several.
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_CAPACITY = 1 << 12;
+
+    // Empty node list, for infeasible queries.
+    private static final int[] NO_NODES = new int[0];
+
+    /**
+     * Key of a query: the graph is compared by identity but only weakly
+     * referenced, so the entries of a graph that is no longer used never match
+     * and are eventually evicted.
+     */
+    static class Key {
+
+        private final WeakReference<Graph> graph;
+        private final int origin, destination;
+        private final String inspectorKey;
+        private final int hash;
+
+        Key(Graph graph, int origin, int destination, ArcInspector inspector) {
+            this.graph = new WeakReference<>(graph);
+            this.origin = origin;
+            this.destination = destination;
+            this.inspectorKey = CompactMetric.getInspectorKey(inspector);
+            this.hash = ((graph.getMapId().hashCode() * 31 + this.origin) * 31 + this.destination)
+                    * 31 + this.inspectorKey.hashCode();
+        }
+
+        Key(ShortestPathData data) {
+            this(data.getGraph(), data.getOrigin().getId(), data.getDestination().getId(),
+                    data.getArcInspector());
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            final Graph graph = this.graph.get();
+            return graph != null && graph == key.graph.get() && this.origin == key.origin
+                    && this.destination == key.destination
+                    && this.inspectorKey.equals(key.inspectorKey);
+        }
+
+    }
+
+    /**
+     * Results of the keys of a segment, with their number of node IDs.
+     */
+    private static class Segment {
+
+        // Node IDs of the cached paths, in access order (least recently used
+        // first), guarded by the lock of the segment.
+        private final LinkedHashMap<Key, int[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        // Maximum and current number of node IDs in the segment.
+        private final long capacity;
+        private long nodeCount = 0;
+
+        Segment(long capacity) {
+            this.capacity = capacity;
+        }
+
+    }
+
+    // Maximum number of node IDs.
+    private final int capacity;
+
+    // Segments, by key hash (the number of segments is a power of two).
+    private final Segment[] segments;
+
+    // Statistics.
+    private final LongAdder hits = new LongAdder(), misses = new LongAdder(),
+            evictions = new LongAdder();
+
+    /**
+     * Create a new empty cache with the default capacity.
+     */
+    public ShortestPathCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a new empty cache.
+     *
+     * @param capacity Maximum number of node IDs stored in the cache (an
+     *        infeasible query counts as one node ID).
+     *
+     * @throws IllegalArgumentException if the capacity is not positive.
+     */
+    public ShortestPathCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        this.capacity = capacity;
+        int nbSegments = 1;
+        while (nbSegments < MAX_SEGMENTS && capacity / (2 * nbSegments) >= MIN_SEGMENT_CAPACITY) {
+            nbSegments *= 2;
+        }
+        this.segments = new Segment[nbSegments];
+        for (int i = 0; i < nbSegments; ++i) {
+            this.segments[i] = new Segment(capacity / nbSegments);
+        }
+    }
+
+    /**
+     * @return Segment of the given key.
+     */
+    private Segment getSegment(Key key) {
+        final int hash = key.hashCode();
+        return this.segments[(hash ^ (hash >>> 16)) & (this.segments.length - 1)];
+    }
+
+    /**
+     * @return Number of node IDs counted for the given result.
+     */
+    private static int getNodeCount(int[] nodes) {
+        return Math.max(1, nodes.length);
+    }
+
+    /**
+     * Retrieve the node IDs of the cached result of the given query.
+     *
+     * @param data Query.
+     *
+     * @return IDs of the nodes of the shortest path (empty if the query is
+     *         infeasible), or null if the result of the query is not in the cache.
+     */
+    public int[] get(ShortestPathData data) {
+        final Key key = new Key(data);
+        final Segment segment = getSegment(key);
+        final int[] nodes;
+        synchronized (segment) {
+            nodes = segment.entries.get(key);
+        }
+        if (nodes == null) {
+            this.misses.increment();
+        }
+        else {
+            this.hits.increment();
+        }
+        return nodes;
+    }
+
+    /**
+     * Store the result of the given solution, if it is optimal or infeasible,
+     * evicting the least recently used results of its segment if needed. Other
+     * solutions (e.g., interrupted searches), and paths too long for a segment,
+     * are not cached.
+     *
+     * @param solution Solution to store.
+     */
+    public void put(ShortestPathSolution solution) {
+        final int[] nodes;
+        if (solution.getStatus() == Status.INFEASIBLE) {
+            nodes = NO_NODES;
+        }
+        else if (solution.getStatus() == Status.OPTIMAL) {
+            final Path path = solution.getPath();
+            if (path.isEmpty()) {
+                return;
+            }
+            nodes = new int[path.size()];
+            nodes[0] = path.getOrigin().getId();
+            int i = 1;
+            for (Arc arc: path.getArcs()) {
+                nodes[i++] = arc.getDestination().getId();
+            }
+        }
+        else {
+            return;
+        }
+        final Key key = new Key(solution.getInputData());
+        final Segment segment = getSegment(key);
+        if (getNodeCount(nodes) > segment.capacity) {
+            return;
+        }
+        synchronized (segment) {
+            final int[] previous = segment.entries.put(key, nodes);
+            if (previous != null) {
+                segment.nodeCount -= getNodeCount(previous);
+            }
+            segment.nodeCount += getNodeCount(nodes);
+            final Iterator<int[]> iterator = segment.entries.values().iterator();
+            while (segment.nodeCount > segment.capacity) {
+                segment.nodeCount -= getNodeCount(iterator.next());
+                iterator.remove();
+                this.evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * @return Maximum number of node IDs stored in this cache.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return Number of segments of this cache.
+     */
+    public int getNumberOfSegments() {
+        return this.segments.length;
+    }
+
+    /**
+     * @return Number of results currently in this cache.
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment: this.segments) {
+            synchronized (segment) {
+                size += segment.entries.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return Number of node IDs currently stored in this cache (an infeasible
+     *         query counts as one node ID).
+     */
+    public long getNodeCount() {
+        long nodeCount = 0;
+        for (Segment segment: this.segments) {
+            synchronized (segment) {
+                nodeCount += segment.nodeCount;
+            }
+        }
+        return nodeCount;
+    }
+
+    /**
+     * @return Number of queries found in this cache.
+     */
+    public long getHitCount() {
+        return this.hits.sum();
+    }
+
+    /**
+     * @return Number of queries not found in this cache.
+     */
+    public long getMissCount() {
+        return this.misses.sum();
+    }
+
+    /**
+     * @return Number of results evicted from this cache because it was full.
+     */
+    public long getEvictionCount() {
+        return this.evictions.sum();
+    }
+
+    /**
+     * Remove all the results from this cache (the statistics are kept).
+     */
+    public void clear() {
+        for (Segment segment: this.segments) {
+            synchronized (segment) {
+                segment.entries.clear();
+                segment.nodeCount = 0;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Shortest path cache: " + size() + " results, " + getNodeCount() + "/"
+                + this.capacity + " nodes, " + getHitCount() + " hits, " + getMissCount()
+                + " misses, " + getEvictionCount() + " evictions";
+    }
+
+}
@@ -2,6 +2,8 @@ package org.insa.graphs.algorithm.shortestpath;
 
 import org.insa.graphs.algorithm.AbstractInputData;
 import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.utils.PriorityQueueFactory;
+import org.insa.graphs.algorithm.utils.PriorityQueueFactory.QueueType;
 import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.Node;
 
@@ -10,6 +12,9 @@ public class ShortestPathData extends AbstractInputData {
     // Origin and destination nodes.
     private final Node origin, destination;
 
+    // Type of priority queue to use, or null to use the default one.
+    private final QueueType queueType;
+
     /**
      * Construct a new instance of ShortestPathInputData with the given parameters.
      * 
@@ -20,9 +25,28 @@ public class ShortestPathData extends AbstractInputData {
      *        arcs in the graph to be used).
      */
     public ShortestPathData(Graph graph, Node origin, Node destination, ArcInspector arcInspector) {
+        this(graph, origin, destination, arcInspector, null);
+    }
+
+    /**
+     * Construct a new instance of ShortestPathInputData with the given parameters.
+     * 
+     * @param graph Graph in which the path should be looked for.
+     * @param origin Origin node of the path.
+     * @param destination Destination node of the path.
+     * @param arcInspector Filter for arcs (used to allow only a specific set of
+     *        arcs in the graph to be used).
+     * @param queueType Type of priority queue to use, or null to use the default
+     *        one.
+     * 
+     * @see PriorityQueueFactory#getDefaultQueueType()
+     */
+    public ShortestPathData(Graph graph, Node origin, Node destination, ArcInspector arcInspector,
+            QueueType queueType) {
         super(graph, arcInspector);
         this.origin = origin;
         this.destination = destination;
+        this.queueType = queueType;
     }
 
     /**
@@ -39,6 +63,15 @@ public class ShortestPathData extends AbstractInputData {
         return destination;
     }
 
+    /**
+     * @return Type of priority queue that algorithms should use.
+     * 
+     * @see PriorityQueueFactory#getDefaultQueueType()
+     */
+    public QueueType getQueueType() {
+        return queueType != null ? queueType : PriorityQueueFactory.getDefaultQueueType();
+    }
+
     @Override
     public String toString() {
         return "Shortest-path from #" + origin.getId() + " to #" + destination.getId() + " ["
@@ -0,0 +1,193 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.insa.graphs.algorithm.utils.IndexedPriorityQueue;
+import org.insa.graphs.model.Label;
+
+/**
+ * <p>
+ * Bounded cache of the search trees of {@link DijkstraAlgorithm}, keyed by the
+ * graph, the origin and the arc inspector of the search, and evicting the
+ * least recently used tree when it is full.
+ * </p>
+ *
+ * <p>
+ * A tree is made of the labels of all the nodes and of the priority queue of
+ * the search when it stopped, i.e. when its destination was marked. A later
+ * query from the same origin is answered directly from the labels if its
+ * destination is already marked, and otherwise resumes the search from the
+ * saved queue until its destination is marked. Queries from a few hot origins
+ * thus only pay for the part of the graph that has not been explored yet.
+ * </p>
+ *
+ * <p>
+ * Each tree holds a label for every node of its graph, so the capacity should
+ * be chosen according to the size of the graph. A tree is removed from the
+ * cache while a search uses it, so the cache is safe for concurrent use:
+ * concurrent queries from the same origin run separate searches.
+ * </p>
+ *
+ */
+public class ShortestPathTreeCache {
+
+    /**
+     * Default maximum number of trees in a cache.
+     */
+    public static final int DEFAULT_CAPACITY = 4;
+
+    /**
+     * Labels and priority queue of a search.
+     */
+    static class SearchTree {
+
+        final Label[] labels;
+        final IndexedPriorityQueue<Label> queue;
+
+        SearchTree(Label[] labels, IndexedPriorityQueue<Label> queue) {
+            this.labels = labels;
+            this.queue = queue;
+        }
+
+    }
+
+    // Maximum number of trees.
+    private final int capacity;
+
+    // Trees, in access order (least recently used first). The destination of the
+    // keys is always -1.
+    private final LinkedHashMap<ShortestPathCache.Key, SearchTree> trees;
+
+    // Statistics, guarded by the lock of the trees.
+    private long hits = 0, misses = 0, evictions = 0;
+
+    /**
+     * Create a new empty cache with the default capacity.
+     */
+    public ShortestPathTreeCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a new empty cache.
+     *
+     * @param capacity Maximum number of trees in the cache.
+     *
+     * @throws IllegalArgumentException if the capacity is not positive.
+     */
+    public ShortestPathTreeCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        this.capacity = capacity;
+        this.trees = new LinkedHashMap<ShortestPathCache.Key, SearchTree>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(
+                    Map.Entry<ShortestPathCache.Key, SearchTree> eldest) {
+                if (size() > ShortestPathTreeCache.this.capacity) {
+                    ShortestPathTreeCache.this.evictions++;
+                    return true;
+                }
+                return false;
+            }
+
+        };
+    }
+
+    private static ShortestPathCache.Key getKey(ShortestPathData data) {
+        return new ShortestPathCache.Key(data.getGraph(), data.getOrigin().getId(), -1,
+                data.getArcInspector());
+    }
+
+    /**
+     * Remove the tree of the origin of the given query from the cache.
+     *
+     * @param data Query.
+     *
+     * @return The tree of the origin, or null if there is none.
+     */
+    SearchTree acquire(ShortestPathData data) {
+        final ShortestPathCache.Key key = getKey(data);
+        synchronized (this.trees) {
+            SearchTree tree = this.trees.remove(key);
+            if (tree == null) {
+                this.misses++;
+            }
+            else {
+                this.hits++;
+            }
+            return tree;
+        }
+    }
+
+    /**
+     * Store the tree of the origin of the given query, after its search has
+     * stopped normally.
+     *
+     * @param data Query.
+     * @param tree Tree of the search.
+     */
+    void release(ShortestPathData data, SearchTree tree) {
+        final ShortestPathCache.Key key = getKey(data);
+        synchronized (this.trees) {
+            this.trees.put(key, tree);
+        }
+    }
+
+    /**
+     * @return Maximum number of trees in this cache.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return Number of trees currently in this cache.
+     */
+    public int size() {
+        synchronized (this.trees) {
+            return this.trees.size();
+        }
+    }
+
+    /**
+     * @return Number of searches that reused a tree of this cache.
+     */
+    public long getHitCount() {
+        synchronized (this.trees) {
+            return this.hits;
+        }
+    }
+
+    /**
+     * @return Number of searches that started from scratch.
+     */
+    public long getMissCount() {
+        synchronized (this.trees) {
+            return this.misses;
+        }
+    }
+
+    /**
+     * @return Number of trees evicted from this cache because it was full.
+     */
+    public long getEvictionCount() {
+        synchronized (this.trees) {
+            return this.evictions;
+        }
+    }
+
+    /**
+     * Remove all the trees from this cache (the statistics are kept).
+     */
+    public void clear() {
+        synchronized (this.trees) {
+            this.trees.clear();
+        }
+    }
+
+}
@@ -0,0 +1,276 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.insa.graphs.algorithm.utils.PrimitiveBinaryHeap;
+import org.insa.graphs.algorithm.utils.RadixHeap;
+import org.insa.graphs.model.Graph;
+
+/**
+ * <p>
+ * Search state (costs, predecessors, marks and heap) for shortest-path searches
+ * on a given graph, that can be reused across queries on the same graph.
+ * </p>
+ *
+ * <p>
+ * Entries are stamped with the generation of the search that wrote them:
+ * {@link #reset()} only starts a new generation, and entries written by
+ * previous searches are treated as unreached / unmarked. Resetting the
+ * workspace hence costs time proportional to the size of the heap, not to the
+ * size of the graph.
+ * </p>
+ *
+ * <p>
+ * A workspace is not thread-safe, each thread should use its own workspace.
+ * Algorithms that are not given a workspace take an idle one from a pool of
+ * workspaces of the graph (see {@link #acquire(Graph)}) and give it back once
+ * their search is done, so successive queries do not allocate new workspaces.
+ * </p>
+ *
+ */
+public class ShortestPathWorkspace {
+
+    // Idle workspaces, by graph and number of entries.
+    private static final Map<Graph, Map<Integer, Queue<SoftReference<ShortestPathWorkspace>>>> pools = new WeakHashMap<>();
+
+    /**
+     * Take an idle workspace with one entry per node of the given graph from the
+     * pool of workspaces of the graph, or create a new one if none is idle.
+     *
+     * @param graph Graph for the workspace.
+     *
+     * @return A workspace for the given graph, that must be given back with
+     *         {@link #release(ShortestPathWorkspace)} once it is not used anymore.
+     */
+    public static ShortestPathWorkspace acquire(Graph graph) {
+        return acquire(graph, graph.size());
+    }
+
+    /**
+     * Take an idle workspace with the given number of entries for the given graph
+     * from the pool of workspaces of the graph, or create a new one if none is
+     * idle.
+     *
+     * @param graph Graph for the workspace.
+     * @param nbEntries Number of entries of the workspace.
+     *
+     * @return A workspace for the given graph, that must be given back with
+     *         {@link #release(ShortestPathWorkspace)} once it is not used anymore.
+     *
+     * @see #ShortestPathWorkspace(Graph, int)
+     */
+    public static ShortestPathWorkspace acquire(Graph graph, int nbEntries) {
+        final Queue<SoftReference<ShortestPathWorkspace>> pool = getPool(graph, nbEntries);
+        for (SoftReference<ShortestPathWorkspace> reference = pool.poll(); reference != null;
+                reference = pool.poll()) {
+            ShortestPathWorkspace workspace = reference.get();
+            if (workspace != null) {
+                return workspace;
+            }
+        }
+        return new ShortestPathWorkspace(graph, nbEntries);
+    }
+
+    /**
+     * Give back a workspace taken with {@link #acquire(Graph, int)} to the pool of
+     * its graph. The workspace must not be used by the caller anymore. Idle
+     * workspaces are only softly referenced, so they are released if memory is
+     * needed.
+     *
+     * @param workspace Workspace to give back.
+     */
+    public static void release(ShortestPathWorkspace workspace) {
+        getPool(workspace.graph, workspace.size()).offer(new SoftReference<>(workspace));
+    }
+
+    /**
+     * @return Pool of idle workspaces for the given graph and number of entries.
+     */
+    private static Queue<SoftReference<ShortestPathWorkspace>> getPool(Graph graph,
+            int nbEntries) {
+        synchronized (pools) {
+            return pools.computeIfAbsent(graph, g -> new HashMap<>())
+                    .computeIfAbsent(nbEntries, n -> new ConcurrentLinkedQueue<>());
+        }
+    }
+
+    // Graph for this workspace.
+    private final Graph graph;
+
+    // Current generation.
+    private int generation;
+
+    // Generation at which each entry (node) was last reached and last marked.
+    private final int[] reachedStamps, markedStamps;
+
+    // Cost and predecessor of each entry, only valid if the entry is reached.
+    private final double[] costs;
+    private final int[] predecessors;
+
+    // Heap used by the searches.
+    private final PrimitiveBinaryHeap heap;
+
+    // Radix heap used by the integer-cost searches, created on first use.
+    private RadixHeap radixHeap;
+
+    /**
+     * Create a new workspace for the given graph, with one entry per node.
+     *
+     * @param graph Graph for this workspace.
+     */
+    public ShortestPathWorkspace(Graph graph) {
+        this(graph, graph.size());
+    }
+
+    /**
+     * Create a new workspace for the given graph with the given number of entries,
+     * for searches whose entries are not only the nodes of the graph (e.g., the
+     * overlay vertices of {@link CRPAlgorithm}).
+     *
+     * @param graph Graph for this workspace.
+     * @param nbEntries Number of entries, at least the number of nodes of the
+     *        graph.
+     *
+     * @throws IllegalArgumentException if the number of entries is lower than the
+     *         number of nodes of the graph.
+     */
+    public ShortestPathWorkspace(Graph graph, int nbEntries) {
+        if (nbEntries < graph.size()) {
+            throw new IllegalArgumentException("Workspace must have one entry per node.");
+        }
+        this.graph = graph;
+        this.reachedStamps = new int[nbEntries];
+        this.markedStamps = new int[nbEntries];
+        this.costs = new double[nbEntries];
+        this.predecessors = new int[nbEntries];
+        this.heap = new PrimitiveBinaryHeap(nbEntries);
+        this.generation = 1;
+    }
+
+    /**
+     * @return Graph for this workspace.
+     */
+    public Graph getGraph() {
+        return graph;
+    }
+
+    /**
+     * @return Number of entries of this workspace.
+     */
+    public int size() {
+        return this.costs.length;
+    }
+
+    /**
+     * Prepare this workspace for a new search: all nodes become unreached and
+     * unmarked, and the heaps are emptied.
+     */
+    public void reset() {
+        this.heap.clear();
+        if (this.radixHeap != null) {
+            this.radixHeap.clear();
+        }
+        if (this.generation == Integer.MAX_VALUE) {
+            // Stamps would overflow, clear them for real (very rare).
+            Arrays.fill(this.reachedStamps, 0);
+            Arrays.fill(this.markedStamps, 0);
+            this.generation = 0;
+        }
+        this.generation += 1;
+    }
+
+    /**
+     * Jump to the given generation, so that the overflow of the stamps can be
+     * tested without running billions of searches.
+     *
+     * @param generation New current generation, must be positive.
+     */
+    void setGeneration(int generation) {
+        this.generation = generation;
+    }
+
+    /**
+     * @return Heap of this workspace.
+     */
+    public PrimitiveBinaryHeap getHeap() {
+        return heap;
+    }
+
+    /**
+     * @return Radix heap of this workspace, for searches on integer costs (see
+     *         {@link RadixHeapDijkstraAlgorithm}), created on the first call.
+     */
+    public RadixHeap getRadixHeap() {
+        if (this.radixHeap == null) {
+            this.radixHeap = new RadixHeap(size());
+        }
+        return this.radixHeap;
+    }
+
+    /**
+     * @param node ID of the node.
+     *
+     * @return true if the node has been reached during the current search.
+     */
+    public boolean isReached(int node) {
+        return this.reachedStamps[node] == this.generation;
+    }
+
+    /**
+     * @param node ID of the node.
+     *
+     * @return Cost of the node for the current search, or
+     *         {@link Double#POSITIVE_INFINITY} if the node has not been reached.
+     */
+    public double getCost(int node) {
+        return isReached(node) ? this.costs[node] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @param node ID of the node.
+     *
+     * @return ID of the predecessor of the node for the current search, or -1 if
+     *         the node has not been reached or has no predecessor.
+     */
+    public int getPredecessor(int node) {
+        return isReached(node) ? this.predecessors[node] : -1;
+    }
+
+    /**
+     * Update the cost and predecessor of the given node, and mark it as reached.
+     *
+     * @param node ID of the node.
+     * @param cost New cost of the node.
+     * @param predecessor ID of the predecessor of the node, or -1 if none.
+     */
+    public void setCost(int node, double cost, int predecessor) {
+        this.reachedStamps[node] = this.generation;
+        this.costs[node] = cost;
+        this.predecessors[node] = predecessor;
+    }
+
+    /**
+     * @param node ID of the node.
+     *
+     * @return true if the node has been marked during the current search.
+     */
+    public boolean isMarked(int node) {
+        return this.markedStamps[node] == this.generation;
+    }
+
+    /**
+     * Mark the given node, i.e. its cost is final for the current search.
+     *
+     * @param node ID of the node.
+     */
+    public void mark(int node) {
+        this.markedStamps[node] = this.generation;
+    }
+
+}
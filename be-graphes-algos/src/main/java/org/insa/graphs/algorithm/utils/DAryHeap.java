@@ -0,0 +1,281 @@
+package org.insa.graphs.algorithm.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.ToIntFunction;
+
+/**
+ * <p>
+ * Implements a d-ary heap containing elements of type E, where each element is
+ * associated with a non-negative integer index (e.g., the ID of a node).
+ * </p>
+ *
+ * <p>
+ * Each node of the heap has (at most) {@code arity} children. Wider heaps are
+ * shallower, so insertions and decrease-key operations are cheaper, and the
+ * children of a node are contiguous in the array, which is more cache-friendly
+ * when percolating down.
+ * </p>
+ *
+ * <p>
+ * The heap keeps track of the position of every element in its array, which
+ * allows {@link #remove(Comparable)}, {@link #decreaseKey(Comparable)} and
+ * {@link #insertOrUpdate(Comparable)} to run without searching the heap.
+ * </p>
+ *
+ */
+public class DAryHeap<E extends Comparable<E>> implements IndexedPriorityQueue<E> {
+
+    // Value used in positions for elements that are not in the heap.
+    private static final int NOT_IN_HEAP = -1;
+
+    // Number of children of each node.
+    private final int arity;
+
+    // Function used to retrieve the index of an element.
+    private final ToIntFunction<? super E> indexer;
+
+    // Number of elements in heap.
+    private int currentSize;
+
+    // The heap array.
+    protected final ArrayList<E> array;
+
+    // Position of each element in the heap array, by index.
+    private int[] positions;
+
+    /**
+     * Construct a new empty d-ary heap.
+     *
+     * @param arity Number of children of each node in the heap (at least 2).
+     * @param capacity Initial number of indices (e.g., number of nodes in the
+     *        graph), the heap grows automatically if larger indices are used.
+     * @param indexer Function used to retrieve the index of an element.
+     */
+    public DAryHeap(int arity, int capacity, ToIntFunction<? super E> indexer) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("Arity of a heap must be at least 2.");
+        }
+        this.arity = arity;
+        this.indexer = indexer;
+        this.currentSize = 0;
+        this.array = new ArrayList<E>();
+        this.positions = new int[Math.max(capacity, 1)];
+        Arrays.fill(this.positions, NOT_IN_HEAP);
+    }
+
+    /**
+     * Construct a copy of the given heap.
+     *
+     * @param heap Heap to copy.
+     */
+    public DAryHeap(DAryHeap<E> heap) {
+        this.arity = heap.arity;
+        this.indexer = heap.indexer;
+        this.currentSize = heap.currentSize;
+        this.array = new ArrayList<E>(heap.array);
+        this.positions = Arrays.copyOf(heap.positions, heap.positions.length);
+    }
+
+    /**
+     * Set an element at the given index and update its position.
+     *
+     * @param index Index at which the element should be set.
+     * @param value Element to set.
+     */
+    private void arraySet(int index, E value) {
+        if (index == this.array.size()) {
+            this.array.add(value);
+        }
+        else {
+            this.array.set(index, value);
+        }
+        this.positions[this.indexer.applyAsInt(value)] = index;
+    }
+
+    /**
+     * @return Number of children of each node in this heap.
+     */
+    public int getArity() {
+        return this.arity;
+    }
+
+    /**
+     * @return Index of the parent of the given index.
+     */
+    protected int indexParent(int index) {
+        return (index - 1) / this.arity;
+    }
+
+    /**
+     * @return Index of the first (left-most) child of the given index.
+     */
+    protected int indexFirstChild(int index) {
+        return index * this.arity + 1;
+    }
+
+    /**
+     * Retrieve the position of the given element in the heap array.
+     *
+     * @param x Element to look for.
+     *
+     * @return Position of the element, or -1 if the element is not in the heap.
+     */
+    private int positionOf(E x) {
+        int index = this.indexer.applyAsInt(x);
+        if (index < 0 || index >= this.positions.length) {
+            return NOT_IN_HEAP;
+        }
+        int position = this.positions[index];
+        if (position == NOT_IN_HEAP || this.array.get(position) != x) {
+            return NOT_IN_HEAP;
+        }
+        return position;
+    }
+
+    /**
+     * Make sure the positions array can hold the index of the given element.
+     *
+     * @param x Element that will be inserted.
+     */
+    private void ensureCapacity(E x) {
+        int index = this.indexer.applyAsInt(x);
+        if (index >= this.positions.length) {
+            int oldLength = this.positions.length;
+            this.positions = Arrays.copyOf(this.positions,
+                    Math.max(index + 1, 2 * oldLength));
+            Arrays.fill(this.positions, oldLength, this.positions.length, NOT_IN_HEAP);
+        }
+    }
+
+    /**
+     * Internal method to percolate up in the heap.
+     *
+     * @param index Index at which the percolate begins.
+     */
+    private void percolateUp(int index) {
+        E x = this.array.get(index);
+
+        for (; index > 0 && x.compareTo(this.array.get(indexParent(index))) < 0; index = indexParent(
+                index)) {
+            this.arraySet(index, this.array.get(indexParent(index)));
+        }
+
+        this.arraySet(index, x);
+    }
+
+    /**
+     * Internal method to percolate down in the heap.
+     *
+     * @param index Index at which the percolate begins.
+     */
+    private void percolateDown(int index) {
+        E x = this.array.get(index);
+
+        for (int ifirst = indexFirstChild(index); ifirst < this.currentSize; ifirst = indexFirstChild(
+                index)) {
+            // Find the smallest child.
+            int ichild = ifirst;
+            E child = this.array.get(ifirst);
+            int iend = Math.min(ifirst + this.arity, this.currentSize);
+            for (int i = ifirst + 1; i < iend; ++i) {
+                E other = this.array.get(i);
+                if (other.compareTo(child) < 0) {
+                    ichild = i;
+                    child = other;
+                }
+            }
+            if (child.compareTo(x) >= 0) {
+                break;
+            }
+            this.arraySet(index, child);
+            index = ichild;
+        }
+
+        this.arraySet(index, x);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.currentSize == 0;
+    }
+
+    @Override
+    public int size() {
+        return this.currentSize;
+    }
+
+    @Override
+    public boolean contains(E x) {
+        return positionOf(x) != NOT_IN_HEAP;
+    }
+
+    @Override
+    public void insert(E x) {
+        ensureCapacity(x);
+        int index = this.currentSize++;
+        this.arraySet(index, x);
+        this.percolateUp(index);
+    }
+
+    @Override
+    public void remove(E x) throws ElementNotFoundException {
+        int index = positionOf(x);
+        if (index == NOT_IN_HEAP) {
+            throw new ElementNotFoundException(x);
+        }
+
+        E lastElement = this.array.get(--this.currentSize);
+        this.array.remove(this.currentSize);
+        this.positions[this.indexer.applyAsInt(x)] = NOT_IN_HEAP;
+
+        // Removing the last element, nothing to fix.
+        if (index == this.currentSize) {
+            return;
+        }
+
+        this.arraySet(index, lastElement);
+        if (index > 0 && lastElement.compareTo(this.array.get(indexParent(index))) < 0) {
+            percolateUp(index);
+        }
+        else {
+            percolateDown(index);
+        }
+    }
+
+    @Override
+    public void decreaseKey(E x) throws ElementNotFoundException {
+        int index = positionOf(x);
+        if (index == NOT_IN_HEAP) {
+            throw new ElementNotFoundException(x);
+        }
+        percolateUp(index);
+    }
+
+    @Override
+    public void insertOrUpdate(E x) {
+        int index = positionOf(x);
+        if (index == NOT_IN_HEAP) {
+            insert(x);
+        }
+        else {
+            percolateUp(index);
+            percolateDown(this.positions[this.indexer.applyAsInt(x)]);
+        }
+    }
+
+    @Override
+    public E findMin() throws EmptyPriorityQueueException {
+        if (isEmpty())
+            throw new EmptyPriorityQueueException();
+        return this.array.get(0);
+    }
+
+    @Override
+    public E deleteMin() throws EmptyPriorityQueueException {
+        E minItem = findMin();
+        remove(minItem);
+        return minItem;
+    }
+
+}
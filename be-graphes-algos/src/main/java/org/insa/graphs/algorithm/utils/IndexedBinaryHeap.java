@@ -0,0 +1,42 @@
+package org.insa.graphs.algorithm.utils;
+
+import java.util.function.ToIntFunction;
+
+/**
+ * <p>
+ * Implements a binary heap containing elements of type E, where each element is
+ * associated with a non-negative integer index (e.g., the ID of a node).
+ * </p>
+ *
+ * <p>
+ * The heap keeps track of the position of every element in its array, which
+ * allows {@link #remove(Comparable)}, {@link #decreaseKey(Comparable)} and
+ * {@link #insertOrUpdate(Comparable)} to run in <i>O(log n)</i> without
+ * searching the heap. Two elements in the heap must never share the same index.
+ * </p>
+ *
+ * @see DAryHeap
+ */
+public class IndexedBinaryHeap<E extends Comparable<E>> extends DAryHeap<E> {
+
+    /**
+     * Construct a new empty indexed binary heap.
+     *
+     * @param capacity Initial number of indices (e.g., number of nodes in the
+     *        graph), the heap grows automatically if larger indices are used.
+     * @param indexer Function used to retrieve the index of an element.
+     */
+    public IndexedBinaryHeap(int capacity, ToIntFunction<? super E> indexer) {
+        super(2, capacity, indexer);
+    }
+
+    /**
+     * Construct a copy of the given heap.
+     *
+     * @param heap Indexed binary heap to copy.
+     */
+    public IndexedBinaryHeap(IndexedBinaryHeap<E> heap) {
+        super(heap);
+    }
+
+}
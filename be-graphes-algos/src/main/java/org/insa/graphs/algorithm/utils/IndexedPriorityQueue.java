@@ -0,0 +1,57 @@
+package org.insa.graphs.algorithm.utils;
+
+/**
+ * <p>
+ * Interface representing a priority queue where each element is associated with
+ * a non-negative integer index (e.g., the ID of a node), which allows the queue
+ * to locate elements without searching for them.
+ * </p>
+ * 
+ * <p>
+ * Two elements in the queue must never share the same index, and elements are
+ * located by identity (not by comparison).
+ * </p>
+ * 
+ */
+public interface IndexedPriorityQueue<E extends Comparable<E>> extends PriorityQueue<E> {
+
+    /**
+     * Check if the given element is currently in the queue.
+     * 
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i>
+     * </p>
+     * 
+     * @param x Element to look for.
+     * 
+     * @return true if the element is in the queue, false otherwise.
+     */
+    public boolean contains(E x);
+
+    /**
+     * Restore the queue order after the key of the given element has been
+     * decreased.
+     * 
+     * <p>
+     * <b>Complexity:</b> <i>O(log n)</i>
+     * </p>
+     * 
+     * @param x Element whose key has been decreased.
+     * 
+     * @throws ElementNotFoundException if the element is not in the queue.
+     */
+    public void decreaseKey(E x) throws ElementNotFoundException;
+
+    /**
+     * Insert the given element if it is not in the queue, otherwise restore the
+     * queue order after its key has been modified.
+     * 
+     * <p>
+     * <b>Complexity:</b> <i>O(log n)</i>
+     * </p>
+     * 
+     * @param x Element to insert or update.
+     */
+    public void insertOrUpdate(E x);
+
+}
@@ -0,0 +1,320 @@
+package org.insa.graphs.algorithm.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.function.ToIntFunction;
+
+/**
+ * <p>
+ * Implements a pairing heap containing elements of type E, where each element is
+ * associated with a non-negative integer index (e.g., the ID of a node).
+ * </p>
+ *
+ * <p>
+ * A pairing heap is a heap-ordered multi-way tree: insertions and decrease-key
+ * operations simply link a tree with the root in <i>O(1)</i>, and the tree is
+ * restructured (two-pass pairing) when the minimum is removed, in <i>O(log
+ * n)</i> amortized time. This makes it well suited for searches that perform
+ * many more decrease-key operations than removals.
+ * </p>
+ *
+ * <p>
+ * The tree nodes of the elements are stored by index, so elements can be
+ * located without searching the heap.
+ * </p>
+ *
+ */
+public class PairingHeap<E extends Comparable<E>> implements IndexedPriorityQueue<E> {
+
+    /**
+     * Node of the pairing heap. Children of a node are stored as a doubly-linked
+     * list of siblings, the {@code previous} field of the first child points to
+     * its parent.
+     */
+    private static class HeapNode<E> {
+
+        // Element of this node.
+        private final E element;
+
+        // First child, next sibling and previous sibling (or parent).
+        private HeapNode<E> child, next, previous;
+
+        private HeapNode(E element) {
+            this.element = element;
+        }
+
+    }
+
+    // Function used to retrieve the index of an element.
+    private final ToIntFunction<? super E> indexer;
+
+    // Root of the heap.
+    private HeapNode<E> root;
+
+    // Number of elements in heap.
+    private int currentSize;
+
+    // Node of each element in the heap, by index.
+    private HeapNode<E>[] nodes;
+
+    /**
+     * Construct a new empty pairing heap.
+     *
+     * @param capacity Initial number of indices (e.g., number of nodes in the
+     *        graph), the heap grows automatically if larger indices are used.
+     * @param indexer Function used to retrieve the index of an element.
+     */
+    @SuppressWarnings("unchecked")
+    public PairingHeap(int capacity, ToIntFunction<? super E> indexer) {
+        this.indexer = indexer;
+        this.root = null;
+        this.currentSize = 0;
+        this.nodes = (HeapNode<E>[]) new HeapNode<?>[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Construct a copy of the given heap.
+     *
+     * @param heap Pairing heap to copy.
+     */
+    public PairingHeap(PairingHeap<E> heap) {
+        this(heap.nodes.length, heap.indexer);
+
+        // Copy the tree of the given heap, using an explicit stack since sibling
+        // lists may be very long.
+        if (heap.root != null) {
+            this.root = copyNode(heap.root);
+            Deque<HeapNode<E>[]> stack = new ArrayDeque<>();
+            stack.push(pair(heap.root, this.root));
+            while (!stack.isEmpty()) {
+                HeapNode<E>[] pair = stack.pop();
+                HeapNode<E> last = null;
+                for (HeapNode<E> child = pair[0].child; child != null; child = child.next) {
+                    HeapNode<E> copy = copyNode(child);
+                    if (last == null) {
+                        pair[1].child = copy;
+                        copy.previous = pair[1];
+                    }
+                    else {
+                        last.next = copy;
+                        copy.previous = last;
+                    }
+                    last = copy;
+                    stack.push(pair(child, copy));
+                }
+            }
+        }
+        this.currentSize = heap.currentSize;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> HeapNode<E>[] pair(HeapNode<E> original, HeapNode<E> copy) {
+        return (HeapNode<E>[]) new HeapNode<?>[] { original, copy };
+    }
+
+    /**
+     * Create a new node for the given element (without children) and register it.
+     */
+    private HeapNode<E> copyNode(HeapNode<E> node) {
+        HeapNode<E> copy = new HeapNode<>(node.element);
+        this.nodes[this.indexer.applyAsInt(node.element)] = copy;
+        return copy;
+    }
+
+    /**
+     * Retrieve the node of the given element.
+     *
+     * @param x Element to look for.
+     *
+     * @return Node of the element, or null if the element is not in the heap.
+     */
+    private HeapNode<E> nodeOf(E x) {
+        int index = this.indexer.applyAsInt(x);
+        if (index < 0 || index >= this.nodes.length) {
+            return null;
+        }
+        HeapNode<E> node = this.nodes[index];
+        if (node == null || node.element != x) {
+            return null;
+        }
+        return node;
+    }
+
+    /**
+     * Link two trees and return the root of the resulting tree.
+     *
+     * @param a Root of the first tree (may be null).
+     * @param b Root of the second tree (may be null).
+     *
+     * @return Root of the linked tree.
+     */
+    private HeapNode<E> link(HeapNode<E> a, HeapNode<E> b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (b.element.compareTo(a.element) < 0) {
+            HeapNode<E> tmp = a;
+            a = b;
+            b = tmp;
+        }
+        // b becomes the first child of a.
+        b.previous = a;
+        b.next = a.child;
+        if (a.child != null) {
+            a.child.previous = b;
+        }
+        a.child = b;
+        a.next = null;
+        a.previous = null;
+        return a;
+    }
+
+    /**
+     * Detach the given (non-root) node, with its subtree, from its parent.
+     *
+     * @param node Node to detach.
+     */
+    private void cut(HeapNode<E> node) {
+        if (node.previous.child == node) {
+            // First child, previous is the parent.
+            node.previous.child = node.next;
+        }
+        else {
+            node.previous.next = node.next;
+        }
+        if (node.next != null) {
+            node.next.previous = node.previous;
+        }
+        node.next = null;
+        node.previous = null;
+    }
+
+    /**
+     * Merge the children of the given node using the two-pass pairing strategy.
+     *
+     * @param node Node whose children should be merged.
+     *
+     * @return Root of the merged tree.
+     */
+    private HeapNode<E> mergeChildren(HeapNode<E> node) {
+        // First pass: link children by pairs, from left to right.
+        ArrayList<HeapNode<E>> pairs = new ArrayList<>();
+        HeapNode<E> current = node.child;
+        while (current != null) {
+            HeapNode<E> first = current, second = current.next;
+            current = (second == null) ? null : second.next;
+            first.next = first.previous = null;
+            if (second != null) {
+                second.next = second.previous = null;
+            }
+            pairs.add(link(first, second));
+        }
+        node.child = null;
+
+        // Second pass: link the resulting trees from right to left.
+        HeapNode<E> result = null;
+        for (int i = pairs.size() - 1; i >= 0; --i) {
+            result = link(pairs.get(i), result);
+        }
+        return result;
+    }
+
+    /**
+     * Make sure the nodes array can hold the index of the given element.
+     *
+     * @param x Element that will be inserted.
+     */
+    private void ensureCapacity(E x) {
+        int index = this.indexer.applyAsInt(x);
+        if (index >= this.nodes.length) {
+            this.nodes = Arrays.copyOf(this.nodes, Math.max(index + 1, 2 * this.nodes.length));
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.currentSize == 0;
+    }
+
+    @Override
+    public int size() {
+        return this.currentSize;
+    }
+
+    @Override
+    public boolean contains(E x) {
+        return nodeOf(x) != null;
+    }
+
+    @Override
+    public void insert(E x) {
+        ensureCapacity(x);
+        HeapNode<E> node = new HeapNode<>(x);
+        this.nodes[this.indexer.applyAsInt(x)] = node;
+        this.root = link(this.root, node);
+        this.currentSize++;
+    }
+
+    @Override
+    public void remove(E x) throws ElementNotFoundException {
+        HeapNode<E> node = nodeOf(x);
+        if (node == null) {
+            throw new ElementNotFoundException(x);
+        }
+        if (node == this.root) {
+            this.root = mergeChildren(node);
+        }
+        else {
+            cut(node);
+            this.root = link(this.root, mergeChildren(node));
+        }
+        this.nodes[this.indexer.applyAsInt(x)] = null;
+        this.currentSize--;
+    }
+
+    @Override
+    public void decreaseKey(E x) throws ElementNotFoundException {
+        HeapNode<E> node = nodeOf(x);
+        if (node == null) {
+            throw new ElementNotFoundException(x);
+        }
+        if (node != this.root) {
+            cut(node);
+            this.root = link(this.root, node);
+        }
+    }
+
+    @Override
+    public void insertOrUpdate(E x) {
+        HeapNode<E> node = nodeOf(x);
+        if (node == null) {
+            insert(x);
+        }
+        else {
+            // The key may have increased, so the element is re-inserted.
+            remove(x);
+            insert(x);
+        }
+    }
+
+    @Override
+    public E findMin() throws EmptyPriorityQueueException {
+        if (isEmpty()) {
+            throw new EmptyPriorityQueueException();
+        }
+        return this.root.element;
+    }
+
+    @Override
+    public E deleteMin() throws EmptyPriorityQueueException {
+        E minItem = findMin();
+        remove(minItem);
+        return minItem;
+    }
+
+}
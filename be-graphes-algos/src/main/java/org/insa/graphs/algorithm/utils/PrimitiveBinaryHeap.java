@@ -0,0 +1,308 @@
+package org.insa.graphs.algorithm.utils;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Implements a binary heap of integer elements (e.g., node IDs in the range
+ * {@code [0, capacity)}) ordered by a {@code double} key.
+ * </p>
+ *
+ * <p>
+ * Elements and keys are stored in parallel primitive arrays, and the position
+ * of each element is tracked in a third array, so no object is allocated when
+ * inserting, updating or removing elements. An element can be in the heap at
+ * most once.
+ * </p>
+ *
+ */
+public class PrimitiveBinaryHeap {
+
+    // Value used in positions for elements that are not in the heap.
+    private static final int NOT_IN_HEAP = -1;
+
+    // Number of elements in heap.
+    private int currentSize;
+
+    // The heap arrays (elements and corresponding keys).
+    private final int[] elements;
+    private final double[] keys;
+
+    // Position of each element in the heap arrays.
+    private final int[] positions;
+
+    /**
+     * Construct a new empty heap that can contain elements from 0 (inclusive) to
+     * capacity (exclusive).
+     *
+     * @param capacity Number of possible elements (e.g., number of nodes in the
+     *        graph).
+     */
+    public PrimitiveBinaryHeap(int capacity) {
+        this.currentSize = 0;
+        this.elements = new int[capacity];
+        this.keys = new double[capacity];
+        this.positions = new int[capacity];
+        Arrays.fill(this.positions, NOT_IN_HEAP);
+    }
+
+    /**
+     * @return Number of possible elements in this heap.
+     */
+    public int capacity() {
+        return this.positions.length;
+    }
+
+    /**
+     * Set an element at the given position and update its position.
+     */
+    private void arraySet(int index, int element, double key) {
+        this.elements[index] = element;
+        this.keys[index] = key;
+        this.positions[element] = index;
+    }
+
+    /**
+     * Internal method to percolate up in the heap.
+     *
+     * @param index Index at which the percolate begins.
+     */
+    private void percolateUp(int index) {
+        final int x = this.elements[index];
+        final double key = this.keys[index];
+
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (key >= this.keys[parent]) {
+                break;
+            }
+            arraySet(index, this.elements[parent], this.keys[parent]);
+            index = parent;
+        }
+
+        arraySet(index, x, key);
+    }
+
+    /**
+     * Internal method to percolate down in the heap.
+     *
+     * @param index Index at which the percolate begins.
+     */
+    private void percolateDown(int index) {
+        final int x = this.elements[index];
+        final double key = this.keys[index];
+
+        for (int ileft = 2 * index + 1; ileft < this.currentSize; ileft = 2 * index + 1) {
+            int ichild = ileft;
+            if (ileft + 1 < this.currentSize && this.keys[ileft + 1] < this.keys[ileft]) {
+                ichild = ileft + 1;
+            }
+            if (this.keys[ichild] >= key) {
+                break;
+            }
+            arraySet(index, this.elements[ichild], this.keys[ichild]);
+            index = ichild;
+        }
+
+        arraySet(index, x, key);
+    }
+
+    /**
+     * @return true if the heap is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return this.currentSize == 0;
+    }
+
+    /**
+     * @return Current number of elements in this heap.
+     */
+    public int size() {
+        return this.currentSize;
+    }
+
+    /**
+     * @param x Element to look for.
+     *
+     * @return true if the given element is in this heap.
+     */
+    public boolean contains(int x) {
+        return this.positions[x] != NOT_IN_HEAP;
+    }
+
+    /**
+     * @param x Element to look for.
+     *
+     * @return Current key of the given element.
+     *
+     * @throws ElementNotFoundException if the element is not in this heap.
+     */
+    public double getKey(int x) throws ElementNotFoundException {
+        if (!contains(x)) {
+            throw new ElementNotFoundException(x);
+        }
+        return this.keys[this.positions[x]];
+    }
+
+    /**
+     * Insert the given element with the given key.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(log n)</i>
+     * </p>
+     *
+     * @param x Element to insert.
+     * @param key Key of the element.
+     *
+     * @throws IllegalArgumentException if the element is already in this heap.
+     */
+    public void insert(int x, double key) {
+        if (contains(x)) {
+            throw new IllegalArgumentException("element already in heap: " + x);
+        }
+        int index = this.currentSize++;
+        arraySet(index, x, key);
+        percolateUp(index);
+    }
+
+    /**
+     * Decrease the key of the given element.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(log n)</i>
+     * </p>
+     *
+     * @param x Element to update.
+     * @param key New key of the element, must not be greater than the current one.
+     *
+     * @throws ElementNotFoundException if the element is not in this heap.
+     */
+    public void decreaseKey(int x, double key) throws ElementNotFoundException {
+        if (!contains(x)) {
+            throw new ElementNotFoundException(x);
+        }
+        int index = this.positions[x];
+        this.keys[index] = key;
+        percolateUp(index);
+    }
+
+    /**
+     * Insert the given element if it is not in this heap, otherwise update its
+     * key.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(log n)</i>
+     * </p>
+     *
+     * @param x Element to insert or update.
+     * @param key New key of the element.
+     */
+    public void insertOrUpdate(int x, double key) {
+        if (!contains(x)) {
+            insert(x, key);
+            return;
+        }
+        int index = this.positions[x];
+        double oldKey = this.keys[index];
+        this.keys[index] = key;
+        if (key < oldKey) {
+            percolateUp(index);
+        }
+        else {
+            percolateDown(index);
+        }
+    }
+
+    /**
+     * Remove the given element from this heap.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(log n)</i>
+     * </p>
+     *
+     * @param x Element to remove.
+     *
+     * @throws ElementNotFoundException if the element is not in this heap.
+     */
+    public void remove(int x) throws ElementNotFoundException {
+        if (!contains(x)) {
+            throw new ElementNotFoundException(x);
+        }
+        int index = this.positions[x];
+        this.positions[x] = NOT_IN_HEAP;
+        if (index == --this.currentSize) {
+            return;
+        }
+        double removedKey = this.keys[index];
+        arraySet(index, this.elements[this.currentSize], this.keys[this.currentSize]);
+        if (this.keys[index] < removedKey) {
+            percolateUp(index);
+        }
+        else {
+            percolateDown(index);
+        }
+    }
+
+    /**
+     * Retrieve (but not remove) the element with the smallest key.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i>
+     * </p>
+     *
+     * @return The element with the smallest key.
+     *
+     * @throws EmptyPriorityQueueException if this heap is empty.
+     */
+    public int findMin() throws EmptyPriorityQueueException {
+        if (isEmpty()) {
+            throw new EmptyPriorityQueueException();
+        }
+        return this.elements[0];
+    }
+
+    /**
+     * @return The smallest key in this heap.
+     *
+     * @throws EmptyPriorityQueueException if this heap is empty.
+     */
+    public double findMinKey() throws EmptyPriorityQueueException {
+        if (isEmpty()) {
+            throw new EmptyPriorityQueueException();
+        }
+        return this.keys[0];
+    }
+
+    /**
+     * Remove and return the element with the smallest key.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(log n)</i>
+     * </p>
+     *
+     * @return The element with the smallest key.
+     *
+     * @throws EmptyPriorityQueueException if this heap is empty.
+     */
+    public int deleteMin() throws EmptyPriorityQueueException {
+        int min = findMin();
+        remove(min);
+        return min;
+    }
+
+    /**
+     * Remove all the elements from this heap.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(n)</i> where n is the current size of the heap (not
+     * its capacity).
+     * </p>
+     */
+    public void clear() {
+        for (int i = 0; i < this.currentSize; ++i) {
+            this.positions[this.elements[i]] = NOT_IN_HEAP;
+        }
+        this.currentSize = 0;
+    }
+
+}
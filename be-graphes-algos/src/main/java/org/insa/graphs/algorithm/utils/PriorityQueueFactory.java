@@ -0,0 +1,85 @@
+package org.insa.graphs.algorithm.utils;
+
+import java.util.function.ToIntFunction;
+
+/**
+ * Factory class used to create the indexed priority queues used by the
+ * shortest-path algorithms.
+ *
+ * <p>
+ * The default type of queue can be set through the {@value #QUEUE_PROPERTY}
+ * system property (e.g., {@code -Dorg.insa.graphs.queue=PAIRING_HEAP}), and the
+ * arity of d-ary heaps through the {@value #ARITY_PROPERTY} system property.
+ * </p>
+ *
+ */
+public class PriorityQueueFactory {
+
+    /**
+     * Name of the system property used to select the default queue type.
+     */
+    public static final String QUEUE_PROPERTY = "org.insa.graphs.queue";
+
+    /**
+     * Name of the system property used to select the arity of d-ary heaps.
+     */
+    public static final String ARITY_PROPERTY = "org.insa.graphs.queue.arity";
+
+    /**
+     * Default arity of d-ary heaps.
+     */
+    public static final int DEFAULT_ARITY = 4;
+
+    public enum QueueType {
+        BINARY_HEAP, DARY_HEAP, PAIRING_HEAP;
+    }
+
+    /**
+     * @return The default queue type, as specified by the {@value #QUEUE_PROPERTY}
+     *         system property, or {@link QueueType#BINARY_HEAP} if the property is
+     *         not set.
+     * 
+     * @throws IllegalArgumentException if the property does not correspond to a
+     *         queue type.
+     */
+    public static QueueType getDefaultQueueType() {
+        String value = System.getProperty(QUEUE_PROPERTY);
+        if (value == null || value.trim().isEmpty()) {
+            return QueueType.BINARY_HEAP;
+        }
+        return QueueType.valueOf(value.trim().toUpperCase());
+    }
+
+    /**
+     * @return The arity of d-ary heaps, as specified by the {@value #ARITY_PROPERTY}
+     *         system property, or {@link #DEFAULT_ARITY} if the property is not
+     *         set.
+     */
+    public static int getDefaultArity() {
+        return Integer.getInteger(ARITY_PROPERTY, DEFAULT_ARITY);
+    }
+
+    /**
+     * Create a new empty indexed priority queue of the given type.
+     * 
+     * @param type Type of queue to create.
+     * @param capacity Initial number of indices (e.g., number of nodes in the
+     *        graph).
+     * @param indexer Function used to retrieve the index of an element.
+     * 
+     * @return A new empty queue of the given type.
+     */
+    public static <E extends Comparable<E>> IndexedPriorityQueue<E> createQueue(QueueType type,
+            int capacity, ToIntFunction<? super E> indexer) {
+        switch (type) {
+        case DARY_HEAP:
+            return new DAryHeap<E>(getDefaultArity(), capacity, indexer);
+        case PAIRING_HEAP:
+            return new PairingHeap<E>(capacity, indexer);
+        case BINARY_HEAP:
+        default:
+            return new IndexedBinaryHeap<E>(capacity, indexer);
+        }
+    }
+
+}
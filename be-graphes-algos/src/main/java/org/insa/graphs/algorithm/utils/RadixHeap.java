@@ -0,0 +1,299 @@
+package org.insa.graphs.algorithm.utils;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Implements a monotone radix heap of integer elements (e.g., node IDs in the
+ * range {@code [0, capacity)}) ordered by a non-negative {@code long} key.
+ * </p>
+ *
+ * <p>
+ * A radix heap is <b>monotone</b>: the key of an inserted (or decreased)
+ * element must never be smaller than the key of the last element removed by
+ * {@link #deleteMin()}. This is always the case for Dijkstra's algorithm with
+ * non-negative arc costs. Elements are stored in 65 buckets, bucket {@code i}
+ * containing the elements whose key differs from the last removed key at bit
+ * {@code i - 1} (and not above), so each element moves at most 64 times
+ * between buckets and no key comparison is needed on insertion.
+ * </p>
+ *
+ */
+public class RadixHeap {
+
+    // Number of buckets (one for keys equal to the last removed key, one per bit).
+    private static final int NB_BUCKETS = Long.SIZE + 1;
+
+    // Value used for elements that are not in the heap.
+    private static final int NOT_IN_HEAP = -1;
+
+    // Last key removed from the heap.
+    private long last;
+
+    // Number of elements in heap.
+    private int currentSize;
+
+    // Elements in each bucket, and size of each bucket.
+    private final int[][] buckets;
+    private final int[] bucketSizes;
+
+    // Key, bucket and position in bucket of each element.
+    private final long[] keys;
+    private final int[] bucketOf;
+    private final int[] positions;
+
+    /**
+     * Construct a new empty radix heap that can contain elements from 0
+     * (inclusive) to capacity (exclusive).
+     *
+     * @param capacity Number of possible elements (e.g., number of nodes in the
+     *        graph).
+     */
+    public RadixHeap(int capacity) {
+        this.last = 0;
+        this.currentSize = 0;
+        this.buckets = new int[NB_BUCKETS][];
+        for (int i = 0; i < NB_BUCKETS; ++i) {
+            this.buckets[i] = new int[4];
+        }
+        this.bucketSizes = new int[NB_BUCKETS];
+        this.keys = new long[capacity];
+        this.bucketOf = new int[capacity];
+        this.positions = new int[capacity];
+        Arrays.fill(this.bucketOf, NOT_IN_HEAP);
+    }
+
+    /**
+     * @return Bucket corresponding to the given key.
+     */
+    private int bucketIndex(long key) {
+        return key == this.last ? 0 : Long.SIZE - Long.numberOfLeadingZeros(key ^ this.last);
+    }
+
+    /**
+     * Add the given element at the end of the given bucket.
+     */
+    private void addToBucket(int bucket, int x) {
+        int size = this.bucketSizes[bucket];
+        if (size == this.buckets[bucket].length) {
+            this.buckets[bucket] = Arrays.copyOf(this.buckets[bucket], 2 * size);
+        }
+        this.buckets[bucket][size] = x;
+        this.bucketSizes[bucket] = size + 1;
+        this.bucketOf[x] = bucket;
+        this.positions[x] = size;
+    }
+
+    /**
+     * Remove the given element from its bucket (the last element of the bucket
+     * takes its place).
+     */
+    private void removeFromBucket(int x) {
+        int bucket = this.bucketOf[x];
+        int size = --this.bucketSizes[bucket];
+        int moved = this.buckets[bucket][size];
+        this.buckets[bucket][this.positions[x]] = moved;
+        this.positions[moved] = this.positions[x];
+        this.bucketOf[x] = NOT_IN_HEAP;
+    }
+
+    /**
+     * Check that the given key can be inserted in this heap.
+     */
+    private void checkKey(long key) {
+        if (key < this.last) {
+            throw new IllegalArgumentException(
+                    "key " + key + " is smaller than the last removed key " + this.last);
+        }
+    }
+
+    /**
+     * Make sure the bucket 0 is not empty, by redistributing the first non-empty
+     * bucket. The heap must not be empty.
+     */
+    private void refill() {
+        if (this.bucketSizes[0] > 0) {
+            return;
+        }
+        int bucket = 1;
+        while (this.bucketSizes[bucket] == 0) {
+            ++bucket;
+        }
+
+        // Find the new minimum in the bucket.
+        int[] elements = this.buckets[bucket];
+        int size = this.bucketSizes[bucket];
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < size; ++i) {
+            min = Math.min(min, this.keys[elements[i]]);
+        }
+        this.last = min;
+
+        // Redistribute the elements in lower buckets.
+        this.bucketSizes[bucket] = 0;
+        for (int i = 0; i < size; ++i) {
+            int x = elements[i];
+            addToBucket(bucketIndex(this.keys[x]), x);
+        }
+    }
+
+    /**
+     * @return true if the heap is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return this.currentSize == 0;
+    }
+
+    /**
+     * @return Current number of elements in this heap.
+     */
+    public int size() {
+        return this.currentSize;
+    }
+
+    /**
+     * @param x Element to look for.
+     *
+     * @return true if the given element is in this heap.
+     */
+    public boolean contains(int x) {
+        return this.bucketOf[x] != NOT_IN_HEAP;
+    }
+
+    /**
+     * @param x Element to look for.
+     *
+     * @return Current key of the given element.
+     *
+     * @throws ElementNotFoundException if the element is not in this heap.
+     */
+    public long getKey(int x) throws ElementNotFoundException {
+        if (!contains(x)) {
+            throw new ElementNotFoundException(x);
+        }
+        return this.keys[x];
+    }
+
+    /**
+     * Insert the given element with the given key.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i>
+     * </p>
+     *
+     * @param x Element to insert.
+     * @param key Key of the element.
+     *
+     * @throws IllegalArgumentException if the element is already in this heap, or
+     *         if the key is smaller than the last removed key.
+     */
+    public void insert(int x, long key) {
+        if (contains(x)) {
+            throw new IllegalArgumentException("element already in heap: " + x);
+        }
+        checkKey(key);
+        this.keys[x] = key;
+        addToBucket(bucketIndex(key), x);
+        this.currentSize++;
+    }
+
+    /**
+     * Decrease the key of the given element.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i>
+     * </p>
+     *
+     * @param x Element to update.
+     * @param key New key of the element, must not be greater than the current key
+     *        nor smaller than the last removed key.
+     *
+     * @throws ElementNotFoundException if the element is not in this heap.
+     * @throws IllegalArgumentException if the key is smaller than the last removed
+     *         key.
+     */
+    public void decreaseKey(int x, long key) throws ElementNotFoundException {
+        if (!contains(x)) {
+            throw new ElementNotFoundException(x);
+        }
+        checkKey(key);
+        removeFromBucket(x);
+        this.keys[x] = key;
+        addToBucket(bucketIndex(key), x);
+    }
+
+    /**
+     * Insert the given element if it is not in this heap, otherwise decrease its
+     * key.
+     *
+     * @param x Element to insert or update.
+     * @param key New key of the element.
+     *
+     * @see #insert(int, long)
+     * @see #decreaseKey(int, long)
+     */
+    public void insertOrDecrease(int x, long key) {
+        if (contains(x)) {
+            decreaseKey(x, key);
+        }
+        else {
+            insert(x, key);
+        }
+    }
+
+    /**
+     * @return The smallest key in this heap.
+     *
+     * @throws EmptyPriorityQueueException if this heap is empty.
+     */
+    public long findMinKey() throws EmptyPriorityQueueException {
+        if (isEmpty()) {
+            throw new EmptyPriorityQueueException();
+        }
+        refill();
+        return this.last;
+    }
+
+    /**
+     * Remove and return an element with the smallest key.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(log C)</i> amortized, where C is the largest key
+     * difference in the heap.
+     * </p>
+     *
+     * @return An element with the smallest key.
+     *
+     * @throws EmptyPriorityQueueException if this heap is empty.
+     */
+    public int deleteMin() throws EmptyPriorityQueueException {
+        if (isEmpty()) {
+            throw new EmptyPriorityQueueException();
+        }
+        refill();
+        int x = this.buckets[0][this.bucketSizes[0] - 1];
+        removeFromBucket(x);
+        this.currentSize--;
+        return x;
+    }
+
+    /**
+     * Remove all the elements from this heap and reset the last removed key to 0.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(n)</i> where n is the current size of the heap (not
+     * its capacity).
+     * </p>
+     */
+    public void clear() {
+        for (int bucket = 0; bucket < NB_BUCKETS; ++bucket) {
+            for (int i = 0; i < this.bucketSizes[bucket]; ++i) {
+                this.bucketOf[this.buckets[bucket][i]] = NOT_IN_HEAP;
+            }
+            this.bucketSizes[bucket] = 0;
+        }
+        this.currentSize = 0;
+        this.last = 0;
+    }
+
+}
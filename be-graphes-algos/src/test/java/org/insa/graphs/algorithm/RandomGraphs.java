@@ -0,0 +1,170 @@
+package org.insa.graphs.algorithm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.RoadInformation.RoadType;
+
+/**
+ * <p>
+ * Random graphs for the tests: nodes uniformly spread over a one-degree square,
+ * linked by random roads. By default, one road out of three is a one-way road,
+ * the other ones are two-way motorways, and the lengths of the roads are
+ * uniformly drawn in [10, 1010[.
+ * </p>
+ *
+ * <p>
+ * The road types used have no access restrictions, so only the filters that do
+ * not check access (length and time for all roads, indices 0 and 2 in
+ * {@link ArcInspectorFactory#getAllFilters()}) should be used on these graphs.
+ * </p>
+ *
+ */
+public final class RandomGraphs {
+
+    // Road informations of the generated arcs.
+    private static final RoadInformation ONE_WAY = new RoadInformation(RoadType.UNCLASSIFIED,
+            null, true, 50, null);
+    private static final RoadInformation TWO_WAYS = new RoadInformation(RoadType.MOTORWAY, null,
+            false, 130, null);
+    private static final RoadInformation PEDESTRIAN = new RoadInformation(RoadType.PEDESTRIAN,
+            null, false, 5, null);
+
+    // Number of nodes and seed of the graph.
+    private final int nbNodes;
+    private final long seed;
+
+    // Number of roads (3 per node by default).
+    private int nbRoads;
+
+    // Range of the lengths of the roads, or true if the lengths are proportional
+    // to the distances between the nodes.
+    private int minimumLength = 10, maximumLength = 1010;
+    private boolean distanceLengths = false;
+
+    // South-west corner of the square containing the nodes.
+    private float longitude = 0, latitude = 0;
+
+    // true if half of the roads have an intermediate point, and if one road out
+    // of five is a pedestrian road.
+    private boolean withGeometry = false, withPedestrians = false;
+
+    private RandomGraphs(int nbNodes, long seed) {
+        this.nbNodes = nbNodes;
+        this.seed = seed;
+        this.nbRoads = 3 * nbNodes;
+    }
+
+    /**
+     * @param nbNodes Number of nodes of the graph.
+     * @param seed Seed of the random generator.
+     *
+     * @return A random graph with the default parameters.
+     */
+    public static Graph create(int nbNodes, long seed) {
+        return builder(nbNodes, seed).build();
+    }
+
+    /**
+     * @param nbNodes Number of nodes of the graph.
+     * @param seed Seed of the random generator.
+     *
+     * @return A generator of random graphs, to configure before calling
+     *         {@link #build()}.
+     */
+    public static RandomGraphs builder(int nbNodes, long seed) {
+        return new RandomGraphs(nbNodes, seed);
+    }
+
+    /**
+     * @param nbRoads Number of roads of the graph (each two-way road gives two
+     *        arcs).
+     */
+    public RandomGraphs roads(int nbRoads) {
+        this.nbRoads = nbRoads;
+        return this;
+    }
+
+    /**
+     * @param minimumLength Minimum length of the roads (inclusive).
+     * @param maximumLength Maximum length of the roads (exclusive).
+     */
+    public RandomGraphs lengths(int minimumLength, int maximumLength) {
+        this.minimumLength = minimumLength;
+        this.maximumLength = maximumLength;
+        return this;
+    }
+
+    /**
+     * Use lengths proportional to the distances between the nodes (10 kilometers
+     * per degree, plus 10 meters) instead of random lengths.
+     */
+    public RandomGraphs distanceLengths() {
+        this.distanceLengths = true;
+        return this;
+    }
+
+    /**
+     * @param longitude Longitude of the south-west corner of the nodes.
+     * @param latitude Latitude of the south-west corner of the nodes.
+     */
+    public RandomGraphs corner(float longitude, float latitude) {
+        this.longitude = longitude;
+        this.latitude = latitude;
+        return this;
+    }
+
+    /**
+     * Give an intermediate point to half of the roads.
+     */
+    public RandomGraphs withGeometry() {
+        this.withGeometry = true;
+        return this;
+    }
+
+    /**
+     * Make one road out of five a (two-way) pedestrian road.
+     */
+    public RandomGraphs withPedestrians() {
+        this.withPedestrians = true;
+        return this;
+    }
+
+    /**
+     * @return A new random graph with the parameters of this generator.
+     */
+    public Graph build() {
+        Random random = new Random(seed);
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < nbNodes; ++i) {
+            nodes.add(new Node(i, new Point(longitude + random.nextFloat(),
+                    latitude + random.nextFloat())));
+        }
+        for (int i = 0; i < nbRoads; ++i) {
+            Node origin = nodes.get(random.nextInt(nbNodes));
+            Node destination = nodes.get(random.nextInt(nbNodes));
+            final int length = distanceLengths
+                    ? 10 + (int) (10000 * origin.getPoint().distanceTo(destination.getPoint())
+                            / 111319)
+                    : minimumLength + random.nextInt(maximumLength - minimumLength);
+            List<Point> points = new ArrayList<>();
+            if (withGeometry && random.nextBoolean()) {
+                points.add(origin.getPoint());
+                points.add(new Point(origin.getPoint().getLongitude() + 0.01f,
+                        destination.getPoint().getLatitude()));
+                points.add(destination.getPoint());
+            }
+            final RoadInformation information = withPedestrians && random.nextInt(5) == 0
+                    ? PEDESTRIAN
+                    : random.nextInt(3) == 0 ? ONE_WAY : TWO_WAYS;
+            Node.linkNodes(origin, destination, length, information, points);
+        }
+        return new Graph("ID", "", nodes, null);
+    }
+
+}
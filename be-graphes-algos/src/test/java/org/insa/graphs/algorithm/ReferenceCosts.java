@@ -0,0 +1,162 @@
+package org.insa.graphs.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+import org.insa.graphs.algorithm.shortestpath.CompactMetric;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathData;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathSolution;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Path;
+
+/**
+ * <p>
+ * Reference costs for the tests, computed by a textbook Dijkstra's algorithm on
+ * the {@link Graph} objects (a {@link PriorityQueue} with lazy deletion), so
+ * they do not depend on any of the algorithms or data structures under test.
+ * </p>
+ *
+ * <p>
+ * The solutions of shortest-path algorithms are checked against these costs
+ * with {@link #checkCosts(Graph, ArcInspector, Function, int, int)} or
+ * {@link #checkSolution(ShortestPathSolution, double)}.
+ * </p>
+ *
+ */
+public final class ReferenceCosts {
+
+    /**
+     * Entry of the priority queue: a node and the cost it was reached with.
+     */
+    private static final class Entry implements Comparable<Entry> {
+
+        final int node;
+        final double cost;
+
+        Entry(int node, double cost) {
+            this.node = node;
+            this.cost = cost;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            return Double.compare(this.cost, other.cost);
+        }
+
+    }
+
+    private ReferenceCosts() {
+    }
+
+    /**
+     * @param graph Graph to search.
+     * @param origin Origin of the search.
+     * @param inspector Inspector giving the allowed arcs and their costs.
+     *
+     * @return Cost of the shortest path from the origin to each node, indexed by
+     *         node ID ({@link Double#POSITIVE_INFINITY} for unreachable nodes).
+     */
+    public static double[] compute(Graph graph, Node origin, ArcInspector inspector) {
+        double[] costs = new double[graph.size()];
+        Arrays.fill(costs, Double.POSITIVE_INFINITY);
+        costs[origin.getId()] = 0;
+        PriorityQueue<Entry> queue = new PriorityQueue<>();
+        queue.add(new Entry(origin.getId(), 0));
+        while (!queue.isEmpty()) {
+            Entry entry = queue.poll();
+            if (entry.cost > costs[entry.node]) {
+                continue;
+            }
+            for (Arc arc: graph.get(entry.node).getSuccessors()) {
+                if (!inspector.isAllowed(arc)) {
+                    continue;
+                }
+                final int next = arc.getDestination().getId();
+                final double cost = entry.cost + inspector.getCost(arc);
+                if (cost < costs[next]) {
+                    costs[next] = cost;
+                    queue.add(new Entry(next, cost));
+                }
+            }
+        }
+        return costs;
+    }
+
+    /**
+     * @param metric Metric whose graph and inspector should be used.
+     * @param origin ID of the origin of the search.
+     *
+     * @return Cost of the shortest path from the origin to each node for the graph
+     *         and inspector of the metric.
+     */
+    public static double[] compute(CompactMetric metric, int origin) {
+        final Graph graph = metric.getGraph().getGraph();
+        return compute(graph, graph.get(origin), metric.getInspector());
+    }
+
+    /**
+     * @param path Path to evaluate.
+     * @param inspector Inspector giving the costs of the arcs.
+     *
+     * @return Sum of the costs of the arcs of the path.
+     */
+    public static double getCost(Path path, ArcInspector inspector) {
+        double cost = 0;
+        for (Arc arc: path.getArcs()) {
+            cost += inspector.getCost(arc);
+        }
+        return cost;
+    }
+
+    /**
+     * Check a solution against the reference cost of its query: the solution is
+     * infeasible if the cost is infinite, and otherwise its path is valid and has
+     * the reference cost (up to a relative error of 1e-6).
+     *
+     * @param solution Solution to check.
+     * @param cost Reference cost of the query of the solution.
+     */
+    public static void checkSolution(ShortestPathSolution solution, double cost) {
+        if (Double.isInfinite(cost)) {
+            assertFalse(solution.isFeasible());
+            return;
+        }
+        assertTrue(solution.isFeasible());
+        assertTrue(solution.getPath().isValid());
+        assertEquals(cost,
+                getCost(solution.getPath(), solution.getInputData().getArcInspector()),
+                1e-6 * cost);
+    }
+
+    /**
+     * Check the solutions of an algorithm against the reference costs, for the
+     * origins and destinations of the graph taken with the given strides (see
+     * {@link #checkSolution(ShortestPathSolution, double)}).
+     *
+     * @param graph Graph to search.
+     * @param inspector Inspector of the queries.
+     * @param algorithm Function running the algorithm on a query.
+     * @param originStride Stride between two origins.
+     * @param destinationStride Stride between two destinations.
+     */
+    public static void checkCosts(Graph graph, ArcInspector inspector,
+            Function<ShortestPathData, ShortestPathSolution> algorithm, int originStride,
+            int destinationStride) {
+        for (int origin = 0; origin < graph.size(); origin += originStride) {
+            double[] costs = compute(graph, graph.get(origin), inspector);
+            for (int destination = 0; destination < graph.size();
+                    destination += destinationStride) {
+                checkSolution(algorithm.apply(new ShortestPathData(graph, graph.get(origin),
+                        graph.get(destination), inspector)), costs[destination]);
+            }
+        }
+    }
+
+}
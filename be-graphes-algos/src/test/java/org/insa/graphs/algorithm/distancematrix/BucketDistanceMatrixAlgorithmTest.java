@@ -0,0 +1,8 @@
+package org.insa.graphs.algorithm.distancematrix;
+
+public class BucketDistanceMatrixAlgorithmTest extends DistanceMatrixAlgorithmTest {
+    @Override
+    public DistanceMatrixAlgorithm createDistanceMatrixAlgorithm(DistanceMatrixData data) {
+        return new BucketDistanceMatrixAlgorithm(data);
+    }
+}
@@ -0,0 +1,8 @@
+package org.insa.graphs.algorithm.distancematrix;
+
+public class DijkstraDistanceMatrixAlgorithmTest extends DistanceMatrixAlgorithmTest {
+    @Override
+    public DistanceMatrixAlgorithm createDistanceMatrixAlgorithm(DistanceMatrixData data) {
+        return new DijkstraDistanceMatrixAlgorithm(data);
+    }
+}
@@ -0,0 +1,118 @@
+package org.insa.graphs.algorithm.distancematrix;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.algorithm.ReferenceCosts;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public abstract class DistanceMatrixAlgorithmTest {
+
+    public abstract DistanceMatrixAlgorithm createDistanceMatrixAlgorithm(DistanceMatrixData data);
+
+    // Number of nodes in the graph.
+    private static final int NB_NODES = 150;
+
+    // Small random graph.
+    private static Graph graph;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = RandomGraphs.builder(NB_NODES, 17).roads(2 * NB_NODES).build();
+    }
+
+    /**
+     * Check the matrix computed for the given sources and targets against reference
+     * one-to-all searches.
+     */
+    private void checkMatrix(List<Node> sources, List<Node> targets, ArcInspector inspector) {
+        DistanceMatrixData data = new DistanceMatrixData(graph, sources, targets, inspector);
+        DistanceMatrixSolution solution = createDistanceMatrixAlgorithm(data).run();
+        assertEquals(Status.OPTIMAL, solution.getStatus());
+        assertEquals(sources.size(), solution.getCosts().length);
+        for (int i = 0; i < sources.size(); ++i) {
+            assertEquals(targets.size(), solution.getCosts()[i].length);
+            final double[] costs = ReferenceCosts.compute(graph, sources.get(i), inspector);
+            for (int j = 0; j < targets.size(); ++j) {
+                final double cost = costs[targets.get(j).getId()];
+                if (Double.isInfinite(cost)) {
+                    assertTrue(Double.isInfinite(solution.getCost(i, j)));
+                }
+                else {
+                    assertEquals(cost, solution.getCost(i, j), 1e-6 * cost);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRandomMatrix() {
+        Random random = new Random(23);
+        List<Node> sources = new ArrayList<>(), targets = new ArrayList<>();
+        for (int i = 0; i < 10; ++i) {
+            sources.add(graph.get(random.nextInt(NB_NODES)));
+        }
+        for (int j = 0; j < 15; ++j) {
+            targets.add(graph.get(random.nextInt(NB_NODES)));
+        }
+
+        // Duplicate target, and source among the targets.
+        targets.add(targets.get(0));
+        targets.add(sources.get(0));
+        for (int filter: new int[] { 0, 2 }) {
+            checkMatrix(sources, targets, ArcInspectorFactory.getAllFilters().get(filter));
+        }
+    }
+
+    @Test
+    public void testEmptyMatrix() {
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        checkMatrix(new ArrayList<>(), Arrays.asList(graph.get(0)), inspector);
+        checkMatrix(Arrays.asList(graph.get(0)), new ArrayList<>(), inspector);
+    }
+
+    @Test
+    public void testProgress() {
+        // Observer aborting the computation at the first progress notification.
+        final int[] nbRows = { 0 };
+        DistanceMatrixObserver observer = new DistanceMatrixObserver() {
+            @Override
+            public void notifyRowComputed(int index, Node source, double[] costs) {
+                nbRows[0]++;
+            }
+
+            @Override
+            public void notifyProgress(int nbNodes) {
+                assertEquals(DistanceMatrixAlgorithm.PROGRESS_INTERVAL, nbNodes);
+                throw new IllegalStateException("Aborted.");
+            }
+        };
+
+        List<Node> nodes = graph.getNodes();
+        DistanceMatrixAlgorithm algorithm = createDistanceMatrixAlgorithm(new DistanceMatrixData(
+                graph, nodes, nodes, ArcInspectorFactory.getAllFilters().get(0)));
+        algorithm.addObserver(observer);
+        try {
+            algorithm.run();
+            fail("The computation should have been aborted.");
+        }
+        catch (IllegalStateException exception) {
+            // Expected.
+        }
+        assertTrue(nbRows[0] < NB_NODES);
+    }
+
+}
@@ -0,0 +1,201 @@
+package org.insa.graphs.algorithm.isochrone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.algorithm.ReferenceCosts;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class IsochroneAlgorithmTest {
+
+    // Number of nodes in the graph.
+    private static final int NB_NODES = 500;
+
+    // Random graph, and inspectors for length and time.
+    private static Graph graph;
+    private static ArcInspector length, time;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = RandomGraphs.builder(NB_NODES, 24).corner(1, 43).lengths(10, 100010)
+                .withGeometry().build();
+        List<ArcInspector> inspectors = ArcInspectorFactory.getAllFilters();
+        length = inspectors.get(0);
+        time = inspectors.get(2);
+    }
+
+    /**
+     * @return true if the point is a vertex of the polygon, on one of its edges,
+     *         or inside it.
+     */
+    private static boolean contains(List<Point> polygon, Point point) {
+        final double x = point.getLongitude(), y = point.getLatitude();
+        boolean inside = false;
+        for (int i = 0; i < polygon.size(); ++i) {
+            Point a = polygon.get(i), b = polygon.get((i + 1) % polygon.size());
+            final double ax = a.getLongitude(), ay = a.getLatitude();
+            final double bx = b.getLongitude(), by = b.getLatitude();
+            final double cross = (bx - ax) * (y - ay) - (by - ay) * (x - ax);
+            if (Math.abs(cross) < 1e-9 && x >= Math.min(ax, bx) - 1e-9
+                    && x <= Math.max(ax, bx) + 1e-9 && y >= Math.min(ay, by) - 1e-9
+                    && y <= Math.max(ay, by) + 1e-9) {
+                return true;
+            }
+            if ((ay > y) != (by > y) && x < ax + (y - ay) * (bx - ax) / (by - ay)) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * @return true if two non-adjacent edges of the polygon cross.
+     */
+    private static boolean selfIntersects(List<Point> polygon) {
+        final int size = polygon.size();
+        for (int i = 0; i < size; ++i) {
+            for (int j = i + 2; j < size; ++j) {
+                if (i == 0 && j == size - 1) {
+                    continue;
+                }
+                Point a = polygon.get(i), b = polygon.get(i + 1);
+                Point c = polygon.get(j), d = polygon.get((j + 1) % size);
+                if (orientation(a, b, c) * orientation(a, b, d) < 0
+                        && orientation(c, d, a) * orientation(c, d, b) < 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static int orientation(Point a, Point b, Point c) {
+        return (int) Math.signum(
+                (b.getLongitude() - a.getLongitude()) * (c.getLatitude() - a.getLatitude())
+                        - (b.getLatitude() - a.getLatitude())
+                                * (c.getLongitude() - a.getLongitude()));
+    }
+
+    private static void check(int origin, double[] budgets, ArcInspector inspector) {
+        IsochroneData data = new IsochroneData(graph, graph.get(origin), budgets, inspector);
+        IsochroneSolution solution = new IsochroneAlgorithm(data).run();
+        assertTrue(solution.isFeasible());
+        assertEquals(budgets.length, solution.getIsochrones().size());
+
+        double[] costs = ReferenceCosts.compute(graph, graph.get(origin), inspector);
+        Set<Arc> previous = new HashSet<>();
+        for (Isochrone isochrone: solution.getIsochrones()) {
+            final double budget = isochrone.getBudget();
+
+            // Expected arcs and number of boundary points.
+            Set<Arc> expected = new HashSet<>();
+            int nbBoundaryPoints = 0;
+            for (Node node: graph.getNodes()) {
+                if (costs[node.getId()] > budget) {
+                    continue;
+                }
+                for (Arc arc: node.getSuccessors()) {
+                    if (!inspector.isAllowed(arc)) {
+                        continue;
+                    }
+                    if (costs[node.getId()] + inspector.getCost(arc) <= budget * (1 + 1e-9)) {
+                        expected.add(arc);
+                    }
+                    else {
+                        nbBoundaryPoints++;
+                    }
+                }
+            }
+            Set<Arc> arcs = new HashSet<>(isochrone.getArcs());
+            assertEquals(expected, arcs);
+            assertEquals(nbBoundaryPoints, isochrone.getBoundaryPoints().size());
+            assertTrue(arcs.containsAll(previous));
+            previous = arcs;
+
+            // The polygon is simple and contains all the reachable points.
+            List<Point> polygon = isochrone.getPolygon();
+            if (polygon.size() < 3) {
+                continue;
+            }
+            assertFalse(selfIntersects(polygon));
+            for (Arc arc: isochrone.getArcs()) {
+                assertTrue(contains(polygon, arc.getOrigin().getPoint()));
+                assertTrue(contains(polygon, arc.getDestination().getPoint()));
+                for (Point point: arc.getPoints()) {
+                    assertTrue(contains(polygon, point));
+                }
+            }
+            for (Point point: isochrone.getBoundaryPoints()) {
+                assertTrue(contains(polygon, point));
+            }
+        }
+    }
+
+    @Test
+    public void testIsochrones() {
+        for (int origin = 0; origin < NB_NODES; origin += 47) {
+            check(origin, new double[] { 2e5, 0, 5e4, 1e5 }, length);
+            check(origin, new double[] { 600, 1800, 3600 }, time);
+        }
+    }
+
+    @Test
+    public void testBudgetOrder() {
+        IsochroneData data = new IsochroneData(graph, graph.get(0), new double[] { 3, 1, 2 },
+                time);
+        assertEquals(3, data.getMaximumBudget(), 0);
+        IsochroneSolution solution = new IsochroneAlgorithm(data).run();
+        for (int i = 0; i < 3; ++i) {
+            assertEquals(i + 1, solution.getIsochrones().get(i).getBudget(), 0);
+        }
+    }
+
+    @Test
+    public void testConcaveHull() {
+        // U-shaped set of points: the notch must be excluded by the concave hull but
+        // not by the convex one.
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i <= 20; ++i) {
+            for (int j = 0; j <= 20; ++j) {
+                if (i < 5 || i > 15 || j < 5) {
+                    points.add(new Point(i / 100f, j / 100f));
+                }
+            }
+        }
+        Point notch = new Point(0.1f, 0.15f);
+        List<Point> concave = ConcaveHull.compute(points, IsochroneData.DEFAULT_CONCAVITY);
+        assertFalse(selfIntersects(concave));
+        assertFalse(contains(concave, notch));
+        for (Point point: points) {
+            assertTrue(contains(concave, point));
+        }
+        List<Point> convex = ConcaveHull.compute(points, Double.MAX_VALUE);
+        assertEquals(4, convex.size());
+        assertTrue(contains(convex, notch));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoBudget() {
+        new IsochroneData(graph, graph.get(0), new double[0], time);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeBudget() {
+        new IsochroneData(graph, graph.get(0), new double[] { 10, -1 }, time);
+    }
+
+}
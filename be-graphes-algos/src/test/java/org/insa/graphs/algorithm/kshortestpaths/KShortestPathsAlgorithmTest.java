@@ -0,0 +1,150 @@
+package org.insa.graphs.algorithm.kshortestpaths;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.algorithm.ReferenceCosts;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Path;
+import org.junit.Test;
+
+public class KShortestPathsAlgorithmTest {
+
+    /**
+     * Add the costs of all the loopless paths from the given node to the
+     * destination to the given list.
+     */
+    private static void enumerate(Node node, Node destination, ArcInspector inspector,
+            boolean[] visited, double cost, List<Double> costs) {
+        if (node.equals(destination)) {
+            costs.add(cost);
+            return;
+        }
+        visited[node.getId()] = true;
+        for (Arc arc: node.getSuccessors()) {
+            if (inspector.isAllowed(arc) && !visited[arc.getDestination().getId()]) {
+                enumerate(arc.getDestination(), destination, inspector, visited,
+                        cost + inspector.getCost(arc), costs);
+            }
+        }
+        visited[node.getId()] = false;
+    }
+
+    /**
+     * Check that the paths of the solution are valid, loopless, distinct, sorted
+     * by cost, and that their costs are the sums of the costs of their arcs.
+     */
+    private static void checkPaths(KShortestPathsSolution solution) {
+        final KShortestPathsData data = solution.getInputData();
+        Set<List<Arc>> distinct = new HashSet<>();
+        for (int i = 0; i < solution.getPaths().size(); ++i) {
+            Path path = solution.getPaths().get(i);
+            assertTrue(path.isValid());
+            assertEquals(data.getOrigin(), path.getOrigin());
+            if (!path.getArcs().isEmpty()) {
+                assertEquals(data.getDestination(), path.getDestination());
+            }
+            Set<Node> nodes = new HashSet<>();
+            nodes.add(path.getOrigin());
+            for (Arc arc: path.getArcs()) {
+                assertTrue(data.isAllowed(arc));
+                assertTrue(nodes.add(arc.getDestination()));
+            }
+            assertTrue(distinct.add(path.getArcs()));
+            assertEquals(ReferenceCosts.getCost(path, data.getArcInspector()),
+                    solution.getCost(i), 1e-6);
+            if (i > 0) {
+                assertTrue(solution.getCost(i - 1) <= solution.getCost(i));
+            }
+        }
+    }
+
+    @Test
+    public void testAgainstEnumeration() {
+        for (long seed = 0; seed < 10; ++seed) {
+            Graph graph = RandomGraphs.builder(12, seed).roads(20).build();
+            for (ArcInspector inspector: new ArcInspector[] {
+                    ArcInspectorFactory.getAllFilters().get(0),
+                    ArcInspectorFactory.getAllFilters().get(2) }) {
+                for (int origin = 0; origin < graph.size(); origin += 3) {
+                    for (int destination = 1; destination < graph.size(); destination += 4) {
+                        List<Double> expected = new ArrayList<>();
+                        enumerate(graph.get(origin), graph.get(destination), inspector,
+                                new boolean[graph.size()], 0, expected);
+                        Collections.sort(expected);
+
+                        KShortestPathsData data = new KShortestPathsData(graph,
+                                graph.get(origin), graph.get(destination), 10, inspector);
+                        KShortestPathsSolution solution = new KShortestPathsAlgorithm(data)
+                                .run();
+                        checkPaths(solution);
+                        assertEquals(Math.min(10, expected.size()), solution.getPaths().size());
+                        for (int i = 0; i < solution.getPaths().size(); ++i) {
+                            assertEquals(expected.get(i), solution.getCost(i), 1e-6);
+                        }
+                        if (expected.isEmpty()) {
+                            assertEquals(Status.INFEASIBLE, solution.getStatus());
+                        }
+                        else {
+                            assertEquals(expected.size() >= 10 ? Status.OPTIMAL
+                                    : Status.FEASIBLE, solution.getStatus());
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLargerGraph() {
+        Graph graph = RandomGraphs.create(2000, 25);
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(2);
+        Random random = new Random(25);
+        for (int i = 0; i < 20; ++i) {
+            Node origin = graph.get(random.nextInt(graph.size()));
+            Node destination = graph.get(random.nextInt(graph.size()));
+            double[] costs = ReferenceCosts.compute(graph, origin, inspector);
+            KShortestPathsSolution solution = new KShortestPathsAlgorithm(
+                    new KShortestPathsData(graph, origin, destination, 20, inspector)).run();
+            checkPaths(solution);
+            if (Double.isInfinite(costs[destination.getId()])) {
+                assertFalse(solution.isFeasible());
+            }
+            else {
+                assertEquals(costs[destination.getId()], solution.getCost(0), 1e-6);
+            }
+        }
+    }
+
+    @Test
+    public void testSameOriginAndDestination() {
+        Graph graph = RandomGraphs.create(50, 3);
+        KShortestPathsSolution solution = new KShortestPathsAlgorithm(new KShortestPathsData(
+                graph, graph.get(4), graph.get(4), 5, ArcInspectorFactory.getAllFilters().get(0)))
+                        .run();
+        assertEquals(1, solution.getPaths().size());
+        assertTrue(solution.getPaths().get(0).getArcs().isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidNumberOfPaths() {
+        Graph graph = RandomGraphs.builder(10, 0).roads(20).build();
+        new KShortestPathsData(graph, graph.get(0), graph.get(1), 0,
+                ArcInspectorFactory.getAllFilters().get(0));
+    }
+
+}
@@ -0,0 +1,65 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.algorithm.ReferenceCosts;
+import org.insa.graphs.model.Graph;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ArcFlagsTest {
+
+    // Number of nodes in the graph.
+    private static final int NB_NODES = 200;
+
+    // Small random graph, and its metric (time).
+    private static Graph graph;
+    private static CompactMetric metric;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = RandomGraphs.create(NB_NODES, 5);
+        metric = CompactMetric.getMetric(graph, ArcInspectorFactory.getAllFilters().get(2));
+    }
+
+    /**
+     * Check that queries with the given flags give the same costs as a one-to-all
+     * search.
+     */
+    private static void checkCosts(ArcFlags flags) {
+        ReferenceCosts.checkCosts(graph, metric.getInspector(),
+                data -> new ArcFlagsAlgorithm(data, flags).run(), 7, 1);
+    }
+
+    @Test
+    public void testPartition() {
+        int[] cells = ArcFlags.computePartition(metric.getGraph(), 7);
+        int[] sizes = new int[7];
+        for (int cell: cells) {
+            sizes[cell]++;
+        }
+        for (int size: sizes) {
+            assertTrue(size >= NB_NODES / 7 - 1 && size <= NB_NODES / 7 + 1);
+        }
+    }
+
+    @Test
+    public void testCosts() {
+        for (int nbCells: new int[] { 1, 5, 16, 100 }) {
+            ArcFlags flags = ArcFlags.compute(metric, nbCells);
+            assertEquals(nbCells, flags.getNumberOfCells());
+            checkCosts(flags);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPartition() {
+        int[] cells = new int[NB_NODES];
+        cells[0] = 4;
+        ArcFlags.compute(metric, cells, 4);
+    }
+
+}
@@ -0,0 +1,58 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.algorithm.ReferenceCosts;
+import org.insa.graphs.model.Graph;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class BellmanFordTest {
+
+    // Number of nodes in the graph.
+    private static final int NB_NODES = 2000;
+
+    // Random graph, and inspectors for length and time.
+    private static Graph graph;
+    private static ArcInspector length, time;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = RandomGraphs.builder(NB_NODES, 22).lengths(0, 1000).build();
+        List<ArcInspector> inspectors = ArcInspectorFactory.getAllFilters();
+        length = inspectors.get(0);
+        time = inspectors.get(2);
+    }
+
+    /**
+     * Check that queries with the given pool give the same costs as a one-to-all
+     * search.
+     */
+    private static void checkCosts(ArcInspector inspector, ForkJoinPool pool) {
+        ReferenceCosts.checkCosts(graph, inspector,
+                data -> new BellmanFordAlgorithm(data, pool).run(), 397, 83);
+    }
+
+    @Test
+    public void testSequential() {
+        checkCosts(length, null);
+        checkCosts(time, null);
+    }
+
+    @Test
+    public void testParallel() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            checkCosts(length, pool);
+            checkCosts(time, pool);
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,8 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+public class CompactDijkstraAlgorithmTest extends ShortestPathAlgorithmTest {
+    @Override
+    public ShortestPathAlgorithm createShortestPathAlgorithm(ShortestPathData data) {
+        return new CompactDijkstraAlgorithm(data);
+    }
+}
@@ -0,0 +1,147 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.algorithm.ReferenceCosts;
+import org.insa.graphs.model.Graph;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ContractionHierarchyBuilderTest {
+
+    // Number of nodes in the graph.
+    private static final int NB_NODES = 200;
+
+    // Small random graph, and its metric (time).
+    private static Graph graph;
+    private static CompactMetric metric;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = RandomGraphs.create(NB_NODES, 7);
+        metric = CompactMetric.getMetric(graph, ArcInspectorFactory.getAllFilters().get(2));
+    }
+
+    /**
+     * Check that the given hierarchy gives the same costs as a one-to-all search.
+     */
+    private static void checkCosts(ContractionHierarchy hierarchy) {
+        ReferenceCosts.checkCosts(graph, metric.getInspector(),
+                data -> new ContractionHierarchyAlgorithm(data, hierarchy).run(), 7, 1);
+    }
+
+    @Test
+    public void testSequential() {
+        checkCosts(new ContractionHierarchyBuilder(metric).build());
+    }
+
+    @Test
+    public void testParallel() {
+        checkCosts(new ContractionHierarchyBuilder(metric).build(new ForkJoinPool(3)));
+    }
+
+    @Test
+    public void testParallelDeterministic() {
+        ContractionHierarchy expected = new ContractionHierarchyBuilder(metric)
+                .build(new ForkJoinPool(1));
+        for (int parallelism: new int[] { 2, 4 }) {
+            ContractionHierarchy actual = new ContractionHierarchyBuilder(metric)
+                    .build(new ForkJoinPool(parallelism));
+            assertEquals(expected.getNumberOfEdges(), actual.getNumberOfEdges());
+            for (int node = 0; node < NB_NODES; ++node) {
+                assertEquals(expected.getRank(node), actual.getRank(node));
+            }
+            for (int edge = 0; edge < expected.getNumberOfEdges(); ++edge) {
+                assertEquals(expected.getEdgeTail(edge), actual.getEdgeTail(edge));
+                assertEquals(expected.getEdgeHead(edge), actual.getEdgeHead(edge));
+                assertEquals(expected.getEdgeCost(edge), actual.getEdgeCost(edge), 0);
+            }
+        }
+    }
+
+    @Test
+    public void testObserver() {
+        final int[] counts = new int[3];
+        ContractionHierarchyBuilder builder = new ContractionHierarchyBuilder(metric);
+        builder.addObserver(new ContractionHierarchyObserver() {
+
+            @Override
+            public void notifyStartContraction(int nNodes) {
+                counts[0] = nNodes;
+            }
+
+            @Override
+            public void notifyNodesContracted(int nContracted, int nRemaining) {
+                counts[1] += nContracted;
+                assertEquals(NB_NODES - counts[1], nRemaining);
+            }
+
+            @Override
+            public void notifyEndContraction(int nShortcuts) {
+                counts[2] = nShortcuts;
+            }
+
+        });
+        ContractionHierarchy hierarchy = builder.build(new ForkJoinPool(2));
+        assertEquals(NB_NODES, counts[0]);
+        assertEquals(NB_NODES, counts[1]);
+        assertEquals(hierarchy.getNumberOfShortcuts(), counts[2]);
+    }
+
+    @Test
+    public void testPreprocess() throws Exception {
+        // Length metric, so that the hierarchies of the other tests are not used.
+        CompactMetric lengthMetric = CompactMetric.getMetric(graph,
+                ArcInspectorFactory.getAllFilters().get(0));
+        ContractionHierarchy.removeHierarchy(lengthMetric);
+
+        // The hierarchy is only built when the executor runs the task, and is
+        // computed only once.
+        List<Runnable> tasks = new ArrayList<>();
+        CompletableFuture<ContractionHierarchy> future = ContractionHierarchy
+                .preprocess(lengthMetric, tasks::add);
+        assertSame(future, ContractionHierarchy.preprocess(lengthMetric, tasks::add));
+        assertEquals(1, tasks.size());
+        assertFalse(future.isDone());
+        assertNull(ContractionHierarchy.getCachedHierarchy(lengthMetric));
+        tasks.get(0).run();
+        ContractionHierarchy hierarchy = future.get();
+        assertSame(hierarchy, ContractionHierarchy.getCachedHierarchy(lengthMetric));
+        assertSame(hierarchy, ContractionHierarchy.getHierarchy(lengthMetric));
+
+        // Concurrent queries share the hierarchy built by the first one.
+        ContractionHierarchy.removeHierarchy(lengthMetric);
+        assertNull(ContractionHierarchy.getCachedHierarchy(lengthMetric));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<ContractionHierarchy>> hierarchies = new ArrayList<>();
+            for (int i = 0; i < 8; ++i) {
+                hierarchies.add(executor
+                        .submit(() -> ContractionHierarchy.getHierarchy(lengthMetric)));
+            }
+            hierarchy = hierarchies.get(0).get();
+            for (Future<ContractionHierarchy> other: hierarchies) {
+                assertSame(hierarchy, other.get());
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+        assertSame(hierarchy, ContractionHierarchy.getCachedHierarchy(lengthMetric));
+        ContractionHierarchy.removeHierarchy(lengthMetric);
+    }
+
+}
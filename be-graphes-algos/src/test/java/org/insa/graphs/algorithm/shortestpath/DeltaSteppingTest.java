@@ -0,0 +1,61 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.algorithm.ReferenceCosts;
+import org.insa.graphs.model.Graph;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class DeltaSteppingTest {
+
+    // Number of nodes in the graph.
+    private static final int NB_NODES = 2000;
+
+    // Random graph, and its metric (time).
+    private static Graph graph;
+    private static CompactMetric metric;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = RandomGraphs.builder(NB_NODES, 21).lengths(0, 1000).build();
+        metric = CompactMetric.getMetric(graph, ArcInspectorFactory.getAllFilters().get(2));
+    }
+
+    /**
+     * Check that queries with the given delta and pool give the same costs as a
+     * one-to-all search.
+     */
+    private static void checkCosts(double delta, ForkJoinPool pool) {
+        ReferenceCosts.checkCosts(graph, metric.getInspector(),
+                data -> new DeltaSteppingAlgorithm(data, delta, pool).run(), 397, 83);
+    }
+
+    @Test
+    public void testDefaultDelta() {
+        checkCosts(0, ForkJoinPool.commonPool());
+    }
+
+    @Test
+    public void testDeltas() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (double delta: new double[] { 0.01, 1, 10, 1000, 1e6 }) {
+                checkCosts(delta, pool);
+            }
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidDelta() {
+        new DeltaSteppingAlgorithm(new ShortestPathData(graph, graph.get(0), graph.get(1),
+                metric.getInspector()), -1, ForkJoinPool.commonPool());
+    }
+
+}
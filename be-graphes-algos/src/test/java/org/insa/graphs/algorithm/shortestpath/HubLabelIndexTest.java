@@ -0,0 +1,89 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.algorithm.ReferenceCosts;
+import org.insa.graphs.model.Graph;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class HubLabelIndexTest {
+
+    // Number of nodes in the graph.
+    private static final int NB_NODES = 150;
+
+    // Small random graph, and its metric (length).
+    private static CompactMetric metric;
+
+    @BeforeClass
+    public static void initAll() {
+        Graph graph = RandomGraphs.builder(NB_NODES, 11).roads(2 * NB_NODES).build();
+        metric = CompactMetric.getMetric(graph, ArcInspectorFactory.getAllFilters().get(0));
+    }
+
+    /**
+     * Check the costs and paths of the given index against one-to-all searches.
+     */
+    private static void checkIndex(HubLabelIndex index) {
+        for (int origin = 0; origin < NB_NODES; ++origin) {
+            double[] costs = ReferenceCosts.compute(metric, origin);
+            for (int destination = 0; destination < NB_NODES; ++destination) {
+                assertEquals(costs[destination], index.getCost(origin, destination),
+                        1e-6 * costs[destination]);
+            }
+        }
+        ReferenceCosts.checkCosts(metric.getGraph().getGraph(), metric.getInspector(),
+                data -> new HubLabelAlgorithm(data, index).run(), 10, 1);
+    }
+
+    @Test
+    public void testHierarchyOrder() {
+        checkIndex(HubLabelIndex.build(new ContractionHierarchyBuilder(metric).build()));
+    }
+
+    @Test
+    public void testIdentityOrder() {
+        int[] order = new int[NB_NODES];
+        for (int i = 0; i < NB_NODES; ++i) {
+            order[i] = i;
+        }
+        checkIndex(HubLabelIndex.build(metric, order));
+    }
+
+    @Test
+    public void testPreprocess() throws Exception {
+        HubLabelIndex.removeIndex(metric);
+
+        // The index is only built when the executor runs the task, and is computed
+        // only once.
+        List<Runnable> tasks = new ArrayList<>();
+        CompletableFuture<HubLabelIndex> future = HubLabelIndex.preprocess(metric, tasks::add);
+        assertSame(future, HubLabelIndex.preprocess(metric, tasks::add));
+        assertEquals(1, tasks.size());
+        assertFalse(future.isDone());
+        assertNull(HubLabelIndex.getCachedIndex(metric));
+        tasks.get(0).run();
+        HubLabelIndex index = future.get();
+        assertSame(index, HubLabelIndex.getCachedIndex(metric));
+        assertSame(index, HubLabelIndex.getIndex(metric));
+        checkIndex(index);
+
+        HubLabelIndex.removeIndex(metric);
+        assertNull(HubLabelIndex.getCachedIndex(metric));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidOrder() {
+        HubLabelIndex.build(metric, new int[NB_NODES]);
+    }
+
+}
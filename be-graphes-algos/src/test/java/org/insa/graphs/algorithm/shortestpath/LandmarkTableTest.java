@@ -0,0 +1,127 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.algorithm.ReferenceCosts;
+import org.insa.graphs.algorithm.shortestpath.LandmarkTable.Selection;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.io.MapMismatchException;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class LandmarkTableTest {
+
+    // Number of nodes in the graph.
+    private static final int NB_NODES = 60;
+
+    // Metrics (length and time) on a small random graph.
+    private static CompactMetric lengthMetric, timeMetric;
+
+    @BeforeClass
+    public static void initAll() {
+        Graph graph = RandomGraphs.create(NB_NODES, 42);
+        List<ArcInspector> filters = ArcInspectorFactory.getAllFilters();
+        lengthMetric = CompactMetric.getMetric(graph, filters.get(0));
+        timeMetric = CompactMetric.getMetric(graph, filters.get(2));
+    }
+
+    /**
+     * Check that the bounds of the table are lower bounds of the actual costs.
+     */
+    private static void checkLowerBounds(CompactMetric metric, LandmarkTable table) {
+        for (int origin = 0; origin < NB_NODES; ++origin) {
+            double[] costs = ReferenceCosts.compute(metric, origin);
+            for (int target = 0; target < NB_NODES; ++target) {
+                double bound = table.getLowerBound(origin, target);
+                if (Double.isInfinite(bound)) {
+                    assertTrue(Double.isInfinite(costs[target]));
+                }
+                else {
+                    assertTrue(bound <= costs[target] * (1 + 1e-9));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFarthest() {
+        for (CompactMetric metric: new CompactMetric[] { lengthMetric, timeMetric }) {
+            LandmarkTable table = LandmarkTable.compute(metric, 4, Selection.FARTHEST);
+            assertEquals(4, table.getNumberOfLandmarks());
+            checkLowerBounds(metric, table);
+        }
+    }
+
+    @Test
+    public void testAvoid() {
+        for (CompactMetric metric: new CompactMetric[] { lengthMetric, timeMetric }) {
+            LandmarkTable table = LandmarkTable.compute(metric, 4, Selection.AVOID);
+            assertEquals(4, table.getNumberOfLandmarks());
+            checkLowerBounds(metric, table);
+        }
+    }
+
+    @Test
+    public void testFloatCosts() {
+        // The bounds from a landmark are its costs, up to the float rounding.
+        for (CompactMetric metric: new CompactMetric[] { lengthMetric, timeMetric }) {
+            LandmarkTable table = LandmarkTable.compute(metric, 4, Selection.AVOID);
+            for (int i = 0; i < table.getNumberOfLandmarks(); ++i) {
+                final int landmark = table.getLandmark(i);
+                double[] costs = ReferenceCosts.compute(metric, landmark);
+                for (int target = 0; target < NB_NODES; ++target) {
+                    double bound = table.getLowerBound(i, landmark, target);
+                    if (Double.isInfinite(costs[target])) {
+                        assertTrue(Double.isInfinite(bound));
+                    }
+                    else {
+                        assertTrue(bound <= costs[target]);
+                        assertEquals(costs[target], bound, 1e-6 * costs[target]);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testReadWrite() throws IOException {
+        LandmarkTable table = LandmarkTable.compute(timeMetric, 4, Selection.AVOID);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        table.write(new DataOutputStream(bytes));
+        LandmarkTable read = LandmarkTable.read(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), timeMetric);
+        assertEquals(table.getNumberOfLandmarks(), read.getNumberOfLandmarks());
+        for (int i = 0; i < table.getNumberOfLandmarks(); ++i) {
+            assertEquals(table.getLandmark(i), read.getLandmark(i));
+        }
+        for (int origin = 0; origin < NB_NODES; ++origin) {
+            for (int target = 0; target < NB_NODES; ++target) {
+                assertEquals(table.getLowerBound(origin, target),
+                        read.getLowerBound(origin, target), 0);
+            }
+        }
+    }
+
+    @Test(expected = MapMismatchException.class)
+    public void testReadOtherMap() throws IOException {
+        Graph other = new Graph("OTHER", "", lengthMetric.getGraph().getGraph().getNodes(),
+                null);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        LandmarkTable.compute(lengthMetric, 2, Selection.FARTHEST)
+                .write(new DataOutputStream(bytes));
+        LandmarkTable.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())),
+                CompactMetric.getMetric(other, lengthMetric.getInspector()));
+    }
+
+}
@@ -0,0 +1,120 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.algorithm.ReferenceCosts;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.io.MappedGraphReader;
+import org.insa.graphs.model.io.MappedGraphWriter;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class OneToAllSearchTest {
+
+    // Number of nodes in the graph.
+    private static final int NB_NODES = 200;
+
+    // Small random graph, and its metric (time).
+    private static Graph graph;
+    private static CompactMetric metric;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void initAll() {
+        graph = RandomGraphs.create(NB_NODES, 23);
+        metric = CompactMetric.getMetric(graph, ArcInspectorFactory.getAllFilters().get(2));
+    }
+
+    private static void assertCosts(double[] expected, double[] actual) {
+        assertEquals(expected.length, actual.length);
+        for (int node = 0; node < expected.length; ++node) {
+            assertEquals(expected[node], actual[node], 1e-6 * expected[node]);
+        }
+    }
+
+    @Test
+    public void testSingleOrigin() {
+        OneToAllSearch search = new OneToAllSearch(new ContractionHierarchyBuilder(metric).build());
+        assertEquals(NB_NODES, search.size());
+        for (int origin = 0; origin < NB_NODES; origin += 7) {
+            assertCosts(ReferenceCosts.compute(metric, origin),
+                    search.computeCosts(origin));
+        }
+    }
+
+    @Test
+    public void testBatches() {
+        OneToAllSearch search = new OneToAllSearch(new ContractionHierarchyBuilder(metric).build());
+        int[] origins = new int[2 * OneToAllSearch.BATCH_SIZE + 3];
+        for (int i = 0; i < origins.length; ++i) {
+            origins[i] = (i * 37) % NB_NODES;
+        }
+        double[][] costs = search.computeCosts(origins);
+        assertEquals(origins.length, costs.length);
+        for (int i = 0; i < origins.length; ++i) {
+            assertCosts(ReferenceCosts.compute(metric, origins[i]), costs[i]);
+        }
+    }
+
+    @Test
+    public void testCachedHierarchy() {
+        // Length metric, so that the hierarchy of the other tests is not used.
+        ArcInspector length = ArcInspectorFactory.getAllFilters().get(0);
+        CompactMetric lengthMetric = CompactMetric.getMetric(graph, length);
+        assertNull(ContractionHierarchy.getCachedHierarchy(lengthMetric));
+        for (int origin = 0; origin < NB_NODES; origin += 31) {
+            assertCosts(ReferenceCosts.compute(lengthMetric, origin),
+                    OneToAllSearch.computeCosts(graph, graph.get(origin), length));
+        }
+        ContractionHierarchy hierarchy = ContractionHierarchy.getHierarchy(lengthMetric);
+        assertSame(hierarchy, ContractionHierarchy.getCachedHierarchy(lengthMetric));
+        assertSame(OneToAllSearch.getSearch(hierarchy), OneToAllSearch.getSearch(hierarchy));
+        for (int origin = 0; origin < NB_NODES; origin += 31) {
+            assertCosts(ReferenceCosts.compute(lengthMetric, origin),
+                    OneToAllSearch.computeCosts(graph, graph.get(origin), length));
+        }
+    }
+
+    @Test
+    public void testMappedGraph() throws IOException {
+        // Queries on a mapped graph, without creating its nodes and arcs.
+        File file = folder.newFile("graph.mapcg");
+        try (MappedGraphWriter writer = new MappedGraphWriter(
+                FileChannel.open(file.toPath(), StandardOpenOption.WRITE))) {
+            writer.writeCompactGraph(CompactMetric.getCompactGraph(graph));
+        }
+        CompactGraph mapped;
+        try (MappedGraphReader reader = new MappedGraphReader(
+                FileChannel.open(file.toPath(), StandardOpenOption.READ))) {
+            mapped = reader.readCompactGraph();
+        }
+        assertNull(mapped.getGraph());
+        CompactMetric mappedMetric = CompactMetric.getMetric(mapped, metric.getInspector());
+        OneToAllSearch search = OneToAllSearch
+                .getSearch(ContractionHierarchy.getHierarchy(mappedMetric));
+        for (int origin = 0; origin < NB_NODES; origin += 13) {
+            assertCosts(ReferenceCosts.compute(metric, origin), search.computeCosts(origin));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidOrigin() {
+        new OneToAllSearch(new ContractionHierarchyBuilder(metric).build()).computeCosts(NB_NODES);
+    }
+
+}
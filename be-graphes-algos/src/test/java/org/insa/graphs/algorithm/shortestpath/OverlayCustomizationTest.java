@@ -0,0 +1,134 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.algorithm.ReferenceCosts;
+import org.insa.graphs.model.Graph;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class OverlayCustomizationTest {
+
+    // Number of nodes in the graph.
+    private static final int NB_NODES = 300;
+
+    // Small random graph, and an overlay with small cells.
+    private static Graph graph;
+    private static MultiLevelOverlay overlay;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = RandomGraphs.builder(NB_NODES, 13).distanceLengths().withPedestrians().build();
+        overlay = MultiLevelOverlay.build(CompactMetric.getCompactGraph(graph), 8, 2);
+    }
+
+    /**
+     * Check that queries with the given customization, sharing the given
+     * workspace, give the same costs as a one-to-all search.
+     */
+    private static void checkCosts(OverlayCustomization customization,
+            ShortestPathWorkspace workspace) {
+        ReferenceCosts.checkCosts(graph, customization.getMetric().getInspector(),
+                data -> new CRPAlgorithm(data, customization, workspace).run(), 19, 1);
+    }
+
+    @Test
+    public void testOverlay() {
+        assertEquals(3, overlay.getNumberOfLevels());
+        for (int level = 1; level <= overlay.getNumberOfLevels(); ++level) {
+            for (int cell = 0; cell < overlay.getNumberOfCells(level); ++cell) {
+                for (int i = 0; i < overlay.getNumberOfBoundaryNodes(level, cell); ++i) {
+                    final int node = overlay.getBoundaryNode(level, cell, i);
+                    assertEquals(cell, overlay.getCell(level, node));
+                    assertEquals(i, overlay.getBoundaryIndex(level, node));
+                    if (level > 1) {
+                        assertTrue(overlay.getBoundaryIndex(level - 1, node) >= 0);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCosts() {
+        ShortestPathWorkspace workspace = new ShortestPathWorkspace(graph,
+                NB_NODES + overlay.getNumberOfVertices());
+        for (int filter: new int[] { 0, 2 }) {
+            CompactMetric metric = CompactMetric.getMetric(graph,
+                    ArcInspectorFactory.getAllFilters().get(filter));
+            checkCosts(OverlayCustomization.customize(overlay, metric, new ForkJoinPool(2)),
+                    workspace);
+        }
+    }
+
+    @Test
+    public void testCachedCustomization() {
+        CompactMetric metric = CompactMetric.getMetric(graph,
+                ArcInspectorFactory.getAllFilters().get(2));
+        checkCosts(OverlayCustomization.getCustomization(metric),
+                CRPAlgorithm.createWorkspace(graph));
+
+        // The algorithm takes a workspace with room for the overlay vertices from the
+        // pool of the graph for each run, and gives it back.
+        ShortestPathData data = new ShortestPathData(graph, graph.get(3), graph.get(7),
+                metric.getInspector());
+        CRPAlgorithm algorithm = new CRPAlgorithm(data);
+        assertNull(algorithm.getWorkspace());
+        final int nbEntries = NB_NODES
+                + MultiLevelOverlay.getOverlay(metric.getGraph()).getNumberOfVertices();
+        final ShortestPathWorkspace pooled = ShortestPathWorkspace.acquire(graph, nbEntries);
+        ShortestPathWorkspace.release(pooled);
+        final double cost = new DijkstraAlgorithm(data).run().getPath().getMinimumTravelTime();
+        for (int i = 0; i < 2; ++i) {
+            assertEquals(cost, algorithm.run().getPath().getMinimumTravelTime(), 1e-6);
+            assertNull(algorithm.getWorkspace());
+            assertSame(pooled, ShortestPathWorkspace.acquire(graph, nbEntries));
+            ShortestPathWorkspace.release(pooled);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWorkspaceTooSmall() {
+        ShortestPathData data = new ShortestPathData(graph, graph.get(0), graph.get(1),
+                ArcInspectorFactory.getAllFilters().get(0));
+        new CRPAlgorithm(data, null, new ShortestPathWorkspace(graph));
+    }
+
+    @Test
+    public void testParallelDeterministic() {
+        CompactMetric metric = CompactMetric.getMetric(graph,
+                ArcInspectorFactory.getAllFilters().get(2));
+        OverlayCustomization expected = OverlayCustomization.customize(overlay, metric,
+                new ForkJoinPool(1));
+        OverlayCustomization actual = OverlayCustomization.customize(overlay, metric,
+                new ForkJoinPool(4));
+        for (int level = 1; level <= overlay.getNumberOfLevels(); ++level) {
+            for (int cell = 0; cell < overlay.getNumberOfCells(level); ++cell) {
+                final int nbBoundaryNodes = overlay.getNumberOfBoundaryNodes(level, cell);
+                for (int i = 0; i < nbBoundaryNodes; ++i) {
+                    for (int j = 0; j < nbBoundaryNodes; ++j) {
+                        assertEquals(expected.getCliqueCost(level, cell, i, j),
+                                actual.getCliqueCost(level, cell, i, j), 0);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOverlayMismatch() {
+        Graph other = new Graph("ID", "", new ArrayList<>(), null);
+        OverlayCustomization.customize(overlay,
+                CompactMetric.getMetric(other, ArcInspectorFactory.getAllFilters().get(0)),
+                ForkJoinPool.commonPool());
+    }
+
+}
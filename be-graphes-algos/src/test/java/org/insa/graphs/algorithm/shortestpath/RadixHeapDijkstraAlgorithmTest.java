@@ -0,0 +1,14 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+public class RadixHeapDijkstraAlgorithmTest extends ShortestPathAlgorithmTest {
+    @Override
+    public ShortestPathAlgorithm createShortestPathAlgorithm(ShortestPathData data) {
+        return new RadixHeapDijkstraAlgorithm(data);
+    }
+
+    @Override
+    protected double getCostTolerance() {
+        // Costs are rounded to millimeters / milliseconds on each arc.
+        return 1e-4;
+    }
+}
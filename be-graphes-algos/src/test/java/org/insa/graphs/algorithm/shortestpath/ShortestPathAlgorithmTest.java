@@ -1,5 +1,6 @@
 package org.insa.graphs.algorithm.shortestpath;
 
+import org.insa.graphs.model.Arc;
 import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.Path;
 import org.insa.graphs.model.io.BinaryGraphReader;
@@ -18,6 +19,8 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 
 import static org.insa.graphs.algorithm.AbstractSolution.Status;
 import static org.insa.graphs.algorithm.ArcInspectorFactory.FilterType;
@@ -118,6 +121,31 @@ public abstract class ShortestPathAlgorithmTest {
         return new ShortestPathSolution(roadsForCarsSolutionData, Status.OPTIMAL, roadsForCarsSolutionPath);
     }
 
+    // Bellman-Ford solutions, computed once per test parameters.
+    private static final Map<TestParameters, ShortestPathSolution> bellmanFordSolutions = new HashMap<>();
+
+    private static synchronized ShortestPathSolution getBellmanFordSolution(TestParameters parameters) {
+        return bellmanFordSolutions.computeIfAbsent(parameters,
+                p -> new BellmanFordAlgorithm(p.data).doRun());
+    }
+
+    /**
+     * Relative tolerance used when comparing the cost of the computed path with
+     * the cost of the path found by Bellman-Ford. Algorithms working on rounded
+     * costs should override this.
+     */
+    protected double getCostTolerance() {
+        return 1e-6;
+    }
+
+    private double getPathCost(Path path) {
+        double cost = 0;
+        for (Arc arc: path.getArcs()) {
+            cost += parameters.data.getCost(arc);
+        }
+        return cost;
+    }
+
     @Parameter
     public TestParameters parameters;
 
@@ -149,4 +177,14 @@ public abstract class ShortestPathAlgorithmTest {
         }
         assertEquals(parameters.solution.getStatus(), computedSolution.getStatus());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void isCostEqualToBellmanFord() {
+        ShortestPathSolution reference = getBellmanFordSolution(parameters);
+        assertEquals(reference.getStatus(), computedSolution.getStatus());
+        Assume.assumeFalse(reference.getStatus() == Status.INFEASIBLE);
+        double expected = getPathCost(reference.getPath());
+        double actual = getPathCost(computedSolution.getPath());
+        assertEquals(expected, actual, getCostTolerance() * Math.max(1, expected));
+    }
+}
@@ -0,0 +1,152 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.algorithm.ReferenceCosts;
+import org.insa.graphs.model.Graph;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ShortestPathBatchExecutorTest {
+
+    // Number of nodes in the graph.
+    private static final int NB_NODES = 200;
+
+    // Small random graph, and queries on this graph.
+    private static Graph graph;
+    private static List<ShortestPathData> queries;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = RandomGraphs.create(NB_NODES, 17);
+
+        Random random = new Random(17);
+        List<ArcInspector> inspectors = ArcInspectorFactory.getAllFilters();
+        queries = new ArrayList<>();
+        for (int i = 0; i < 500; ++i) {
+            queries.add(new ShortestPathData(graph, graph.get(random.nextInt(NB_NODES)),
+                    graph.get(random.nextInt(NB_NODES)), inspectors.get(2 * (i % 2))));
+        }
+    }
+
+    /**
+     * Check that the given solution has the same cost as a reference search.
+     */
+    private static void checkSolution(ShortestPathData data, ShortestPathSolution solution) {
+        assertNotNull(solution);
+        assertSame(data, solution.getInputData());
+        final double expected = ReferenceCosts.compute(graph, data.getOrigin(),
+                data.getArcInspector())[data.getDestination().getId()];
+        if (Double.isInfinite(expected)) {
+            assertFalse(solution.isFeasible());
+        }
+        else {
+            assertTrue(solution.isFeasible());
+            assertEquals(expected,
+                    ReferenceCosts.getCost(solution.getPath(), data.getArcInspector()),
+                    1e-6 * expected);
+        }
+    }
+
+    @Test
+    public void testRunAll() {
+        try (ShortestPathBatchExecutor executor = new ShortestPathBatchExecutor(4)) {
+            List<ShortestPathSolution> solutions = executor.runAll(queries);
+            assertEquals(queries.size(), solutions.size());
+            for (int i = 0; i < queries.size(); ++i) {
+                checkSolution(queries.get(i), solutions.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testRunAllStream() {
+        try (ShortestPathBatchExecutor executor = new ShortestPathBatchExecutor(
+                (data, ws) -> new ContractionHierarchyAlgorithm(data), 3)) {
+            List<ShortestPathSolution> solutions = executor.runAll(queries.stream());
+            assertEquals(queries.size(), solutions.size());
+            for (int i = 0; i < queries.size(); ++i) {
+                checkSolution(queries.get(i), solutions.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testWorkspaceFactory() {
+        // The workspaces of CRP also have entries for the overlay vertices, and each
+        // worker creates at most one workspace for the graph.
+        final AtomicInteger nbWorkspaces = new AtomicInteger();
+        try (ShortestPathBatchExecutor executor = new ShortestPathBatchExecutor(
+                (data, ws) -> new CRPAlgorithm(data, null, ws), g -> {
+                    nbWorkspaces.incrementAndGet();
+                    return CRPAlgorithm.createWorkspace(g);
+                }, 3)) {
+            List<ShortestPathSolution> solutions = executor.runAll(queries);
+            for (int i = 0; i < queries.size(); ++i) {
+                checkSolution(queries.get(i), solutions.get(i));
+            }
+        }
+        assertTrue(nbWorkspaces.get() >= 1 && nbWorkspaces.get() <= 3);
+    }
+
+    @Test
+    public void testCallback() {
+        final ShortestPathSolution[] solutions = new ShortestPathSolution[queries.size()];
+        final AtomicInteger nbCalls = new AtomicInteger();
+        try (ShortestPathBatchExecutor executor = new ShortestPathBatchExecutor(4)) {
+            executor.runAll(queries.stream(), (solution, index) -> {
+                nbCalls.incrementAndGet();
+                synchronized (solutions) {
+                    solutions[index] = solution;
+                }
+            });
+        }
+        assertEquals(queries.size(), nbCalls.get());
+        for (int i = 0; i < queries.size(); ++i) {
+            checkSolution(queries.get(i), solutions[i]);
+        }
+    }
+
+    @Test
+    public void testEmpty() {
+        try (ShortestPathBatchExecutor executor = new ShortestPathBatchExecutor(2)) {
+            assertEquals(0, executor.runAll(new ArrayList<ShortestPathData>()).size());
+        }
+    }
+
+    @Test
+    public void testException() {
+        final AtomicInteger nbRuns = new AtomicInteger();
+        try (ShortestPathBatchExecutor executor = new ShortestPathBatchExecutor((data, ws) -> {
+            if (nbRuns.incrementAndGet() == 100) {
+                throw new IllegalStateException("Failure");
+            }
+            return new CompactDijkstraAlgorithm(data, ws);
+        }, 4)) {
+            executor.runAll(queries);
+            fail("The exception of the algorithm should be rethrown.");
+        }
+        catch (IllegalStateException exception) {
+            assertEquals("Failure", exception.getMessage());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidParallelism() {
+        new ShortestPathBatchExecutor(0).close();
+    }
+
+}
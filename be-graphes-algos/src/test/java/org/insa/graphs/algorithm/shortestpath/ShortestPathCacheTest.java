@@ -0,0 +1,270 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.insa.graphs.algorithm.AbstractInputData.Mode;
+import org.insa.graphs.algorithm.AlgorithmFactory;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.algorithm.ReferenceCosts;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ShortestPathCacheTest {
+
+    // Number of nodes in the graphs.
+    private static final int NB_NODES = 200;
+
+    // Small random graph, and inspectors for length and time.
+    private static Graph graph;
+    private static ArcInspector length, time;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = RandomGraphs.create(NB_NODES, 19);
+        List<ArcInspector> inspectors = ArcInspectorFactory.getAllFilters();
+        length = inspectors.get(0);
+        time = inspectors.get(2);
+    }
+
+    @Test
+    public void testCachedResults() {
+        ShortestPathCache cache = new ShortestPathCache();
+        for (ArcInspector inspector: new ArcInspector[] { length, time }) {
+            for (int origin = 0; origin < NB_NODES; origin += 13) {
+                for (int destination = 0; destination < NB_NODES; destination += 17) {
+                    ShortestPathData data = new ShortestPathData(graph, graph.get(origin),
+                            graph.get(destination), inspector);
+                    final double expected = ReferenceCosts.compute(graph, graph.get(origin),
+                            inspector)[destination];
+                    for (int i = 0; i < 2; ++i) {
+                        ShortestPathSolution solution = new CachedShortestPathAlgorithm(
+                                new CompactDijkstraAlgorithm(data), cache).run();
+                        assertEquals(!Double.isInfinite(expected), solution.isFeasible());
+                        if (solution.isFeasible()) {
+                            assertTrue(solution.getPath().isValid());
+                            assertEquals(data.getOrigin(), solution.getPath().getOrigin());
+                            if (origin != destination) {
+                                assertEquals(data.getDestination(),
+                                        solution.getPath().getDestination());
+                            }
+                            assertEquals(expected,
+                                    ReferenceCosts.getCost(solution.getPath(), inspector), 1e-6);
+                        }
+                    }
+                }
+            }
+        }
+        assertEquals(cache.getMissCount(), cache.getHitCount());
+        assertEquals(cache.getMissCount(), cache.size());
+        assertEquals(0, cache.getEvictionCount());
+    }
+
+    /**
+     * @return Three queries from the same origin whose paths have the same
+     *         number of nodes (at least two).
+     */
+    private static ShortestPathData[] getQueriesOfSameSize() {
+        final Map<Integer, List<ShortestPathData>> queries = new HashMap<>();
+        for (int destination = 1; destination < NB_NODES; ++destination) {
+            ShortestPathData data = new ShortestPathData(graph, graph.get(0),
+                    graph.get(destination), length);
+            ShortestPathSolution solution = new CompactDijkstraAlgorithm(data).run();
+            if (solution.isFeasible()) {
+                List<ShortestPathData> sameSize = queries
+                        .computeIfAbsent(solution.getPath().size(), size -> new ArrayList<>());
+                sameSize.add(data);
+                if (sameSize.size() == 3) {
+                    return sameSize.toArray(new ShortestPathData[0]);
+                }
+            }
+        }
+        throw new AssertionError("No queries of the same size.");
+    }
+
+    @Test
+    public void testEviction() {
+        ShortestPathData[] queries = getQueriesOfSameSize();
+        final int nbNodes = new CompactDijkstraAlgorithm(queries[0]).run().getPath().size();
+        ShortestPathCache cache = new ShortestPathCache(2 * nbNodes);
+        assertEquals(1, cache.getNumberOfSegments());
+        for (ShortestPathData data: queries) {
+            cache.put(new CompactDijkstraAlgorithm(data).run());
+        }
+        assertEquals(2, cache.size());
+        assertEquals(2 * nbNodes, cache.getNodeCount());
+        assertEquals(1, cache.getEvictionCount());
+        assertNull(cache.get(queries[0]));
+        assertNotNull(cache.get(queries[1]));
+
+        // The second query is now the most recently used, so the third one is
+        // evicted.
+        cache.put(new CompactDijkstraAlgorithm(queries[0]).run());
+        assertNotNull(cache.get(queries[0]));
+        assertNotNull(cache.get(queries[1]));
+        assertNull(cache.get(queries[2]));
+        assertEquals(3, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void testNodeCapacity() {
+        ShortestPathCache cache = new ShortestPathCache(50);
+        int nbTooLong = 0;
+        for (int destination = 1; destination < NB_NODES; ++destination) {
+            ShortestPathData data = new ShortestPathData(graph, graph.get(0),
+                    graph.get(destination), length);
+            ShortestPathSolution solution = new CompactDijkstraAlgorithm(data).run();
+            cache.put(solution);
+            assertTrue(cache.getNodeCount() <= cache.getCapacity());
+            if (solution.isFeasible() && solution.getPath().size() > cache.getCapacity()) {
+                nbTooLong++;
+                assertNull(cache.get(data));
+            }
+            else {
+                assertNotNull(cache.get(data));
+            }
+        }
+        assertEquals(NB_NODES - 1 - nbTooLong, cache.size() + cache.getEvictionCount());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getNodeCount());
+    }
+
+    @Test
+    public void testSegments() throws Exception {
+        assertEquals(1, new ShortestPathCache(1000).getNumberOfSegments());
+        ShortestPathCache cache = new ShortestPathCache();
+        assertEquals(16, cache.getNumberOfSegments());
+
+        // Concurrent queries on the same cache.
+        final int nbThreads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(nbThreads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < nbThreads; ++thread) {
+                futures.add(executor.submit(() -> {
+                    for (int origin = 0; origin < NB_NODES; origin += 11) {
+                        for (int destination = 0; destination < NB_NODES; destination += 29) {
+                            ShortestPathData data = new ShortestPathData(graph,
+                                    graph.get(origin), graph.get(destination), length);
+                            new CachedShortestPathAlgorithm(new CompactDijkstraAlgorithm(data),
+                                    cache).run();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future: futures) {
+                future.get();
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+        final int nbQueries = ((NB_NODES + 10) / 11) * ((NB_NODES + 28) / 29);
+        assertEquals(nbThreads * nbQueries, cache.getHitCount() + cache.getMissCount());
+        assertEquals(nbQueries, cache.size());
+        assertEquals(0, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testKeys() {
+        ShortestPathCache cache = new ShortestPathCache();
+        ShortestPathData data = new ShortestPathData(graph, graph.get(1), graph.get(2), length);
+        cache.put(new CompactDijkstraAlgorithm(data).run());
+
+        // Same query from another list of inspectors.
+        assertNotNull(cache.get(new ShortestPathData(graph, graph.get(1), graph.get(2),
+                ArcInspectorFactory.getAllFilters().get(0))));
+
+        // Other inspector, other nodes, or other graph with the same map ID.
+        assertNull(cache.get(new ShortestPathData(graph, graph.get(1), graph.get(2), time)));
+        assertNull(cache.get(new ShortestPathData(graph, graph.get(2), graph.get(1), length)));
+        Graph other = RandomGraphs.create(NB_NODES, 19);
+        assertEquals(graph.getMapId(), other.getMapId());
+        assertNull(cache.get(new ShortestPathData(other, other.get(1), other.get(2), length)));
+    }
+
+    @Test
+    public void testInspectorWithoutMetricKey() {
+        // Same string representation as the length inspector, but other costs.
+        ArcInspector doubleLength = new ArcInspector() {
+            @Override
+            public boolean isAllowed(Arc arc) {
+                return length.isAllowed(arc);
+            }
+
+            @Override
+            public double getCost(Arc arc) {
+                return 2 * length.getCost(arc);
+            }
+
+            @Override
+            public int getMaximumSpeed() {
+                return length.getMaximumSpeed();
+            }
+
+            @Override
+            public Mode getMode() {
+                return length.getMode();
+            }
+
+            @Override
+            public String toString() {
+                return length.toString();
+            }
+        };
+        assertNotSame(CompactMetric.getMetric(graph, length),
+                CompactMetric.getMetric(graph, doubleLength));
+        assertSame(CompactMetric.getMetric(graph, doubleLength),
+                CompactMetric.getMetric(graph, doubleLength));
+
+        ShortestPathCache cache = new ShortestPathCache();
+        ShortestPathData data = new ShortestPathData(graph, graph.get(1), graph.get(2), length);
+        cache.put(new CompactDijkstraAlgorithm(data).run());
+        assertNull(cache.get(
+                new ShortestPathData(graph, graph.get(1), graph.get(2), doubleLength)));
+    }
+
+    @Test
+    public void testAlgorithmFactory() throws Exception {
+        ShortestPathCache cache = new ShortestPathCache();
+        AlgorithmFactory.setShortestPathCache(cache);
+        try {
+            ShortestPathData data = new ShortestPathData(graph, graph.get(3), graph.get(4), time);
+            for (int i = 0; i < 3; ++i) {
+                ShortestPathAlgorithm algorithm = (ShortestPathAlgorithm) AlgorithmFactory
+                        .createAlgorithm(AlgorithmFactory.getAlgorithmClass(
+                                ShortestPathAlgorithm.class, "Dijkstra"), data);
+                assertTrue(algorithm instanceof CachedShortestPathAlgorithm);
+                algorithm.run();
+            }
+            assertEquals(1, cache.getMissCount());
+            assertEquals(2, cache.getHitCount());
+        }
+        finally {
+            AlgorithmFactory.setShortestPathCache(null);
+        }
+        assertFalse(AlgorithmFactory.createAlgorithm(DijkstraAlgorithm.class, new ShortestPathData(
+                graph, graph.get(3), graph.get(4), time)) instanceof CachedShortestPathAlgorithm);
+    }
+
+}
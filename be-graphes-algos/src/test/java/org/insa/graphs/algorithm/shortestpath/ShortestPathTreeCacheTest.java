@@ -0,0 +1,83 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.Random;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.algorithm.ReferenceCosts;
+import org.insa.graphs.model.Graph;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ShortestPathTreeCacheTest {
+
+    // Number of nodes in the graph.
+    private static final int NB_NODES = 200;
+
+    // Small random graph, and inspectors for length and time.
+    private static Graph graph;
+    private static ArcInspector length, time;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = RandomGraphs.create(NB_NODES, 20);
+        List<ArcInspector> inspectors = ArcInspectorFactory.getAllFilters();
+        length = inspectors.get(0);
+        time = inspectors.get(2);
+    }
+
+    /**
+     * Check that the given query gives the same cost with the given cache as
+     * without cache.
+     */
+    private static void check(int origin, int destination, ArcInspector inspector,
+            ShortestPathTreeCache cache) {
+        ShortestPathData data = new ShortestPathData(graph, graph.get(origin),
+                graph.get(destination), inspector);
+        double[] costs = ReferenceCosts.compute(graph, graph.get(origin), inspector);
+        ReferenceCosts.checkSolution(new DijkstraAlgorithm(data, cache).run(),
+                costs[destination]);
+    }
+
+    @Test
+    public void testResume() {
+        ShortestPathTreeCache cache = new ShortestPathTreeCache(6);
+        Random random = new Random(0);
+        int nbQueries = 0;
+        for (ArcInspector inspector: new ArcInspector[] { length, time }) {
+            for (int i = 0; i < 300; ++i) {
+                check(random.nextInt(3), random.nextInt(NB_NODES), inspector, cache);
+                nbQueries++;
+            }
+        }
+
+        // One tree per origin and inspector.
+        assertEquals(6, cache.size());
+        assertEquals(6, cache.getMissCount());
+        assertEquals(nbQueries - 6, cache.getHitCount());
+        assertEquals(0, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testEviction() {
+        ShortestPathTreeCache cache = new ShortestPathTreeCache(2);
+        for (int origin = 0; origin < 10; ++origin) {
+            for (int destination = 0; destination < NB_NODES; destination += 11) {
+                check(origin % 5, destination, time, cache);
+            }
+        }
+        assertEquals(2, cache.size());
+        assertEquals(8, cache.getEvictionCount());
+        assertEquals(10, cache.getMissCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCapacity() {
+        new ShortestPathTreeCache(0);
+    }
+
+}
@@ -0,0 +1,159 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.algorithm.ReferenceCosts;
+import org.insa.graphs.algorithm.utils.RadixHeap;
+import org.insa.graphs.model.Graph;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ShortestPathWorkspaceTest {
+
+    // Number of nodes in the graph.
+    private static final int NB_NODES = 300;
+
+    // Random graph, and inspectors for length and time.
+    private static Graph graph;
+    private static ArcInspector length, time;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = RandomGraphs.create(NB_NODES, 3);
+        List<ArcInspector> inspectors = ArcInspectorFactory.getAllFilters();
+        length = inspectors.get(0);
+        time = inspectors.get(2);
+    }
+
+    /**
+     * @return An algorithm for the given data, chosen by the given index among the
+     *         algorithms that accept a workspace.
+     */
+    private static ShortestPathAlgorithm createAlgorithm(int index, ShortestPathData data,
+            ShortestPathWorkspace workspace) {
+        switch (index % 4) {
+        case 0:
+            return new PrimitiveDijkstraAlgorithm(data, workspace);
+        case 1:
+            return new CompactDijkstraAlgorithm(data, workspace);
+        case 2:
+            return new RadixHeapDijkstraAlgorithm(data, workspace);
+        default:
+            return new ALTAlgorithm(data, null, workspace);
+        }
+    }
+
+    /**
+     * Run the given query on the shared workspace and check that it gives the same
+     * result as a search with a fresh workspace, and that no entry of a previous
+     * search leaks into the workspace.
+     */
+    private static void check(int index, int origin, int destination, ArcInspector inspector,
+            ShortestPathWorkspace workspace) {
+        ShortestPathData data = new ShortestPathData(graph, graph.get(origin),
+                graph.get(destination), inspector);
+        ShortestPathSolution expected = new PrimitiveDijkstraAlgorithm(data).run();
+        ShortestPathAlgorithm algorithm = createAlgorithm(index, data, workspace);
+        ShortestPathSolution solution = algorithm.run();
+        assertEquals(expected.isFeasible(), solution.isFeasible());
+        if (solution.isFeasible()) {
+            assertEquals(ReferenceCosts.getCost(expected.getPath(), inspector),
+                    ReferenceCosts.getCost(solution.getPath(), inspector), 1e-6);
+        }
+
+        // Nodes that cannot be reached from the origin are not reached, and nodes
+        // marked by this search have their final cost (except for the radix heap,
+        // which stores scaled integer costs in the workspace).
+        double[] costs = ReferenceCosts.compute(graph, graph.get(origin), inspector);
+        for (int node = 0; node < NB_NODES; ++node) {
+            if (Double.isInfinite(costs[node])) {
+                assertFalse(workspace.isReached(node));
+                assertFalse(workspace.isMarked(node));
+            }
+            else if (workspace.isMarked(node)
+                    && !(algorithm instanceof RadixHeapDijkstraAlgorithm)) {
+                assertEquals(costs[node], workspace.getCost(node), 1e-6 * costs[node]);
+            }
+        }
+    }
+
+    @Test
+    public void testSuccessiveQueries() {
+        ShortestPathWorkspace workspace = new ShortestPathWorkspace(graph);
+        Random random = new Random(3);
+        for (int i = 0; i < 80; ++i) {
+            check(i, random.nextInt(NB_NODES), random.nextInt(NB_NODES),
+                    i % 3 == 0 ? length : time, workspace);
+        }
+    }
+
+    @Test
+    public void testGenerationOverflow() {
+        ShortestPathWorkspace workspace = new ShortestPathWorkspace(graph);
+        Random random = new Random(4);
+
+        // A few searches at the start, then jump close to the last generation so
+        // that the stamps overflow in the middle of the queries.
+        for (int i = 0; i < 4; ++i) {
+            check(i, random.nextInt(NB_NODES), random.nextInt(NB_NODES), time, workspace);
+        }
+        workspace.setGeneration(Integer.MAX_VALUE - 3);
+        for (int i = 0; i < 12; ++i) {
+            check(i, random.nextInt(NB_NODES), random.nextInt(NB_NODES),
+                    i % 2 == 0 ? length : time, workspace);
+        }
+    }
+
+    @Test
+    public void testRadixHeap() {
+        // The radix heap is part of the workspace, and is reused by the queries.
+        ShortestPathWorkspace workspace = new ShortestPathWorkspace(graph);
+        RadixHeap heap = workspace.getRadixHeap();
+        for (int i = 0; i < 3; ++i) {
+            check(2, i, NB_NODES - 1 - i, time, workspace);
+            assertSame(heap, workspace.getRadixHeap());
+        }
+        workspace.reset();
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void testPool() {
+        // Own graph, so that the workspaces released by the other tests are not in
+        // its pool.
+        Graph other = RandomGraphs.create(NB_NODES, 5);
+        ShortestPathWorkspace workspace = ShortestPathWorkspace.acquire(other);
+        assertSame(other, workspace.getGraph());
+        assertEquals(NB_NODES, workspace.size());
+        assertNotSame(workspace, ShortestPathWorkspace.acquire(other));
+        ShortestPathWorkspace.release(workspace);
+        assertSame(workspace, ShortestPathWorkspace.acquire(other));
+
+        // Workspaces with more entries are pooled separately.
+        ShortestPathWorkspace.release(workspace);
+        ShortestPathWorkspace larger = ShortestPathWorkspace.acquire(other, NB_NODES + 10);
+        assertEquals(NB_NODES + 10, larger.size());
+        ShortestPathWorkspace.release(larger);
+        assertSame(workspace, ShortestPathWorkspace.acquire(other));
+        assertSame(larger, ShortestPathWorkspace.acquire(other, NB_NODES + 10));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOtherGraph() {
+        Graph other = RandomGraphs.create(NB_NODES, 3);
+        new PrimitiveDijkstraAlgorithm(
+                new ShortestPathData(other, other.get(0), other.get(1), length),
+                new ShortestPathWorkspace(graph));
+    }
+
+}
@@ -0,0 +1,15 @@
+package org.insa.graphs.algorithm.utils;
+
+public class DAryHeapTest extends IndexedPriorityQueueTest {
+
+    @Override
+    public PriorityQueue<MutableInteger> createQueue() {
+        return new DAryHeap<>(4, 0, this::indexOf);
+    }
+
+    @Override
+    public PriorityQueue<MutableInteger> createQueue(PriorityQueue<MutableInteger> queue) {
+        return new DAryHeap<>((DAryHeap<MutableInteger>) queue);
+    }
+
+}
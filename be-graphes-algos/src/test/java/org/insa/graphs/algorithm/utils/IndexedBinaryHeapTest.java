@@ -0,0 +1,15 @@
+package org.insa.graphs.algorithm.utils;
+
+public class IndexedBinaryHeapTest extends IndexedPriorityQueueTest {
+
+    @Override
+    public PriorityQueue<MutableInteger> createQueue() {
+        return new IndexedBinaryHeap<>(0, this::indexOf);
+    }
+
+    @Override
+    public PriorityQueue<MutableInteger> createQueue(PriorityQueue<MutableInteger> queue) {
+        return new IndexedBinaryHeap<>((IndexedBinaryHeap<MutableInteger>) queue);
+    }
+
+}
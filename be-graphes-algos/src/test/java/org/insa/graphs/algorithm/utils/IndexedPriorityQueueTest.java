@@ -0,0 +1,96 @@
+package org.insa.graphs.algorithm.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+public abstract class IndexedPriorityQueueTest extends PriorityQueueTest {
+
+    // Index of each element, assigned on first use.
+    private final Map<MutableInteger, Integer> indices = new IdentityHashMap<>();
+
+    /**
+     * Index function to use when creating queues in child classes.
+     * 
+     * @param x Element for which the index should be retrieved.
+     * 
+     * @return Index of the given element.
+     */
+    protected int indexOf(MutableInteger x) {
+        return indices.computeIfAbsent(x, k -> indices.size());
+    }
+
+    /**
+     * @return A new instance of an IndexedPriorityQueue implementation.
+     */
+    public IndexedPriorityQueue<MutableInteger> createIndexedQueue() {
+        return (IndexedPriorityQueue<MutableInteger>) createQueue();
+    }
+
+    @Test
+    public void testContains() {
+        IndexedPriorityQueue<MutableInteger> queue = createIndexedQueue();
+        for (MutableInteger x: parameters.data) {
+            assertFalse(queue.contains(x));
+            queue.insert(x);
+            assertTrue(queue.contains(x));
+        }
+        assertFalse(queue.contains(new MutableInteger(0)));
+        while (!queue.isEmpty()) {
+            assertFalse(queue.contains(queue.deleteMin()));
+        }
+    }
+
+    @Test
+    public void testDecreaseKey() {
+        Assume.assumeTrue(parameters.data.length > 0);
+        IndexedPriorityQueue<MutableInteger> queue = createIndexedQueue();
+        for (MutableInteger x: parameters.data) {
+            queue.insert(x);
+        }
+        int min = Collections.min(Arrays.asList(parameters.data)).get();
+        for (int i = parameters.data.length - 1; i >= 0; --i) {
+            MutableInteger x = parameters.data[i];
+            x.set(--min);
+            queue.decreaseKey(x);
+            assertEquals(min, queue.findMin().get());
+            assertEquals(parameters.data.length, queue.size());
+        }
+        for (int i = 0; i < parameters.data.length; ++i) {
+            assertEquals(parameters.data[i], queue.deleteMin());
+        }
+    }
+
+    @Test
+    public void testInsertOrUpdate() {
+        Assume.assumeTrue(parameters.data.length > 0);
+        IndexedPriorityQueue<MutableInteger> queue = createIndexedQueue();
+        for (MutableInteger x: parameters.data) {
+            queue.insertOrUpdate(x);
+        }
+        assertEquals(parameters.data.length, queue.size());
+
+        // Increase every other key, decrease the others.
+        for (int i = 0; i < parameters.data.length; ++i) {
+            MutableInteger x = parameters.data[i];
+            x.set(i % 2 == 0 ? x.get() + 100 : x.get() - 100);
+            queue.insertOrUpdate(x);
+        }
+        assertEquals(parameters.data.length, queue.size());
+
+        MutableInteger[] sorted = Arrays.copyOf(parameters.data, parameters.data.length);
+        Arrays.sort(sorted);
+        for (MutableInteger x: sorted) {
+            assertEquals(x.get(), queue.deleteMin().get());
+        }
+    }
+
+}
@@ -0,0 +1,15 @@
+package org.insa.graphs.algorithm.utils;
+
+public class PairingHeapTest extends IndexedPriorityQueueTest {
+
+    @Override
+    public PriorityQueue<MutableInteger> createQueue() {
+        return new PairingHeap<>(0, this::indexOf);
+    }
+
+    @Override
+    public PriorityQueue<MutableInteger> createQueue(PriorityQueue<MutableInteger> queue) {
+        return new PairingHeap<>((PairingHeap<MutableInteger>) queue);
+    }
+
+}
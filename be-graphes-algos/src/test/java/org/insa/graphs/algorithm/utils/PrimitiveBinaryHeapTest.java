@@ -0,0 +1,100 @@
+package org.insa.graphs.algorithm.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class PrimitiveBinaryHeapTest {
+
+    // Keys of the elements inserted in the heap, by element.
+    private double[] keys;
+
+    private PrimitiveBinaryHeap heap;
+
+    @Before
+    public void init() {
+        Random random = new Random(42);
+        keys = new double[200];
+        heap = new PrimitiveBinaryHeap(keys.length);
+        for (int i = 0; i < keys.length; ++i) {
+            keys[i] = random.nextInt(50);
+            heap.insert(i, keys[i]);
+        }
+    }
+
+    @Test
+    public void testDeleteMin() {
+        double[] sorted = Arrays.copyOf(keys, keys.length);
+        Arrays.sort(sorted);
+        for (double key: sorted) {
+            assertEquals(key, heap.findMinKey(), 0);
+            assertEquals(key, keys[heap.deleteMin()], 0);
+        }
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void testDecreaseKey() {
+        for (int i = 0; i < keys.length; i += 3) {
+            keys[i] -= 100 + i;
+            heap.decreaseKey(i, keys[i]);
+            assertEquals(keys[i], heap.getKey(i), 0);
+        }
+        testDeleteMin();
+    }
+
+    @Test
+    public void testInsertOrUpdate() {
+        for (int i = 0; i < keys.length; i += 2) {
+            keys[i] = (i % 4 == 0) ? keys[i] + 60 : keys[i] - 60;
+            heap.insertOrUpdate(i, keys[i]);
+        }
+        testDeleteMin();
+    }
+
+    @Test
+    public void testRemove() {
+        for (int i = 0; i < keys.length; i += 2) {
+            heap.remove(i);
+            assertFalse(heap.contains(i));
+        }
+        assertEquals(keys.length / 2, heap.size());
+        double previous = Double.NEGATIVE_INFINITY;
+        while (!heap.isEmpty()) {
+            int x = heap.deleteMin();
+            assertEquals(1, x % 2);
+            assertTrue(previous <= keys[x]);
+            previous = keys[x];
+        }
+    }
+
+    @Test
+    public void testClear() {
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        for (int i = 0; i < keys.length; ++i) {
+            assertFalse(heap.contains(i));
+        }
+        heap.insert(5, 1.0);
+        assertEquals(5, heap.deleteMin());
+    }
+
+    @Test(expected = ElementNotFoundException.class)
+    public void testRemoveTwice() {
+        heap.remove(3);
+        heap.remove(3);
+    }
+
+    @Test(expected = EmptyPriorityQueueException.class)
+    public void testEmptyDeleteMin() {
+        heap.clear();
+        heap.deleteMin();
+    }
+
+}
@@ -0,0 +1,112 @@
+package org.insa.graphs.algorithm.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class RadixHeapTest {
+
+    @Test
+    public void testEmpty() {
+        RadixHeap heap = new RadixHeap(10);
+        assertTrue(heap.isEmpty());
+        assertEquals(0, heap.size());
+        assertFalse(heap.contains(3));
+    }
+
+    @Test(expected = EmptyPriorityQueueException.class)
+    public void testDeleteMinEmpty() {
+        new RadixHeap(10).deleteMin();
+    }
+
+    @Test
+    public void testInsertDeleteMin() {
+        RadixHeap heap = new RadixHeap(10);
+        long[] keys = { 42, 7, 1000000, 7, 0, 123456789012L, 65, 64, 63, 1 };
+        for (int i = 0; i < keys.length; ++i) {
+            heap.insert(i, keys[i]);
+        }
+        assertEquals(keys.length, heap.size());
+        long previous = -1;
+        while (!heap.isEmpty()) {
+            long key = heap.findMinKey();
+            int x = heap.deleteMin();
+            assertEquals(keys[x], key);
+            assertTrue(key >= previous);
+            assertFalse(heap.contains(x));
+            previous = key;
+        }
+    }
+
+    @Test
+    public void testDecreaseKey() {
+        RadixHeap heap = new RadixHeap(4);
+        heap.insert(0, 10);
+        heap.insert(1, 20);
+        heap.insert(2, 30);
+        assertEquals(0, heap.deleteMin());
+        heap.decreaseKey(2, 15);
+        heap.insertOrDecrease(3, 12);
+        heap.insertOrDecrease(1, 11);
+        assertEquals(11, heap.getKey(1));
+        assertEquals(1, heap.deleteMin());
+        assertEquals(3, heap.deleteMin());
+        assertEquals(2, heap.deleteMin());
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonMonotoneInsert() {
+        RadixHeap heap = new RadixHeap(4);
+        heap.insert(0, 10);
+        heap.insert(1, 20);
+        heap.deleteMin();
+        heap.insert(2, 5);
+    }
+
+    @Test
+    public void testClear() {
+        RadixHeap heap = new RadixHeap(4);
+        heap.insert(0, 10);
+        heap.insert(1, 20);
+        heap.deleteMin();
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        assertFalse(heap.contains(1));
+        heap.insert(1, 0);
+        assertEquals(1, heap.deleteMin());
+    }
+
+    @Test
+    public void testMonotoneRandom() {
+        final int n = 1000;
+        Random random = new Random(42);
+        RadixHeap heap = new RadixHeap(n);
+        long[] keys = new long[n];
+        boolean[] removed = new boolean[n];
+        long last = 0;
+        for (int i = 0; i < n; ++i) {
+            keys[i] = random.nextInt(1 << 20);
+            heap.insert(i, keys[i]);
+        }
+        while (!heap.isEmpty()) {
+            int x = heap.deleteMin();
+            assertTrue(keys[x] >= last);
+            last = keys[x];
+            removed[x] = true;
+            // Decrease a few keys, never below the last removed key.
+            for (int k = 0; k < 3; ++k) {
+                int y = random.nextInt(n);
+                if (!removed[y] && keys[y] > last) {
+                    keys[y] = last + random.nextInt((int) (keys[y] - last));
+                    heap.decreaseKey(y, keys[y]);
+                }
+            }
+        }
+    }
+
+}
@@ -19,15 +19,18 @@ import org.insa.graphs.gui.drawing.GraphPalette;
 import org.insa.graphs.gui.drawing.overlays.MarkerAutoScaling;
 import org.insa.graphs.gui.drawing.overlays.MarkerOverlay;
 import org.insa.graphs.gui.drawing.overlays.MarkerUtils;
+import org.insa.graphs.gui.drawing.overlays.PaintUtils;
 import org.insa.graphs.gui.drawing.overlays.Overlay;
 import org.insa.graphs.gui.drawing.overlays.PathOverlay;
 import org.insa.graphs.gui.drawing.overlays.PointSetOverlay;
+import org.insa.graphs.gui.drawing.overlays.PolygonOverlay;
 import org.insa.graphs.gui.drawing.overlays.PolylineAutoScaling;
 import org.insa.graphs.model.Arc;
 import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.Path;
 import org.insa.graphs.model.Point;
 import org.mapsforge.core.graphics.GraphicFactory;
+import org.mapsforge.core.graphics.Style;
 import org.mapsforge.core.model.BoundingBox;
 import org.mapsforge.core.model.LatLong;
 import org.mapsforge.core.model.MapPosition;
@@ -188,6 +191,36 @@ public class MapViewDrawing extends MapView implements Drawing {
 
     }
 
+    /**
+     * PolygonOverlay for MapViewDrawing.
+     *
+     */
+    private class MapViewPolygonOverlay extends MapViewOverlay implements PolygonOverlay {
+
+        public MapViewPolygonOverlay(List<Point> points, Color color) {
+            super(new Layer[] { new Polygon(GRAPHIC_FACTORY.createPaint(),
+                    GRAPHIC_FACTORY.createPaint(), GRAPHIC_FACTORY) }, color);
+            Polygon polygon = (Polygon) this.layers[0];
+            polygon.getPaintFill().setStyle(Style.FILL);
+            polygon.getPaintStroke().setStyle(Style.STROKE);
+            polygon.getPaintStroke().setStrokeWidth(2);
+            polygon.setPoints(points.stream().map(MapViewDrawing.this::convertPoint)
+                    .collect(Collectors.toList()));
+            setColor(color);
+        }
+
+        @Override
+        public void setColor(Color color) {
+            super.setColor(color);
+            Polygon polygon = (Polygon) this.layers[0];
+            polygon.getPaintFill().setColor(GRAPHIC_FACTORY.createColor(64, color.getRed(),
+                    color.getGreen(), color.getBlue()));
+            polygon.getPaintStroke().setColor(PaintUtils.convertColor(color));
+            polygon.requestRedraw();
+        }
+
+    }
+
     /**
      * PointSetOverlay for MapViewDrawing - Not currently implemented.
      *
@@ -518,4 +551,9 @@ public class MapViewDrawing extends MapView implements Drawing {
         return drawPath(path, DEFAULT_PATH_COLOR, markers);
     }
 
+    @Override
+    public PolygonOverlay drawPolygon(List<Point> points, Color color) {
+        return new MapViewPolygonOverlay(points, color);
+    }
+
 }
@@ -0,0 +1,46 @@
+package org.insa.graphs.gui.observers;
+
+import java.awt.Color;
+
+import org.insa.graphs.algorithm.isochrone.Isochrone;
+import org.insa.graphs.algorithm.isochrone.IsochroneObserver;
+import org.insa.graphs.gui.drawing.Drawing;
+import org.insa.graphs.gui.drawing.overlays.PointSetOverlay;
+import org.insa.graphs.model.Node;
+
+public class IsochroneGraphicObserver implements IsochroneObserver {
+
+    // Colors of the polygons, by increasing budget (cycling).
+    private static final Color[] COLORS = { new Color(0, 153, 0), new Color(255, 153, 0),
+            new Color(204, 0, 0), new Color(102, 0, 153) };
+
+    // Drawing and Graph drawing
+    protected Drawing drawing;
+    protected PointSetOverlay psOverlay;
+
+    // Number of polygons drawn.
+    private int nbPolygons = 0;
+
+    public IsochroneGraphicObserver(Drawing drawing) {
+        this.drawing = drawing;
+        psOverlay = drawing.createPointSetOverlay(1, Color.CYAN);
+    }
+
+    @Override
+    public void notifyOriginProcessed(Node node) {
+    }
+
+    @Override
+    public void notifyNodeMarked(Node node, double cost) {
+        psOverlay.addPoint(node.getPoint());
+    }
+
+    @Override
+    public void notifyIsochroneComputed(Isochrone isochrone) {
+        if (isochrone.getPolygon().size() >= 3) {
+            drawing.drawPolygon(isochrone.getPolygon(), COLORS[nbPolygons % COLORS.length]);
+        }
+        nbPolygons++;
+    }
+
+}
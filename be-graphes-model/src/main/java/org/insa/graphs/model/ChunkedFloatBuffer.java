@@ -0,0 +1,108 @@
+package org.insa.graphs.model;
+
+import java.nio.FloatBuffer;
+
+/**
+ * <p>
+ * Read-only array of floats held in one or more {@link FloatBuffer} chunks, so
+ * that an array can be larger than a single buffer, e.g., a section of a
+ * memory-mapped file larger than 2 GB (see
+ * {@link java.nio.channels.FileChannel#map}).
+ * </p>
+ *
+ * <p>
+ * Every chunk but the last holds exactly {@link #CHUNK_SIZE} values, so the
+ * chunk of an index is found with a shift. All indices are absolute (the
+ * position of the chunks is ignored).
+ * </p>
+ *
+ */
+public final class ChunkedFloatBuffer {
+
+    /**
+     * Number of values in a chunk (1 GB of floats).
+     */
+    public static final int CHUNK_SIZE = 1 << 28;
+
+    // Shift and mask of the indices.
+    private static final int CHUNK_SHIFT = 28;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /**
+     * Create a new buffer wrapping the given array (not copied).
+     *
+     * @param array Array to wrap.
+     *
+     * @return A new buffer backed by the array.
+     */
+    public static ChunkedFloatBuffer wrap(float[] array) {
+        final FloatBuffer[] chunks = new FloatBuffer[Math.max(1,
+                (int) ((array.length + (long) CHUNK_MASK) >>> CHUNK_SHIFT))];
+        for (int i = 0; i < chunks.length; ++i) {
+            final int offset = i << CHUNK_SHIFT;
+            chunks[i] = FloatBuffer
+                    .wrap(array, offset, Math.min(CHUNK_SIZE, array.length - offset)).slice();
+        }
+        return new ChunkedFloatBuffer(chunks);
+    }
+
+    // Chunks of the array, and number of values.
+    private final FloatBuffer[] chunks;
+    private final int limit;
+
+    /**
+     * Create a new buffer from the given chunks. The chunks are used as-is (not
+     * copied) and must not be modified afterwards.
+     *
+     * @param chunks Chunks of the array.
+     *
+     * @throws IllegalArgumentException if there is no chunk, if a chunk other
+     *         than the last one does not hold exactly {@link #CHUNK_SIZE} values,
+     *         or if the last one holds more.
+     */
+    public ChunkedFloatBuffer(FloatBuffer... chunks) {
+        if (chunks.length == 0 || chunks.length > (Integer.MAX_VALUE >>> CHUNK_SHIFT) + 1) {
+            throw new IllegalArgumentException("Invalid number of chunks: " + chunks.length);
+        }
+        long limit = 0;
+        for (int i = 0; i < chunks.length; ++i) {
+            if (i < chunks.length - 1 ? chunks[i].limit() != CHUNK_SIZE
+                    : chunks[i].limit() > CHUNK_SIZE) {
+                throw new IllegalArgumentException("Invalid size for chunk " + i + ": "
+                        + chunks[i].limit());
+            }
+            limit += chunks[i].limit();
+        }
+        if (limit > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many values in chunks: " + limit);
+        }
+        this.chunks = chunks;
+        this.limit = (int) limit;
+    }
+
+    /**
+     * @param index Index of the value.
+     *
+     * @return Value at the given index.
+     *
+     * @throws IndexOutOfBoundsException if the index is not in the buffer.
+     */
+    public float get(int index) {
+        return this.chunks[index >>> CHUNK_SHIFT].get(index & CHUNK_MASK);
+    }
+
+    /**
+     * @return Number of values in this buffer.
+     */
+    public int limit() {
+        return this.limit;
+    }
+
+    /**
+     * @return Number of chunks of this buffer.
+     */
+    public int getNumberOfChunks() {
+        return this.chunks.length;
+    }
+
+}
@@ -0,0 +1,717 @@
+package org.insa.graphs.model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import org.insa.graphs.model.GraphStatistics.BoundingBox;
+
+/**
+ * <p>
+ * Compact (compressed sparse row) representation of a graph.
+ * </p>
+ *
+ * <p>
+ * The arcs leaving node {@code u} are numbered from {@code getFirstArc(u)}
+ * (inclusive) to {@code getFirstArc(u + 1)} (exclusive), and the attributes of
+ * the arcs (head, length, road information) are stored in flat arrays indexed by
+ * arc. Road information objects are shared between arcs and stored only once.
+ * Iterating over the successors of a node hence amounts to a sequential scan of
+ * a few arrays, without any per-arc object.
+ * </p>
+ *
+ * <p>
+ * A compact graph built using {@link #fromGraph(Graph)} keeps the arcs of each
+ * node in the same order as {@link Node#getSuccessors()}, so that arc
+ * {@code a} of node {@code u} corresponds to
+ * {@code graph.get(u).getSuccessors().get(a - getFirstArc(u))}, see
+ * {@link #getArc(int)}.
+ * </p>
+ *
+ * <p>
+ * The arrays are held in {@link ChunkedIntBuffer} / {@link ChunkedFloatBuffer},
+ * which either wrap heap arrays (e.g., for {@link #fromGraph(Graph)}) or are
+ * views of a memory-mapped file (see {@link org.insa.graphs.model.io.MappedGraphReader}),
+ * in which case the graph is queried directly off-heap and has no original
+ * {@link Graph} ({@link #getGraph()} returns null, see {@link #toGraph()}).
+ * </p>
+ *
+ */
+public final class CompactGraph {
+
+    // Map identifier and name.
+    private final String mapId, mapName;
+
+    // Original graph of this compact graph (may be null).
+    private final Graph graph;
+
+    // First arc of each node (size is the number of nodes + 1).
+    private final ChunkedIntBuffer firstArc;
+
+    // Head, length and index of the road information of each arc.
+    private final ChunkedIntBuffer arcHead;
+    private final ChunkedFloatBuffer arcLength;
+    private final ChunkedIntBuffer arcInfoIndex;
+
+    // Distinct road information of the graph.
+    private final RoadInformation[] roadInformations;
+
+    // Longitude and latitude of each node.
+    private final ChunkedFloatBuffer nodeLongitudes, nodeLatitudes;
+
+    // Geometry: first point of each arc (size is the number of arcs + 1), and
+    // longitude / latitude of the points (may be null if there is an original
+    // graph).
+    private final ChunkedIntBuffer arcFirstPoint;
+    private final ChunkedFloatBuffer pointLongitudes, pointLatitudes;
+
+    // For reverse graphs: the forward graph and the forward arc of each arc.
+    private final CompactGraph forward;
+    private final int[] originalArcs;
+
+    // Reverse graph of this graph (lazily created).
+    private CompactGraph reverse;
+
+    /**
+     * Create a new compact graph from the given buffers. The buffers are used
+     * as-is (not copied) and must not be modified afterwards. All indices are
+     * absolute (the position of the buffers is ignored).
+     *
+     * @param mapId ID of the map corresponding to this graph.
+     * @param mapName Name of the map corresponding to this graph.
+     * @param graph Original graph, or null if there is none.
+     * @param firstArc First arc of each node, followed by the number of arcs.
+     * @param arcHead Head of each arc.
+     * @param arcLength Length of each arc, in meters.
+     * @param arcInfoIndex Index of the road information of each arc.
+     * @param roadInformations Distinct road information of the graph.
+     * @param nodeLongitudes Longitude of each node.
+     * @param nodeLatitudes Latitude of each node.
+     * @param arcFirstPoint First point of each arc, followed by the number of
+     *        points, or null if there is no geometry.
+     * @param pointLongitudes Longitude of each point, or null.
+     * @param pointLatitudes Latitude of each point, or null.
+     *
+     * @throws IllegalArgumentException if the buffers are not consistent, or if
+     *         there is neither an original graph nor geometry.
+     */
+    public CompactGraph(String mapId, String mapName, Graph graph, ChunkedIntBuffer firstArc,
+            ChunkedIntBuffer arcHead, ChunkedFloatBuffer arcLength,
+            ChunkedIntBuffer arcInfoIndex, RoadInformation[] roadInformations,
+            ChunkedFloatBuffer nodeLongitudes, ChunkedFloatBuffer nodeLatitudes,
+            ChunkedIntBuffer arcFirstPoint, ChunkedFloatBuffer pointLongitudes,
+            ChunkedFloatBuffer pointLatitudes) {
+        this(mapId, mapName, graph, firstArc, arcHead, arcLength, arcInfoIndex, roadInformations,
+                nodeLongitudes, nodeLatitudes, arcFirstPoint, pointLongitudes, pointLatitudes,
+                null, null);
+        final int nbNodes = nodeLongitudes.limit();
+        final int nbArcs = arcHead.limit();
+        if (firstArc.limit() != nbNodes + 1 || nodeLatitudes.limit() != nbNodes
+                || arcLength.limit() != nbArcs || arcInfoIndex.limit() != nbArcs
+                || firstArc.get(nbNodes) != nbArcs) {
+            throw new IllegalArgumentException("Inconsistent sizes for compact graph arrays.");
+        }
+        if (graph == null && arcFirstPoint == null) {
+            throw new IllegalArgumentException("A compact graph needs an original graph or geometry.");
+        }
+        if (arcFirstPoint != null && (arcFirstPoint.limit() != nbArcs + 1
+                || pointLongitudes.limit() != arcFirstPoint.get(nbArcs)
+                || pointLatitudes.limit() != arcFirstPoint.get(nbArcs))) {
+            throw new IllegalArgumentException("Inconsistent sizes for compact graph geometry.");
+        }
+    }
+
+    private CompactGraph(String mapId, String mapName, Graph graph, ChunkedIntBuffer firstArc,
+            ChunkedIntBuffer arcHead, ChunkedFloatBuffer arcLength,
+            ChunkedIntBuffer arcInfoIndex, RoadInformation[] roadInformations,
+            ChunkedFloatBuffer nodeLongitudes, ChunkedFloatBuffer nodeLatitudes,
+            ChunkedIntBuffer arcFirstPoint, ChunkedFloatBuffer pointLongitudes,
+            ChunkedFloatBuffer pointLatitudes, CompactGraph forward, int[] originalArcs) {
+        this.mapId = mapId;
+        this.mapName = mapName;
+        this.graph = graph;
+        this.firstArc = firstArc;
+        this.arcHead = arcHead;
+        this.arcLength = arcLength;
+        this.arcInfoIndex = arcInfoIndex;
+        this.roadInformations = roadInformations;
+        this.nodeLongitudes = nodeLongitudes;
+        this.nodeLatitudes = nodeLatitudes;
+        this.arcFirstPoint = arcFirstPoint;
+        this.pointLongitudes = pointLongitudes;
+        this.pointLatitudes = pointLatitudes;
+        this.forward = forward;
+        this.originalArcs = originalArcs;
+        this.reverse = forward;
+    }
+
+    /**
+     * Create a compact representation of the given graph. The geometry of the
+     * arcs is not copied, it is retrieved from the original graph when needed.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(n + m)</i>
+     * </p>
+     *
+     * @param graph Graph to convert.
+     *
+     * @return A new compact graph corresponding to the given graph.
+     */
+    public static CompactGraph fromGraph(Graph graph) {
+        final int nbNodes = graph.size();
+        int nbArcs = 0;
+        for (Node node: graph.getNodes()) {
+            nbArcs += node.getNumberOfSuccessors();
+        }
+
+        int[] firstArc = new int[nbNodes + 1];
+        int[] arcHead = new int[nbArcs];
+        float[] arcLength = new float[nbArcs];
+        int[] arcInfoIndex = new int[nbArcs];
+        float[] nodeLongitudes = new float[nbNodes];
+        float[] nodeLatitudes = new float[nbNodes];
+
+        // Road information are shared between arcs in the original graph.
+        IdentityHashMap<RoadInformation, Integer> infoIndices = new IdentityHashMap<>();
+
+        int arc = 0;
+        for (Node node: graph.getNodes()) {
+            final int id = node.getId();
+            firstArc[id] = arc;
+            Point point = node.getPoint();
+            nodeLongitudes[id] = point == null ? Float.NaN : point.getLongitude();
+            nodeLatitudes[id] = point == null ? Float.NaN : point.getLatitude();
+            for (Arc successor: node.getSuccessors()) {
+                arcHead[arc] = successor.getDestination().getId();
+                arcLength[arc] = successor.getLength();
+                Integer index = infoIndices.get(successor.getRoadInformation());
+                if (index == null) {
+                    index = infoIndices.size();
+                    infoIndices.put(successor.getRoadInformation(), index);
+                }
+                arcInfoIndex[arc] = index;
+                ++arc;
+            }
+        }
+        firstArc[nbNodes] = arc;
+
+        RoadInformation[] roadInformations = new RoadInformation[infoIndices.size()];
+        for (IdentityHashMap.Entry<RoadInformation, Integer> entry: infoIndices.entrySet()) {
+            roadInformations[entry.getValue()] = entry.getKey();
+        }
+
+        return new CompactGraph(graph.getMapId(), graph.getMapName(), graph,
+                ChunkedIntBuffer.wrap(firstArc), ChunkedIntBuffer.wrap(arcHead),
+                ChunkedFloatBuffer.wrap(arcLength), ChunkedIntBuffer.wrap(arcInfoIndex),
+                roadInformations, ChunkedFloatBuffer.wrap(nodeLongitudes),
+                ChunkedFloatBuffer.wrap(nodeLatitudes), null, null, null);
+    }
+
+    /**
+     * Create the reverse of this graph (counting sort of the arcs by head).
+     */
+    private CompactGraph createReverse() {
+        final int nbNodes = size();
+        final int nbArcs = getNumberOfArcs();
+
+        int[] firstArc = new int[nbNodes + 1];
+        for (int arc = 0; arc < nbArcs; ++arc) {
+            firstArc[getArcHead(arc) + 1]++;
+        }
+        for (int node = 0; node < nbNodes; ++node) {
+            firstArc[node + 1] += firstArc[node];
+        }
+
+        int[] next = Arrays.copyOf(firstArc, nbNodes);
+        int[] arcHead = new int[nbArcs];
+        float[] arcLength = new float[nbArcs];
+        int[] arcInfoIndex = new int[nbArcs];
+        int[] originalArcs = new int[nbArcs];
+        for (int tail = 0; tail < nbNodes; ++tail) {
+            final int lastArc = getFirstArc(tail + 1);
+            for (int arc = getFirstArc(tail); arc < lastArc; ++arc) {
+                int reverseArc = next[getArcHead(arc)]++;
+                arcHead[reverseArc] = tail;
+                arcLength[reverseArc] = getArcLength(arc);
+                arcInfoIndex[reverseArc] = this.arcInfoIndex.get(arc);
+                originalArcs[reverseArc] = arc;
+            }
+        }
+
+        return new CompactGraph(this.mapId, this.mapName, this.graph,
+                ChunkedIntBuffer.wrap(firstArc), ChunkedIntBuffer.wrap(arcHead),
+                ChunkedFloatBuffer.wrap(arcLength), ChunkedIntBuffer.wrap(arcInfoIndex),
+                this.roadInformations, this.nodeLongitudes, this.nodeLatitudes, null, null, null,
+                this, originalArcs);
+    }
+
+    /**
+     * @return ID of the map associated with this graph.
+     */
+    public String getMapId() {
+        return mapId;
+    }
+
+    /**
+     * @return Name of the map associated with this graph.
+     */
+    public String getMapName() {
+        return mapName;
+    }
+
+    /**
+     * @return Original graph of this compact graph, or null if this graph has no
+     *         original graph (e.g., if it has been read from a file).
+     */
+    public Graph getGraph() {
+        return graph;
+    }
+
+    /**
+     * @return Number of nodes in this graph.
+     */
+    public int size() {
+        return this.nodeLongitudes.limit();
+    }
+
+    /**
+     * @return Number of arcs in this graph.
+     */
+    public int getNumberOfArcs() {
+        return this.arcHead.limit();
+    }
+
+    /**
+     * @return Number of distinct road information in this graph.
+     */
+    public int getNumberOfRoadInformations() {
+        return this.roadInformations.length;
+    }
+
+    /**
+     * @param node ID of the node.
+     *
+     * @return Index of the first arc leaving the given node. The arcs leaving the
+     *         node are in {@code [getFirstArc(node), getFirstArc(node + 1))}, so
+     *         {@code node} can be equal to {@link #size()}.
+     */
+    public int getFirstArc(int node) {
+        return this.firstArc.get(node);
+    }
+
+    /**
+     * @param arc Index of the arc.
+     *
+     * @return ID of the head (destination) of the arc.
+     */
+    public int getArcHead(int arc) {
+        return this.arcHead.get(arc);
+    }
+
+    /**
+     * Find the tail (origin) of the given arc.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(log n)</i>
+     * </p>
+     *
+     * @param arc Index of the arc.
+     *
+     * @return ID of the tail (origin) of the arc.
+     */
+    public int getArcTail(int arc) {
+        // Last node whose first arc is not after the given arc (nodes without arcs
+        // share their first arc with the next node).
+        int low = 0, high = size() - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (this.firstArc.get(middle) <= arc) {
+                low = middle;
+            }
+            else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param arc Index of the arc.
+     *
+     * @return Length of the arc, in meters.
+     */
+    public float getArcLength(int arc) {
+        return this.arcLength.get(arc);
+    }
+
+    /**
+     * @param arc Index of the arc.
+     *
+     * @return Index of the road information of the arc.
+     *
+     * @see #getRoadInformationAt(int)
+     */
+    public int getRoadInformationIndex(int arc) {
+        return this.arcInfoIndex.get(arc);
+    }
+
+    /**
+     * @param index Index of a road information.
+     *
+     * @return Road information at the given index.
+     */
+    public RoadInformation getRoadInformationAt(int index) {
+        return this.roadInformations[index];
+    }
+
+    /**
+     * @param arc Index of the arc.
+     *
+     * @return Road information of the arc.
+     */
+    public RoadInformation getRoadInformation(int arc) {
+        return this.roadInformations[this.arcInfoIndex.get(arc)];
+    }
+
+    /**
+     * @param node ID of the node.
+     *
+     * @return Longitude of the node, in degrees, or NaN if the node has no point.
+     */
+    public float getNodeLongitude(int node) {
+        return this.nodeLongitudes.get(node);
+    }
+
+    /**
+     * @param node ID of the node.
+     *
+     * @return Latitude of the node, in degrees, or NaN if the node has no point.
+     */
+    public float getNodeLatitude(int node) {
+        return this.nodeLatitudes.get(node);
+    }
+
+    /**
+     * @param arc Index of the arc.
+     *
+     * @return Points representing segments of the arc, in the direction of the
+     *         arc (for reverse graphs, in the direction of the original arc).
+     */
+    public List<Point> getArcPoints(int arc) {
+        if (isReverse()) {
+            return this.forward.getArcPoints(this.originalArcs[arc]);
+        }
+        if (this.arcFirstPoint == null) {
+            return getArc(arc).getPoints();
+        }
+        final int first = this.arcFirstPoint.get(arc);
+        final int size = this.arcFirstPoint.get(arc + 1) - first;
+        return new AbstractList<Point>() {
+
+            @Override
+            public Point get(int index) {
+                if (index < 0 || index >= size) {
+                    throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+                }
+                return new Point(pointLongitudes.get(first + index),
+                        pointLatitudes.get(first + index));
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+        };
+    }
+
+    /**
+     * @return true if this graph is the reverse of another compact graph.
+     *
+     * @see #getReverse()
+     */
+    public boolean isReverse() {
+        return this.forward != null;
+    }
+
+    /**
+     * Retrieve the reverse of this graph, in which the arcs entering a node in
+     * this graph are the arcs leaving the node. The reverse graph is created on
+     * first call and shared by subsequent calls, and the reverse of a reverse
+     * graph is the original graph.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(n + m)</i> on first call, <i>O(1)</i> after.
+     * </p>
+     *
+     * @return The reverse of this graph.
+     */
+    public synchronized CompactGraph getReverse() {
+        if (this.reverse == null) {
+            this.reverse = createReverse();
+        }
+        return this.reverse;
+    }
+
+    /**
+     * @param arc Index of the arc.
+     *
+     * @return Index of the corresponding arc in the forward graph, i.e. the arc
+     *         itself if this graph is not a reverse graph.
+     */
+    public int getOriginalArc(int arc) {
+        return this.originalArcs == null ? arc : this.originalArcs[arc];
+    }
+
+    /**
+     * Retrieve the arc of the original graph corresponding to the given arc. For
+     * reverse graphs, the arc of the original graph is in the opposite direction
+     * (from the head of the given arc to its tail).
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(log n)</i>
+     * </p>
+     *
+     * @param arc Index of the arc.
+     *
+     * @return Arc of the original graph corresponding to the given arc.
+     *
+     * @throws IllegalStateException if this graph has no original graph.
+     */
+    public Arc getArc(int arc) throws IllegalStateException {
+        if (isReverse()) {
+            return this.forward.getArc(this.originalArcs[arc]);
+        }
+        if (this.graph == null) {
+            throw new IllegalStateException("This compact graph has no original graph.");
+        }
+        int tail = getArcTail(arc);
+        return this.graph.get(tail).getSuccessors().get(arc - getFirstArc(tail));
+    }
+
+    /**
+     * <p>
+     * Create a new {@link Graph} corresponding to this (forward) compact graph,
+     * e.g., to use a graph read from a file with algorithms working on
+     * {@link Graph}. If this compact graph has an original graph, it is returned
+     * instead.
+     * </p>
+     *
+     * <p>
+     * Two-ways roads (pairs of opposite arcs with the same road information,
+     * length and geometry) are linked together as they would be by
+     * {@link Node#linkNodes(Node, Node, float, RoadInformation, ArrayList)}, and
+     * the successors of each node are in the same order as in this graph.
+     * </p>
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(n + m)</i> (plus the size of the geometry)
+     * </p>
+     *
+     * @return A graph corresponding to this compact graph.
+     *
+     * @throws IllegalStateException if this graph is a reverse graph.
+     */
+    public Graph toGraph() throws IllegalStateException {
+        if (isReverse()) {
+            throw new IllegalStateException("Cannot convert a reverse compact graph.");
+        }
+        if (this.graph != null) {
+            return this.graph;
+        }
+
+        final int nbNodes = size();
+        final int nbArcs = getNumberOfArcs();
+
+        ArrayList<Node> nodes = new ArrayList<>(nbNodes);
+        float minLongitude = Float.POSITIVE_INFINITY, minLatitude = Float.POSITIVE_INFINITY,
+                maxLongitude = Float.NEGATIVE_INFINITY, maxLatitude = Float.NEGATIVE_INFINITY;
+        for (int node = 0; node < nbNodes; ++node) {
+            float longitude = getNodeLongitude(node), latitude = getNodeLatitude(node);
+            minLongitude = Math.min(longitude, minLongitude);
+            minLatitude = Math.min(latitude, minLatitude);
+            maxLongitude = Math.max(longitude, maxLongitude);
+            maxLatitude = Math.max(latitude, maxLatitude);
+            nodes.add(new Node(node, new Point(longitude, latitude)));
+        }
+
+        // Create forward arcs first (one-way roads, and two-ways roads from the node
+        // with the lowest ID), then backward arcs of two-ways roads.
+        Arc[] arcs = new Arc[nbArcs];
+        int nbOneWayRoad = 0, maxSpeed = 0;
+        float maxLength = 0;
+        for (int tail = 0; tail < nbNodes; ++tail) {
+            final int lastArc = getFirstArc(tail + 1);
+            for (int arc = getFirstArc(tail); arc < lastArc; ++arc) {
+                RoadInformation info = getRoadInformation(arc);
+                int head = getArcHead(arc);
+                if (info.isOneWay()) {
+                    nbOneWayRoad++;
+                }
+                maxSpeed = Math.max(maxSpeed, info.getMaximumSpeed());
+                maxLength = Math.max(maxLength, getArcLength(arc));
+                if (info.isOneWay() || tail <= head) {
+                    arcs[arc] = new ArcForward(nodes.get(tail), nodes.get(head),
+                            getArcLength(arc), info, new ArrayList<>(getArcPoints(arc)));
+                }
+            }
+        }
+        boolean[] paired = new boolean[nbArcs];
+        for (int tail = 0; tail < nbNodes; ++tail) {
+            final int lastArc = getFirstArc(tail + 1);
+            for (int arc = getFirstArc(tail); arc < lastArc; ++arc) {
+                if (arcs[arc] != null) {
+                    continue;
+                }
+                int twin = findTwinArc(arc, tail, arcs, paired);
+                if (twin == -1) {
+                    arcs[arc] = new ArcForward(nodes.get(tail), nodes.get(getArcHead(arc)),
+                            getArcLength(arc), getRoadInformation(arc),
+                            new ArrayList<>(getArcPoints(arc)));
+                }
+                else {
+                    paired[twin] = true;
+                    arcs[arc] = new ArcBackward(arcs[twin]);
+                }
+            }
+        }
+
+        for (int tail = 0; tail < nbNodes; ++tail) {
+            final int lastArc = getFirstArc(tail + 1);
+            for (int arc = getFirstArc(tail); arc < lastArc; ++arc) {
+                nodes.get(tail).addSuccessor(arcs[arc]);
+            }
+        }
+
+        return new Graph(this.mapId, this.mapName, nodes,
+                new GraphStatistics(
+                        new BoundingBox(new Point(minLongitude, maxLatitude),
+                                new Point(maxLongitude, minLatitude)),
+                        nbOneWayRoad, nbArcs - nbOneWayRoad, maxSpeed, maxLength));
+    }
+
+    /**
+     * Find the forward arc of the two-ways road corresponding to the given
+     * (backward) arc.
+     *
+     * @return Index of the forward arc, or -1 if none was found.
+     */
+    private int findTwinArc(int arc, int tail, Arc[] arcs, boolean[] paired) {
+        final int head = getArcHead(arc);
+        final int lastArc = getFirstArc(head + 1);
+        for (int twin = getFirstArc(head); twin < lastArc; ++twin) {
+            if (!paired[twin] && arcs[twin] instanceof ArcForward && getArcHead(twin) == tail
+                    && getRoadInformationIndex(twin) == getRoadInformationIndex(arc)
+                    && getArcLength(twin) == getArcLength(arc)
+                    && !getRoadInformation(twin).isOneWay()) {
+                return twin;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Create a new arc view on this graph, pointing at arc 0.
+     *
+     * @return A new arc view.
+     *
+     * @see ArcView
+     */
+    public ArcView createArcView() {
+        return new ArcView();
+    }
+
+    /**
+     * <p>
+     * Lightweight {@link Arc} pointing at one arc of a compact graph, that can be
+     * moved from arc to arc using {@link #setArc(int)}. Arc views can be passed to
+     * code expecting an {@link Arc} (e.g., to compute the cost of an arc) without
+     * materializing the arcs of the original graph.
+     * </p>
+     *
+     * <p>
+     * The length, road information and points of an arc view are read from the
+     * compact graph, while its origin and destination are retrieved from the
+     * original graph, and are not available if there is none.
+     * </p>
+     */
+    public final class ArcView extends Arc {
+
+        // Index of the arc.
+        private int arc;
+
+        private ArcView() {
+            this.arc = 0;
+        }
+
+        /**
+         * Move this view to the given arc.
+         *
+         * @param arc Index of the arc.
+         *
+         * @return This view.
+         */
+        public ArcView setArc(int arc) {
+            this.arc = arc;
+            return this;
+        }
+
+        /**
+         * @return Index of the arc this view points at.
+         */
+        public int getArc() {
+            return arc;
+        }
+
+        /**
+         * @throws UnsupportedOperationException if the compact graph has no original
+         *         graph.
+         */
+        @Override
+        public Node getOrigin() {
+            return getNode(isReverse() ? getArcHead(arc) : getArcTail(arc));
+        }
+
+        /**
+         * @throws UnsupportedOperationException if the compact graph has no original
+         *         graph.
+         */
+        @Override
+        public Node getDestination() {
+            return getNode(isReverse() ? getArcTail(arc) : getArcHead(arc));
+        }
+
+        private Node getNode(int id) {
+            if (graph == null) {
+                throw new UnsupportedOperationException("Compact graph has no original graph.");
+            }
+            return graph.get(id);
+        }
+
+        @Override
+        public float getLength() {
+            return getArcLength(arc);
+        }
+
+        @Override
+        public RoadInformation getRoadInformation() {
+            return CompactGraph.this.getRoadInformation(arc);
+        }
+
+        @Override
+        public List<Point> getPoints() {
+            return getArcPoints(arc);
+        }
+
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[id=%s, name=%s, #nodes=%d, #arcs=%d%s]",
+                getClass().getCanonicalName(), getMapId(), getMapName(), size(),
+                getNumberOfArcs(), isReverse() ? ", reverse" : "");
+    }
+
+}
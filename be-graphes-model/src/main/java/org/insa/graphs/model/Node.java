@@ -1,8 +1,12 @@
 package org.insa.graphs.model;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.ListIterator;
 
 /**
  * <p>
@@ -43,6 +47,33 @@ public final class Node implements Comparable<Node> {
      */
     public static Arc linkNodes(Node origin, Node destination, float length,
             RoadInformation roadInformation, ArrayList<Point> points) {
+        return linkNodes(origin, destination, length, roadInformation, (List<Point>) points);
+    }
+
+    /**
+     * <p>
+     * Link the two given nodes with one or two arcs (depending on roadInformation),
+     * with the given attributes.
+     * </p>
+     * 
+     * <p>
+     * This is similar to
+     * {@link #linkNodes(Node, Node, float, RoadInformation, ArrayList)} but accepts
+     * any list of points, e.g., a list decoding the points on demand. If the points
+     * have to be reversed, an {@link ArrayList} is reversed in place while other
+     * lists are wrapped in a reversed view.
+     * </p>
+     * 
+     * @param origin Origin of the arc.
+     * @param destination Destination of the arc.
+     * @param length Length of the arc.
+     * @param roadInformation Information corresponding to the arc.
+     * @param points Points for the arc.
+     * 
+     * @return The newly created forward arc (origin to destination).
+     */
+    public static Arc linkNodes(Node origin, Node destination, float length,
+            RoadInformation roadInformation, List<Point> points) {
         Arc arc = null;
         if (roadInformation.isOneWay()) {
             arc = new ArcForward(origin, destination, length, roadInformation, points);
@@ -55,8 +86,8 @@ public final class Node implements Comparable<Node> {
                 d2o = new ArcBackward(arc);
             }
             else {
-                Collections.reverse(points);
-                d2o = new ArcForward(destination, origin, length, roadInformation, points);
+                d2o = new ArcForward(destination, origin, length, roadInformation,
+                        reverse(points));
                 arc = new ArcBackward(d2o);
             }
             origin.addSuccessor(arc);
@@ -65,6 +96,67 @@ public final class Node implements Comparable<Node> {
         return arc;
     }
 
+    /**
+     * Reverse the given list of points, in place for {@link ArrayList}, or using a
+     * reversed view for other lists.
+     * 
+     * @param points Points to reverse.
+     * 
+     * @return The reversed points.
+     */
+    private static List<Point> reverse(List<Point> points) {
+        if (points instanceof ArrayList) {
+            Collections.reverse(points);
+            return points;
+        }
+        return new ReversedPointList(points);
+    }
+
+    /**
+     * <p>
+     * Unmodifiable reversed view of a list of points.
+     * </p>
+     * 
+     * <p>
+     * The points may be decoded on demand by the underlying list, with a linear
+     * {@code get()}, so iterating the view decodes all the points once with the
+     * iterator of the underlying list and walks them backwards, instead of
+     * calling {@code get()} for each point.
+     * </p>
+     */
+    private static final class ReversedPointList extends AbstractList<Point> {
+
+        // Points in their original order.
+        private final List<Point> points;
+
+        private ReversedPointList(List<Point> points) {
+            this.points = points;
+        }
+
+        @Override
+        public int size() {
+            return this.points.size();
+        }
+
+        @Override
+        public Point get(int index) {
+            return this.points.get(this.points.size() - 1 - index);
+        }
+
+        @Override
+        public Iterator<Point> iterator() {
+            return listIterator();
+        }
+
+        @Override
+        public ListIterator<Point> listIterator(int index) {
+            List<Point> reversed = Arrays.asList(this.points.toArray(new Point[0]));
+            Collections.reverse(reversed);
+            return Collections.unmodifiableList(reversed).listIterator(index);
+        }
+
+    }
+
     // ID of the node.
     private final int id;
 
@@ -34,6 +34,9 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
     // List of observers
     protected List<GraphReaderObserver> observers = new ArrayList<>();
 
+    // true if the geometry of the arcs should be packed and decoded on demand.
+    private final boolean packedGeometry;
+
     /**
      * Parse the given long value into a new instance of AccessRestrictions.
      * 
@@ -139,7 +142,30 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
      * @param dis Input stream to read from.
      */
     public BinaryGraphReader(DataInputStream dis) {
+        this(dis, false);
+    }
+
+    /**
+     * <p>
+     * Create a new BinaryGraphReader that read from the given input stream,
+     * optionally packing the geometry of the arcs.
+     * </p>
+     * 
+     * <p>
+     * When the geometry is packed, the segments of all the arcs are kept as the
+     * raw deltas read from the file in a single {@code short} array, and the points
+     * returned by {@link Arc#getPoints()} are decoded on demand. This greatly
+     * reduces the memory used by the graph when the geometry is rarely accessed
+     * (e.g., for routing only), at the cost of slower calls to
+     * {@link Arc#getPoints()}.
+     * </p>
+     * 
+     * @param dis Input stream to read from.
+     * @param packedGeometry true to pack the geometry of the arcs.
+     */
+    public BinaryGraphReader(DataInputStream dis, boolean packedGeometry) {
         super(MAGIC_NUMBER, VERSION, dis);
+        this.packedGeometry = packedGeometry;
     }
 
     @Override
@@ -229,6 +255,7 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
         float maxLength = 0;
         final int copyNbTotalSuccesors = nbTotalSuccessors; // Stupid Java...
         int nbOneWayRoad = 0;
+        final PackedGeometry geometry = packedGeometry ? new PackedGeometry() : null;
         observers.forEach((observer) -> observer.notifyStartReadingArcs(copyNbTotalSuccesors));
         for (int node = 0; node < nbNodes; ++node) {
             for (int succ = 0; succ < nbSuccessors[node]; ++succ) {
@@ -256,20 +283,32 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
                 int nbSegments = dis.readUnsignedShort();
 
                 // Chain of points corresponding to the segments.
-                ArrayList<Point> points = new ArrayList<Point>(nbSegments + 2);
-                points.add(nodes.get(node).getPoint());
+                List<Point> points;
+                if (geometry != null) {
+                    int firstSegment = geometry.getNumberOfSegments();
+                    for (int seg = 0; seg < nbSegments; ++seg) {
+                        geometry.addSegment(dis.readShort(), dis.readShort());
+                    }
+                    points = geometry.createPointList(nodes.get(node).getPoint(),
+                            nodes.get(destNode).getPoint(), firstSegment, nbSegments);
+                }
+                else {
+                    ArrayList<Point> segments = new ArrayList<Point>(nbSegments + 2);
+                    segments.add(nodes.get(node).getPoint());
 
-                for (int seg = 0; seg < nbSegments; ++seg) {
-                    Point lastPoint = points.get(points.size() - 1);
+                    for (int seg = 0; seg < nbSegments; ++seg) {
+                        Point lastPoint = segments.get(segments.size() - 1);
 
-                    float dlon = (dis.readShort()) / 2.0e5f;
-                    float dlat = (dis.readShort()) / 2.0e5f;
+                        float dlon = (dis.readShort()) / 2.0e5f;
+                        float dlat = (dis.readShort()) / 2.0e5f;
 
-                    points.add(new Point(lastPoint.getLongitude() + dlon,
-                            lastPoint.getLatitude() + dlat));
-                }
+                        segments.add(new Point(lastPoint.getLongitude() + dlon,
+                                lastPoint.getLatitude() + dlat));
+                    }
 
-                points.add(nodes.get(destNode).getPoint());
+                    segments.add(nodes.get(destNode).getPoint());
+                    points = segments;
+                }
 
                 RoadInformation info = descs[descrNum];
                 Node orig = nodes.get(node);
@@ -287,6 +326,10 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
         // Check format.
         checkByteOrThrow(253);
 
+        if (geometry != null) {
+            geometry.trimToSize();
+        }
+
         observers.forEach((observer) -> observer.notifyEndReading());
 
         this.dis.close();
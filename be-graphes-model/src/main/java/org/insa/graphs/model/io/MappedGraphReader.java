@@ -0,0 +1,309 @@
+package org.insa.graphs.model.io;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.AccessRestrictions.AccessMode;
+import org.insa.graphs.model.AccessRestrictions.AccessRestriction;
+import org.insa.graphs.model.ChunkedFloatBuffer;
+import org.insa.graphs.model.ChunkedIntBuffer;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.RoadInformation.RoadType;
+
+/**
+ * <p>
+ * Reader for graphs stored in the memory-mappable compact format written by
+ * {@link MappedGraphWriter}.
+ * </p>
+ *
+ * <p>
+ * The file is a little-endian header followed by the arrays of a
+ * {@link CompactGraph} (CSR arrays, node coordinates and arc geometry), each
+ * aligned on 8 bytes, and by the road information descriptors. The arrays are
+ * not read but mapped in memory using {@link FileChannel#map}, so opening a
+ * graph only costs the decoding of the header and the descriptors, and the
+ * operating system pages the arrays in (and shares them between processes) as
+ * the graph is queried. Sections larger than a single mapping (2 GB) are mapped
+ * as several chunks (see {@link ChunkedIntBuffer}).
+ * </p>
+ *
+ * <p>
+ * Layout of the header (all values are little-endian):
+ * </p>
+ * <ul>
+ * <li>{@code int} magic number, {@code int} version,</li>
+ * <li>{@code int} number of nodes, arcs, descriptors and points,</li>
+ * <li>{@code long} offset of each section (see {@link Section}), and
+ * {@code long} length of the descriptors section,</li>
+ * <li>map ID and map name ({@code int} length followed by UTF-8 bytes).</li>
+ * </ul>
+ *
+ */
+public class MappedGraphReader implements GraphReader {
+
+    // Version and magic number of the format.
+    protected static final int VERSION = 1;
+    protected static final int MAGIC_NUMBER = 0x47524D43;
+
+    // Size of the fixed part of the header (before the map ID and name).
+    protected static final int FIXED_HEADER_LENGTH = 4 * 6 + 8 * (Section.values().length + 1);
+
+    // Alignment of the sections.
+    protected static final int ALIGNMENT = 8;
+
+    /**
+     * Sections of the file, in order.
+     */
+    protected enum Section {
+        FIRST_ARC, ARC_HEAD, ARC_LENGTH, ARC_INFO_INDEX, NODE_LONGITUDE, NODE_LATITUDE,
+        ARC_FIRST_POINT, POINT_LONGITUDE, POINT_LATITUDE, DESCRIPTORS
+    }
+
+    // Channel to read from.
+    private final FileChannel channel;
+
+    // List of observers.
+    protected List<GraphReaderObserver> observers = new ArrayList<>();
+
+    /**
+     * Create a new reader that maps the file of the given channel. The channel
+     * can be closed after reading, the mapped graph remains valid.
+     *
+     * @param channel Channel to read from.
+     */
+    public MappedGraphReader(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    @Override
+    public void addObserver(GraphReaderObserver observer) {
+        observers.add(observer);
+    }
+
+    /**
+     * Map the file and create the corresponding compact graph, without original
+     * graph.
+     *
+     * <p>
+     * <b>Complexity:</b> <i>O(number of descriptors)</i>, the arrays are not read.
+     * </p>
+     *
+     * @return The compact graph stored in the file.
+     *
+     * @throws BadMagicNumberException if the magic number is incorrect.
+     * @throws BadVersionException if the version of the file is not supported.
+     * @throws BadFormatException if the file is malformed.
+     * @throws IOException if an error occurs while mapping the file.
+     */
+    public CompactGraph readCompactGraph() throws IOException {
+        final long fileSize = this.channel.size();
+        if (fileSize < FIXED_HEADER_LENGTH) {
+            throw new BadFormatException("File is too small for a mapped graph.");
+        }
+
+        try {
+            // Only the header is mapped here: its fixed part, then the strings up to
+            // the first section.
+            ByteBuffer header = map(0, FIXED_HEADER_LENGTH);
+
+            int magicNumber = header.getInt();
+            if (magicNumber != MAGIC_NUMBER) {
+                throw new BadMagicNumberException(magicNumber, MAGIC_NUMBER);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new BadVersionException(version, VERSION);
+            }
+
+            final int nbNodes = header.getInt();
+            final int nbArcs = header.getInt();
+            final int nbDescriptors = header.getInt();
+            final int nbPoints = header.getInt();
+            long[] offsets = new long[Section.values().length];
+            for (int i = 0; i < offsets.length; ++i) {
+                offsets[i] = header.getLong();
+            }
+            final long descriptorsLength = header.getLong();
+            ByteBuffer strings = map(FIXED_HEADER_LENGTH,
+                    offsets[Section.FIRST_ARC.ordinal()] - FIXED_HEADER_LENGTH);
+            final String mapId = readString(strings);
+            final String mapName = readString(strings);
+
+            observers.forEach((observer) -> observer.notifyStartReading(mapId));
+
+            // Map the arrays.
+            ChunkedIntBuffer firstArc = mapInts(offsets, Section.FIRST_ARC, nbNodes + 1);
+            ChunkedIntBuffer arcHead = mapInts(offsets, Section.ARC_HEAD, nbArcs);
+            ChunkedFloatBuffer arcLength = mapFloats(offsets, Section.ARC_LENGTH, nbArcs);
+            ChunkedIntBuffer arcInfoIndex = mapInts(offsets, Section.ARC_INFO_INDEX, nbArcs);
+            ChunkedFloatBuffer nodeLongitudes = mapFloats(offsets, Section.NODE_LONGITUDE, nbNodes);
+            ChunkedFloatBuffer nodeLatitudes = mapFloats(offsets, Section.NODE_LATITUDE, nbNodes);
+            ChunkedIntBuffer arcFirstPoint = mapInts(offsets, Section.ARC_FIRST_POINT, nbArcs + 1);
+            ChunkedFloatBuffer pointLongitudes = mapFloats(offsets, Section.POINT_LONGITUDE,
+                    nbPoints);
+            ChunkedFloatBuffer pointLatitudes = mapFloats(offsets, Section.POINT_LATITUDE,
+                    nbPoints);
+
+            // Read the descriptors.
+            ByteBuffer descriptors = map(offsets[Section.DESCRIPTORS.ordinal()],
+                    descriptorsLength);
+            observers.forEach((observer) -> observer.notifyStartReadingDescriptors(nbDescriptors));
+            RoadInformation[] roadInformations = new RoadInformation[nbDescriptors];
+            for (int i = 0; i < nbDescriptors; ++i) {
+                final RoadInformation info = readRoadInformation(descriptors);
+                roadInformations[i] = info;
+                observers.forEach((observer) -> observer.notifyNewDescriptorRead(info));
+            }
+
+            CompactGraph graph = new CompactGraph(mapId, mapName, null, firstArc, arcHead,
+                    arcLength, arcInfoIndex, roadInformations, nodeLongitudes, nodeLatitudes,
+                    arcFirstPoint, pointLongitudes, pointLatitudes);
+
+            observers.forEach((observer) -> observer.notifyEndReading());
+
+            return graph;
+        }
+        catch (BufferUnderflowException | IllegalArgumentException
+                | IndexOutOfBoundsException exception) {
+            throw new BadFormatException("Malformed mapped graph: " + exception.getMessage());
+        }
+    }
+
+    /**
+     * Read the graph and convert it to a {@link Graph}. This is much slower than
+     * {@link #readCompactGraph()} since all the nodes and arcs have to be
+     * created, and should only be used when a {@link Graph} is required (e.g., to
+     * draw it). The compact graph can be queried directly by the algorithms that
+     * work on its metrics and node indices (e.g., the contraction hierarchies and
+     * hub labels of the algorithm module).
+     *
+     * @see CompactGraph#toGraph()
+     */
+    @Override
+    public Graph read() throws IOException {
+        return readCompactGraph().toGraph();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    /**
+     * Map the given region of the file, in little-endian order.
+     */
+    private ByteBuffer map(long offset, long length) throws IOException {
+        if (offset < 0 || length < 0 || length > Integer.MAX_VALUE
+                || offset + length > this.channel.size()) {
+            throw new BadFormatException("Invalid section in mapped graph.");
+        }
+        return this.channel.map(MapMode.READ_ONLY, offset, length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Map the given section of ints, as chunks of at most
+     * {@link ChunkedIntBuffer#CHUNK_SIZE} values.
+     */
+    private ChunkedIntBuffer mapInts(long[] offsets, Section section, int count)
+            throws IOException {
+        final IntBuffer[] chunks = new IntBuffer[getNumberOfChunks(count)];
+        for (int i = 0; i < chunks.length; ++i) {
+            chunks[i] = mapChunk(offsets[section.ordinal()], count, i).asIntBuffer();
+        }
+        return new ChunkedIntBuffer(chunks);
+    }
+
+    /**
+     * Map the given section of floats, as chunks of at most
+     * {@link ChunkedFloatBuffer#CHUNK_SIZE} values.
+     */
+    private ChunkedFloatBuffer mapFloats(long[] offsets, Section section, int count)
+            throws IOException {
+        final FloatBuffer[] chunks = new FloatBuffer[getNumberOfChunks(count)];
+        for (int i = 0; i < chunks.length; ++i) {
+            chunks[i] = mapChunk(offsets[section.ordinal()], count, i).asFloatBuffer();
+        }
+        return new ChunkedFloatBuffer(chunks);
+    }
+
+    /**
+     * @return Number of chunks of a section of the given number of 4-byte values
+     *         (at least one).
+     */
+    private static int getNumberOfChunks(int count) throws BadFormatException {
+        if (count < 0) {
+            throw new BadFormatException("Invalid section in mapped graph.");
+        }
+        return Math.max(1, (int) ((count + (long) ChunkedIntBuffer.CHUNK_SIZE - 1)
+                / ChunkedIntBuffer.CHUNK_SIZE));
+    }
+
+    /**
+     * Map the given chunk of a section of 4-byte values starting at the given
+     * offset.
+     */
+    private ByteBuffer mapChunk(long offset, int count, int chunk) throws IOException {
+        final long first = (long) chunk * ChunkedIntBuffer.CHUNK_SIZE;
+        return map(offset + 4 * first, 4 * Math.min(ChunkedIntBuffer.CHUNK_SIZE, count - first));
+    }
+
+    /**
+     * Read a string (length and UTF-8 bytes) from the given buffer.
+     */
+    private static String readString(ByteBuffer buffer) throws BadFormatException {
+        int length = buffer.getInt();
+        if (length == -1) {
+            return null;
+        }
+        if (length < 0 || length > buffer.remaining()) {
+            throw new BadFormatException("Invalid string length in mapped graph.");
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read a road information from the given buffer.
+     */
+    private static RoadInformation readRoadInformation(ByteBuffer buffer)
+            throws BadFormatException {
+        // Missing values (type or access restrictions) are stored as -1.
+        byte typeOrdinal = buffer.get();
+        RoadType type = typeOrdinal == -1 ? null : RoadType.values()[typeOrdinal];
+        boolean oneWay = buffer.get() != 0;
+        int maxSpeed = buffer.getInt();
+
+        AccessRestrictions access = null;
+        int nbModes = buffer.get();
+        if (nbModes != -1) {
+            if (nbModes != AccessMode.values().length) {
+                throw new BadFormatException(
+                        "Unexpected number of access modes in mapped graph.");
+            }
+            EnumMap<AccessMode, AccessRestriction> restrictions = new EnumMap<>(
+                    AccessMode.class);
+            for (AccessMode mode: AccessMode.values()) {
+                restrictions.put(mode, AccessRestriction.values()[buffer.get()]);
+            }
+            access = new AccessRestrictions(restrictions);
+        }
+
+        String name = readString(buffer);
+        return new RoadInformation(type, access, oneWay, maxSpeed, name);
+    }
+
+}
@@ -0,0 +1,283 @@
+package org.insa.graphs.model.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.AccessRestrictions.AccessMode;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.io.MappedGraphReader.Section;
+
+/**
+ * Writer for the memory-mappable compact graph format read by
+ * {@link MappedGraphReader}. Graphs are usually converted once from the
+ * {@code .mapgr} format, e.g. {@code CompactGraph.fromGraph(graph)}, and the
+ * resulting file is then mapped by each process.
+ *
+ */
+public class MappedGraphWriter implements AutoCloseable, Closeable {
+
+    // Size of the buffer used to write to the channel.
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // Channel to write to.
+    private final FileChannel channel;
+
+    // Buffer used to write to the channel, and position of its start in the file.
+    private final ByteBuffer buffer;
+    private long bufferStart;
+
+    /**
+     * Create a new writer that writes to the given channel, starting at its
+     * beginning.
+     *
+     * @param channel Channel to write to.
+     */
+    public MappedGraphWriter(FileChannel channel) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        this.bufferStart = 0;
+    }
+
+    /**
+     * Write the given graph. The geometry of the arcs is taken from the compact
+     * graph, or from its original graph.
+     *
+     * @param graph Graph to write, must not be a reverse graph.
+     *
+     * @throws IOException if an error occurs while writing.
+     * @throws IllegalArgumentException if the graph is a reverse graph.
+     */
+    public void writeCompactGraph(CompactGraph graph) throws IOException {
+        if (graph.isReverse()) {
+            throw new IllegalArgumentException("Cannot write a reverse compact graph.");
+        }
+
+        final int nbNodes = graph.size();
+        final int nbArcs = graph.getNumberOfArcs();
+        final int nbDescriptors = graph.getNumberOfRoadInformations();
+        long nbPointsLong = 0;
+        for (int arc = 0; arc < nbArcs; ++arc) {
+            nbPointsLong += graph.getArcPoints(arc).size();
+        }
+        if (nbPointsLong > Integer.MAX_VALUE) {
+            throw new IOException("Too many points to write a mapped graph.");
+        }
+        final int nbPoints = (int) nbPointsLong;
+
+        // Compute the offset of each section.
+        byte[] mapId = toBytes(graph.getMapId()), mapName = toBytes(graph.getMapName());
+        long[] offsets = new long[Section.values().length];
+        long offset = align(MappedGraphReader.FIXED_HEADER_LENGTH + stringLength(mapId)
+                + stringLength(mapName));
+        for (Section section: Section.values()) {
+            offsets[section.ordinal()] = offset;
+            offset = align(offset + sectionLength(section, nbNodes, nbArcs, nbPoints));
+        }
+
+        // Header.
+        this.channel.truncate(0);
+        this.channel.position(0);
+        this.bufferStart = 0;
+        this.buffer.clear();
+        putInt(MappedGraphReader.MAGIC_NUMBER);
+        putInt(MappedGraphReader.VERSION);
+        putInt(nbNodes);
+        putInt(nbArcs);
+        putInt(nbDescriptors);
+        putInt(nbPoints);
+        for (long sectionOffset: offsets) {
+            putLong(sectionOffset);
+        }
+        long descriptorsLengthPosition = position();
+        putLong(0); // Rewritten at the end.
+        putString(mapId);
+        putString(mapName);
+
+        // Arrays.
+        padTo(offsets[Section.FIRST_ARC.ordinal()]);
+        for (int node = 0; node <= nbNodes; ++node) {
+            putInt(graph.getFirstArc(node));
+        }
+        padTo(offsets[Section.ARC_HEAD.ordinal()]);
+        for (int arc = 0; arc < nbArcs; ++arc) {
+            putInt(graph.getArcHead(arc));
+        }
+        padTo(offsets[Section.ARC_LENGTH.ordinal()]);
+        for (int arc = 0; arc < nbArcs; ++arc) {
+            putFloat(graph.getArcLength(arc));
+        }
+        padTo(offsets[Section.ARC_INFO_INDEX.ordinal()]);
+        for (int arc = 0; arc < nbArcs; ++arc) {
+            putInt(graph.getRoadInformationIndex(arc));
+        }
+        padTo(offsets[Section.NODE_LONGITUDE.ordinal()]);
+        for (int node = 0; node < nbNodes; ++node) {
+            putFloat(graph.getNodeLongitude(node));
+        }
+        padTo(offsets[Section.NODE_LATITUDE.ordinal()]);
+        for (int node = 0; node < nbNodes; ++node) {
+            putFloat(graph.getNodeLatitude(node));
+        }
+        padTo(offsets[Section.ARC_FIRST_POINT.ordinal()]);
+        int point = 0;
+        for (int arc = 0; arc < nbArcs; ++arc) {
+            putInt(point);
+            point += graph.getArcPoints(arc).size();
+        }
+        putInt(point);
+        padTo(offsets[Section.POINT_LONGITUDE.ordinal()]);
+        for (int arc = 0; arc < nbArcs; ++arc) {
+            for (Point p: graph.getArcPoints(arc)) {
+                putFloat(p.getLongitude());
+            }
+        }
+        padTo(offsets[Section.POINT_LATITUDE.ordinal()]);
+        for (int arc = 0; arc < nbArcs; ++arc) {
+            for (Point p: graph.getArcPoints(arc)) {
+                putFloat(p.getLatitude());
+            }
+        }
+
+        // Descriptors.
+        padTo(offsets[Section.DESCRIPTORS.ordinal()]);
+        for (int i = 0; i < nbDescriptors; ++i) {
+            putRoadInformation(graph.getRoadInformationAt(i));
+        }
+        long descriptorsLength = position() - offsets[Section.DESCRIPTORS.ordinal()];
+        flush();
+
+        // Length of the descriptors section.
+        ByteBuffer length = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        length.putLong(descriptorsLength).flip();
+        while (length.hasRemaining()) {
+            this.channel.write(length, descriptorsLengthPosition + length.position());
+        }
+        this.channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    private static long align(long offset) {
+        final int alignment = MappedGraphReader.ALIGNMENT;
+        return (offset + alignment - 1) / alignment * alignment;
+    }
+
+    private static long sectionLength(Section section, int nbNodes, int nbArcs, int nbPoints) {
+        switch (section) {
+        case FIRST_ARC:
+            return 4L * (nbNodes + 1);
+        case ARC_HEAD:
+        case ARC_LENGTH:
+        case ARC_INFO_INDEX:
+            return 4L * nbArcs;
+        case NODE_LONGITUDE:
+        case NODE_LATITUDE:
+            return 4L * nbNodes;
+        case ARC_FIRST_POINT:
+            return 4L * (nbArcs + 1);
+        case POINT_LONGITUDE:
+        case POINT_LATITUDE:
+            return 4L * nbPoints;
+        default:
+            // Descriptors are last, their length does not matter here.
+            return 0;
+        }
+    }
+
+    private static byte[] toBytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int stringLength(byte[] bytes) {
+        return 4 + (bytes == null ? 0 : bytes.length);
+    }
+
+    /**
+     * @return Current position in the file.
+     */
+    private long position() {
+        return this.bufferStart + this.buffer.position();
+    }
+
+    private void flush() throws IOException {
+        this.buffer.flip();
+        while (this.buffer.hasRemaining()) {
+            this.channel.write(this.buffer);
+        }
+        this.bufferStart = this.channel.position();
+        this.buffer.clear();
+    }
+
+    private void ensureRemaining(int bytes) throws IOException {
+        if (this.buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void padTo(long offset) throws IOException {
+        while (position() < offset) {
+            ensureRemaining(1);
+            this.buffer.put((byte) 0);
+        }
+    }
+
+    private void putByte(int value) throws IOException {
+        ensureRemaining(1);
+        this.buffer.put((byte) value);
+    }
+
+    private void putInt(int value) throws IOException {
+        ensureRemaining(4);
+        this.buffer.putInt(value);
+    }
+
+    private void putLong(long value) throws IOException {
+        ensureRemaining(8);
+        this.buffer.putLong(value);
+    }
+
+    private void putFloat(float value) throws IOException {
+        ensureRemaining(4);
+        this.buffer.putFloat(value);
+    }
+
+    private void putString(byte[] bytes) throws IOException {
+        if (bytes == null) {
+            putInt(-1);
+            return;
+        }
+        putInt(bytes.length);
+        for (byte b: bytes) {
+            putByte(b);
+        }
+    }
+
+    private void putRoadInformation(RoadInformation info) throws IOException {
+        // Missing values (type or access restrictions) are stored as -1.
+        putByte(info.getType() == null ? -1 : info.getType().ordinal());
+        putByte(info.isOneWay() ? 1 : 0);
+        putInt(info.getMaximumSpeed());
+        AccessRestrictions access = info.getAccessRestrictions();
+        if (access == null) {
+            putByte(-1);
+        }
+        else {
+            putByte(AccessMode.values().length);
+            for (AccessMode mode: AccessMode.values()) {
+                putByte(access.getRestrictionFor(mode).ordinal());
+            }
+        }
+        putString(toBytes(info.getName()));
+    }
+
+}
@@ -0,0 +1,174 @@
+package org.insa.graphs.model.io;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.insa.graphs.model.Point;
+
+/**
+ * <p>
+ * Compact storage for the geometry of the arcs of a graph, as read from a binary
+ * graph file: the segments of each arc are stored as the raw {@code short}
+ * longitude / latitude deltas of the file, in a single array shared by all the
+ * arcs, and the points are only created when the geometry of an arc is
+ * accessed.
+ * </p>
+ *
+ * <p>
+ * Decoding the points of an arc gives exactly the same coordinates as the
+ * eager decoding of {@link BinaryGraphReader}.
+ * </p>
+ *
+ */
+class PackedGeometry {
+
+    // Scale of the deltas in the file.
+    private static final float DELTA_SCALE = 2.0e5f;
+
+    // Deltas of all arcs (longitude, latitude, longitude, ...).
+    private short[] deltas;
+
+    // Number of deltas used in the array.
+    private int size;
+
+    /**
+     * Create a new empty geometry storage.
+     */
+    public PackedGeometry() {
+        this.deltas = new short[1024];
+        this.size = 0;
+    }
+
+    /**
+     * Add a segment (longitude and latitude deltas) to this storage.
+     *
+     * @param dlon Longitude delta, as read from the file.
+     * @param dlat Latitude delta, as read from the file.
+     */
+    public void addSegment(short dlon, short dlat) {
+        if (this.size + 2 > this.deltas.length) {
+            this.deltas = Arrays.copyOf(this.deltas, 2 * this.deltas.length);
+        }
+        this.deltas[this.size++] = dlon;
+        this.deltas[this.size++] = dlat;
+    }
+
+    /**
+     * @return Number of segments in this storage.
+     */
+    public int getNumberOfSegments() {
+        return this.size / 2;
+    }
+
+    /**
+     * Release the unused capacity of this storage, once all the segments have
+     * been added.
+     */
+    public void trimToSize() {
+        this.deltas = Arrays.copyOf(this.deltas, this.size);
+    }
+
+    /**
+     * Create the list of points of an arc.
+     *
+     * @param origin Point of the origin of the arc.
+     * @param destination Point of the destination of the arc.
+     * @param firstSegment Index of the first segment of the arc in this storage.
+     * @param nbSegments Number of segments of the arc.
+     *
+     * @return A list containing the origin, the points of the segments and the
+     *         destination, decoded on demand.
+     */
+    public PointList createPointList(Point origin, Point destination, int firstSegment,
+            int nbSegments) {
+        return new PointList(origin, destination, firstSegment, nbSegments);
+    }
+
+    /**
+     * Unmodifiable list of the points of an arc, decoded on demand.
+     */
+    class PointList extends AbstractList<Point> {
+
+        // Origin and destination of the arc.
+        private final Point origin, destination;
+
+        // First segment and number of segments.
+        private final int firstSegment, nbSegments;
+
+        private PointList(Point origin, Point destination, int firstSegment, int nbSegments) {
+            this.origin = origin;
+            this.destination = destination;
+            this.firstSegment = firstSegment;
+            this.nbSegments = nbSegments;
+        }
+
+        @Override
+        public int size() {
+            return this.nbSegments + 2;
+        }
+
+        /**
+         * <p>
+         * <b>Complexity:</b> <i>O(index)</i>, the iterator should be used to access
+         * all the points.
+         * </p>
+         */
+        @Override
+        public Point get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            if (index == size() - 1) {
+                return this.destination;
+            }
+            Iterator<Point> iterator = iterator();
+            Point point = iterator.next();
+            for (int i = 0; i < index; ++i) {
+                point = iterator.next();
+            }
+            return point;
+        }
+
+        @Override
+        public Iterator<Point> iterator() {
+            return new Iterator<Point>() {
+
+                // Index of the next point, and last point returned.
+                private int next = 0;
+                private Point last = null;
+
+                @Override
+                public boolean hasNext() {
+                    return this.next < size();
+                }
+
+                @Override
+                public Point next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    if (this.next == 0) {
+                        this.last = origin;
+                    }
+                    else if (this.next == size() - 1) {
+                        this.last = destination;
+                    }
+                    else {
+                        int delta = 2 * (firstSegment + this.next - 1);
+                        float dlon = deltas[delta] / DELTA_SCALE;
+                        float dlat = deltas[delta + 1] / DELTA_SCALE;
+                        this.last = new Point(this.last.getLongitude() + dlon,
+                                this.last.getLatitude() + dlat);
+                    }
+                    this.next++;
+                    return this.last;
+                }
+
+            };
+        }
+
+    }
+
+}
@@ -0,0 +1,127 @@
+package org.insa.graphes.model;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ListIterator;
+
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.io.BinaryGraphReader;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class BinaryGraphReaderTest {
+
+    // Content of a small graph file (version 5).
+    private static byte[] content;
+
+    private static void writeArc(DataOutputStream dos, int dest, int descr, int length,
+            short... deltas) throws IOException {
+        dos.writeShort(dest >> 8);
+        dos.writeByte(dest & 0xff);
+        dos.writeShort(descr >> 8);
+        dos.writeByte(descr & 0xff);
+        dos.writeShort(length);
+        dos.writeShort(deltas.length / 2);
+        for (short delta: deltas) {
+            dos.writeShort(delta);
+        }
+    }
+
+    @BeforeClass
+    public static void initAll() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream dos = new DataOutputStream(bytes);
+
+        dos.writeInt(0x208BC3B3);
+        dos.writeInt(5);
+        dos.writeInt(0xCAFE);
+
+        // 2 descriptors, 4 nodes
+        dos.writeInt(2);
+        dos.writeInt(4);
+        int[] nbSuccessors = { 1, 0, 2, 1 };
+        for (int node = 0; node < 4; ++node) {
+            dos.writeInt(1440000 + 1000 * node);
+            dos.writeInt(43600000 - 700 * node);
+            dos.writeByte(nbSuccessors[node]);
+        }
+        dos.writeByte(255);
+
+        // One-way motorway, two-ways residential road.
+        dos.writeByte('a');
+        dos.writeByte(0x80 | 26);
+        dos.writeUTF("A61");
+        dos.writeByte('j');
+        dos.writeByte(10);
+        dos.writeUTF("Rue du Test");
+        dos.writeByte(254);
+
+        writeArc(dos, 1, 0, 150, (short) 30, (short) -20, (short) 41, (short) 5);
+        writeArc(dos, 0, 1, 300, (short) -12, (short) 7, (short) -3, (short) 2,
+                (short) 1000, (short) -999);
+        writeArc(dos, 3, 0, 120);
+        writeArc(dos, 1, 1, 200, (short) 17, (short) 18);
+        dos.writeByte(253);
+
+        dos.close();
+        content = bytes.toByteArray();
+    }
+
+    private static Graph read(boolean packedGeometry) throws IOException {
+        try (BinaryGraphReader reader = new BinaryGraphReader(
+                new DataInputStream(new ByteArrayInputStream(content)), packedGeometry)) {
+            return reader.read();
+        }
+    }
+
+    private static void assertPointsEquals(List<Point> expected, List<Point> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); ++i) {
+            assertEquals(expected.get(i).getLongitude(), actual.get(i).getLongitude(), 0);
+            assertEquals(expected.get(i).getLatitude(), actual.get(i).getLatitude(), 0);
+        }
+    }
+
+    @Test
+    public void testPackedGeometry() throws IOException {
+        Graph eager = read(false);
+        Graph packed = read(true);
+        assertEquals(eager.size(), packed.size());
+        for (Node node: eager.getNodes()) {
+            Node other = packed.get(node.getId());
+            assertEquals(node.getNumberOfSuccessors(), other.getNumberOfSuccessors());
+            for (int i = 0; i < node.getNumberOfSuccessors(); ++i) {
+                Arc expected = node.getSuccessors().get(i);
+                Arc actual = other.getSuccessors().get(i);
+                assertEquals(expected.getDestination(), actual.getDestination());
+                assertEquals(expected.getLength(), actual.getLength(), 0);
+
+                // Random access, and iteration in both directions.
+                assertPointsEquals(expected.getPoints(), actual.getPoints());
+                List<Point> points = new ArrayList<>();
+                for (Point point: actual.getPoints()) {
+                    points.add(point);
+                }
+                assertPointsEquals(expected.getPoints(), points);
+                points.clear();
+                ListIterator<Point> iterator = actual.getPoints()
+                        .listIterator(actual.getPoints().size());
+                while (iterator.hasPrevious()) {
+                    points.add(0, iterator.previous());
+                }
+                assertPointsEquals(expected.getPoints(), points);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,119 @@
+package org.insa.graphes.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.RoadInformation.RoadType;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class CompactGraphTest {
+
+    // Small graph use for tests
+    private static Graph graph;
+
+    // Compact version of the graph
+    private static CompactGraph compact;
+
+    @BeforeClass
+    public static void initAll() throws IOException {
+
+        // Create nodes (node 5 has no successors)
+        Node[] nodes = new Node[6];
+        for (int i = 0; i < nodes.length; ++i) {
+            nodes[i] = new Node(i, new Point(i, 2 * i));
+        }
+
+        RoadInformation oneWay = new RoadInformation(RoadType.UNCLASSIFIED, null, true, 50, null);
+        RoadInformation twoWays = new RoadInformation(RoadType.MOTORWAY, null, false, 130,
+                null);
+
+        Node.linkNodes(nodes[0], nodes[1], 10, twoWays, new ArrayList<>());
+        Node.linkNodes(nodes[0], nodes[2], 15, oneWay, new ArrayList<>());
+        Node.linkNodes(nodes[2], nodes[4], 20, twoWays, new ArrayList<>());
+        Node.linkNodes(nodes[1], nodes[4], 5, oneWay, new ArrayList<>());
+        Node.linkNodes(nodes[4], nodes[5], 8, oneWay, new ArrayList<>());
+
+        graph = new Graph("ID", "", Arrays.asList(nodes), null);
+        compact = CompactGraph.fromGraph(graph);
+    }
+
+    @Test
+    public void testSizes() {
+        assertEquals(graph.size(), compact.size());
+        int nbArcs = 0;
+        for (Node node: graph.getNodes()) {
+            nbArcs += node.getNumberOfSuccessors();
+        }
+        assertEquals(nbArcs, compact.getNumberOfArcs());
+        assertEquals(nbArcs, compact.getFirstArc(compact.size()));
+    }
+
+    @Test
+    public void testArcs() {
+        for (Node node: graph.getNodes()) {
+            int first = compact.getFirstArc(node.getId());
+            assertEquals(node.getNumberOfSuccessors(), compact.getFirstArc(node.getId() + 1) - first);
+            for (int i = 0; i < node.getNumberOfSuccessors(); ++i) {
+                Arc arc = node.getSuccessors().get(i);
+                assertEquals(arc.getDestination().getId(), compact.getArcHead(first + i));
+                assertEquals(node.getId(), compact.getArcTail(first + i));
+                assertEquals(arc.getLength(), compact.getArcLength(first + i), 1e-6);
+                assertSame(arc.getRoadInformation(), compact.getRoadInformation(first + i));
+                assertSame(arc, compact.getArc(first + i));
+            }
+        }
+    }
+
+    @Test
+    public void testNodeCoordinates() {
+        for (Node node: graph.getNodes()) {
+            assertEquals(node.getPoint().getLongitude(), compact.getNodeLongitude(node.getId()), 1e-6);
+            assertEquals(node.getPoint().getLatitude(), compact.getNodeLatitude(node.getId()), 1e-6);
+        }
+    }
+
+    @Test
+    public void testArcView() {
+        CompactGraph.ArcView view = compact.createArcView();
+        for (int arc = 0; arc < compact.getNumberOfArcs(); ++arc) {
+            Arc original = compact.getArc(arc);
+            view.setArc(arc);
+            assertEquals(original.getOrigin(), view.getOrigin());
+            assertEquals(original.getDestination(), view.getDestination());
+            assertEquals(original.getMinimumTravelTime(), view.getMinimumTravelTime(), 1e-6);
+        }
+    }
+
+    @Test
+    public void testReverse() {
+        CompactGraph reverse = compact.getReverse();
+        assertTrue(reverse.isReverse());
+        assertFalse(compact.isReverse());
+        assertSame(reverse, compact.getReverse());
+        assertSame(compact, reverse.getReverse());
+        assertEquals(compact.getNumberOfArcs(), reverse.getNumberOfArcs());
+        for (int arc = 0; arc < reverse.getNumberOfArcs(); ++arc) {
+            int original = reverse.getOriginalArc(arc);
+            assertEquals(compact.getArcTail(original), reverse.getArcHead(arc));
+            assertEquals(compact.getArcHead(original), reverse.getArcTail(arc));
+            assertSame(compact.getArc(original), reverse.getArc(arc));
+
+            CompactGraph.ArcView view = reverse.createArcView().setArc(arc);
+            assertEquals(compact.getArc(original).getOrigin(), view.getOrigin());
+        }
+    }
+
+}
@@ -0,0 +1,245 @@
+package org.insa.graphes.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.AccessRestrictions.AccessMode;
+import org.insa.graphs.model.AccessRestrictions.AccessRestriction;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.ChunkedIntBuffer;
+import org.insa.graphs.model.CompactGraph;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.RoadInformation.RoadType;
+import org.insa.graphs.model.io.BadMagicNumberException;
+import org.insa.graphs.model.io.MappedGraphReader;
+import org.insa.graphs.model.io.MappedGraphWriter;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MappedGraphTest {
+
+    // Small graph use for tests
+    private static Graph graph;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static ArrayList<Point> points(Node origin, Node destination, Point... middle) {
+        ArrayList<Point> points = new ArrayList<>();
+        points.add(origin.getPoint());
+        points.addAll(Arrays.asList(middle));
+        points.add(destination.getPoint());
+        return points;
+    }
+
+    @BeforeClass
+    public static void initAll() throws IOException {
+
+        // Create nodes
+        Node[] nodes = new Node[5];
+        for (int i = 0; i < nodes.length; ++i) {
+            nodes[i] = new Node(i, new Point(1.5f + i, 43.5f - i));
+        }
+
+        EnumMap<AccessMode, AccessRestriction> restrictions = new EnumMap<>(AccessMode.class);
+        for (AccessMode mode: AccessMode.values()) {
+            restrictions.put(mode, AccessRestriction.ALLOWED);
+        }
+        restrictions.put(AccessMode.FOOT, AccessRestriction.FORBIDDEN);
+        RoadInformation motorway = new RoadInformation(RoadType.MOTORWAY,
+                new AccessRestrictions(restrictions), true, 130, "A61");
+        RoadInformation street = new RoadInformation(RoadType.RESIDENTIAL,
+                new AccessRestrictions(), false, 50, "Rue de l'Université");
+        RoadInformation path = new RoadInformation(RoadType.TRACK, null, false, 10, null);
+
+        Node.linkNodes(nodes[0], nodes[1], 100, motorway, points(nodes[0], nodes[1]));
+        Node.linkNodes(nodes[2], nodes[0], 40, street,
+                points(nodes[2], nodes[0], new Point(2.0f, 43.0f), new Point(2.1f, 43.1f)));
+        Node.linkNodes(nodes[1], nodes[2], 60, street, points(nodes[1], nodes[2]));
+        Node.linkNodes(nodes[1], nodes[2], 60, street, points(nodes[1], nodes[2]));
+        Node.linkNodes(nodes[3], nodes[2], 25, path,
+                points(nodes[3], nodes[2], new Point(3.2f, 41.4f)));
+        Node.linkNodes(nodes[2], nodes[4], 70, motorway, points(nodes[2], nodes[4]));
+
+        graph = new Graph("0x1234", "Test map", Arrays.asList(nodes), null);
+    }
+
+    private CompactGraph writeAndMap(CompactGraph compact) throws IOException {
+        File file = folder.newFile("graph.mapcg");
+        try (MappedGraphWriter writer = new MappedGraphWriter(
+                FileChannel.open(file.toPath(), StandardOpenOption.WRITE))) {
+            writer.writeCompactGraph(compact);
+        }
+        try (MappedGraphReader reader = new MappedGraphReader(
+                FileChannel.open(file.toPath(), StandardOpenOption.READ))) {
+            return reader.readCompactGraph();
+        }
+    }
+
+    private static void assertRoadInformationEquals(RoadInformation expected,
+            RoadInformation actual) {
+        assertEquals(expected.getType(), actual.getType());
+        assertEquals(expected.isOneWay(), actual.isOneWay());
+        assertEquals(expected.getMaximumSpeed(), actual.getMaximumSpeed());
+        assertEquals(expected.getName(), actual.getName());
+        if (expected.getAccessRestrictions() == null) {
+            assertNull(actual.getAccessRestrictions());
+        }
+        else {
+            for (AccessMode mode: AccessMode.values()) {
+                assertEquals(expected.getAccessRestrictions().getRestrictionFor(mode),
+                        actual.getAccessRestrictions().getRestrictionFor(mode));
+            }
+        }
+    }
+
+    private static void assertPointsEquals(List<Point> expected, List<Point> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); ++i) {
+            assertEquals(expected.get(i).getLongitude(), actual.get(i).getLongitude(), 1e-6);
+            assertEquals(expected.get(i).getLatitude(), actual.get(i).getLatitude(), 1e-6);
+        }
+    }
+
+    @Test
+    public void testWriteAndMap() throws IOException {
+        CompactGraph compact = CompactGraph.fromGraph(graph);
+        CompactGraph mapped = writeAndMap(compact);
+
+        assertNull(mapped.getGraph());
+        assertEquals(graph.getMapId(), mapped.getMapId());
+        assertEquals(graph.getMapName(), mapped.getMapName());
+        assertEquals(compact.size(), mapped.size());
+        assertEquals(compact.getNumberOfArcs(), mapped.getNumberOfArcs());
+        for (int node = 0; node <= compact.size(); ++node) {
+            assertEquals(compact.getFirstArc(node), mapped.getFirstArc(node));
+        }
+        for (int node = 0; node < compact.size(); ++node) {
+            assertEquals(compact.getNodeLongitude(node), mapped.getNodeLongitude(node), 1e-6);
+            assertEquals(compact.getNodeLatitude(node), mapped.getNodeLatitude(node), 1e-6);
+        }
+        for (int arc = 0; arc < compact.getNumberOfArcs(); ++arc) {
+            assertEquals(compact.getArcHead(arc), mapped.getArcHead(arc));
+            assertEquals(compact.getArcLength(arc), mapped.getArcLength(arc), 1e-6);
+            assertRoadInformationEquals(compact.getRoadInformation(arc),
+                    mapped.getRoadInformation(arc));
+            assertPointsEquals(compact.getArcPoints(arc), mapped.getArcPoints(arc));
+        }
+
+        // Reverse graphs of mapped graphs use the same geometry.
+        CompactGraph reverse = mapped.getReverse();
+        for (int arc = 0; arc < reverse.getNumberOfArcs(); ++arc) {
+            assertPointsEquals(mapped.getArcPoints(reverse.getOriginalArc(arc)),
+                    reverse.getArcPoints(arc));
+        }
+    }
+
+    @Test
+    public void testToGraph() throws IOException {
+        Graph converted = writeAndMap(CompactGraph.fromGraph(graph)).toGraph();
+        assertEquals(graph.size(), converted.size());
+        for (Node node: graph.getNodes()) {
+            Node other = converted.get(node.getId());
+            assertEquals(node.getNumberOfSuccessors(), other.getNumberOfSuccessors());
+            for (int i = 0; i < node.getNumberOfSuccessors(); ++i) {
+                Arc expected = node.getSuccessors().get(i);
+                Arc actual = other.getSuccessors().get(i);
+                assertEquals(expected.getClass(), actual.getClass());
+                assertEquals(expected.getOrigin(), actual.getOrigin());
+                assertEquals(expected.getDestination(), actual.getDestination());
+                assertEquals(expected.getLength(), actual.getLength(), 1e-6);
+                assertPointsEquals(expected.getPoints(), actual.getPoints());
+            }
+        }
+        assertEquals(2, converted.getGraphInformation().getOneWayRoadCount());
+        assertEquals(8, converted.getGraphInformation().getTwoWaysRoadCount());
+    }
+
+    @Test
+    public void testToGraphOfOriginal() {
+        assertSame(graph, CompactGraph.fromGraph(graph).toGraph());
+    }
+
+    @Test
+    public void testChunkedWrap() {
+        int[] values = { 3, 1, 4, 1, 5 };
+        ChunkedIntBuffer buffer = ChunkedIntBuffer.wrap(values);
+        assertEquals(1, buffer.getNumberOfChunks());
+        assertEquals(values.length, buffer.limit());
+        for (int i = 0; i < values.length; ++i) {
+            assertEquals(values[i], buffer.get(i));
+        }
+        assertEquals(0, ChunkedIntBuffer.wrap(new int[0]).limit());
+    }
+
+    @Test
+    public void testLargeSection() throws IOException {
+        // Section of more than 2 GB in a sparse file, mapped as chunks: only the
+        // pages that are written are allocated.
+        final int nbChunks = 3;
+        final int size = nbChunks * ChunkedIntBuffer.CHUNK_SIZE - 5;
+        File file = folder.newFile("large.bin");
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(4L * size);
+            FileChannel channel = raf.getChannel();
+            IntBuffer[] chunks = new IntBuffer[nbChunks];
+            for (int i = 0; i < nbChunks; ++i) {
+                final long first = (long) i * ChunkedIntBuffer.CHUNK_SIZE;
+                chunks[i] = channel.map(MapMode.READ_WRITE, 4 * first,
+                        4 * Math.min(ChunkedIntBuffer.CHUNK_SIZE, size - first)).asIntBuffer();
+            }
+            ChunkedIntBuffer buffer = new ChunkedIntBuffer(chunks);
+            assertEquals(size, buffer.limit());
+            assertEquals(nbChunks, buffer.getNumberOfChunks());
+
+            final int[] indices = { 0, ChunkedIntBuffer.CHUNK_SIZE - 1,
+                    ChunkedIntBuffer.CHUNK_SIZE, 2 * ChunkedIntBuffer.CHUNK_SIZE + 7, size - 1 };
+            for (int index: indices) {
+                chunks[index / ChunkedIntBuffer.CHUNK_SIZE]
+                        .put(index % ChunkedIntBuffer.CHUNK_SIZE, index ^ 0x5A5A5A5A);
+            }
+            for (int index: indices) {
+                assertEquals(index ^ 0x5A5A5A5A, buffer.get(index));
+            }
+            assertEquals(0, buffer.get(size / 2));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidChunks() {
+        new ChunkedIntBuffer(IntBuffer.allocate(10), IntBuffer.allocate(10));
+    }
+
+    @Test(expected = BadMagicNumberException.class)
+    public void testBadMagicNumber() throws IOException {
+        File file = folder.newFile("bad.mapcg");
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(256));
+        }
+        try (MappedGraphReader reader = new MappedGraphReader(
+                FileChannel.open(file.toPath(), StandardOpenOption.READ))) {
+            reader.readCompactGraph();
+        }
+    }
+
+}
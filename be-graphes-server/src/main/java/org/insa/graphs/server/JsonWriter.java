@@ -0,0 +1,130 @@
+package org.insa.graphs.server;
+
+/**
+ * Minimal writer for the JSON responses of the server, which only contain
+ * objects, arrays, strings and numbers. Commas are inserted automatically
+ * between the members of objects and the elements of arrays.
+ *
+ */
+class JsonWriter {
+
+    // Maximum nesting depth of the values.
+    private static final int MAX_DEPTH = 32;
+
+    // Text written so far.
+    private final StringBuilder builder = new StringBuilder();
+
+    // For each open object or array, true if it already contains a value.
+    private final boolean[] hasValue = new boolean[MAX_DEPTH];
+    private int depth = 0;
+
+    // True if a member name has just been written.
+    private boolean afterName = false;
+
+    JsonWriter beginObject() {
+        return open('{');
+    }
+
+    JsonWriter endObject() {
+        return close('}');
+    }
+
+    JsonWriter beginArray() {
+        return open('[');
+    }
+
+    JsonWriter endArray() {
+        return close(']');
+    }
+
+    /**
+     * Write the name of the next member of the current object.
+     */
+    JsonWriter name(String name) {
+        separate();
+        appendString(name);
+        this.builder.append(':');
+        this.afterName = true;
+        return this;
+    }
+
+    JsonWriter value(String value) {
+        separate();
+        appendString(value);
+        return this;
+    }
+
+    JsonWriter value(long value) {
+        separate();
+        this.builder.append(value);
+        return this;
+    }
+
+    /**
+     * Write the given number, or null if it is infinite or NaN (which cannot be
+     * represented in JSON).
+     */
+    JsonWriter value(double value) {
+        separate();
+        if (Double.isInfinite(value) || Double.isNaN(value)) {
+            this.builder.append("null");
+        }
+        else {
+            this.builder.append(value);
+        }
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return this.builder.toString();
+    }
+
+    private JsonWriter open(char c) {
+        separate();
+        this.builder.append(c);
+        this.hasValue[this.depth++] = false;
+        return this;
+    }
+
+    private JsonWriter close(char c) {
+        this.builder.append(c);
+        this.depth--;
+        return this;
+    }
+
+    /**
+     * Append a comma if the value being written is not the first one of its
+     * object or array.
+     */
+    private void separate() {
+        if (this.afterName) {
+            this.afterName = false;
+            return;
+        }
+        if (this.depth > 0) {
+            if (this.hasValue[this.depth - 1]) {
+                this.builder.append(',');
+            }
+            this.hasValue[this.depth - 1] = true;
+        }
+    }
+
+    private void appendString(String value) {
+        this.builder.append('"');
+        for (int i = 0; i < value.length(); ++i) {
+            final char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                this.builder.append('\\').append(c);
+            }
+            else if (c < 0x20) {
+                this.builder.append(String.format("\\u%04x", (int) c));
+            }
+            else {
+                this.builder.append(c);
+            }
+        }
+        this.builder.append('"');
+    }
+
+}
@@ -0,0 +1,109 @@
+package org.insa.graphs.server;
+
+import org.insa.graphs.algorithm.distancematrix.DistanceMatrixObserver;
+import org.insa.graphs.algorithm.isochrone.Isochrone;
+import org.insa.graphs.algorithm.isochrone.IsochroneObserver;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathObserver;
+import org.insa.graphs.model.Node;
+
+/**
+ * <p>
+ * Deadline of a request, attached as an observer to the algorithms run for the
+ * request.
+ * </p>
+ *
+ * <p>
+ * The algorithms cannot be interrupted, but they notify their observers at
+ * each step (every settled node for the shortest-path and isochrone algorithms,
+ * every {@link org.insa.graphs.algorithm.distancematrix.DistanceMatrixAlgorithm#PROGRESS_INTERVAL}
+ * settled nodes for the distance matrix algorithms): the deadline is checked at
+ * each notification, and a
+ * {@link RequestTimeoutException} is thrown from the algorithm when it has
+ * passed, so the thread of the request is released as soon as possible.
+ * </p>
+ *
+ */
+class RequestDeadline
+        implements ShortestPathObserver, DistanceMatrixObserver, IsochroneObserver {
+
+    /**
+     * Exception thrown by an algorithm when the deadline of its request has
+     * passed.
+     */
+    static class RequestTimeoutException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        RequestTimeoutException() {
+            super("Request timed out.");
+        }
+
+    }
+
+    // Deadline, in the time base of System.nanoTime().
+    private final long deadline;
+
+    /**
+     * Create a deadline the given number of milliseconds from now.
+     *
+     * @param timeoutMillis Timeout, in milliseconds.
+     */
+    RequestDeadline(long timeoutMillis) {
+        this.deadline = System.nanoTime() + timeoutMillis * 1000000L;
+    }
+
+    /**
+     * @return Number of milliseconds before the deadline (may be negative).
+     */
+    long getRemainingMillis() {
+        return (this.deadline - System.nanoTime()) / 1000000L;
+    }
+
+    /**
+     * @throws RequestTimeoutException if the deadline has passed.
+     */
+    void check() {
+        if (System.nanoTime() - this.deadline >= 0) {
+            throw new RequestTimeoutException();
+        }
+    }
+
+    @Override
+    public void notifyOriginProcessed(Node node) {
+        check();
+    }
+
+    @Override
+    public void notifyNodeReached(Node node) {
+    }
+
+    @Override
+    public void notifyNodeMarked(Node node) {
+        check();
+    }
+
+    @Override
+    public void notifyDestinationReached(Node node) {
+    }
+
+    @Override
+    public void notifyRowComputed(int index, Node source, double[] costs) {
+        check();
+    }
+
+    @Override
+    public void notifyProgress(int nbNodes) {
+        check();
+    }
+
+    @Override
+    public void notifyNodeMarked(Node node, double cost) {
+        check();
+    }
+
+    @Override
+    public void notifyIsochroneComputed(Isochrone isochrone) {
+        check();
+    }
+
+}
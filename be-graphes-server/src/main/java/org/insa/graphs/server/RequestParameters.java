@@ -0,0 +1,151 @@
+package org.insa.graphs.server;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+
+/**
+ * Parameters of the query string of a request. All the methods throw an
+ * {@link IllegalArgumentException} with a message describing the problem when a
+ * parameter is missing or invalid, which is reported to the client as a bad
+ * request.
+ *
+ */
+class RequestParameters {
+
+    // Decoded parameters, by name (the last value is kept for repeated names).
+    private final Map<String, String> parameters = new HashMap<>();
+
+    /**
+     * Parse the given query string.
+     *
+     * @param query Raw query string of the request, or null if there is none.
+     */
+    RequestParameters(String query) {
+        if (query == null || query.isEmpty()) {
+            return;
+        }
+        for (String parameter: query.split("&")) {
+            if (parameter.isEmpty()) {
+                continue;
+            }
+            final int equal = parameter.indexOf('=');
+            final String name = equal < 0 ? parameter : parameter.substring(0, equal);
+            final String value = equal < 0 ? "" : parameter.substring(equal + 1);
+            this.parameters.put(decode(name), decode(value));
+        }
+    }
+
+    private static String decode(String value) {
+        try {
+            return URLDecoder.decode(value, "UTF-8");
+        }
+        catch (UnsupportedEncodingException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    /**
+     * @return Value of the given parameter, or the given default value if it is
+     *         missing.
+     */
+    String getString(String name, String defaultValue) {
+        return this.parameters.getOrDefault(name, defaultValue);
+    }
+
+    /**
+     * @return Value of the given parameter, or the given default value if it is
+     *         missing.
+     */
+    int getInt(String name, int defaultValue) {
+        final String value = this.parameters.get(name);
+        return value == null ? defaultValue : parseInt(name, value);
+    }
+
+    /**
+     * @return Value of the given parameter, or the given default value if it is
+     *         missing.
+     */
+    double getDouble(String name, double defaultValue) {
+        final String value = this.parameters.get(name);
+        return value == null ? defaultValue : parseDouble(name, value);
+    }
+
+    /**
+     * @return Comma-separated values of the given parameter.
+     */
+    double[] getDoubles(String name) {
+        final String value = this.parameters.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing parameter: " + name + ".");
+        }
+        return Arrays.stream(value.split(",")).filter(v -> !v.isEmpty())
+                .mapToDouble(v -> parseDouble(name, v)).toArray();
+    }
+
+    /**
+     * @return Node of the given graph whose ID is the value of the given
+     *         parameter.
+     */
+    Node getNode(String name, Graph graph) {
+        final String value = this.parameters.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing parameter: " + name + ".");
+        }
+        return toNode(name, value, graph);
+    }
+
+    /**
+     * @return Nodes of the given graph whose IDs are the comma-separated values of
+     *         the given parameter.
+     */
+    List<Node> getNodes(String name, Graph graph) {
+        final String value = this.parameters.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing parameter: " + name + ".");
+        }
+        List<Node> nodes = new ArrayList<>();
+        for (String id: value.split(",")) {
+            if (!id.isEmpty()) {
+                nodes.add(toNode(name, id, graph));
+            }
+        }
+        return nodes;
+    }
+
+    private static Node toNode(String name, String value, Graph graph) {
+        final int id = parseInt(name, value);
+        if (id < 0 || id >= graph.size()) {
+            throw new IllegalArgumentException("Invalid node for " + name + ": " + id + ".");
+        }
+        return graph.get(id);
+    }
+
+    private static int parseInt(String name, String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        }
+        catch (NumberFormatException exception) {
+            throw new IllegalArgumentException(
+                    "Invalid value for " + name + ": \"" + value + "\".");
+        }
+    }
+
+    private static double parseDouble(String name, String value) {
+        try {
+            return Double.parseDouble(value.trim());
+        }
+        catch (NumberFormatException exception) {
+            throw new IllegalArgumentException(
+                    "Invalid value for " + name + ": \"" + value + "\".");
+        }
+    }
+
+}
@@ -0,0 +1,623 @@
+package org.insa.graphs.server;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.insa.graphs.algorithm.AbstractAlgorithm;
+import org.insa.graphs.algorithm.AbstractInputData;
+import org.insa.graphs.algorithm.AlgorithmFactory;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.distancematrix.DijkstraDistanceMatrixAlgorithm;
+import org.insa.graphs.algorithm.distancematrix.DistanceMatrixAlgorithm;
+import org.insa.graphs.algorithm.distancematrix.DistanceMatrixData;
+import org.insa.graphs.algorithm.distancematrix.DistanceMatrixSolution;
+import org.insa.graphs.algorithm.isochrone.Isochrone;
+import org.insa.graphs.algorithm.isochrone.IsochroneAlgorithm;
+import org.insa.graphs.algorithm.isochrone.IsochroneData;
+import org.insa.graphs.algorithm.isochrone.IsochroneSolution;
+import org.insa.graphs.algorithm.shortestpath.CompactDijkstraAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathData;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathSolution;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathWorkspace;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.io.BinaryGraphReader;
+import org.insa.graphs.model.io.GraphReader;
+import org.insa.graphs.server.RequestDeadline.RequestTimeoutException;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * <p>
+ * Headless HTTP server answering routing requests on a graph loaded once. The
+ * responses are JSON objects, and the following endpoints are available (node
+ * parameters are node IDs, and {@code filter} is the index of an arc inspector
+ * in {@link ArcInspectorFactory#getAllFilters()} served by the server, 0 by
+ * default):
+ * </p>
+ *
+ * <ul>
+ * <li>{@code GET /health}: number of nodes of the graph and kind of threads of
+ * the server.</li>
+ * <li>{@code GET /route?origin=&destination=[&filter=][&algorithm=]}: shortest
+ * path between two nodes, with its cost and its nodes. The algorithm is the
+ * name of a shortest-path algorithm enabled when the server was created,
+ * Dijkstra's algorithm on the compact graph by default.</li>
+ * <li>{@code GET /matrix?sources=&targets=[&filter=][&algorithm=]}: costs
+ * between comma-separated lists of sources and targets (null for unreachable
+ * targets). The algorithm is the name of a distance matrix algorithm enabled
+ * when the server was created, "Dijkstra" by default.</li>
+ * <li>{@code GET /isochrone?origin=&budgets=[&filter=][&concavity=]}:
+ * isochrones of the origin for comma-separated budgets (in the unit of the
+ * filter), each with its number of reachable arcs and its polygon as a list of
+ * [longitude, latitude] points.</li>
+ * </ul>
+ *
+ * <p>
+ * Each request is handled on its own virtual thread when the JVM supports them
+ * (Java 21 or later), or on a fixed pool of platform threads otherwise. At most
+ * a given number of requests are computed at the same time; the other requests
+ * wait for a slot until their deadline, and are rejected with a 503 status if
+ * none is available in time. A request whose computation is not done before
+ * its deadline is aborted with a 504 status (see {@link RequestDeadline}).
+ * </p>
+ *
+ * <p>
+ * The enabled algorithms are run once for each served arc inspector when the
+ * server is created, so that their preprocessing (hierarchies, labels, landmarks, ...)
+ * is done before the first request, and not within a request, where it would
+ * not be aborted at the deadline. The searches take their workspaces from the
+ * pool of the graph (see {@link ShortestPathWorkspace#acquire(Graph)}).
+ * </p>
+ *
+ */
+public class RoutingServer implements AutoCloseable {
+
+    /**
+     * Default maximum number of requests computed at the same time.
+     */
+    public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 2
+            * Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Default timeout of a request, in milliseconds.
+     */
+    public static final long DEFAULT_TIMEOUT_MILLIS = 10000;
+
+    /**
+     * Handler of the requests of an endpoint, writing its response to the given
+     * writer.
+     */
+    private interface Endpoint {
+
+        void handle(RequestParameters parameters, RequestDeadline deadline, JsonWriter writer)
+                throws Exception;
+
+    }
+
+    // Graph of the server, and its served arc inspectors by filter index (created
+    // once, so that the cached structures of the algorithms are shared by the
+    // requests).
+    private final Graph graph;
+    private final Map<Integer, ArcInspector> inspectors = new LinkedHashMap<>();
+
+    // Executor of the requests, and whether its threads are virtual.
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+
+    // Slots of the requests being computed, and timeout of the requests.
+    private final Semaphore slots;
+    private final long timeoutMillis;
+
+    // Endpoints, by path.
+    private final Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+    // Enabled (and preprocessed) algorithms, by base algorithm and name.
+    private final Map<Class<? extends AbstractAlgorithm<?>>, Map<String, Class<? extends AbstractAlgorithm<?>>>> algorithms = new HashMap<>();
+
+    // Underlying HTTP server.
+    private final HttpServer server;
+
+    /**
+     * Create a new server for the given graph, listening on the given port,
+     * serving all the filters with only the default algorithms enabled. The
+     * server does not answer requests until {@link #start()} is called.
+     *
+     * @param graph Graph of the server.
+     * @param port Port of the server, or 0 to use any free port.
+     * @param maxConcurrentRequests Maximum number of requests computed at the
+     *        same time.
+     * @param timeoutMillis Timeout of a request, in milliseconds, including the
+     *        time spent waiting for a slot.
+     *
+     * @throws IOException if the server cannot be bound to the port.
+     * @throws IllegalArgumentException if the number of requests or the timeout
+     *         is not positive.
+     */
+    public RoutingServer(Graph graph, int port, int maxConcurrentRequests, long timeoutMillis)
+            throws IOException {
+        this(graph, port, maxConcurrentRequests, timeoutMillis, getAllFilterIndices(),
+                Collections.emptyList(), Collections.emptyList());
+    }
+
+    /**
+     * Create a new server for the given graph, listening on the given port,
+     * serving the given filters with the given algorithms enabled in addition to
+     * the default ones. The enabled algorithms are preprocessed for each served
+     * filter before this constructor returns. The server does not answer requests
+     * until {@link #start()} is called.
+     *
+     * @param graph Graph of the server.
+     * @param port Port of the server, or 0 to use any free port.
+     * @param maxConcurrentRequests Maximum number of requests computed at the
+     *        same time.
+     * @param timeoutMillis Timeout of a request, in milliseconds, including the
+     *        time spent waiting for a slot.
+     * @param filters Indices of the arc inspectors of
+     *        {@link ArcInspectorFactory#getAllFilters()} served by the server.
+     * @param routeAlgorithms Names of the registered shortest-path algorithms
+     *        available to the route requests.
+     * @param matrixAlgorithms Names of the registered distance matrix algorithms
+     *        available to the matrix requests.
+     *
+     * @throws IOException if the server cannot be bound to the port.
+     * @throws IllegalArgumentException if the number of requests or the timeout
+     *         is not positive, if a filter does not exist, or if an algorithm is
+     *         not registered or cannot be run on the graph.
+     */
+    public RoutingServer(Graph graph, int port, int maxConcurrentRequests, long timeoutMillis,
+            Collection<Integer> filters, Collection<String> routeAlgorithms,
+            Collection<String> matrixAlgorithms) throws IOException {
+        if (maxConcurrentRequests <= 0 || timeoutMillis <= 0) {
+            throw new IllegalArgumentException("Invalid server parameters: "
+                    + maxConcurrentRequests + ", " + timeoutMillis);
+        }
+        this.graph = graph;
+        final List<ArcInspector> allInspectors = ArcInspectorFactory.getAllFilters();
+        for (int filter: filters) {
+            if (filter < 0 || filter >= allInspectors.size()) {
+                throw new IllegalArgumentException("Unknown filter: " + filter + ".");
+            }
+            this.inspectors.put(filter, allInspectors.get(filter));
+        }
+        this.slots = new Semaphore(maxConcurrentRequests, true);
+        this.timeoutMillis = timeoutMillis;
+
+        enableAlgorithms(ShortestPathAlgorithm.class, routeAlgorithms);
+        enableAlgorithms(DistanceMatrixAlgorithm.class, matrixAlgorithms);
+
+        ExecutorService virtualExecutor = createVirtualThreadExecutor();
+        this.virtualThreads = virtualExecutor != null;
+        this.executor = virtualExecutor != null ? virtualExecutor
+                : createPlatformThreadExecutor(maxConcurrentRequests);
+
+        this.endpoints.put("/health", this::health);
+        this.endpoints.put("/route", this::route);
+        this.endpoints.put("/matrix", this::matrix);
+        this.endpoints.put("/isochrone", this::isochrone);
+
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.server.createContext("/", this::dispatch);
+        this.server.setExecutor(this.executor);
+    }
+
+    /**
+     * Enable the given algorithms, and run each of them once for each served
+     * inspector so that their preprocessing is done (and cached) before the first request.
+     */
+    private void enableAlgorithms(Class<? extends AbstractAlgorithm<?>> baseAlgorithm,
+            Collection<String> names) {
+        final Map<String, Class<? extends AbstractAlgorithm<?>>> enabled = new HashMap<>();
+        for (String name: names) {
+            if (!AlgorithmFactory.getAlgorithmNames(baseAlgorithm).contains(name)) {
+                throw new IllegalArgumentException("Unknown algorithm: \"" + name + "\".");
+            }
+            final Class<? extends AbstractAlgorithm<?>> algorithmClass = AlgorithmFactory
+                    .getAlgorithmClass(baseAlgorithm, name);
+            if (this.graph.size() > 0) {
+                final Node node = this.graph.get(0);
+                for (ArcInspector inspector: this.inspectors.values()) {
+                    final AbstractInputData data = baseAlgorithm == ShortestPathAlgorithm.class
+                            ? new ShortestPathData(this.graph, node, node, inspector)
+                            : new DistanceMatrixData(this.graph, Arrays.asList(node),
+                                    Arrays.asList(node), inspector);
+                    try {
+                        AlgorithmFactory.createAlgorithm(algorithmClass, data).run();
+                    }
+                    catch (Exception exception) {
+                        throw new IllegalArgumentException(
+                                "Cannot run algorithm \"" + name + "\".", exception);
+                    }
+                }
+            }
+            enabled.put(name, algorithmClass);
+        }
+        this.algorithms.put(baseAlgorithm, enabled);
+    }
+
+    /**
+     * @return Indices of all the filters of {@link ArcInspectorFactory}.
+     */
+    private static List<Integer> getAllFilterIndices() {
+        final List<Integer> filters = new ArrayList<>();
+        for (int filter = 0; filter < ArcInspectorFactory.getAllFilters().size(); ++filter) {
+            filters.add(filter);
+        }
+        return filters;
+    }
+
+    /**
+     * @return An executor starting a new virtual thread for each task, or null if
+     *         virtual threads are not supported by the JVM.
+     */
+    private static ExecutorService createVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+        }
+        catch (ReflectiveOperationException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * @return A fixed pool of daemon platform threads.
+     */
+    private static ExecutorService createPlatformThreadExecutor(int nbThreads) {
+        final AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(nbThreads, (runnable) -> {
+            Thread thread = new Thread(runnable, "routing-server-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Start answering requests.
+     */
+    public void start() {
+        this.server.start();
+    }
+
+    /**
+     * @return Port of this server.
+     */
+    public int getPort() {
+        return this.server.getAddress().getPort();
+    }
+
+    /**
+     * @return Slots of the requests being computed (the tests take them to
+     *         simulate a busy server).
+     */
+    Semaphore getSlots() {
+        return this.slots;
+    }
+
+    /**
+     * @return true if the requests are handled on virtual threads.
+     */
+    public boolean usesVirtualThreads() {
+        return this.virtualThreads;
+    }
+
+    /**
+     * Stop the server, without waiting for the requests being computed.
+     */
+    @Override
+    public void close() {
+        this.server.stop(0);
+        this.executor.shutdown();
+    }
+
+    /**
+     * Handle a request: find its endpoint, wait for a slot, and write the response
+     * of the endpoint or the error.
+     */
+    private void dispatch(HttpExchange exchange) throws IOException {
+        try {
+            final Endpoint endpoint = this.endpoints.get(exchange.getRequestURI().getPath());
+            if (endpoint == null) {
+                sendError(exchange, 404, "Unknown endpoint.");
+                return;
+            }
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "GET");
+                sendError(exchange, 405, "Method not allowed.");
+                return;
+            }
+
+            final RequestDeadline deadline = new RequestDeadline(this.timeoutMillis);
+            if (!this.slots.tryAcquire(Math.max(0, deadline.getRemainingMillis()),
+                    TimeUnit.MILLISECONDS)) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                sendError(exchange, 503, "Server busy.");
+                return;
+            }
+            JsonWriter writer = new JsonWriter();
+            try {
+                endpoint.handle(new RequestParameters(exchange.getRequestURI().getRawQuery()),
+                        deadline, writer);
+            }
+            finally {
+                this.slots.release();
+            }
+            send(exchange, 200, writer.toString());
+        }
+        catch (IllegalArgumentException exception) {
+            sendError(exchange, 400, exception.getMessage());
+        }
+        catch (RequestTimeoutException exception) {
+            sendError(exchange, 504, exception.getMessage());
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            sendError(exchange, 503, "Server stopping.");
+        }
+        catch (Exception exception) {
+            sendError(exchange, 500, String.valueOf(exception.getMessage()));
+        }
+        finally {
+            exchange.close();
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int code, String message)
+            throws IOException {
+        send(exchange, code, new JsonWriter().beginObject().name("error").value(message)
+                .endObject().toString());
+    }
+
+    private static void send(HttpExchange exchange, int code, String body) throws IOException {
+        final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(code, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    /**
+     * @return Inspector corresponding to the filter parameter of the request.
+     */
+    private ArcInspector getInspector(RequestParameters parameters) {
+        final int filter = parameters.getInt("filter", 0);
+        final ArcInspector inspector = this.inspectors.get(filter);
+        if (inspector == null) {
+            throw new IllegalArgumentException("Invalid or disabled filter: " + filter + ".");
+        }
+        return inspector;
+    }
+
+    /**
+     * @return Class of the enabled algorithm with the name given by the algorithm
+     *         parameter of the request, or null if there is no such parameter.
+     */
+    private Class<? extends AbstractAlgorithm<?>> getAlgorithmClass(
+            RequestParameters parameters, Class<? extends AbstractAlgorithm<?>> baseAlgorithm) {
+        final String name = parameters.getString("algorithm", null);
+        if (name == null) {
+            return null;
+        }
+        final Class<? extends AbstractAlgorithm<?>> algorithmClass = this.algorithms
+                .get(baseAlgorithm).get(name);
+        if (algorithmClass == null) {
+            throw new IllegalArgumentException("Unknown or disabled algorithm: \"" + name
+                    + "\".");
+        }
+        return algorithmClass;
+    }
+
+    private void health(RequestParameters parameters, RequestDeadline deadline,
+            JsonWriter writer) {
+        writer.beginObject().name("status").value("ok").name("nodes").value(this.graph.size())
+                .name("threads").value(this.virtualThreads ? "virtual" : "platform")
+                .endObject();
+    }
+
+    private void route(RequestParameters parameters, RequestDeadline deadline,
+            JsonWriter writer) throws Exception {
+        final ShortestPathData data = new ShortestPathData(this.graph,
+                parameters.getNode("origin", this.graph),
+                parameters.getNode("destination", this.graph), getInspector(parameters));
+        final Class<? extends AbstractAlgorithm<?>> algorithmClass = getAlgorithmClass(
+                parameters, ShortestPathAlgorithm.class);
+
+        final ShortestPathSolution solution;
+        if (algorithmClass == null) {
+            ShortestPathWorkspace workspace = ShortestPathWorkspace.acquire(this.graph);
+            try {
+                CompactDijkstraAlgorithm algorithm = new CompactDijkstraAlgorithm(data, workspace);
+                algorithm.addObserver(deadline);
+                solution = algorithm.run();
+            }
+            finally {
+                ShortestPathWorkspace.release(workspace);
+            }
+        }
+        else {
+            ShortestPathAlgorithm algorithm = (ShortestPathAlgorithm) AlgorithmFactory
+                    .createAlgorithm(algorithmClass, data);
+            algorithm.addObserver(deadline);
+            solution = algorithm.run();
+        }
+
+        writer.beginObject().name("status").value(solution.getStatus().toString());
+        if (solution.isFeasible()) {
+            double cost = 0;
+            for (Arc arc: solution.getPath().getArcs()) {
+                cost += data.getCost(arc);
+            }
+            writer.name("cost").value(cost).name("length")
+                    .value(solution.getPath().getLength()).name("time")
+                    .value(solution.getPath().getMinimumTravelTime()).name("nodes")
+                    .beginArray().value(data.getOrigin().getId());
+            for (Arc arc: solution.getPath().getArcs()) {
+                writer.value(arc.getDestination().getId());
+            }
+            writer.endArray();
+        }
+        writer.name("solvingTime").value(solution.getSolvingTime().toMillis()).endObject();
+    }
+
+    private void matrix(RequestParameters parameters, RequestDeadline deadline,
+            JsonWriter writer) throws Exception {
+        final List<Node> sources = parameters.getNodes("sources", this.graph);
+        final List<Node> targets = parameters.getNodes("targets", this.graph);
+        final DistanceMatrixData data = new DistanceMatrixData(this.graph, sources, targets,
+                getInspector(parameters));
+        final Class<? extends AbstractAlgorithm<?>> algorithmClass = getAlgorithmClass(
+                parameters, DistanceMatrixAlgorithm.class);
+
+        final DistanceMatrixSolution solution;
+        if (algorithmClass == null) {
+            ShortestPathWorkspace workspace = ShortestPathWorkspace.acquire(this.graph);
+            try {
+                DistanceMatrixAlgorithm algorithm = new DijkstraDistanceMatrixAlgorithm(data,
+                        workspace);
+                algorithm.addObserver(deadline);
+                solution = algorithm.run();
+            }
+            finally {
+                ShortestPathWorkspace.release(workspace);
+            }
+        }
+        else {
+            DistanceMatrixAlgorithm algorithm = (DistanceMatrixAlgorithm) AlgorithmFactory
+                    .createAlgorithm(algorithmClass, data);
+            algorithm.addObserver(deadline);
+            solution = algorithm.run();
+        }
+
+        writer.beginObject().name("status").value(solution.getStatus().toString())
+                .name("costs").beginArray();
+        for (double[] row: solution.getCosts()) {
+            writer.beginArray();
+            for (double cost: row) {
+                writer.value(cost);
+            }
+            writer.endArray();
+        }
+        writer.endArray().name("solvingTime").value(solution.getSolvingTime().toMillis())
+                .endObject();
+    }
+
+    private void isochrone(RequestParameters parameters, RequestDeadline deadline,
+            JsonWriter writer) throws Exception {
+        final IsochroneData data = new IsochroneData(this.graph,
+                parameters.getNode("origin", this.graph), parameters.getDoubles("budgets"),
+                getInspector(parameters),
+                parameters.getDouble("concavity", IsochroneData.DEFAULT_CONCAVITY));
+        IsochroneAlgorithm algorithm = new IsochroneAlgorithm(data);
+        algorithm.addObserver(deadline);
+        final IsochroneSolution solution = algorithm.run();
+
+        writer.beginObject().name("status").value(solution.getStatus().toString())
+                .name("isochrones").beginArray();
+        for (Isochrone isochrone: solution.getIsochrones()) {
+            writer.beginObject().name("budget").value(isochrone.getBudget()).name("arcs")
+                    .value(isochrone.getArcs().size()).name("polygon").beginArray();
+            for (Point point: isochrone.getPolygon()) {
+                writer.beginArray().value(point.getLongitude()).value(point.getLatitude())
+                        .endArray();
+            }
+            writer.endArray().endObject();
+        }
+        writer.endArray().name("solvingTime").value(solution.getSolvingTime().toMillis())
+                .endObject();
+    }
+
+    /**
+     * @return Comma-separated names (or indices) of the given string, without
+     *         empty names.
+     */
+    private static List<String> splitNames(String names) {
+        final List<String> list = new ArrayList<>();
+        for (String name: names.split(",")) {
+            if (!name.trim().isEmpty()) {
+                list.add(name.trim());
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Start a server for a graph file.
+     *
+     * <p>
+     * Usage: {@code RoutingServer <graph file> [port [max concurrent requests
+     * [timeout in milliseconds [route algorithms [matrix algorithms]]]]]}, the
+     * default port is 8080, and the algorithms are comma-separated names of
+     * registered algorithms to enable.
+     * </p>
+     *
+     * @param args Command line arguments.
+     *
+     * @throws IOException if the graph cannot be read or the server cannot be
+     *         started.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 7) {
+            System.err.println("Usage: RoutingServer <graph file> [port [max concurrent "
+                    + "requests [timeout in milliseconds [filters [route algorithms "
+                    + "[matrix algorithms]]]]]]");
+            System.exit(1);
+        }
+        final int port = args.length > 1 ? Integer.parseInt(args[1]) : 8080;
+        final int maxConcurrentRequests = args.length > 2 ? Integer.parseInt(args[2])
+                : DEFAULT_MAX_CONCURRENT_REQUESTS;
+        final long timeoutMillis = args.length > 3 ? Long.parseLong(args[3])
+                : DEFAULT_TIMEOUT_MILLIS;
+        final List<Integer> filters = new ArrayList<>();
+        if (args.length > 4) {
+            for (String filter: splitNames(args[4])) {
+                filters.add(Integer.parseInt(filter));
+            }
+        }
+        else {
+            filters.addAll(getAllFilterIndices());
+        }
+        final List<String> routeAlgorithms = args.length > 5 ? splitNames(args[5])
+                : Collections.emptyList();
+        final List<String> matrixAlgorithms = args.length > 6 ? splitNames(args[6])
+                : Collections.emptyList();
+
+        final Graph graph;
+        try (DataInputStream stream = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(args[0])))) {
+            GraphReader reader = new BinaryGraphReader(stream);
+            graph = reader.read();
+        }
+
+        RoutingServer server = new RoutingServer(graph, port, maxConcurrentRequests,
+                timeoutMillis, filters, routeAlgorithms, matrixAlgorithms);
+        server.start();
+        System.out.println("Routing server listening on port " + server.getPort() + " ("
+                + graph.size() + " nodes, "
+                + (server.usesVirtualThreads() ? "virtual" : "platform") + " threads).");
+    }
+
+}
@@ -0,0 +1,286 @@
+package org.insa.graphs.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.algorithm.ReferenceCosts;
+import org.insa.graphs.algorithm.shortestpath.CompactMetric;
+import org.insa.graphs.algorithm.shortestpath.ContractionHierarchy;
+import org.insa.graphs.model.Graph;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class RoutingServerTest {
+
+    // Number of nodes in the graph.
+    private static final int NB_NODES = 200;
+
+    // Small random graph, and a server for this graph.
+    private static Graph graph;
+    private static RoutingServer server;
+
+    @BeforeClass
+    public static void initAll() throws IOException {
+        graph = RandomGraphs.create(NB_NODES, 18);
+        // The random graphs have no access restrictions, so only the filters that
+        // do not use them are served.
+        server = new RoutingServer(graph, 0, 4, 10000, Arrays.asList(0, 2),
+                Arrays.asList("Contraction hierarchies", "Dijkstra (radix heap)"),
+                Arrays.asList("Contraction hierarchies (buckets)"));
+        server.start();
+    }
+
+    @AfterClass
+    public static void closeAll() {
+        server.close();
+    }
+
+    /**
+     * Response of a request: status code and body.
+     */
+    private static class Response {
+
+        final int code;
+        final String body;
+
+        Response(int code, String body) {
+            this.code = code;
+            this.body = body;
+        }
+
+    }
+
+    private static Response get(String pathAndQuery) throws IOException {
+        return get(server, pathAndQuery);
+    }
+
+    private static Response get(RoutingServer routingServer, String pathAndQuery)
+            throws IOException {
+        URL url = new URL("http://localhost:" + routingServer.getPort() + pathAndQuery);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        try {
+            final int code = connection.getResponseCode();
+            InputStream input = code < 400 ? connection.getInputStream()
+                    : connection.getErrorStream();
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            for (int n; (n = input.read(buffer)) > 0;) {
+                output.write(buffer, 0, n);
+            }
+            input.close();
+            return new Response(code, new String(output.toByteArray(), StandardCharsets.UTF_8));
+        }
+        finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * @return Cost of the shortest path between the given nodes, or infinity if
+     *         there is none.
+     */
+    private static double expectedCost(int origin, int destination, ArcInspector inspector) {
+        return ReferenceCosts.compute(graph, graph.get(origin), inspector)[destination];
+    }
+
+    private static double parseCost(String value) {
+        return value.equals("null") ? Double.POSITIVE_INFINITY : Double.parseDouble(value);
+    }
+
+    @Test
+    public void testHealth() throws IOException {
+        Response response = get("/health");
+        assertEquals(200, response.code);
+        assertTrue(response.body.contains("\"nodes\":" + NB_NODES));
+    }
+
+    @Test
+    public void testRoute() throws IOException {
+        final Pattern costPattern = Pattern.compile("\"cost\":([^,]+)");
+        final List<ArcInspector> inspectors = ArcInspectorFactory.getAllFilters();
+        for (String algorithm: new String[] { null, "Contraction%20hierarchies" }) {
+            for (int filter: new int[] { 0, 2 }) {
+                for (int origin = 0; origin < NB_NODES; origin += 37) {
+                    for (int destination = 0; destination < NB_NODES; destination += 23) {
+                        Response response = get("/route?origin=" + origin + "&destination="
+                                + destination + "&filter=" + filter
+                                + (algorithm == null ? "" : "&algorithm=" + algorithm));
+                        assertEquals(200, response.code);
+                        final double expected = expectedCost(origin, destination,
+                                inspectors.get(filter));
+                        Matcher matcher = costPattern.matcher(response.body);
+                        if (Double.isInfinite(expected)) {
+                            assertTrue(response.body.contains("\"INFEASIBLE\""));
+                            continue;
+                        }
+                        assertTrue(response.body, matcher.find());
+                        assertEquals(expected, Double.parseDouble(matcher.group(1)),
+                                1e-6 * expected);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMatrix() throws IOException {
+        final List<ArcInspector> inspectors = ArcInspectorFactory.getAllFilters();
+        for (String algorithm: new String[] { null, "Contraction%20hierarchies%20(buckets)" }) {
+            Response response = get("/matrix?sources=3,50,7&targets=1,3,199,42&filter=2"
+                    + (algorithm == null ? "" : "&algorithm=" + algorithm));
+            assertEquals(200, response.code);
+            final String costs = response.body.substring(response.body.indexOf("[[") + 2,
+                    response.body.indexOf("]]"));
+            final String[] rows = costs.split("\\],\\[");
+            final int[] sources = { 3, 50, 7 }, targets = { 1, 3, 199, 42 };
+            assertEquals(sources.length, rows.length);
+            for (int i = 0; i < sources.length; ++i) {
+                final String[] values = rows[i].split(",");
+                assertEquals(targets.length, values.length);
+                for (int j = 0; j < targets.length; ++j) {
+                    final double expected = expectedCost(sources[i], targets[j],
+                            inspectors.get(2));
+                    final double cost = parseCost(values[j]);
+                    if (Double.isInfinite(expected)) {
+                        assertTrue(Double.isInfinite(cost));
+                    }
+                    else {
+                        assertEquals(expected, cost, 1e-6 * expected);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testIsochrone() throws IOException {
+        Response response = get("/isochrone?origin=5&budgets=1000,300&filter=0");
+        assertEquals(200, response.code);
+        Matcher matcher = Pattern.compile("\"budget\":([^,]+),\"arcs\":(\\d+)")
+                .matcher(response.body);
+        final double[] budgets = { 300, 1000 };
+        int previous = 0;
+        for (double budget: budgets) {
+            assertTrue(matcher.find());
+            assertEquals(budget, Double.parseDouble(matcher.group(1)), 0);
+            final int arcs = Integer.parseInt(matcher.group(2));
+            assertTrue(arcs >= previous);
+            previous = arcs;
+        }
+        assertTrue(previous > 0);
+        assertTrue(response.body.contains("\"polygon\":[["));
+    }
+
+    @Test
+    public void testErrors() throws IOException {
+        assertEquals(404, get("/unknown").code);
+        assertEquals(400, get("/route?origin=0").code);
+        assertEquals(400, get("/route?origin=0&destination=" + NB_NODES).code);
+        assertEquals(400, get("/route?origin=0&destination=x").code);
+        assertEquals(400, get("/route?origin=0&destination=1&filter=9").code);
+        assertEquals(400, get("/route?origin=0&destination=1&filter=1").code);
+        assertEquals(400, get("/route?origin=0&destination=1&algorithm=none").code);
+        assertEquals(400, get("/route?origin=0&destination=1&algorithm=Hub%20labels").code);
+        assertEquals(400, get("/matrix?sources=0,1").code);
+        assertEquals(400, get("/isochrone?origin=0").code);
+        assertEquals(400, get("/isochrone?origin=0&budgets=10,x").code);
+        assertEquals(400, get("/isochrone?origin=0&budgets=-1").code);
+    }
+
+    @Test
+    public void testPreprocessing() throws IOException {
+        // The hierarchies of the enabled algorithms are computed when the server is
+        // created, not by the first request.
+        final List<ArcInspector> inspectors = ArcInspectorFactory.getAllFilters();
+        for (int filter: new int[] { 0, 2 }) {
+            assertNotNull(ContractionHierarchy.getCachedHierarchy(
+                    CompactMetric.getMetric(graph, inspectors.get(filter))));
+        }
+        Response response = get(
+                "/route?origin=3&destination=3&algorithm=Dijkstra%20(radix%20heap)");
+        assertEquals(200, response.code);
+        assertTrue(response.body.contains("\"cost\":0"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownAlgorithm() throws IOException {
+        new RoutingServer(graph, 0, 1, 100, Arrays.asList(0), Arrays.asList("none"),
+                Collections.emptyList());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownFilter() throws IOException {
+        new RoutingServer(graph, 0, 1, 100, Arrays.asList(0, 9), Collections.emptyList(),
+                Collections.emptyList());
+    }
+
+    @Test
+    public void testTimeout() throws IOException {
+        // The searches of the matrix on a larger graph take much more than the
+        // timeout, and are aborted from within the searches.
+        Graph large = RandomGraphs.create(20000, 18);
+        try (RoutingServer timeoutServer = new RoutingServer(large, 0, 1, 1)) {
+            timeoutServer.start();
+            Response response = get(timeoutServer,
+                    "/matrix?sources=0,1,2,3,4,5,6,7,8,9&targets=10,11,12,13,14,15,16,17,18,19");
+            assertEquals(504, response.code);
+            assertTrue(response.body.contains("\"error\""));
+        }
+    }
+
+    @Test
+    public void testBusy() throws Exception {
+        try (RoutingServer busyServer = new RoutingServer(graph, 0, 1, 100)) {
+            busyServer.start();
+            assertEquals(200, get(busyServer, "/health").code);
+
+            // The only slot is taken, so the request is rejected at its deadline.
+            busyServer.getSlots().acquire();
+            try {
+                Response response = get(busyServer, "/health");
+                assertEquals(503, response.code);
+                assertTrue(response.body.contains("\"error\""));
+            }
+            finally {
+                busyServer.getSlots().release();
+            }
+            assertEquals(200, get(busyServer, "/health").code);
+        }
+    }
+
+    @Test
+    public void testDeadline() throws InterruptedException {
+        RequestDeadline deadline = new RequestDeadline(10000);
+        deadline.notifyNodeMarked(graph.get(0));
+        assertTrue(deadline.getRemainingMillis() > 0);
+
+        deadline = new RequestDeadline(1);
+        Thread.sleep(5);
+        try {
+            deadline.notifyNodeMarked(graph.get(0));
+            fail("The deadline should have passed.");
+        }
+        catch (RequestDeadline.RequestTimeoutException exception) {
+            // Expected.
+        }
+    }
+
+}